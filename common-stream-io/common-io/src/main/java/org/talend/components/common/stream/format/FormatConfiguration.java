@@ -19,6 +19,8 @@ import org.talend.components.common.stream.format.csv.CSVConfiguration;
 import org.talend.components.common.stream.format.excel.ExcelConfiguration;
 import org.talend.components.common.stream.format.fixed.FixedConfiguration;
 import org.talend.components.common.stream.format.json.JsonConfiguration;
+import org.talend.components.common.stream.format.json.JsonLinesConfiguration;
+import org.talend.components.common.stream.format.parquet.ParquetConfiguration;
 import org.talend.components.common.stream.format.rawtext.RawTextConfiguration;
 import org.talend.sdk.component.api.configuration.Option;
 import org.talend.sdk.component.api.configuration.condition.ActiveIf;
@@ -31,10 +33,10 @@ import lombok.extern.slf4j.Slf4j;
 @Data
 @Slf4j
 @GridLayout({ @GridLayout.Row("contentFormat"), //
-        @GridLayout.Row({ "csvConfiguration", "fixedConfiguration", "jsonConfiguration", "avroConfiguration",
-                "excelConfiguration" }) })
+        @GridLayout.Row({ "csvConfiguration", "fixedConfiguration", "jsonConfiguration", "jsonLinesConfiguration",
+                "avroConfiguration", "parquetConfiguration", "excelConfiguration" }) })
 @GridLayout(names = GridLayout.FormType.ADVANCED, value = { @GridLayout.Row({ "csvConfiguration", "fixedConfiguration",
-        "jsonConfiguration", "avroConfiguration", "excelConfiguration" }) })
+        "jsonConfiguration", "jsonLinesConfiguration", "avroConfiguration", "parquetConfiguration", "excelConfiguration" }) })
 @Documentation("Stream content configuration.")
 public class FormatConfiguration implements Serializable {
 
@@ -44,7 +46,9 @@ public class FormatConfiguration implements Serializable {
         CSV,
         FIXED,
         JSON_POINTER,
+        JSON_LINES,
         AVRO,
+        PARQUET,
         EXCEL,
         RAWTEXT
     }
@@ -68,11 +72,21 @@ public class FormatConfiguration implements Serializable {
     @Documentation("Json format with json pointer access.")
     private JsonConfiguration jsonConfiguration;
 
+    @Option
+    @ActiveIf(target = "contentFormat", value = "JSON_LINES")
+    @Documentation("Json lines format.")
+    private JsonLinesConfiguration jsonLinesConfiguration;
+
     @Option
     @ActiveIf(target = "contentFormat", value = "AVRO")
     @Documentation("Avro format.")
     private AvroConfiguration avroConfiguration;
 
+    @Option
+    @ActiveIf(target = "contentFormat", value = "PARQUET")
+    @Documentation("Parquet format.")
+    private ParquetConfiguration parquetConfiguration;
+
     @Option
     @ActiveIf(target = "contentFormat", value = "EXCEL")
     @Documentation("Excel format.")
@@ -93,9 +107,15 @@ public class FormatConfiguration implements Serializable {
         if (this.contentFormat == FormatConfiguration.Type.JSON_POINTER) {
             return this.jsonConfiguration;
         }
+        if (this.contentFormat == FormatConfiguration.Type.JSON_LINES) {
+            return this.jsonLinesConfiguration;
+        }
         if (this.contentFormat == FormatConfiguration.Type.AVRO) {
             return this.avroConfiguration;
         }
+        if (this.contentFormat == FormatConfiguration.Type.PARQUET) {
+            return this.parquetConfiguration;
+        }
         if (this.contentFormat == FormatConfiguration.Type.EXCEL) {
             return this.excelConfiguration;
         }
@@ -25,7 +25,9 @@ import lombok.Data;
 @Data
 @GridLayout({ @GridLayout.Row({ "lineSeparatorType", "lineSeparator" }), //
         @GridLayout.Row({ "encoding" }), //
-        @GridLayout.Row({ "header" }) })
+        @GridLayout.Row({ "header" }), //
+        @GridLayout.Row({ "typeInference" }), //
+        @GridLayout.Row({ "parallelRead" }) })
 public class LineConfiguration implements ContentFormat {
 
     private static final long serialVersionUID = 6614704115891739018L;
@@ -67,4 +69,16 @@ public class LineConfiguration implements ContentFormat {
         return Optional.ofNullable(this.header).map(OptionalLine::getSize).orElse(0);
     }
 
+    @Option
+    @Documentation("Fields types inference.")
+    private TypeInference typeInference;
+
+    @Option
+    @Documentation("Parallel read of large sources.")
+    private ParallelRead parallelRead;
+
+    public boolean isParallel() {
+        return this.parallelRead != null && this.parallelRead.isActive();
+    }
+
 }
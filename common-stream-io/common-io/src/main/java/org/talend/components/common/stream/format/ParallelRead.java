@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.stream.format;
+
+import java.io.Serializable;
+
+import org.talend.sdk.component.api.configuration.Option;
+import org.talend.sdk.component.api.configuration.condition.ActiveIf;
+import org.talend.sdk.component.api.configuration.constraint.Min;
+import org.talend.sdk.component.api.configuration.ui.layout.GridLayout;
+import org.talend.sdk.component.api.meta.Documentation;
+
+import lombok.Data;
+
+@Data
+@GridLayout(@GridLayout.Row({ "active", "chunkSize", "parallelism" }))
+public class ParallelRead implements Serializable {
+
+    private static final long serialVersionUID = -3467026120957436781L;
+
+    @Option
+    @Documentation("Parse chunks of source in parallel, line separators must not be part of values.")
+    private boolean active;
+
+    @Option
+    @Min(1)
+    @ActiveIf(target = "active", value = "true")
+    @Documentation("Size of chunks in MB.")
+    private int chunkSize = 4;
+
+    @Option
+    @Min(0)
+    @ActiveIf(target = "active", value = "true")
+    @Documentation("Number of chunks parsed at same time (0 for number of processors).")
+    private int parallelism = 0;
+
+    public long getChunkBytes() {
+        return this.chunkSize * 1024L * 1024L;
+    }
+
+    public int getRealParallelism() {
+        if (this.parallelism <= 0) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        return this.parallelism;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.stream.format;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.talend.sdk.component.api.configuration.Option;
+import org.talend.sdk.component.api.configuration.condition.ActiveIf;
+import org.talend.sdk.component.api.configuration.constraint.Min;
+import org.talend.sdk.component.api.configuration.ui.layout.GridLayout;
+import org.talend.sdk.component.api.meta.Documentation;
+
+import lombok.Data;
+
+@Data
+@GridLayout({ @GridLayout.Row({ "active", "sampleSize" }), @GridLayout.Row("datePatterns") })
+public class TypeInference implements Serializable {
+
+    private static final long serialVersionUID = 2841197303962424468L;
+
+    @Option
+    @Documentation("Infer fields types from first lines.")
+    private boolean active;
+
+    @Option
+    @Min(1)
+    @ActiveIf(target = "active", value = "true")
+    @Documentation("Number of lines read to infer types.")
+    private int sampleSize = 100;
+
+    @Option
+    @ActiveIf(target = "active", value = "true")
+    @Documentation("Date patterns separate by ';'.")
+    private String datePatterns = "yyyy-MM-dd'T'HH:mm:ss;yyyy-MM-dd HH:mm:ss;yyyy-MM-dd";
+
+    public int getSampleSize() {
+        if (!this.active) {
+            return 0;
+        }
+        return this.sampleSize;
+    }
+
+    /**
+     * Get list of date patterns from this.datePatterns ("yyyy-MM-dd;dd/MM/yyyy" -> [yyyy-MM-dd, dd/MM/yyyy]).
+     *
+     * @return date patterns.
+     */
+    public List<String> getRealDatePatterns() {
+        if (this.datePatterns == null) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(this.datePatterns.split(";")) //
+                .map(String::trim) //
+                .filter((String pattern) -> !pattern.isEmpty()) //
+                .collect(Collectors.toList());
+    }
+}
@@ -20,6 +20,7 @@ import org.talend.components.common.stream.format.OptionalLine;
 import org.talend.sdk.component.api.configuration.Option;
 import org.talend.sdk.component.api.configuration.condition.ActiveIf;
 import org.talend.sdk.component.api.configuration.condition.ActiveIfs;
+import org.talend.sdk.component.api.configuration.constraint.Min;
 import org.talend.sdk.component.api.configuration.ui.DefaultValue;
 import org.talend.sdk.component.api.configuration.ui.layout.GridLayout;
 import org.talend.sdk.component.api.meta.Documentation;
@@ -30,7 +31,7 @@ import lombok.Data;
         @GridLayout.Row({ "header" }), // headers
         @GridLayout.Row({ "footer" }) // footers
 })
-@GridLayout(names = GridLayout.FormType.ADVANCED, value = {})
+@GridLayout(names = GridLayout.FormType.ADVANCED, value = { @GridLayout.Row({ "streaming", "rowWindow" }) })
 @Data
 public class ExcelConfiguration implements ContentFormat {
 
@@ -67,10 +68,29 @@ public class ExcelConfiguration implements ContentFormat {
     @Documentation("Footer.")
     private OptionalLine footer;
 
+    @Option
+    @ActiveIf(target = "excelFormat", value = "EXCEL2007")
+    @Documentation("Stream rows instead of loading whole workbook in memory.")
+    private boolean streaming;
+
+    @Option
+    @Min(1)
+    @ActiveIfs({ @ActiveIf(target = "excelFormat", value = "EXCEL2007"), @ActiveIf(target = "streaming", value = "true") })
+    @DefaultValue("100")
+    @Documentation("Number of rows kept in memory while streaming.")
+    private int rowWindow = 100;
+
     public int calcHeader() {
         return Optional.ofNullable(this.header).map(OptionalLine::getSize).orElse(0);
     }
 
+    /**
+     * @return true if rows are streamed (only for excel 2007 format).
+     */
+    public boolean useStreaming() {
+        return this.streaming && this.excelFormat == ExcelFormat.EXCEL2007;
+    }
+
     public int calcFooter() {
         return Optional.ofNullable(this.footer).map(OptionalLine::getSize).orElse(0);
     }
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.stream.format.parquet;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.talend.components.common.stream.format.ContentFormat;
+import org.talend.sdk.component.api.configuration.Option;
+import org.talend.sdk.component.api.configuration.constraint.Min;
+import org.talend.sdk.component.api.configuration.ui.DefaultValue;
+import org.talend.sdk.component.api.configuration.ui.layout.GridLayout;
+import org.talend.sdk.component.api.meta.Documentation;
+
+import lombok.Data;
+
+/**
+ * Parquet columnar format, columns projection and filters are pushed down to the parquet reader
+ * so unused columns are not decoded and row groups that can't match are skipped.
+ */
+@Data
+@GridLayout({ @GridLayout.Row("columns"), @GridLayout.Row("filters") })
+@GridLayout(names = GridLayout.FormType.ADVANCED, value = { @GridLayout.Row({ "compression", "rowGroupSize" }) })
+@Documentation("Parquet configuration.")
+public class ParquetConfiguration implements ContentFormat {
+
+    private static final long serialVersionUID = 6270245291543405217L;
+
+    public enum Compression {
+        UNCOMPRESSED,
+        SNAPPY,
+        GZIP
+    }
+
+    @Option
+    @Documentation("Columns to read separated by ',', all columns if empty.")
+    private String columns;
+
+    @Option
+    @Documentation("Filters on read columns, all of them must match.")
+    private List<ParquetFilter> filters;
+
+    @Option
+    @DefaultValue("SNAPPY")
+    @Documentation("Compression codec of written files.")
+    private Compression compression = Compression.SNAPPY;
+
+    @Option
+    @Min(1)
+    @DefaultValue("128")
+    @Documentation("Row group size of written files in MB.")
+    private int rowGroupSize = 128;
+
+    public List<String> columnNames() {
+        if (this.columns == null || this.columns.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(this.columns.split(",")) //
+                .map(String::trim) //
+                .filter((String name) -> !name.isEmpty()) //
+                .collect(Collectors.toList());
+    }
+
+    public int getRowGroupBytes() {
+        return this.rowGroupSize * 1024 * 1024;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.stream.format.parquet;
+
+import java.io.Serializable;
+
+import org.talend.sdk.component.api.configuration.Option;
+import org.talend.sdk.component.api.configuration.ui.OptionsOrder;
+import org.talend.sdk.component.api.meta.Documentation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@OptionsOrder({ "column", "operator", "value" })
+@Documentation("Filter on a parquet column.")
+public class ParquetFilter implements Serializable {
+
+    private static final long serialVersionUID = -2395163528004474012L;
+
+    public enum Operator {
+        EQUALS,
+        NOT_EQUALS,
+        LOWER,
+        LOWER_OR_EQUALS,
+        GREATER,
+        GREATER_OR_EQUALS
+    }
+
+    @Option
+    @Documentation("Column to filter, a primitive column.")
+    private String column;
+
+    @Option
+    @Documentation("Filter operator.")
+    private Operator operator = Operator.EQUALS;
+
+    @Option
+    @Documentation("Value to compare with, converted to the column type.")
+    private String value;
+}
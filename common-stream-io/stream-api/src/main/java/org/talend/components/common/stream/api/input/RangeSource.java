@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.stream.api.input;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Source of bytes that can be read by ranges (ranged read of a cloud blob, local file ...).
+ */
+public interface RangeSource {
+
+    /**
+     * @return size of source in bytes.
+     */
+    long length();
+
+    /**
+     * Open stream on a range of source.
+     * 
+     * @param start : first byte (inclusive).
+     * @param end : last byte (exclusive).
+     * @return stream on range bytes.
+     */
+    InputStream open(long start, long end) throws IOException;
+}
@@ -12,7 +12,9 @@
  */
 package org.talend.components.common.stream.api.input;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.Iterator;
 
 import org.talend.sdk.component.api.record.Record;
@@ -30,6 +32,21 @@ public interface RecordReader extends AutoCloseable {
      */
     Iterator<Record> read(InputStream reader);
 
+    /**
+     * extract object iterator from a source readable by ranges,
+     * readers able to parse ranges in parallel override it.
+     * 
+     * @param source : source.
+     * @return object iterator.
+     */
+    default Iterator<Record> read(RangeSource source) {
+        try {
+            return this.read(source.open(0L, source.length()));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Can't open source", ex);
+        }
+    }
+
     @Override
     void close();
 }
@@ -18,11 +18,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
-import java.util.Optional;
-import java.util.OptionalDouble;
-import java.util.OptionalInt;
-import java.util.OptionalLong;
-import java.util.stream.Collectors;
 
 import org.apache.avro.LogicalTypes;
 import org.apache.avro.Schema.Field;
@@ -30,6 +25,7 @@ import org.apache.avro.SchemaBuilder;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericData.Array;
 import org.apache.avro.generic.GenericRecord;
+import org.talend.components.common.collections.BoundedCache;
 import org.talend.components.common.stream.AvroHelper;
 import org.talend.components.common.stream.api.output.RecordConverter;
 import org.talend.sdk.component.api.record.Record;
@@ -51,6 +47,12 @@ public class RecordToAvro implements RecordConverter<GenericRecord, org.apache.a
 
     private final String currentRecordNamespace;
 
+    /** avro schemas of record schemas (nested ones included) */
+    private final BoundedCache<Schema, org.apache.avro.Schema> avroSchemas = new BoundedCache<>();
+
+    /** conversion plans of avro schemas */
+    private final BoundedCache<org.apache.avro.Schema, FieldPlan[]> plans = new BoundedCache<>();
+
     public RecordToAvro(String currentRecordNamespace) {
         assert currentRecordNamespace != null : "currentRecordNamespace can't be null";
         this.currentRecordNamespace = currentRecordNamespace;
@@ -65,85 +67,20 @@ public class RecordToAvro implements RecordConverter<GenericRecord, org.apache.a
     }
 
     protected GenericRecord recordToAvro(Record fromRecord, GenericRecord toRecord) {
-        for (org.apache.avro.Schema.Field f : toRecord.getSchema().getFields()) {
-            String name = f.name();
-            org.apache.avro.Schema.Type fieldType = AvroHelper.getFieldType(f);
-            switch (fieldType) {
-            case RECORD:
-                org.apache.avro.Schema subSchema = fromRecordSchema(fromRecord.getRecord(name).getSchema());
-                GenericRecord subrecord = recordToAvro(fromRecord.getRecord(name), new GenericData.Record(subSchema));
-                toRecord.put(name, subrecord);
-                break;
-            case ARRAY:
-                Entry e = getSchemaForEntry(name, fromRecord.getSchema());
-                Collection<Object> recordArray = fromRecord.getOptionalArray(Object.class, name).orElse(new ArrayList<>());
-                if (recordArray.iterator().hasNext()) {
-                    Object firstArrayValue = recordArray.iterator().next();
-                    if (firstArrayValue instanceof Record) {
-                        subSchema = fromRecordSchema(((Record) firstArrayValue).getSchema());
-                        List<GenericRecord> records = recordArray.stream()
-                                .map(o -> recordToAvro((Record) o, new GenericData.Record(subSchema)))
-                                .collect(Collectors.toList());
-                        toRecord.put(name, records);
-                    } else {
-                        toRecord.put(name, fromRecord.getArray(getJavaClassForType(e.getElementSchema().getType()), name));
-                    }
-                }
-                break;
-            case STRING:
-                toRecord.put(name, fromRecord.getOptionalString(name).orElse(null));
-                break;
-            case BYTES:
-                Optional<byte[]> optionalBytesValue = fromRecord.getOptionalBytes(name);
-                if (optionalBytesValue.isPresent()) {
-                    ByteBuffer byteBuffer = ByteBuffer.wrap(fromRecord.getBytes(name));
-                    toRecord.put(name, byteBuffer);
-                } else {
-                    toRecord.put(name, null);
-                }
-                break;
-            case INT:
-                OptionalInt optionalIntValue = fromRecord.getOptionalInt(name);
-                if (optionalIntValue.isPresent()) {
-                    toRecord.put(name, optionalIntValue.getAsInt());
-                } else {
-                    toRecord.put(name, null);
-                }
-                break;
-            case LONG:
-                OptionalLong optionalLongValue = fromRecord.getOptionalLong(name);
-                if (optionalLongValue.isPresent()) {
-                    toRecord.put(name, optionalLongValue.getAsLong());
-                } else {
-                    toRecord.put(name, null);
-                }
-                break;
-            case FLOAT:
-                OptionalDouble optionalFloat = fromRecord.getOptionalFloat(name);
-                if (optionalFloat.isPresent()) {
-                    toRecord.put(name, Double.valueOf(optionalFloat.getAsDouble()).floatValue());
-                } else {
-                    toRecord.put(name, null);
-                }
-                break;
-            case DOUBLE:
-                OptionalDouble optionalDouble = fromRecord.getOptionalFloat(name);
-                if (optionalDouble.isPresent()) {
-                    toRecord.put(name, optionalDouble.getAsDouble());
-                } else {
-                    toRecord.put(name, null);
-                }
-                break;
-            case BOOLEAN:
-                toRecord.put(name, fromRecord.getOptionalBoolean(name).orElse(null));
-                break;
-            default:
-                throw new IllegalStateException(String.format(ERROR_UNDEFINED_TYPE, fieldType.name()));
-            }
+        for (FieldPlan field : this.plan(toRecord.getSchema())) {
+            field.convert(fromRecord, toRecord);
         }
         return toRecord;
     }
 
+    /**
+     * Conversion plan of avro schema fields, computed once for each avro schema.
+     */
+    private FieldPlan[] plan(org.apache.avro.Schema schema) {
+        return this.plans.computeIfAbsent(schema,
+                (org.apache.avro.Schema avro) -> avro.getFields().stream().map(FieldPlan::new).toArray(FieldPlan[]::new));
+    }
+
     /**
      * Infer an Avro Schema from a Record Schema
      *
@@ -152,6 +89,10 @@ public class RecordToAvro implements RecordConverter<GenericRecord, org.apache.a
      */
     @Override
     public org.apache.avro.Schema fromRecordSchema(Schema schema) {
+        return this.avroSchemas.computeIfAbsent(schema, this::buildAvroSchema);
+    }
+
+    private org.apache.avro.Schema buildAvroSchema(Schema schema) {
         List<Field> fields = new ArrayList<>();
         for (Entry e : schema.getEntries()) {
             String name = e.getName();
@@ -164,8 +105,7 @@ public class RecordToAvro implements RecordConverter<GenericRecord, org.apache.a
                 builder = fromRecordSchema(e.getElementSchema());
                 break;
             case ARRAY:
-                org.apache.avro.Schema subschema = fromRecordSchema(e.getElementSchema());
-                builder = org.apache.avro.Schema.createArray(subschema);
+                builder = org.apache.avro.Schema.createArray(this.arrayItemSchema(e.getElementSchema()));
                 break;
             case STRING:
             case BYTES:
@@ -177,10 +117,7 @@ public class RecordToAvro implements RecordConverter<GenericRecord, org.apache.a
                 builder = org.apache.avro.Schema.create(translateToAvroType(type));
                 break;
             case DATETIME:
-                builder = org.apache.avro.Schema.create(org.apache.avro.Schema.Type.LONG);
-                LogicalTypes.timestampMillis().addToSchema(builder);
-                builder.addProp(AVRO_PROP_TALEND_FIELD_PATTERN, ""); // for studio
-                builder.addProp(AVRO_PROP_JAVA_CLASS, Date.class.getCanonicalName()); // for studio
+                builder = this.datetimeSchema();
                 break;
             default:
                 throw new IllegalStateException(String.format(ERROR_UNDEFINED_TYPE, e.getType().name()));
@@ -198,6 +135,30 @@ public class RecordToAvro implements RecordConverter<GenericRecord, org.apache.a
                 currentRecordNamespace, false, fields);
     }
 
+    /**
+     * Avro schema of array items, element schemas of primitive arrays only hold the item type.
+     */
+    private org.apache.avro.Schema arrayItemSchema(Schema elementSchema) {
+        switch (elementSchema.getType()) {
+        case RECORD:
+            return fromRecordSchema(elementSchema);
+        case ARRAY:
+            return org.apache.avro.Schema.createArray(this.arrayItemSchema(elementSchema.getElementSchema()));
+        case DATETIME:
+            return this.datetimeSchema();
+        default:
+            return org.apache.avro.Schema.create(translateToAvroType(elementSchema.getType()));
+        }
+    }
+
+    private org.apache.avro.Schema datetimeSchema() {
+        final org.apache.avro.Schema schema = org.apache.avro.Schema.create(org.apache.avro.Schema.Type.LONG);
+        LogicalTypes.timestampMillis().addToSchema(schema);
+        schema.addProp(AVRO_PROP_TALEND_FIELD_PATTERN, ""); // for studio
+        schema.addProp(AVRO_PROP_JAVA_CLASS, Date.class.getCanonicalName()); // for studio
+        return schema;
+    }
+
     protected org.apache.avro.Schema.Type translateToAvroType(Type type) {
         switch (type) {
         case RECORD:
@@ -257,4 +218,103 @@ public class RecordToAvro implements RecordConverter<GenericRecord, org.apache.a
         }
         return Object.class;
     }
+
+    /**
+     * Conversion of a record field to an avro field, with last seen record schema of nested records and arrays.
+     */
+    private class FieldPlan {
+
+        private final String name;
+
+        private final int pos;
+
+        private final org.apache.avro.Schema.Type type;
+
+        /** last nested record schema (checked by identity) and its avro schema */
+        private Schema lastSchema = null;
+
+        private org.apache.avro.Schema lastAvroSchema = null;
+
+        /** last record schema and java class of array elements */
+        private Schema lastParentSchema = null;
+
+        private Class<?> elementClass = null;
+
+        FieldPlan(final Field field) {
+            this.name = field.name();
+            this.pos = field.pos();
+            this.type = AvroHelper.getFieldType(field);
+        }
+
+        void convert(final Record fromRecord, final GenericRecord toRecord) {
+            switch (this.type) {
+            case RECORD:
+                final Record subRecord = fromRecord.getRecord(this.name);
+                toRecord.put(this.pos, recordToAvro(subRecord, new GenericData.Record(this.avroSchema(subRecord.getSchema()))));
+                break;
+            case ARRAY:
+                this.convertArray(fromRecord, toRecord);
+                break;
+            case STRING:
+                toRecord.put(this.pos, fromRecord.get(String.class, this.name));
+                break;
+            case BYTES:
+                final byte[] bytes = fromRecord.get(byte[].class, this.name);
+                toRecord.put(this.pos, bytes == null ? null : ByteBuffer.wrap(bytes));
+                break;
+            case INT:
+                toRecord.put(this.pos, fromRecord.get(Integer.class, this.name));
+                break;
+            case LONG:
+                toRecord.put(this.pos, fromRecord.get(Long.class, this.name));
+                break;
+            case FLOAT:
+                toRecord.put(this.pos, fromRecord.get(Float.class, this.name));
+                break;
+            case DOUBLE:
+                toRecord.put(this.pos, fromRecord.get(Double.class, this.name));
+                break;
+            case BOOLEAN:
+                toRecord.put(this.pos, fromRecord.get(Boolean.class, this.name));
+                break;
+            default:
+                throw new IllegalStateException(String.format(ERROR_UNDEFINED_TYPE, this.type.name()));
+            }
+        }
+
+        private void convertArray(final Record fromRecord, final GenericRecord toRecord) {
+            final Collection<Object> recordArray = fromRecord.getArray(Object.class, this.name);
+            if (recordArray == null || recordArray.isEmpty()) {
+                return;
+            }
+            final Object firstArrayValue = recordArray.iterator().next();
+            if (firstArrayValue instanceof Record) {
+                final org.apache.avro.Schema subSchema = this.avroSchema(((Record) firstArrayValue).getSchema());
+                final List<GenericRecord> records = new ArrayList<>(recordArray.size());
+                for (Object value : recordArray) {
+                    records.add(recordToAvro((Record) value, new GenericData.Record(subSchema)));
+                }
+                toRecord.put(this.pos, records);
+            } else {
+                toRecord.put(this.pos, fromRecord.getArray(this.elementClass(fromRecord.getSchema()), this.name));
+            }
+        }
+
+        private org.apache.avro.Schema avroSchema(final Schema schema) {
+            if (schema != this.lastSchema) {
+                this.lastAvroSchema = fromRecordSchema(schema);
+                this.lastSchema = schema;
+            }
+            return this.lastAvroSchema;
+        }
+
+        private Class<?> elementClass(final Schema parentSchema) {
+            if (parentSchema != this.lastParentSchema) {
+                final Entry entry = getSchemaForEntry(this.name, parentSchema);
+                this.elementClass = getJavaClassForType(entry.getElementSchema().getType());
+                this.lastParentSchema = parentSchema;
+            }
+            return this.elementClass;
+        }
+    }
 }
@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.stream.output.avro;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema.Field;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.talend.components.common.stream.AvroHelper;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+import org.talend.sdk.component.api.record.Schema.Entry;
+import org.talend.sdk.component.api.record.Schema.Type;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
+import org.talend.sdk.component.runtime.record.RecordBuilderFactoryImpl;
+
+/**
+ * Compare the conversion of records with 3 levels of nested records (order > customer > address) and an array of
+ * records, with {@link RecordToAvro} and its cached schemas and field plans, and with the former conversion rebuilding
+ * nested schemas for each record, copied in the benchmark.
+ * Run it with the main method, from the test classpath: it isn't run by the build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecordToAvroBenchmark {
+
+    private static final int RECORDS = 10_000;
+
+    private final RecordBuilderFactory factory = new RecordBuilderFactoryImpl("benchmark");
+
+    private List<Record> records;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        records = new ArrayList<>(RECORDS);
+        for (int i = 0; i < RECORDS; i++) {
+            records.add(order(i));
+        }
+    }
+
+    @Benchmark
+    public void cachedPlans(final Blackhole blackhole) {
+        convert(new RecordToAvro("benchmark"), blackhole);
+    }
+
+    @Benchmark
+    public void schemaPerRecord(final Blackhole blackhole) {
+        convert(new FormerRecordToAvro("benchmark"), blackhole);
+    }
+
+    private void convert(final RecordToAvro converter, final Blackhole blackhole) {
+        for (Record record : records) {
+            blackhole.consume(converter.fromRecord(record));
+        }
+    }
+
+    private Record order(final int index) {
+        final Record address = factory.newRecordBuilder().withString("street", index + " main street")
+                .withString("city", "city " + (index % 100)).withInt("zip", 10_000 + index % 90_000).build();
+        final Record customer = factory.newRecordBuilder().withString("name", "customer " + index)
+                .withInt("age", 20 + index % 60).withRecord("address", address).build();
+        final List<Record> lines = new ArrayList<>(3);
+        for (int i = 0; i < 3; i++) {
+            lines.add(factory.newRecordBuilder().withString("sku", "sku" + (index + i) % 500).withInt("quantity", i + 1)
+                    .withDouble("price", 9.99d * (i + 1)).build());
+        }
+        final Entry linesEntry = factory.newEntryBuilder().withName("lines").withType(Type.ARRAY)
+                .withElementSchema(lines.get(0).getSchema()).build();
+        return factory.newRecordBuilder().withLong("id", index).withDouble("total", index * 1.5d)
+                .withBoolean("paid", index % 2 == 0).withRecord("customer", customer).withArray(linesEntry, lines)
+                .build();
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RecordToAvroBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class).build()).run();
+    }
+
+    /**
+     * Former conversion: nested avro schemas built again for each record, fields read by name through optionals.
+     */
+    private static class FormerRecordToAvro extends RecordToAvro {
+
+        private final String currentRecordNamespace;
+
+        private org.apache.avro.Schema avroSchema;
+
+        FormerRecordToAvro(final String currentRecordNamespace) {
+            super(currentRecordNamespace);
+            this.currentRecordNamespace = currentRecordNamespace;
+        }
+
+        @Override
+        public GenericRecord fromRecord(final Record record) {
+            if (avroSchema == null) {
+                avroSchema = fromRecordSchema(record.getSchema());
+            }
+            return recordToAvro(record, new GenericData.Record(avroSchema));
+        }
+
+        @Override
+        protected GenericRecord recordToAvro(final Record fromRecord, final GenericRecord toRecord) {
+            for (org.apache.avro.Schema.Field f : toRecord.getSchema().getFields()) {
+                String name = f.name();
+                org.apache.avro.Schema.Type fieldType = AvroHelper.getFieldType(f);
+                switch (fieldType) {
+                case RECORD:
+                    org.apache.avro.Schema subSchema = fromRecordSchema(fromRecord.getRecord(name).getSchema());
+                    GenericRecord subrecord = recordToAvro(fromRecord.getRecord(name), new GenericData.Record(subSchema));
+                    toRecord.put(name, subrecord);
+                    break;
+                case ARRAY:
+                    Entry e = getSchemaForEntry(name, fromRecord.getSchema());
+                    Collection<Object> recordArray = fromRecord.getOptionalArray(Object.class, name)
+                            .orElse(new ArrayList<>());
+                    if (recordArray.iterator().hasNext()) {
+                        Object firstArrayValue = recordArray.iterator().next();
+                        if (firstArrayValue instanceof Record) {
+                            subSchema = fromRecordSchema(((Record) firstArrayValue).getSchema());
+                            List<GenericRecord> converted = recordArray.stream()
+                                    .map(o -> recordToAvro((Record) o, new GenericData.Record(subSchema)))
+                                    .collect(Collectors.toList());
+                            toRecord.put(name, converted);
+                        } else {
+                            toRecord.put(name,
+                                    fromRecord.getArray(getJavaClassForType(e.getElementSchema().getType()), name));
+                        }
+                    }
+                    break;
+                case STRING:
+                    toRecord.put(name, fromRecord.getOptionalString(name).orElse(null));
+                    break;
+                case BYTES:
+                    Optional<byte[]> optionalBytesValue = fromRecord.getOptionalBytes(name);
+                    toRecord.put(name, optionalBytesValue.map(ByteBuffer::wrap).orElse(null));
+                    break;
+                case INT:
+                    OptionalInt optionalIntValue = fromRecord.getOptionalInt(name);
+                    toRecord.put(name, optionalIntValue.isPresent() ? optionalIntValue.getAsInt() : null);
+                    break;
+                case LONG:
+                    OptionalLong optionalLongValue = fromRecord.getOptionalLong(name);
+                    toRecord.put(name, optionalLongValue.isPresent() ? optionalLongValue.getAsLong() : null);
+                    break;
+                case FLOAT:
+                    OptionalDouble optionalFloat = fromRecord.getOptionalFloat(name);
+                    toRecord.put(name, optionalFloat.isPresent() ? (float) optionalFloat.getAsDouble() : null);
+                    break;
+                case DOUBLE:
+                    // former reading, narrowing double values to float.
+                    OptionalDouble optionalDouble = fromRecord.getOptionalFloat(name);
+                    toRecord.put(name, optionalDouble.isPresent() ? optionalDouble.getAsDouble() : null);
+                    break;
+                case BOOLEAN:
+                    toRecord.put(name, fromRecord.getOptionalBoolean(name).orElse(null));
+                    break;
+                default:
+                    throw new IllegalStateException("Undefined type " + fieldType.name());
+                }
+            }
+            return toRecord;
+        }
+
+        @Override
+        public org.apache.avro.Schema fromRecordSchema(final Schema schema) {
+            List<Field> fields = new ArrayList<>();
+            for (Entry e : schema.getEntries()) {
+                org.apache.avro.Schema builder;
+                switch (e.getType()) {
+                case RECORD:
+                    builder = fromRecordSchema(e.getElementSchema());
+                    break;
+                case ARRAY:
+                    builder = org.apache.avro.Schema.createArray(fromRecordSchema(e.getElementSchema()));
+                    break;
+                case DATETIME:
+                    builder = org.apache.avro.Schema.create(org.apache.avro.Schema.Type.LONG);
+                    LogicalTypes.timestampMillis().addToSchema(builder);
+                    builder.addProp("talend.field.pattern", "");
+                    builder.addProp("java-class", Date.class.getCanonicalName());
+                    break;
+                default:
+                    builder = org.apache.avro.Schema.create(translateToAvroType(e.getType()));
+                }
+                org.apache.avro.Schema unionWithNull;
+                if (builder.getType() == org.apache.avro.Schema.Type.RECORD) {
+                    unionWithNull = builder;
+                } else {
+                    unionWithNull = SchemaBuilder.unionOf().type(builder).and().nullType().endUnion();
+                }
+                fields.add(new org.apache.avro.Schema.Field(e.getName(), unionWithNull, e.getComment(), e.getDefaultValue()));
+            }
+            return org.apache.avro.Schema.createRecord("talend_" + String.valueOf(schema.hashCode()).replace("-", ""), "",
+                    currentRecordNamespace, false, fields);
+        }
+    }
+}
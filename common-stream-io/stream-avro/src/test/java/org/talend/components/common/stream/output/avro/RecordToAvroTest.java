@@ -16,11 +16,14 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import org.apache.avro.generic.GenericRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.talend.components.common.stream.AvroHelper;
 import org.talend.components.common.stream.input.avro.AvroToRecord;
 import org.talend.sdk.component.api.record.Record;
 import org.talend.sdk.component.api.record.Schema.Entry;
@@ -30,6 +33,7 @@ import org.talend.sdk.component.runtime.record.RecordBuilderFactoryImpl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 class RecordToAvroTest {
 
@@ -84,6 +88,8 @@ class RecordToAvroTest {
         assertEquals(now.withZoneSameInstant(ZoneOffset.UTC),
                 ZonedDateTime.ofInstant(Instant.ofEpochMilli((long) record.get("now")), ZoneOffset.UTC));
         assertEquals(Arrays.asList("ary1", "ary2", "ary3"), record.get("array"));
+        assertEquals(org.apache.avro.Schema.Type.STRING,
+                AvroHelper.getUnionSchema(record.getSchema().getField("array").schema()).getElementType().getType());
     }
 
     @Test
@@ -105,6 +111,57 @@ class RecordToAvroTest {
         assertEquals(20.5, to.getDouble("double"));
     }
 
+    @Test
+    void fromDoubleKeepsPrecision() {
+        final Record sub = factory.newRecordBuilder().withDouble("double", 0.1d).build();
+        final Record record = factory.newRecordBuilder().withDouble("double", 1.0E-50d).withDouble("large", 1.0E300d)
+                .withRecord("sub", sub).build();
+
+        GenericRecord avro = new RecordToAvro("test").fromRecord(record);
+        assertEquals(1.0E-50d, avro.get("double"));
+        assertEquals(1.0E300d, avro.get("large"));
+        assertEquals(0.1d, ((GenericRecord) avro.get("sub")).get("double"));
+    }
+
+    @Test
+    void fromNestedRecords() {
+        RecordToAvro converter = new RecordToAvro("test");
+        GenericRecord first = converter.fromRecord(this.nestedRecord(1));
+        GenericRecord second = converter.fromRecord(this.nestedRecord(2));
+
+        assertEquals(2L, second.get("id"));
+        assertEquals(0.1d, second.get("price"));
+        GenericRecord address = (GenericRecord) second.get("address");
+        assertEquals("Paris", address.get("city"));
+        GenericRecord geo = (GenericRecord) address.get("geo");
+        assertEquals("geo2", geo.get("label"));
+        assertEquals(48.5d, geo.get("lat"));
+        List<GenericRecord> items = (List<GenericRecord>) second.get("items");
+        assertEquals(3, items.size());
+        assertEquals("s2", items.get(2).get("sku"));
+        assertEquals(2, items.get(2).get("qty"));
+
+        // nested avro schemas are computed once for equal record schemas.
+        assertSame(((GenericRecord) first.get("address")).getSchema(), address.getSchema());
+        assertSame(((GenericRecord) ((GenericRecord) first.get("address")).get("geo")).getSchema(), geo.getSchema());
+        assertSame(((List<GenericRecord>) first.get("items")).get(0).getSchema(), items.get(0).getSchema());
+    }
+
+    private Record nestedRecord(int index) {
+        final Record geo = factory.newRecordBuilder().withDouble("lat", 48.5d).withDouble("lon", 2.3d)
+                .withString("label", "geo" + index).build();
+        final Record address = factory.newRecordBuilder().withString("city", "Paris").withInt("num", index)
+                .withRecord("geo", geo).build();
+        final List<Record> items = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            items.add(factory.newRecordBuilder().withString("sku", "s" + i).withInt("qty", i).build());
+        }
+        final Entry itemsEntry = factory.newEntryBuilder().withName("items").withType(Type.ARRAY)
+                .withElementSchema(items.get(0).getSchema()).build();
+        return factory.newRecordBuilder().withLong("id", index).withDouble("price", 0.1d).withRecord("address", address)
+                .withArray(itemsEntry, items).build();
+    }
+
     private void prepareTestRecords() {
         // some demo records
         versatileRecord = factory.newRecordBuilder() //
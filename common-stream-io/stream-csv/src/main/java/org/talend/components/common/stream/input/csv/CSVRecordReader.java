@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.stream.input.csv;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.talend.components.common.stream.api.input.RangeSource;
+import org.talend.components.common.stream.api.input.RecordReader;
+import org.talend.components.common.stream.format.LineConfiguration;
+import org.talend.components.common.stream.format.csv.CSVConfiguration;
+import org.talend.components.common.stream.input.line.ChunkedReader;
+import org.talend.components.common.stream.input.line.LineToRecord;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
+
+/**
+ * Read csv stream to records in a single pass, without splitting it in lines first.
+ */
+public class CSVRecordReader implements RecordReader {
+
+    private final CSVConfiguration config;
+
+    /** translate values to record */
+    private final LineToRecord toRecord;
+
+    /** current stream */
+    private InputStreamReader reader = null;
+
+    /** current chunks reader */
+    private ChunkedReader<LineToRecord> chunkedReader = null;
+
+    public CSVRecordReader(RecordBuilderFactory factory, CSVConfiguration config) {
+        this.config = config;
+        // values are split by the parser, no line splitter needed.
+        this.toRecord = new LineToRecord(factory, null);
+    }
+
+    @Override
+    public Iterator<Record> read(InputStream input) {
+        this.close();
+        final LineConfiguration lineConfig = this.config.getLineConfiguration();
+        this.reader = new InputStreamReader(input, Charset.forName(lineConfig.getEncoding().getEncoding()));
+        final CSVStreamParser parser = new CSVStreamParser(this.reader, this.config.findFieldSeparator(),
+                this.config.getQuotedValue(), this.config.getEscape(), lineConfig.getLineSeparator());
+
+        final int headerLines = lineConfig.calcHeader();
+        if (headerLines > 0) {
+            // skip un-usefull lines
+            for (int i = 1; i < headerLines; i++) {
+                this.next(parser);
+            }
+            final List<String> headers = this.next(parser);
+            if (headers != null) {
+                this.toRecord.withHeaders(headers);
+            }
+        }
+        this.toRecord.withTypeInference(lineConfig.getTypeInference());
+        return this.toRecord.buildRecords(new ValuesIterator(parser));
+    }
+
+    @Override
+    public Iterator<Record> read(RangeSource source) {
+        final LineConfiguration lineConfig = this.config.getLineConfiguration();
+        final Charset charset = Charset.forName(lineConfig.getEncoding().getEncoding());
+        if (!ChunkedReader.isChunkable(charset, source, lineConfig.getParallelRead())) {
+            return RecordReader.super.read(source);
+        }
+        final ChunkedReader<LineToRecord> chunks = new ChunkedReader<>(source, lineConfig.getLineSeparator().getBytes(charset),
+                lineConfig.getParallelRead(), this::readChunk);
+        try {
+            // read of first chunk closes previous stream and chunks.
+            final Iterator<Record> firstChunk = this.read(chunks.openFirstChunk());
+            this.chunkedReader = chunks;
+            return chunks.read(firstChunk, this.toRecord::fork);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't open csv source", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (this.chunkedReader != null) {
+            this.chunkedReader.close();
+            this.chunkedReader = null;
+        }
+        if (this.reader != null) {
+            try {
+                this.reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Can't close csv stream", e);
+            }
+            this.reader = null;
+        }
+    }
+
+    /**
+     * Read records of a chunk (no header).
+     */
+    private Iterator<Record> readChunk(InputStream chunk, LineToRecord chunkToRecord) {
+        final LineConfiguration lineConfig = this.config.getLineConfiguration();
+        final InputStreamReader chunkReader = new InputStreamReader(chunk,
+                Charset.forName(lineConfig.getEncoding().getEncoding()));
+        final CSVStreamParser parser = new CSVStreamParser(chunkReader, this.config.findFieldSeparator(),
+                this.config.getQuotedValue(), this.config.getEscape(), lineConfig.getLineSeparator());
+        return chunkToRecord.buildRecords(new ValuesIterator(parser));
+    }
+
+    private List<String> next(CSVStreamParser parser) {
+        try {
+            return parser.next();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unparsable CSV record", e);
+        }
+    }
+
+    /**
+     * Iterator on values of csv records, the list is reused by the parser.
+     */
+    private class ValuesIterator implements Iterator<List<String>> {
+
+        private final CSVStreamParser parser;
+
+        private List<String> fields = null;
+
+        private boolean end = false;
+
+        ValuesIterator(CSVStreamParser parser) {
+            this.parser = parser;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (this.fields == null && !this.end) {
+                this.fields = CSVRecordReader.this.next(this.parser);
+                this.end = this.fields == null;
+            }
+            return !this.end;
+        }
+
+        @Override
+        public List<String> next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final List<String> values = this.fields;
+            this.fields = null;
+            return values;
+        }
+    }
+}
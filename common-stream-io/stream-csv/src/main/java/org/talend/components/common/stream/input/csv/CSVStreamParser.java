@@ -0,0 +1,222 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.stream.input.csv;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Split a csv stream in records in a single pass.
+ * Characters are read through a reusable buffer and the record separator is only recognized outside of quoted values,
+ * so quoted values can contain it.
+ * Quote, escape and field separator follow the commons-csv rules used to write the files.
+ */
+class CSVStreamParser {
+
+    private static final int NONE = -1;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+
+    private final char fieldSeparator;
+
+    private final int quote;
+
+    private final int escape;
+
+    private final char[] recordSeparator;
+
+    private final char[] buffer = new char[BUFFER_SIZE];
+
+    private int position = 0;
+
+    private int limit = 0;
+
+    /** value of the current field */
+    private final StringBuilder field = new StringBuilder();
+
+    /** values of the current record, reused between records */
+    private final List<String> fields = new ArrayList<>();
+
+    CSVStreamParser(Reader reader, char fieldSeparator, Character quote, Character escape, String recordSeparator) {
+        this.reader = reader;
+        this.fieldSeparator = fieldSeparator;
+        this.quote = quote == null ? NONE : quote;
+        this.escape = escape == null ? NONE : escape;
+        this.recordSeparator = recordSeparator.toCharArray();
+    }
+
+    /**
+     * Read next record.
+     * The returned list is reused by the next call.
+     *
+     * @return values of the next record, null at the end of the stream.
+     */
+    List<String> next() throws IOException {
+        this.fields.clear();
+        this.field.setLength(0);
+
+        int c = this.read();
+        if (c == NONE) {
+            return null;
+        }
+        // number of record separator characters matched.
+        int matched = 0;
+        boolean quoted = false;
+        while (c != NONE) {
+            if (matched > 0 && c != this.recordSeparator[matched]) {
+                // not a separator, restore partially matched characters.
+                this.field.append(this.recordSeparator, 0, matched);
+                matched = 0;
+            }
+            if (c == this.recordSeparator[matched]) {
+                matched++;
+                if (matched == this.recordSeparator.length) {
+                    return this.endRecord(quoted);
+                }
+            } else if (c == this.fieldSeparator) {
+                this.endField();
+                quoted = false;
+            } else if (c == this.quote && this.field.length() == 0 && !quoted) {
+                this.readQuoted();
+                quoted = true;
+            } else if (quoted) {
+                if (!Character.isWhitespace(c)) {
+                    throw new IOException("invalid char '" + (char) c + "' between quoted value and delimiter");
+                }
+            } else if (c == this.escape) {
+                this.readEscaped();
+            } else {
+                this.field.append((char) c);
+            }
+            c = this.read();
+        }
+        this.field.append(this.recordSeparator, 0, matched);
+        if (!quoted && this.recordSeparator[0] != '\n' && this.recordSeparator[0] != '\r') {
+            // end of line at the end of a file using other record separator.
+            this.trimLineBreak();
+            if (this.fields.isEmpty() && this.field.length() == 0) {
+                return null;
+            }
+        }
+        return this.endRecord(quoted);
+    }
+
+    private void trimLineBreak() {
+        int length = this.field.length();
+        if (length > 0 && this.field.charAt(length - 1) == '\n') {
+            length--;
+            if (length > 0 && this.field.charAt(length - 1) == '\r') {
+                length--;
+            }
+            this.field.setLength(length);
+        }
+    }
+
+    private List<String> endRecord(boolean quoted) {
+        final int last = this.field.length() - 1;
+        if (!quoted && last >= 0 && this.field.charAt(last) == '\r' && this.recordSeparator[0] == '\n') {
+            // windows end of line with unix record separator.
+            this.field.setLength(last);
+        }
+        if (!quoted && this.fields.isEmpty() && this.field.length() == 0) {
+            // empty line.
+            return Collections.emptyList();
+        }
+        this.endField();
+        return this.fields;
+    }
+
+    private void endField() {
+        this.fields.add(this.field.toString());
+        this.field.setLength(0);
+    }
+
+    /**
+     * read value between quotes, the opening quote is already read.
+     */
+    private void readQuoted() throws IOException {
+        int c = this.read();
+        while (c != NONE) {
+            if (c == this.quote) {
+                final int next = this.read();
+                if (next != this.quote) {
+                    // end of quoted value.
+                    this.unread(next);
+                    return;
+                }
+                this.field.append((char) c);
+            } else if (c == this.escape) {
+                this.readEscaped();
+            } else {
+                this.field.append((char) c);
+            }
+            c = this.read();
+        }
+        throw new IOException("EOF reached before quoted value finished");
+    }
+
+    private void readEscaped() throws IOException {
+        final int c = this.read();
+        switch (c) {
+        case 'r':
+            this.field.append('\r');
+            break;
+        case 'n':
+            this.field.append('\n');
+            break;
+        case 't':
+            this.field.append('\t');
+            break;
+        case 'b':
+            this.field.append('\b');
+            break;
+        case 'f':
+            this.field.append('\f');
+            break;
+        case NONE:
+            throw new IOException("EOF whilst processing escape sequence");
+        default:
+            if (c == this.fieldSeparator || c == this.quote || c == this.escape || c == '\r' || c == '\n' || c == '\t'
+                    || c == '\b' || c == '\f') {
+                this.field.append((char) c);
+            } else {
+                // not an escape sequence, keep both characters.
+                this.field.append((char) this.escape).append((char) c);
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (this.position >= this.limit) {
+            this.limit = this.reader.read(this.buffer, 0, this.buffer.length);
+            this.position = 0;
+            if (this.limit <= 0) {
+                this.limit = 0;
+                return NONE;
+            }
+        }
+        return this.buffer[this.position++];
+    }
+
+    private void unread(int c) {
+        if (c != NONE) {
+            // the character was just read from the buffer.
+            this.position--;
+        }
+    }
+}
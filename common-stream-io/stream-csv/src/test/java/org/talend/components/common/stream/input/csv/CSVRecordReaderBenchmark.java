@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.stream.input.csv;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.talend.components.common.stream.CSVHelper;
+import org.talend.components.common.stream.format.LineConfiguration;
+import org.talend.components.common.stream.format.LineConfiguration.LineSeparatorType;
+import org.talend.components.common.stream.format.OptionalLine;
+import org.talend.components.common.stream.format.csv.CSVConfiguration;
+import org.talend.components.common.stream.format.csv.FieldSeparator;
+import org.talend.components.common.stream.input.line.DefaultLineReader;
+import org.talend.components.common.stream.input.line.DefaultRecordReader;
+import org.talend.components.common.stream.input.line.LineSplitter;
+import org.talend.components.common.stream.input.line.LineToRecord;
+import org.talend.components.common.stream.input.line.schema.HeaderHandler;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
+import org.talend.sdk.component.runtime.record.RecordBuilderFactoryImpl;
+
+/**
+ * Compare the reading of a generated CSV content with the {@link CSVRecordReader} stream parser, and with the scanner
+ * splitting lines then parsed one by one with commons-csv it replaced, copied in the benchmark.
+ * Run it with the main method, from the test classpath: it isn't run by the build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CSVRecordReaderBenchmark {
+
+    private static final int LINES = 20_000;
+
+    private final RecordBuilderFactory factory = new RecordBuilderFactoryImpl("benchmark");
+
+    private CSVConfiguration config;
+
+    private byte[] content;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        config = new CSVConfiguration();
+        config.setFieldSeparator(new FieldSeparator());
+        config.getFieldSeparator().setFieldSeparatorType(FieldSeparator.Type.SEMICOLON);
+        config.setLineConfiguration(new LineConfiguration());
+        config.getLineConfiguration().setLineSeparatorType(LineSeparatorType.LF);
+        config.getLineConfiguration().setHeader(new OptionalLine());
+        config.getLineConfiguration().getHeader().setActive(true);
+
+        final StringBuilder builder = new StringBuilder("id;name;comment;amount;day\n");
+        for (int i = 0; i < LINES; i++) {
+            builder.append(i).append(";name ").append(i).append(";\"comment; with separator ").append(i)
+                    .append("\";").append(i * 1.5d).append(";2020-03-").append(i % 28 + 1).append('\n');
+        }
+        content = builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void streamParser(final Blackhole blackhole) {
+        try (CSVRecordReader reader = new CSVRecordReader(factory, config)) {
+            consume(reader.read(new ByteArrayInputStream(content)), blackhole);
+        }
+    }
+
+    @Benchmark
+    public void scannerAndCommonsCsv(final Blackhole blackhole) {
+        final LineToRecord toRecord = new LineToRecord(factory, new CSVLineSplitter(CSVHelper.getCsvFormat(config)));
+        final DefaultLineReader lineReader = new DefaultLineReader(Pattern.compile(Pattern.quote("\n")), "UTF-8",
+                new HeaderHandler(1, toRecord::withHeaders));
+        try (DefaultRecordReader reader = new DefaultRecordReader(lineReader, toRecord)) {
+            consume(reader.read(new ByteArrayInputStream(content)), blackhole);
+        }
+    }
+
+    private void consume(final Iterator<Record> records, final Blackhole blackhole) {
+        int count = 0;
+        while (records.hasNext()) {
+            blackhole.consume(records.next());
+            count++;
+        }
+        if (count != LINES) {
+            throw new IllegalStateException("Read " + count + " records instead of " + LINES);
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CSVRecordReaderBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class).build()).run();
+    }
+
+    /**
+     * Line splitter of the former csv reader, parsing each line read by a scanner with commons-csv.
+     */
+    private static class CSVLineSplitter implements LineSplitter {
+
+        private final CSVFormat format;
+
+        CSVLineSplitter(final CSVFormat format) {
+            this.format = format;
+        }
+
+        @Override
+        public Iterable<String> translate(final String line) {
+            try {
+                final CSVParser parser = CSVParser.parse(line, this.format);
+                final List<CSVRecord> records = parser.getRecords();
+                if (records.isEmpty()) {
+                    return Collections.emptyList();
+                }
+                return records.get(0);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unparsable CSV line '" + line + "'", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.stream.input.csv;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.talend.components.common.stream.api.input.RangeSource;
+import org.talend.components.common.stream.format.LineConfiguration;
+import org.talend.components.common.stream.format.LineConfiguration.LineSeparatorType;
+import org.talend.components.common.stream.format.OptionalLine;
+import org.talend.components.common.stream.format.ParallelRead;
+import org.talend.components.common.stream.format.TypeInference;
+import org.talend.components.common.stream.format.csv.CSVConfiguration;
+import org.talend.components.common.stream.format.csv.FieldSeparator;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+import org.talend.sdk.component.runtime.record.RecordBuilderFactoryImpl;
+
+class CSVRecordReaderTest {
+
+    @Test
+    void quotedRecordSeparator() {
+        final List<Record> records = this.read(this.config(LineSeparatorType.LF),
+                "a;\"multi\nline\";c\n\"x;y\";\"say \"\"hi\"\"\";z\n");
+
+        Assertions.assertEquals(2, records.size());
+        Assertions.assertEquals("a", records.get(0).getString("field_1"));
+        Assertions.assertEquals("multi\nline", records.get(0).getString("field_2"));
+        Assertions.assertEquals("c", records.get(0).getString("field_3"));
+        Assertions.assertEquals("x;y", records.get(1).getString("field_1"));
+        Assertions.assertEquals("say \"hi\"", records.get(1).getString("field_2"));
+        Assertions.assertEquals("z", records.get(1).getString("field_3"));
+    }
+
+    @Test
+    void escapedValues() {
+        final List<Record> records = this.read(this.config(LineSeparatorType.LF), "\"John \\\"Da Man\\\"\";a\\;b;c:\\d\n");
+
+        Assertions.assertEquals(1, records.size());
+        Assertions.assertEquals("John \"Da Man\"", records.get(0).getString("field_1"));
+        Assertions.assertEquals("a;b", records.get(0).getString("field_2"));
+        Assertions.assertEquals("c:\\d", records.get(0).getString("field_3"));
+    }
+
+    @Test
+    void headersAndWindowsLines() {
+        final CSVConfiguration config = this.config(LineSeparatorType.LF);
+        config.getLineConfiguration().setHeader(new OptionalLine());
+        config.getLineConfiguration().getHeader().setActive(true);
+        config.getLineConfiguration().getHeader().setSize(2);
+        final List<Record> records = this.read(config, "title\r\nname;value\r\nfirst;1\r\n\r\nsecond;\"2\"\r\n");
+
+        Assertions.assertEquals(3, records.size());
+        Assertions.assertEquals("first", records.get(0).getString("name"));
+        Assertions.assertEquals("1", records.get(0).getString("value"));
+        Assertions.assertNull(records.get(1).getString("name"));
+        Assertions.assertEquals("second", records.get(2).getString("name"));
+        Assertions.assertEquals("2", records.get(2).getString("value"));
+    }
+
+    @Test
+    void inferTypes() {
+        final CSVConfiguration config = this.config(LineSeparatorType.LF);
+        config.getLineConfiguration().setHeader(new OptionalLine());
+        config.getLineConfiguration().getHeader().setActive(true);
+        config.getLineConfiguration().setTypeInference(new TypeInference());
+        config.getLineConfiguration().getTypeInference().setActive(true);
+        config.getLineConfiguration().getTypeInference().setSampleSize(2);
+        final List<Record> records = this.read(config,
+                "id;amount;valid;day;code\n1;12.5;true;2020-03-01;007\n2;;false;2020-03-02 10:15:00;8\n3;1e3;TRUE;;9\n");
+
+        Assertions.assertEquals(3, records.size());
+        final Schema schema = records.get(0).getSchema();
+        Assertions.assertEquals(Schema.Type.INT, schema.getEntries().get(0).getType());
+        Assertions.assertEquals(Schema.Type.DOUBLE, schema.getEntries().get(1).getType());
+        Assertions.assertEquals(Schema.Type.BOOLEAN, schema.getEntries().get(2).getType());
+        Assertions.assertEquals(Schema.Type.STRING, schema.getEntries().get(3).getType());
+        Assertions.assertEquals(Schema.Type.STRING, schema.getEntries().get(4).getType());
+
+        Assertions.assertEquals(1, records.get(0).getInt("id"));
+        Assertions.assertEquals(12.5d, records.get(0).getDouble("amount"));
+        Assertions.assertFalse(records.get(1).getOptionalDouble("amount").isPresent());
+        Assertions.assertEquals(1000d, records.get(2).getDouble("amount"));
+        Assertions.assertTrue(records.get(2).getBoolean("valid"));
+        Assertions.assertEquals("007", records.get(0).getString("code"));
+    }
+
+    @Test
+    void otherRecordSeparator() {
+        final CSVConfiguration config = this.config(LineSeparatorType.OTHER);
+        config.getLineConfiguration().setLineSeparator("##");
+        final List<Record> records = this.read(config, "a;b#c##\"d##\";e##f;g");
+
+        Assertions.assertEquals(3, records.size());
+        Assertions.assertEquals("b#c", records.get(0).getString("field_2"));
+        Assertions.assertEquals("d##", records.get(1).getString("field_1"));
+        Assertions.assertEquals("g", records.get(2).getString("field_2"));
+    }
+
+    @Test
+    void parallelRead() {
+        final CSVConfiguration config = this.config(LineSeparatorType.LF);
+        config.getLineConfiguration().setHeader(new OptionalLine());
+        config.getLineConfiguration().getHeader().setActive(true);
+        config.getLineConfiguration().setTypeInference(new TypeInference());
+        config.getLineConfiguration().getTypeInference().setActive(true);
+        config.getLineConfiguration().setParallelRead(new ParallelRead());
+        config.getLineConfiguration().getParallelRead().setActive(true);
+        config.getLineConfiguration().getParallelRead().setChunkSize(1);
+        config.getLineConfiguration().getParallelRead().setParallelism(2);
+
+        final StringBuilder content = new StringBuilder("id;label\n");
+        final int size = 100_000;
+        for (int i = 0; i < size; i++) {
+            content.append(i).append(";\"label ").append(i).append("; some text to fill chunks\"\n");
+        }
+        final byte[] bytes = content.toString().getBytes(StandardCharsets.UTF_8);
+        final RangeSource source = new RangeSource() {
+
+            @Override
+            public long length() {
+                return bytes.length;
+            }
+
+            @Override
+            public InputStream open(long start, long end) {
+                return new ByteArrayInputStream(bytes, (int) start, (int) (end - start));
+            }
+        };
+
+        try (CSVRecordReader reader = new CSVRecordReader(new RecordBuilderFactoryImpl("test"), config)) {
+            final Iterator<Record> records = reader.read(source);
+            for (int i = 0; i < size; i++) {
+                Assertions.assertTrue(records.hasNext());
+                final Record record = records.next();
+                Assertions.assertEquals(i, record.getInt("id"));
+                Assertions.assertEquals("label " + i + "; some text to fill chunks", record.getString("label"));
+            }
+            Assertions.assertFalse(records.hasNext());
+        }
+    }
+
+    private CSVConfiguration config(LineSeparatorType separatorType) {
+        final CSVConfiguration configuration = new CSVConfiguration();
+        configuration.setFieldSeparator(new FieldSeparator());
+        configuration.getFieldSeparator().setFieldSeparatorType(FieldSeparator.Type.SEMICOLON);
+        configuration.setLineConfiguration(new LineConfiguration());
+        configuration.getLineConfiguration().setLineSeparatorType(separatorType);
+        return configuration;
+    }
+
+    private List<Record> read(CSVConfiguration config, String content) {
+        final List<Record> records = new ArrayList<>();
+        try (CSVRecordReader reader = new CSVRecordReader(new RecordBuilderFactoryImpl("test"), config)) {
+            final Iterator<Record> iterator = reader.read(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+            iterator.forEachRemaining(records::add);
+        }
+        return records;
+    }
+}
@@ -17,15 +17,45 @@ import java.io.InputStream;
 
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.talend.components.common.stream.format.excel.ExcelConfiguration;
 import org.talend.components.common.stream.format.excel.ExcelConfiguration.ExcelFormat;
 
+import com.monitorjbl.xlsx.StreamingReader;
+
 public class ExcelUtils {
 
+    /** buffer size used to copy streamed workbooks */
+    private static final int STREAMING_BUFFER_SIZE = 4096;
+
     public static Workbook createWorkBook(ExcelFormat format) {
         return format == ExcelFormat.EXCEL97 ? new HSSFWorkbook() : new XSSFWorkbook();
     }
 
+    /**
+     * Workbook to write, only a window of rows is kept in memory when streaming (others are flushed to a temp file).
+     */
+    public static Workbook createWorkBook(ExcelConfiguration configuration) {
+        if (configuration.useStreaming()) {
+            return new SXSSFWorkbook(configuration.getRowWindow());
+        }
+        return ExcelUtils.createWorkBook(configuration.getExcelFormat());
+    }
+
+    /**
+     * Workbook to read, sheet rows are parsed with SAX while iterating when streaming (only row iteration is supported).
+     */
+    public static Workbook readWorkBook(ExcelConfiguration configuration, InputStream input) throws IOException {
+        if (configuration.useStreaming()) {
+            return StreamingReader.builder() //
+                    .rowCacheSize(configuration.getRowWindow()) //
+                    .bufferSize(STREAMING_BUFFER_SIZE) //
+                    .open(input);
+        }
+        return ExcelUtils.readWorkBook(configuration.getExcelFormat(), input);
+    }
+
     public static Workbook readWorkBook(ExcelFormat format, InputStream input) throws IOException {
         if (format == ExcelFormat.EXCEL97) {
             return new HSSFWorkbook(input);
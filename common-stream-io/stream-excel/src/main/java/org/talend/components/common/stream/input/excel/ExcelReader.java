@@ -41,7 +41,7 @@ public class ExcelReader implements FormatReader {
     @Override
     public Iterator<Record> read(InputStream input, ExcelConfiguration configuration) {
         try {
-            final Workbook currentWorkBook = ExcelUtils.readWorkBook(configuration.getExcelFormat(), input);
+            final Workbook currentWorkBook = ExcelUtils.readWorkBook(configuration, input);
             final Sheet sheet = currentWorkBook.getSheet(configuration.getSheetName());
             final Iterator<Row> rowIterator = sheet.iterator();
             int headers = configuration.calcHeader();
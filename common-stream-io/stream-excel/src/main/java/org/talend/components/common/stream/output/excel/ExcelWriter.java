@@ -19,6 +19,7 @@ import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.talend.components.common.stream.ExcelUtils;
 import org.talend.components.common.stream.api.output.RecordWriter;
 import org.talend.components.common.stream.api.output.TargetFinder;
@@ -39,12 +40,15 @@ public class ExcelWriter implements RecordWriter {
 
     private boolean first = true;
 
+    /** index of next row to create */
+    private int nextRow = 0;
+
     public ExcelWriter(ExcelConfiguration configuration, TargetFinder target) {
 
         this.target = target;
         this.toExcel = new RecordToExcel();
 
-        this.excelWorkbook = ExcelUtils.createWorkBook(configuration.getExcelFormat());
+        this.excelWorkbook = ExcelUtils.createWorkBook(configuration);
         this.excelSheet = this.excelWorkbook.createSheet(configuration.getSheetName());
         this.config = configuration;
     }
@@ -67,6 +71,11 @@ public class ExcelWriter implements RecordWriter {
         this.appendFooter();
         try (final OutputStream outputStream = this.target.find()) {
             this.excelWorkbook.write(outputStream);
+        } finally {
+            if (this.excelWorkbook instanceof SXSSFWorkbook) {
+                // remove temp files of flushed rows.
+                ((SXSSFWorkbook) this.excelWorkbook).dispose();
+            }
         }
     }
 
@@ -91,7 +100,6 @@ public class ExcelWriter implements RecordWriter {
     }
 
     private Row buildRow() {
-        int pos = this.excelSheet.getPhysicalNumberOfRows();
-        return this.excelSheet.createRow(pos);
+        return this.excelSheet.createRow(this.nextRow++);
     }
 }
@@ -12,10 +12,14 @@
  */
 package org.talend.components.common.stream.input.excel;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Iterator;
 
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.Assert;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -197,6 +201,52 @@ class ExcelReaderSupplierTest {
         this.testOneValueFile("excel97/excel_97_1_record_footer.xls");
     }
 
+    @Test
+    void testStreaming() throws IOException {
+        config.setStreaming(true);
+        config.setRowWindow(2);
+
+        this.testRecordsSize("excel2007/excel_2007_5_records_no_header.xlsx", 5);
+
+        config.getHeader().setActive(true);
+        config.getHeader().setSize(2);
+        this.testRecordsSize("excel2007/excel_2007_5_records_with_big_header.xlsx", 5);
+        this.testOneValueFile("excel2007/excel_2007_1_record_with_big_header.xlsx");
+
+        config.getHeader().setActive(false);
+        config.getFooter().setActive(true);
+        config.getFooter().setSize(1);
+        this.testOneValueFile("excel2007/excel_2007_1_record_footer.xlsx");
+    }
+
+    @Test
+    void testStreamingFormula() throws IOException {
+        final byte[] content;
+        try (final XSSFWorkbook workbook = new XSSFWorkbook(); final ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            final Row row = workbook.createSheet("Sheet1").createRow(0);
+            row.createCell(0).setCellValue(2.5);
+            row.createCell(1).setCellFormula("A1*2");
+            row.createCell(2).setCellFormula("\"v\"&A1");
+            // cached formula results are read, as with Excel saved files.
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            workbook.write(out);
+            content = out.toByteArray();
+        }
+
+        for (boolean streaming : new boolean[] { false, true }) {
+            config.setStreaming(streaming);
+            try (final InputStream stream = new ByteArrayInputStream(content);
+                    final RecordReader reader = new ExcelReaderSupplier().getReader(factory, config)) {
+                final Iterator<Record> records = reader.read(stream);
+                Assertions.assertTrue(records.hasNext());
+                final Record record = records.next();
+                Assertions.assertEquals(5.0, record.getDouble("field1"), 0.01);
+                Assertions.assertEquals("v2.5", record.getString("field2"));
+                Assertions.assertFalse(records.hasNext());
+            }
+        }
+    }
+
     /*
      * @Test
      * void testHTMLFile() throws IOException {
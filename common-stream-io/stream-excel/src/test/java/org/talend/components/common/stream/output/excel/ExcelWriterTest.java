@@ -12,6 +12,8 @@
  */
 package org.talend.components.common.stream.output.excel;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -19,6 +21,9 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.talend.components.common.stream.api.output.RecordWriter;
@@ -66,6 +71,31 @@ class ExcelWriterTest {
         Assertions.assertTrue(excelFile.length() > 20, () -> "Length " + excelFile.length() + " is to small");
     }
 
+    @Test
+    void addStreaming() throws IOException {
+        final ExcelConfiguration cfg = new ExcelConfiguration();
+        cfg.setHeader(new OptionalLine());
+        cfg.getHeader().setActive(true);
+        cfg.getHeader().setSize(1);
+        cfg.setExcelFormat(ExcelFormat.EXCEL2007);
+        cfg.setSheetName("talend_sheet");
+        cfg.setStreaming(true);
+        cfg.setRowWindow(2);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (RecordWriter writer = new ExcelWriterSupplier().getWriter(() -> out, cfg)) {
+            writer.add(this.buildRecords());
+        }
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            final Sheet sheet = workbook.getSheet("talend_sheet");
+            Assertions.assertEquals(4, sheet.getPhysicalNumberOfRows());
+            Assertions.assertEquals("firstname", sheet.getRow(0).getCell(0).getStringCellValue());
+            Assertions.assertEquals("grigori", sheet.getRow(3).getCell(0).getStringCellValue());
+            Assertions.assertEquals(55.0, sheet.getRow(3).getCell(2).getNumericCellValue(), 0.01);
+        }
+    }
+
     Iterable<Record> buildRecords() {
         List<Record> records = new ArrayList<>(3);
         Record rec1 = this.factory.newRecordBuilder().withString("firstname", "peter").withString("lastname", "falker")
@@ -12,14 +12,12 @@
  */
 package org.talend.components.common.stream.input.fixed;
 
-import java.util.Collections;
-import java.util.Iterator;
-
 import org.talend.components.common.stream.api.input.RecordReader;
 import org.talend.components.common.stream.api.input.RecordReaderSupplier;
 import org.talend.components.common.stream.format.ContentFormat;
 import org.talend.components.common.stream.format.fixed.FixedConfiguration;
 import org.talend.components.common.stream.input.line.DefaultRecordReader;
+import org.talend.components.common.stream.input.line.LineOffsetSplitter;
 import org.talend.components.common.stream.input.line.LineSplitter;
 import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
 
@@ -37,67 +35,32 @@ public class FixedReaderSupplier implements RecordReaderSupplier {
         return DefaultRecordReader.of(factory, fixedConfig.getLineConfiguration(), splitter);
     }
 
-    static class FixedLineSplitter implements LineSplitter {
-
-        private final int[] fieldLengths;
-
-        public FixedLineSplitter(int[] fieldLengths) {
-            this.fieldLengths = fieldLengths;
-        }
-
-        @Override
-        public Iterable<String> translate(String line) {
-            if (this.fieldLengths != null && this.fieldLengths.length > 0) {
-                return () -> new FixedReaderSupplier.StringIterator(line, this.fieldLengths);
-            }
-            return Collections.emptyList();
-        }
-    }
-
     /**
-     * Iterator class for field in line of fixed data.
+     * Splitter for line of fixed data.
      * "FooHello" => "Foo", "Hello" with length [3, 5]
      */
-    static class StringIterator implements Iterator<String> {
-
-        /** line of data */
-        private final String line;
-
-        /** cursor index in line */
-        private int lineCursor = 0;
+    static class FixedLineSplitter implements LineOffsetSplitter {
 
-        /** fields lengths */
         private final int[] fieldLengths;
 
-        /** current index for fieldLengths */
-        private int fieldLengthsIndex = 0;
-
-        /** value for current field */
-        private String currentFieldValue = null;
-
-        public StringIterator(String line, int[] translatedLengthField) {
-            this.line = line;
-            this.fieldLengths = translatedLengthField;
-            this.next();
-        }
-
-        @Override
-        public boolean hasNext() {
-            return currentFieldValue != null;
+        public FixedLineSplitter(int[] fieldLengths) {
+            this.fieldLengths = fieldLengths;
         }
 
         @Override
-        public final String next() {
-            final String result = currentFieldValue;
-            if (this.fieldLengthsIndex < this.fieldLengths.length) {
-                int posEnd = this.lineCursor + this.fieldLengths[this.fieldLengthsIndex];
-                this.currentFieldValue = this.line.substring(lineCursor, posEnd);
-                this.lineCursor = posEnd;
-                this.fieldLengthsIndex++;
-            } else {
-                this.currentFieldValue = null;
+        public int split(String line, int[] offsets) {
+            if (this.fieldLengths == null) {
+                return 0;
+            }
+            final int size = Math.min(this.fieldLengths.length, offsets.length / 2);
+            int lineCursor = 0;
+            for (int index = 0; index < size; index++) {
+                final int posEnd = Math.min(lineCursor + this.fieldLengths[index], line.length());
+                offsets[2 * index] = lineCursor;
+                offsets[2 * index + 1] = posEnd;
+                lineCursor = posEnd;
             }
-            return result;
+            return this.fieldLengths.length;
         }
     }
 
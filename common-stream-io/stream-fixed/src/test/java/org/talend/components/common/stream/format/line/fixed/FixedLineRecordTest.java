@@ -13,15 +13,19 @@
 package org.talend.components.common.stream.format.line.fixed;
 
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.talend.components.common.stream.api.input.RangeSource;
 import org.talend.components.common.stream.api.input.RecordReader;
 import org.talend.components.common.stream.format.Encoding;
 import org.talend.components.common.stream.format.Encoding.Type;
 import org.talend.components.common.stream.format.fixed.FixedConfiguration;
 import org.talend.components.common.stream.format.LineConfiguration;
+import org.talend.components.common.stream.format.ParallelRead;
 import org.talend.components.common.stream.input.fixed.FixedReaderSupplier;
 import org.talend.sdk.component.api.record.Record;
 import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
@@ -63,4 +67,76 @@ class FixedLineRecordTest {
         Assertions.assertFalse(records.hasNext());
     }
 
-}
\ No newline at end of file
+    @Test
+    void shortLine() {
+        FixedConfiguration cfg = new FixedConfiguration();
+        cfg.setLengthFields("3;4;5");
+        cfg.setLineConfiguration(new LineConfiguration());
+        cfg.getLineConfiguration().setLineSeparator("\n");
+        cfg.getLineConfiguration().setEncoding(new Encoding());
+        cfg.getLineConfiguration().getEncoding().setEncodingType(Type.UTF8);
+
+        FixedReaderSupplier recordReaderSupplier = new FixedReaderSupplier();
+        RecordBuilderFactory factory = new RecordBuilderFactoryImpl("test");
+        final RecordReader reader = recordReaderSupplier.getReader(factory, cfg);
+
+        final Iterator<Record> records = reader.read(new ByteArrayInputStream("Hi!GuysHello\nabc12".getBytes()));
+
+        Assertions.assertTrue(records.hasNext());
+        Assertions.assertEquals("Hello", records.next().getString("field_3"));
+
+        Assertions.assertTrue(records.hasNext());
+        Record rec2 = records.next();
+        Assertions.assertEquals("abc", rec2.getString("field_1"));
+        Assertions.assertEquals("12", rec2.getString("field_2"));
+        Assertions.assertEquals("", rec2.getString("field_3"));
+
+        Assertions.assertFalse(records.hasNext());
+    }
+
+    @Test
+    void parallelRead() {
+        FixedConfiguration cfg = new FixedConfiguration();
+        cfg.setLengthFields("8;24");
+        cfg.setLineConfiguration(new LineConfiguration());
+        cfg.getLineConfiguration().setLineSeparator("\n");
+        cfg.getLineConfiguration().setEncoding(new Encoding());
+        cfg.getLineConfiguration().getEncoding().setEncodingType(Type.UTF8);
+        cfg.getLineConfiguration().setParallelRead(new ParallelRead());
+        cfg.getLineConfiguration().getParallelRead().setActive(true);
+        cfg.getLineConfiguration().getParallelRead().setChunkSize(1);
+        cfg.getLineConfiguration().getParallelRead().setParallelism(3);
+
+        final int size = 100_000;
+        final StringBuilder content = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            content.append(String.format("%08d%24s\n", i, "value " + i));
+        }
+        final byte[] bytes = content.toString().getBytes(StandardCharsets.UTF_8);
+        final RangeSource source = new RangeSource() {
+
+            @Override
+            public long length() {
+                return bytes.length;
+            }
+
+            @Override
+            public InputStream open(long start, long end) {
+                return new ByteArrayInputStream(bytes, (int) start, (int) (end - start));
+            }
+        };
+
+        RecordBuilderFactory factory = new RecordBuilderFactoryImpl("test");
+        try (RecordReader reader = new FixedReaderSupplier().getReader(factory, cfg)) {
+            final Iterator<Record> records = reader.read(source);
+            for (int i = 0; i < size; i++) {
+                Assertions.assertTrue(records.hasNext());
+                final Record record = records.next();
+                Assertions.assertEquals(String.format("%08d", i), record.getString("field_1"));
+                Assertions.assertEquals("value " + i, record.getString("field_2").trim());
+            }
+            Assertions.assertFalse(records.hasNext());
+        }
+    }
+
+}
@@ -62,14 +62,26 @@ public class JsonPointerParser {
      * @return iterator on json value.
      */
     public Iterator<JsonValue> values(JsonParser parser) {
+        return this.values(parser, (JsonParser valueParser, Event event) -> valueParser.getValue());
+    }
+
+    /**
+     * Search iterator on json, values being read from parser events.
+     * 
+     * @param parser : json parser.
+     * @param reader : read value from parser, positioned on value first event.
+     * @param <T> : type of read values.
+     * @return iterator on values.
+     */
+    public <T> Iterator<T> values(JsonParser parser, ValueReader<T> reader) {
 
-        final Iterator<JsonValue> valuesIterator;
+        final Iterator<T> valuesIterator;
         if (rootGetter.get(parser) && parser.hasNext()) {
             Event evt = parser.next();
             if (evt == Event.START_ARRAY) {
-                valuesIterator = new JsonIterator(parser);
+                valuesIterator = new JsonIterator<>(parser, reader);
             } else {
-                final JsonValue lonelyObject = parser.getValue();
+                final T lonelyObject = reader.read(parser, evt);
                 valuesIterator = Collections.singletonList(lonelyObject).iterator();
             }
         } else {
@@ -79,14 +91,32 @@ public class JsonPointerParser {
         return valuesIterator;
     }
 
+    /**
+     * Read a value from parser.
+     * 
+     * @param <T> : type of value.
+     */
+    @FunctionalInterface
+    public interface ValueReader<T> {
+
+        /**
+         * Read value.
+         * 
+         * @param parser : json parser, event of value start has just been read.
+         * @param event : value start event.
+         * @return value.
+         */
+        T read(JsonParser parser, Event event);
+    }
+
     /**
      * Iterator on Json Value.
      * (iterating on all object of array if jsonpointer point an array, single object otherwire).
      */
-    static class JsonIterator implements Iterator<JsonValue> {
+    static class JsonIterator<T> implements Iterator<T> {
 
         /** current json value */
-        private JsonValue current;
+        private T current;
 
         /** if array, is end reached */
         private boolean endArrayReached = false;
@@ -94,8 +124,12 @@ public class JsonPointerParser {
         /** point to the current json value */
         private final JsonParser parser;
 
-        public JsonIterator(JsonParser parser) {
+        /** read values from parser */
+        private final ValueReader<T> reader;
+
+        public JsonIterator(JsonParser parser, ValueReader<T> reader) {
             this.parser = parser;
+            this.reader = reader;
             this.current = this.findNext(parser);
         }
 
@@ -105,8 +139,8 @@ public class JsonPointerParser {
         }
 
         @Override
-        public JsonValue next() {
-            final JsonValue result = this.current;
+        public T next() {
+            final T result = this.current;
             this.current = this.findNext(parser);
             return result;
         }
@@ -117,7 +151,7 @@ public class JsonPointerParser {
          * @param parser : json parser.
          * @return value if exist, null otherwise.
          */
-        private JsonValue findNext(JsonParser parser) {
+        private T findNext(JsonParser parser) {
             if (this.endArrayReached || !parser.hasNext()) {
                 this.parser.close();
                 return null;
@@ -128,7 +162,7 @@ public class JsonPointerParser {
                 this.parser.close();
                 return null;
             }
-            return parser.getValue();
+            return this.reader.read(parser, evt);
         }
     }
 
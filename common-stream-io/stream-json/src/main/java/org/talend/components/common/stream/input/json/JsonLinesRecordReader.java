@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.stream.input.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.regex.Pattern;
+
+import javax.json.Json;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParserFactory;
+
+import org.talend.components.common.collections.IteratorMap;
+import org.talend.components.common.stream.api.input.RangeSource;
+import org.talend.components.common.stream.api.input.RecordReader;
+import org.talend.components.common.stream.format.json.JsonLinesConfiguration;
+import org.talend.components.common.stream.input.line.ChunkedReader;
+import org.talend.components.common.stream.input.line.DefaultLineReader;
+import org.talend.components.common.stream.input.line.LineReader;
+import org.talend.components.common.stream.input.line.schema.HeaderHandler;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
+
+/**
+ * Read json lines (one json value per line) from a stream and convert them to records.
+ * As lines are independent, large sources can be parsed by chunks in parallel.
+ */
+public class JsonLinesRecordReader implements RecordReader {
+
+    /** lines separator (empty lines and carriage returns are skipped) */
+    private static final Pattern LINES_SEPARATOR = Pattern.compile("[\r\n]+");
+
+    private final RecordBuilderFactory factory;
+
+    private final JsonLinesConfiguration config;
+
+    private final JsonParserFactory parserFactory;
+
+    /** line reader of current stream */
+    private final LineReader lineReader;
+
+    /** current chunks reader */
+    private ChunkedReader<JsonParserToRecord> chunkedReader = null;
+
+    public JsonLinesRecordReader(RecordBuilderFactory factory, JsonLinesConfiguration config) {
+        this.factory = factory;
+        this.config = config;
+        this.parserFactory = Json.createParserFactory(Collections.emptyMap());
+        this.lineReader = this.newLineReader();
+    }
+
+    @Override
+    public Iterator<Record> read(InputStream reader) {
+        this.close();
+        return this.readLines(this.lineReader.read(reader), this.newTranslator());
+    }
+
+    @Override
+    public Iterator<Record> read(RangeSource source) {
+        final Charset charset = Charset.forName(this.config.getEncoding().getEncoding());
+        if (!ChunkedReader.isChunkable(charset, source, this.config.getParallelRead())) {
+            return RecordReader.super.read(source);
+        }
+        final ChunkedReader<JsonParserToRecord> chunks = new ChunkedReader<>(source,
+                JsonLinesConfiguration.LINE_SEPARATOR.getBytes(charset), this.config.getParallelRead(), this::readChunk);
+        try {
+            // read of first chunk closes previous stream and chunks.
+            final Iterator<Record> firstChunk = this.read(chunks.openFirstChunk());
+            this.chunkedReader = chunks;
+            return chunks.read(firstChunk, this::newTranslator);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Can't open json lines source", ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        this.lineReader.close();
+        if (this.chunkedReader != null) {
+            this.chunkedReader.close();
+            this.chunkedReader = null;
+        }
+    }
+
+    private Iterator<Record> readChunk(InputStream chunk, JsonParserToRecord toRecord) {
+        return this.readLines(this.newLineReader().read(chunk), toRecord);
+    }
+
+    private Iterator<Record> readLines(Iterator<String> lines, JsonParserToRecord toRecord) {
+        return new IteratorMap<>(lines, (String line) -> this.toRecord(line, toRecord));
+    }
+
+    private Record toRecord(String line, JsonParserToRecord toRecord) {
+        try (JsonParser parser = this.parserFactory.createParser(new StringReader(line))) {
+            return toRecord.toRecord(parser, parser.next());
+        }
+    }
+
+    private LineReader newLineReader() {
+        return new DefaultLineReader(LINES_SEPARATOR, this.config.getEncoding().getEncoding(), new HeaderHandler(0, null));
+    }
+
+    private JsonParserToRecord newTranslator() {
+        return new JsonParserToRecord(this.factory, this.config.isForceDouble());
+    }
+}
@@ -0,0 +1,358 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.stream.input.json;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
+
+/**
+ * Build records straight from json parser events, without materializing json values.
+ * Schema of objects found at a same place is kept while next objects fit in; it's merged when a new field appears or when
+ * an integral number field gets a decimal value. An object with a field of another type gets its own schema.
+ */
+public class JsonParserToRecord {
+
+    /** name of field for values that are not objects */
+    private static final String WRAPPER_FIELD = "field";
+
+    private final RecordBuilderFactory factory;
+
+    private final boolean forceDouble;
+
+    /** shape of pointed objects */
+    private final ObjectShape root = new ObjectShape();
+
+    /** shape for pointed values that are not objects */
+    private final ObjectShape wrapper = new ObjectShape();
+
+    /** schema of simple array elements */
+    private final Map<Schema.Type, Schema> simpleSchemas = new EnumMap<>(Schema.Type.class);
+
+    /** element schema of arrays found empty, until an array with items is read */
+    private final Schema emptyArraySchema;
+
+    /** type of last read value */
+    private Schema.Type valueType;
+
+    /** element schema of last read value (record or array) */
+    private Schema valueSchema;
+
+    public JsonParserToRecord(RecordBuilderFactory factory, boolean forceDouble) {
+        this.factory = factory;
+        this.forceDouble = forceDouble;
+        this.emptyArraySchema = factory.newSchemaBuilder(Schema.Type.STRING).build();
+    }
+
+    /**
+     * Read record from parser.
+     * 
+     * @param parser : json parser.
+     * @param event : value start event (not object values are wrapped in a record).
+     * @return record.
+     */
+    public Record toRecord(JsonParser parser, Event event) {
+        if (event == Event.START_OBJECT) {
+            return this.root.read(parser);
+        }
+        return this.wrapper.readWrapped(parser, event);
+    }
+
+    /**
+     * Read value starting with event, set valueType and valueSchema.
+     * 
+     * @return value, null for json null.
+     */
+    private Object readValue(JsonParser parser, Event event, ObjectShape parent, String name) {
+        switch (event) {
+        case VALUE_STRING:
+            this.valueType = Schema.Type.STRING;
+            return parser.getString();
+        case VALUE_NUMBER:
+            return this.readNumber(parser);
+        case VALUE_TRUE:
+            this.valueType = Schema.Type.BOOLEAN;
+            return Boolean.TRUE;
+        case VALUE_FALSE:
+            this.valueType = Schema.Type.BOOLEAN;
+            return Boolean.FALSE;
+        case VALUE_NULL:
+            this.valueType = null;
+            return null;
+        case START_OBJECT: {
+            final Record record = parent.child(name).read(parser);
+            this.valueType = Schema.Type.RECORD;
+            this.valueSchema = record.getSchema();
+            return record;
+        }
+        case START_ARRAY:
+            return this.readArray(parser, parent, name);
+        default:
+            throw new IllegalArgumentException("Unsupported json event: " + event);
+        }
+    }
+
+    private Object readNumber(JsonParser parser) {
+        final BigDecimal number = parser.getBigDecimal();
+        if (!this.forceDouble && parser.isIntegralNumber()) {
+            this.valueType = Schema.Type.LONG;
+            return number.longValueExact();
+        }
+        this.valueType = Schema.Type.DOUBLE;
+        return number.doubleValue();
+    }
+
+    /**
+     * Read array, element schema is the one of first not null item (records of array share a schema).
+     */
+    private List<Object> readArray(JsonParser parser, ObjectShape parent, String name) {
+        final String itemName = name + "[]";
+        final List<Object> items = new ArrayList<>();
+        Schema.Type itemType = null;
+        Schema itemSchema = null;
+        boolean hasDecimal = false;
+        Event event = parser.next();
+        while (event != Event.END_ARRAY) {
+            final Object item = this.readValue(parser, event, parent, itemName);
+            if (item != null) {
+                if (itemType == null) {
+                    itemType = this.valueType;
+                    itemSchema = this.valueSchema;
+                }
+                hasDecimal = hasDecimal || this.valueType == Schema.Type.DOUBLE;
+            }
+            items.add(item);
+            event = parser.next();
+        }
+
+        if (itemType == null) {
+            // no item : fits any array.
+            this.valueSchema = null;
+        } else if (itemType == Schema.Type.RECORD) {
+            // last schema of shape includes fields of all items.
+            this.valueSchema = parent.child(itemName).schema;
+        } else if (itemType == Schema.Type.ARRAY) {
+            this.valueSchema = this.factory.newSchemaBuilder(Schema.Type.ARRAY)
+                    .withElementSchema(itemSchema == null ? this.emptyArraySchema : itemSchema).build();
+        } else if (itemType == Schema.Type.LONG && hasDecimal) {
+            items.replaceAll((Object item) -> item instanceof Long ? Double.valueOf((Long) item) : item);
+            this.valueSchema = this.simpleSchema(Schema.Type.DOUBLE);
+        } else {
+            this.valueSchema = this.simpleSchema(itemType);
+        }
+        this.valueType = Schema.Type.ARRAY;
+        return items;
+    }
+
+    private Schema simpleSchema(Schema.Type type) {
+        return this.simpleSchemas.computeIfAbsent(type, (Schema.Type t) -> this.factory.newSchemaBuilder(t).build());
+    }
+
+    private Schema.Entry newEntry(String name, Schema.Type type, Schema elementSchema) {
+        final Schema.Entry.Builder builder = this.factory.newEntryBuilder().withName(name).withType(type).withNullable(true);
+        if (type == Schema.Type.RECORD) {
+            builder.withElementSchema(elementSchema);
+        } else if (type == Schema.Type.ARRAY) {
+            builder.withElementSchema(elementSchema == null ? this.emptyArraySchema : elementSchema);
+        }
+        return builder.build();
+    }
+
+    private Record build(Schema schema, Schema.Entry[] entries, Object[] values) {
+        if (schema == null) {
+            // only empty objects read.
+            return this.factory.newRecordBuilder().build();
+        }
+        final Record.Builder builder = this.factory.newRecordBuilder(schema);
+        for (int i = 0; i < entries.length; i++) {
+            final Object value = values[i];
+            if (value != null) {
+                final Schema.Entry entry = entries[i];
+                switch (entry.getType()) {
+                case STRING:
+                    builder.withString(entry, (String) value);
+                    break;
+                case LONG:
+                    builder.withLong(entry, (Long) value);
+                    break;
+                case DOUBLE:
+                    builder.withDouble(entry, (Double) value);
+                    break;
+                case BOOLEAN:
+                    builder.withBoolean(entry, (Boolean) value);
+                    break;
+                case RECORD:
+                    builder.withRecord(entry, (Record) value);
+                    break;
+                default:
+                    builder.withArray(entry, (List<?>) value);
+                    break;
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Schema of objects found at a same place.
+     */
+    private class ObjectShape {
+
+        private Schema schema = null;
+
+        private Schema.Entry[] entries = new Schema.Entry[0];
+
+        /** index of entries by name */
+        private final Map<String, Integer> indexes = new HashMap<>();
+
+        /** shapes of sub objects by field name */
+        private final Map<String, ObjectShape> children = new HashMap<>();
+
+        ObjectShape child(String name) {
+            return this.children.computeIfAbsent(name, (String n) -> new ObjectShape());
+        }
+
+        /**
+         * Read object fields (start object event already read).
+         */
+        Record read(JsonParser parser) {
+            final Object[] values = new Object[this.entries.length];
+            List<Object[]> newFields = null;
+            int position = 0;
+            Event event = parser.next();
+            while (event != Event.END_OBJECT) {
+                final String name = parser.getString();
+                final Object value = JsonParserToRecord.this.readValue(parser, parser.next(), this, name);
+                if (value != null) {
+                    final int index = this.indexOf(name, position);
+                    if (index >= 0 && this.fits(this.entries[index], JsonParserToRecord.this.valueType,
+                            JsonParserToRecord.this.valueSchema)) {
+                        values[index] = this.entries[index].getType() == Schema.Type.DOUBLE && value instanceof Long
+                                ? Double.valueOf((Long) value)
+                                : value;
+                        position = index + 1;
+                    } else {
+                        newFields = this.addField(newFields, name, value);
+                    }
+                }
+                event = parser.next();
+            }
+            if (newFields != null) {
+                return this.merge(values, newFields);
+            }
+            return JsonParserToRecord.this.build(this.schema, this.entries, values);
+        }
+
+        /**
+         * Read not object value, as record with a single field.
+         */
+        Record readWrapped(JsonParser parser, Event event) {
+            final Object value = JsonParserToRecord.this.readValue(parser, event, this, WRAPPER_FIELD);
+            final Object[] values = new Object[this.entries.length];
+            if (value != null) {
+                if (this.entries.length > 0 && this.fits(this.entries[0], JsonParserToRecord.this.valueType,
+                        JsonParserToRecord.this.valueSchema)) {
+                    values[0] = this.entries[0].getType() == Schema.Type.DOUBLE && value instanceof Long
+                            ? Double.valueOf((Long) value)
+                            : value;
+                } else {
+                    return this.merge(values, this.addField(null, WRAPPER_FIELD, value));
+                }
+            }
+            return JsonParserToRecord.this.build(this.schema, this.entries, values);
+        }
+
+        private List<Object[]> addField(List<Object[]> fields, String name, Object value) {
+            final List<Object[]> newFields = fields == null ? new ArrayList<>() : fields;
+            newFields.add(new Object[] { name, JsonParserToRecord.this.valueType, JsonParserToRecord.this.valueSchema, value });
+            return newFields;
+        }
+
+        /**
+         * Index of field, checking first at position following previous field (fields come often in same order).
+         */
+        private int indexOf(String name, int position) {
+            if (position < this.entries.length && this.entries[position].getName().equals(name)) {
+                return position;
+            }
+            final Integer index = this.indexes.get(name);
+            return index == null ? -1 : index;
+        }
+
+        private boolean fits(Schema.Entry entry, Schema.Type type, Schema elementSchema) {
+            if (entry.getType() == type) {
+                if (type == Schema.Type.RECORD || type == Schema.Type.ARRAY) {
+                    return elementSchema == null || entry.getElementSchema() == elementSchema
+                            || entry.getElementSchema().equals(elementSchema);
+                }
+                return true;
+            }
+            return entry.getType() == Schema.Type.DOUBLE && type == Schema.Type.LONG;
+        }
+
+        /**
+         * Build record with fields that don't fit current schema, and keep merged schema if no field changed of type.
+         */
+        private Record merge(Object[] values, List<Object[]> newFields) {
+            final List<Schema.Entry> mergedEntries = new ArrayList<>(Arrays.asList(this.entries));
+            final Object[] mergedValues = Arrays.copyOf(values, this.entries.length + newFields.size());
+            final Map<String, Integer> mergedIndexes = new HashMap<>(this.indexes);
+            boolean conflict = false;
+            for (Object[] field : newFields) {
+                final String name = (String) field[0];
+                final Schema.Type type = (Schema.Type) field[1];
+                final Schema.Entry entry = JsonParserToRecord.this.newEntry(name, type, (Schema) field[2]);
+                final Integer index = mergedIndexes.get(name);
+                if (index == null) {
+                    mergedIndexes.put(name, mergedEntries.size());
+                    mergedValues[mergedEntries.size()] = field[3];
+                    mergedEntries.add(entry);
+                } else {
+                    final Schema.Type previousType = mergedEntries.get(index).getType();
+                    final Schema previousElement = mergedEntries.get(index).getElementSchema();
+                    // long widen to double, sub records schemas grow and empty arrays get their type.
+                    final boolean evolution = (previousType == Schema.Type.LONG && type == Schema.Type.DOUBLE)
+                            || type == Schema.Type.RECORD && previousType == type
+                            || type == Schema.Type.ARRAY && previousType == type
+                                    && (previousElement == JsonParserToRecord.this.emptyArraySchema
+                                            || previousElement.getType() == Schema.Type.RECORD);
+                    conflict = conflict || !evolution;
+                    mergedEntries.set(index, entry);
+                    mergedValues[index] = field[3];
+                }
+            }
+            final Schema.Builder schemaBuilder = JsonParserToRecord.this.factory.newSchemaBuilder(Schema.Type.RECORD);
+            mergedEntries.forEach(schemaBuilder::withEntry);
+            final Schema mergedSchema = schemaBuilder.build();
+            final Schema.Entry[] entriesArray = mergedEntries.toArray(new Schema.Entry[0]);
+            if (!conflict) {
+                this.schema = mergedSchema;
+                this.entries = entriesArray;
+                this.indexes.clear();
+                this.indexes.putAll(mergedIndexes);
+            }
+            return JsonParserToRecord.this.build(mergedSchema, entriesArray, mergedValues);
+        }
+    }
+}
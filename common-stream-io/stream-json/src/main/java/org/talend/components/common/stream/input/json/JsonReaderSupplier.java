@@ -29,7 +29,7 @@ public class JsonReaderSupplier implements RecordReaderSupplier {
 
         final JsonConfiguration jsonConfig = (JsonConfiguration) config;
         final JsonPointerParser parser = JsonPointerParser.of(jsonConfig.getJsonPointer());
-        final JsonToRecord toRecord = new JsonToRecord(factory, jsonConfig.isForceDouble());
+        final JsonParserToRecord toRecord = new JsonParserToRecord(factory, jsonConfig.isForceDouble());
         return new JsonRecordReader(parser, toRecord);
     }
 }
@@ -18,12 +18,9 @@ import java.util.Iterator;
 import java.util.Map;
 
 import javax.json.Json;
-import javax.json.JsonObject;
-import javax.json.JsonValue;
 import javax.json.stream.JsonParser;
 import javax.json.stream.JsonParserFactory;
 
-import org.talend.components.common.collections.IteratorMap;
 import org.talend.components.common.stream.api.input.RecordReader;
 import org.talend.components.common.stream.format.json.JsonPointerParser;
 import org.talend.sdk.component.api.record.Record;
@@ -36,13 +33,13 @@ public class JsonRecordReader implements RecordReader {
     /** json pointer config */
     private final JsonPointerParser jsonPointer;
 
-    /** converter from json object to record. */
-    private final JsonToRecord toRecord;
+    /** converter from json parser events to record. */
+    private final JsonParserToRecord toRecord;
 
     /** current json iterator */
     private JsonParser jsonParser = null;
 
-    public JsonRecordReader(JsonPointerParser jsonPointer, JsonToRecord toRecord) {
+    public JsonRecordReader(JsonPointerParser jsonPointer, JsonParserToRecord toRecord) {
         this.jsonPointer = jsonPointer;
         this.toRecord = toRecord;
     }
@@ -53,9 +50,7 @@ public class JsonRecordReader implements RecordReader {
         final JsonParserFactory factory = Json.createParserFactory(config);
         this.jsonParser = factory.createParser(reader);
 
-        final Iterator<JsonValue> values = this.jsonPointer.values(jsonParser);
-
-        return new IteratorMap<>(values, this::convertToRecord);
+        return this.jsonPointer.values(jsonParser, this.toRecord::toRecord);
     }
 
     @Override
@@ -65,23 +60,4 @@ public class JsonRecordReader implements RecordReader {
             this.jsonParser = null;
         }
     }
-
-    /**
-     * Convert json value to record
-     * 
-     * @param value : json (wrapped in object if not of JsonObject type).
-     * @return Record.
-     */
-    private Record convertToRecord(JsonValue value) {
-        final JsonObject json;
-        if (value == null) {
-            json = Json.createObjectBuilder().addNull("field").build();
-        } else if (value.getValueType() != JsonValue.ValueType.OBJECT) {
-            json = Json.createObjectBuilder().add("field", value).build();
-        } else {
-            json = value.asJsonObject();
-        }
-
-        return this.toRecord.toRecord(json);
-    }
 }
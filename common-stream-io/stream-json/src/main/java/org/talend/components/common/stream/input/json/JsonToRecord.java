@@ -16,7 +16,9 @@ import java.math.BigDecimal;
 import java.time.ZonedDateTime;
 import java.util.Collection;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.json.JsonArray;
@@ -25,10 +27,13 @@ import javax.json.JsonObject;
 import javax.json.JsonString;
 import javax.json.JsonValue;
 
+import org.talend.components.common.collections.BoundedCache;
 import org.talend.sdk.component.api.record.Record;
 import org.talend.sdk.component.api.record.Schema;
 import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
 
+import lombok.Getter;
+
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 
@@ -38,17 +43,43 @@ public class JsonToRecord {
 
     private final NumberOption numberOption;
 
+    /** schemas by object shape (see {@link #fingerprint(JsonObject)}). */
+    @Getter
+    private final BoundedCache<String, Schema> schemaCache;
+
     public JsonToRecord(final RecordBuilderFactory factory) {
         this(factory, false);
     }
 
     public JsonToRecord(RecordBuilderFactory factory, boolean forceNumberAsDouble) {
+        this(factory, forceNumberAsDouble, BoundedCache.DEFAULT_SIZE);
+    }
+
+    /**
+     * @param cacheSize : max number of object shapes whose schema is kept (least recently used are evicted), 0 to disable.
+     */
+    public JsonToRecord(RecordBuilderFactory factory, boolean forceNumberAsDouble, int cacheSize) {
         this.factory = factory;
         if (forceNumberAsDouble) {
             this.numberOption = NumberOption.ForceDoubleType;
         } else {
             this.numberOption = NumberOption.InferType;
         }
+        this.schemaCache = new BoundedCache<>(cacheSize);
+    }
+
+    public Record toRecord(final JsonObject object) {
+        if (!this.schemaCache.isEnabled()) {
+            return this.convert(object);
+        }
+        final String shape = this.fingerprint(object);
+        final Schema schema = this.schemaCache.get(shape);
+        if (schema != null) {
+            return this.toRecord(object, schema);
+        }
+        final Record record = this.convert(object);
+        this.schemaCache.put(shape, record.getSchema());
+        return record;
     }
 
     /*
@@ -57,7 +88,7 @@ public class JsonToRecord {
      * https://github.com/Talend/component-runtime/blob/0597e8dc0498559528a65cde64eccfe1cfea2913/component-runtime-impl/src/main/
      * java/org/talend/sdk/component/runtime/record/RecordConverters.java#L134
      */
-    public Record toRecord(final JsonObject object) {
+    private Record convert(final JsonObject object) {
         final Record.Builder builder = factory.newRecordBuilder();
         object.forEach((String key, JsonValue value) -> {
             switch (value.getValueType()) {
@@ -68,7 +99,7 @@ public class JsonToRecord {
                 break;
             }
             case OBJECT: {
-                final Record record = toRecord(value.asJsonObject());
+                final Record record = convert(value.asJsonObject());
                 builder.withRecord(factory.newEntryBuilder().withName(key).withType(Schema.Type.RECORD)
                         .withElementSchema(record.getSchema()).build(), record);
                 break;
@@ -93,6 +124,124 @@ public class JsonToRecord {
         return builder.build();
     }
 
+    /**
+     * Build record from object with already known schema (object has same shape as the one schema was computed from).
+     * 
+     * @param object : json object.
+     * @param schema : record schema.
+     * @return record.
+     */
+    private Record toRecord(final JsonObject object, final Schema schema) {
+        // cached entries are given to a builder without schema (a builder with schema indexes its entries for each record)
+        final Record.Builder builder = factory.newRecordBuilder();
+        final Iterator<Schema.Entry> entries = schema.getEntries().iterator();
+        for (Map.Entry<String, JsonValue> field : object.entrySet()) {
+            final JsonValue value = field.getValue();
+            if (value.getValueType() == JsonValue.ValueType.NULL) {
+                continue; // null fields are not in schema.
+            }
+            final Schema.Entry entry = entries.next();
+            switch (value.getValueType()) {
+            case ARRAY:
+                builder.withArray(entry, value.asJsonArray().stream().map(this::mapJson).collect(toList()));
+                break;
+            case OBJECT:
+                builder.withRecord(entry, this.toRecord(value.asJsonObject(), entry.getElementSchema()));
+                break;
+            case TRUE:
+            case FALSE:
+                builder.withBoolean(entry, JsonValue.TRUE.equals(value));
+                break;
+            case STRING:
+                builder.withString(entry, JsonString.class.cast(value).getString());
+                break;
+            case NUMBER:
+                this.numberOption.setNumber(builder, entry, JsonNumber.class.cast(value));
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported value type: " + value);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Compute object shape : field names with types, array items included
+     * (array element schema depends on them; repeated consecutive item shapes are kept once).
+     * Objects with same shape have same schema.
+     * 
+     * @param object : json object.
+     * @return shape.
+     */
+    private String fingerprint(final JsonObject object) {
+        final StringBuilder shape = new StringBuilder();
+        this.fingerprint(object, shape);
+        return shape.toString();
+    }
+
+    private void fingerprint(final JsonObject object, final StringBuilder shape) {
+        shape.append('{');
+        for (Map.Entry<String, JsonValue> field : object.entrySet()) {
+            final JsonValue value = field.getValue();
+            if (value.getValueType() != JsonValue.ValueType.NULL) {
+                final String name = field.getKey();
+                shape.append(name.length()).append(':').append(name);
+                this.fingerprint(value, shape);
+            }
+        }
+        shape.append('}');
+    }
+
+    private void fingerprint(final JsonValue value, final StringBuilder shape) {
+        switch (value.getValueType()) {
+        case ARRAY:
+            shape.append('[');
+            int previous = -1;
+            for (JsonValue item : value.asJsonArray()) {
+                final int start = shape.length();
+                this.fingerprint(item, shape);
+                if (previous >= 0 && JsonToRecord.sameShape(shape, previous, start)) {
+                    shape.setLength(start);
+                } else {
+                    previous = start;
+                }
+            }
+            shape.append(']');
+            break;
+        case OBJECT:
+            this.fingerprint(value.asJsonObject(), shape);
+            break;
+        case TRUE:
+        case FALSE:
+            shape.append('B');
+            break;
+        case STRING:
+            shape.append('S');
+            break;
+        case NUMBER:
+            shape.append(this.numberOption.getNumberType(JsonNumber.class.cast(value)) == Schema.Type.LONG ? 'L' : 'D');
+            break;
+        default:
+            shape.append('N');
+        }
+    }
+
+    /**
+     * Check if shape of previous item (from previous to start) equals shape of last item (from start to end).
+     */
+    private static boolean sameShape(final StringBuilder shape, final int previous, final int start) {
+        final int length = start - previous;
+        if (shape.length() - start != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (shape.charAt(previous + i) != shape.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private Object mapJson(final JsonValue it) {
         if (JsonObject.class.isInstance(it)) {
             return toRecord(it.asJsonObject());
@@ -207,6 +356,10 @@ public class JsonToRecord {
                 builder.withDouble(key, number.doubleValue());
             }
 
+            public void setNumber(Record.Builder builder, Schema.Entry entry, JsonNumber number) {
+                builder.withDouble(entry, number.doubleValue());
+            }
+
             public Schema.Type getNumberType(JsonNumber number) {
                 return Schema.Type.DOUBLE;
             }
@@ -229,6 +382,14 @@ public class JsonToRecord {
                 }
             }
 
+            public void setNumber(Record.Builder builder, Schema.Entry entry, JsonNumber number) {
+                if (number.isIntegral()) {
+                    builder.withLong(entry, number.longValueExact());
+                } else {
+                    builder.withDouble(entry, number.doubleValue());
+                }
+            }
+
             public Schema.Type getNumberType(JsonNumber number) {
                 if (number.isIntegral()) {
                     return Schema.Type.LONG;
@@ -241,7 +402,8 @@ public class JsonToRecord {
 
         public abstract void setNumber(Record.Builder builder, String key, JsonNumber number);
 
+        public abstract void setNumber(Record.Builder builder, Schema.Entry entry, JsonNumber number);
+
         public abstract Schema.Type getNumberType(JsonNumber number);
     }
-
 }
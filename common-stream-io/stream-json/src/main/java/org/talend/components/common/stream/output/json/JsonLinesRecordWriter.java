@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.stream.output.json;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import javax.json.JsonObject;
+
+import org.talend.components.common.stream.api.output.RecordConverter;
+import org.talend.components.common.stream.api.output.RecordWriter;
+import org.talend.components.common.stream.api.output.TargetFinder;
+import org.talend.components.common.stream.format.ContentFormat;
+import org.talend.components.common.stream.format.json.JsonLinesConfiguration;
+import org.talend.sdk.component.api.record.Record;
+
+/**
+ * Write each record as a json object on its own line (no enclosing array).
+ */
+public class JsonLinesRecordWriter implements RecordWriter {
+
+    private final TargetFinder target;
+
+    private final JsonLinesConfiguration config;
+
+    private final RecordConverter<JsonObject, Void> toJson;
+
+    private transient Writer writer = null;
+
+    public JsonLinesRecordWriter(TargetFinder target, JsonLinesConfiguration config, RecordConverter<JsonObject, Void> toJson) {
+        this.target = target;
+        this.config = config;
+        this.toJson = toJson;
+    }
+
+    @Override
+    public void init(ContentFormat config) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(this.target.find(), this.config.getEncoding().getEncoding()));
+    }
+
+    @Override
+    public void add(Record record) throws IOException {
+        final JsonObject jsonObject = this.toJson.fromRecord(record);
+        this.writer.write(jsonObject.toString());
+        this.writer.write(JsonLinesConfiguration.LINE_SEPARATOR);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.writer.close();
+    }
+}
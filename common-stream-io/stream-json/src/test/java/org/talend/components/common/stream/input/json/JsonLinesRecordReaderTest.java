@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.stream.input.json;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.talend.components.common.stream.api.input.RangeSource;
+import org.talend.components.common.stream.format.ParallelRead;
+import org.talend.components.common.stream.format.json.JsonLinesConfiguration;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+import org.talend.sdk.component.runtime.record.RecordBuilderFactoryImpl;
+
+class JsonLinesRecordReaderTest {
+
+    @Test
+    void read() {
+        final String content = "{\"id\": 1, \"name\": \"n1\", \"sub\": {\"tags\": [\"a\", \"b\"]}}\r\n" //
+                + "\n" //
+                + "{\"id\": 2, \"name\": \"n2\", \"price\": 2.5}\n" //
+                + "\"text\"\n";
+        final JsonLinesConfiguration config = new JsonLinesConfiguration();
+        config.setForceDouble(false);
+        try (JsonLinesRecordReader reader = new JsonLinesRecordReader(new RecordBuilderFactoryImpl("test"), config)) {
+            final Iterator<Record> records = reader.read(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+
+            Assertions.assertTrue(records.hasNext());
+            final Record first = records.next();
+            Assertions.assertEquals(1L, first.getLong("id"));
+            Assertions.assertEquals("n1", first.getString("name"));
+            Assertions.assertEquals(2, first.getRecord("sub").getArray(String.class, "tags").size());
+
+            Assertions.assertTrue(records.hasNext());
+            final Record second = records.next();
+            Assertions.assertEquals(2L, second.getLong("id"));
+            Assertions.assertEquals(2.5d, second.getDouble("price"));
+
+            Assertions.assertTrue(records.hasNext());
+            final Record third = records.next();
+            Assertions.assertEquals(Schema.Type.STRING, third.getSchema().getEntries().get(0).getType());
+            Assertions.assertEquals("text", third.getString(third.getSchema().getEntries().get(0).getName()));
+
+            Assertions.assertFalse(records.hasNext());
+        }
+    }
+
+    @Test
+    void parallelRead() {
+        final JsonLinesConfiguration config = new JsonLinesConfiguration();
+        config.setParallelRead(new ParallelRead());
+        config.getParallelRead().setActive(true);
+        config.getParallelRead().setChunkSize(1);
+        config.getParallelRead().setParallelism(2);
+
+        final StringBuilder content = new StringBuilder();
+        final int size = 50_000;
+        for (int i = 0; i < size; i++) {
+            content.append("{\"id\": ").append(i).append(", \"label\": \"label ").append(i)
+                    .append(" some text to fill chunks\", \"values\": [1, 2, 3]}\n");
+        }
+        final byte[] bytes = content.toString().getBytes(StandardCharsets.UTF_8);
+        final RangeSource source = new RangeSource() {
+
+            @Override
+            public long length() {
+                return bytes.length;
+            }
+
+            @Override
+            public InputStream open(long start, long end) {
+                return new ByteArrayInputStream(bytes, (int) start, (int) (end - start));
+            }
+        };
+
+        try (JsonLinesRecordReader reader = new JsonLinesRecordReader(new RecordBuilderFactoryImpl("test"), config)) {
+            final Iterator<Record> records = reader.read(source);
+            for (int i = 0; i < size; i++) {
+                Assertions.assertTrue(records.hasNext());
+                final Record record = records.next();
+                Assertions.assertEquals(i, (int) record.getDouble("id"));
+                Assertions.assertEquals("label " + i + " some text to fill chunks", record.getString("label"));
+            }
+            Assertions.assertFalse(records.hasNext());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.stream.input.json;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.json.Json;
+import javax.json.stream.JsonParser;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.talend.components.common.stream.format.json.JsonPointerParser;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+import org.talend.sdk.component.runtime.record.RecordBuilderFactoryImpl;
+
+class JsonParserToRecordTest {
+
+    @Test
+    void stableSchema() {
+        final List<Record> records = this.read("[{\"a\": 1, \"b\": \"x\", \"sub\": {\"c\": true}, \"t\": [1, 2]},"
+                + "{\"b\": \"y\", \"a\": 2, \"sub\": {\"c\": false}, \"t\": []}," //
+                + "{\"a\": 3, \"b\": null}]", false);
+
+        Assertions.assertEquals(3, records.size());
+        Assertions.assertSame(records.get(0).getSchema(), records.get(1).getSchema());
+        Assertions.assertSame(records.get(0).getSchema(), records.get(2).getSchema());
+        Assertions.assertEquals(2L, records.get(1).getLong("a"));
+        Assertions.assertEquals("y", records.get(1).getString("b"));
+        Assertions.assertFalse(records.get(1).getRecord("sub").getBoolean("c"));
+        Assertions.assertTrue(records.get(1).getArray(Long.class, "t").isEmpty());
+        Assertions.assertNull(records.get(2).getString("b"));
+        Assertions.assertNull(records.get(2).getRecord("sub"));
+    }
+
+    @Test
+    void mergedSchema() {
+        final List<Record> records = this.read(
+                "[{\"a\": 1, \"t\": []}, {\"a\": 2.5, \"sub\": {\"c\": 1}, \"t\": [\"x\"]}, {\"a\": 3, \"sub\": {\"d\": \"z\"}}]",
+                false);
+
+        final Schema first = records.get(0).getSchema();
+        Assertions.assertEquals(Schema.Type.LONG, first.getEntries().get(0).getType());
+
+        final Schema second = records.get(1).getSchema();
+        Assertions.assertEquals(Schema.Type.DOUBLE, second.getEntries().get(0).getType());
+        Assertions.assertEquals(Schema.Type.STRING, second.getEntries().get(1).getElementSchema().getType());
+        Assertions.assertEquals("sub", second.getEntries().get(2).getName());
+
+        final Record third = records.get(2);
+        Assertions.assertEquals(3.0d, third.getDouble("a"));
+        Assertions.assertEquals(2, third.getSchema().getEntries().get(2).getElementSchema().getEntries().size());
+        Assertions.assertEquals("z", third.getRecord("sub").getString("d"));
+    }
+
+    @Test
+    void conflictingTypes() {
+        final List<Record> records = this.read("[{\"a\": 1}, {\"a\": \"text\"}, {\"a\": 3}]", false);
+
+        Assertions.assertEquals(Schema.Type.STRING, records.get(1).getSchema().getEntries().get(0).getType());
+        Assertions.assertEquals("text", records.get(1).getString("a"));
+        Assertions.assertSame(records.get(0).getSchema(), records.get(2).getSchema());
+        Assertions.assertEquals(3L, records.get(2).getLong("a"));
+    }
+
+    @Test
+    void notObjectValues() {
+        final List<Record> records = this.read("[1, \"a\", null, {\"field\": 2}]", true);
+
+        Assertions.assertEquals(4, records.size());
+        Assertions.assertEquals(1.0d, records.get(0).getDouble("field"));
+        Assertions.assertEquals("a", records.get(1).getString("field"));
+        Assertions.assertTrue(records.get(2).getSchema().getEntries().size() <= 1);
+        Assertions.assertEquals(2.0d, records.get(3).getDouble("field"));
+    }
+
+    private List<Record> read(String json, boolean forceDouble) {
+        final JsonParserToRecord toRecord = new JsonParserToRecord(new RecordBuilderFactoryImpl("test"), forceDouble);
+        final List<Record> records = new ArrayList<>();
+        try (JsonParser parser = Json.createParser(new StringReader(json))) {
+            JsonPointerParser.of("/").values(parser, toRecord::toRecord).forEachRemaining(records::add);
+        }
+        return records;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.stream.input.json;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import javax.json.Json;
+import javax.json.JsonValue;
+import javax.json.stream.JsonParser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.talend.components.common.stream.format.json.JsonPointerParser;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
+import org.talend.sdk.component.runtime.record.RecordBuilderFactoryImpl;
+
+/**
+ * Compare the reading of a large json array file, generated in the temporary directory at setup, with records built
+ * from parser events ({@link JsonParserToRecord}), and with the former path building a JsonValue for each element,
+ * converted by {@link JsonToRecord}.
+ * Run it with the main method, from the test classpath: it isn't run by the build. The file size is given in
+ * megabytes, for example "-p megabytes=2048" for a 2 GB array.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class JsonRecordReaderBenchmark {
+
+    @Param("256")
+    private long megabytes;
+
+    private final RecordBuilderFactory factory = new RecordBuilderFactoryImpl("benchmark");
+
+    private Path file;
+
+    private long elements;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = Files.createTempFile("json-array-benchmark", ".json");
+        final long size = megabytes * 1024 * 1024;
+        long written = 1;
+        elements = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write('[');
+            while (written < size) {
+                final String element = (elements > 0 ? ",\n" : "") + element(elements);
+                writer.write(element);
+                written += element.length();
+                elements++;
+            }
+            writer.write(']');
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void parserEvents(final Blackhole blackhole) throws IOException {
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(file));
+                JsonRecordReader reader = new JsonRecordReader(JsonPointerParser.of("/"),
+                        new JsonParserToRecord(factory, false))) {
+            consume(reader.read(input), blackhole);
+        }
+    }
+
+    @Benchmark
+    public void jsonValues(final Blackhole blackhole) throws IOException {
+        final JsonToRecord toRecord = new JsonToRecord(factory);
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(file));
+                JsonParser parser = Json.createParserFactory(Collections.emptyMap()).createParser(input)) {
+            final Iterator<JsonValue> values = JsonPointerParser.of("/").values(parser);
+            int count = 0;
+            while (values.hasNext()) {
+                blackhole.consume(toRecord.toRecord(values.next().asJsonObject()));
+                count++;
+            }
+            check(count);
+        }
+    }
+
+    private void consume(final Iterator<Record> records, final Blackhole blackhole) {
+        int count = 0;
+        while (records.hasNext()) {
+            blackhole.consume(records.next());
+            count++;
+        }
+        check(count);
+    }
+
+    private void check(final long count) {
+        if (count != elements) {
+            throw new IllegalStateException("Read " + count + " records instead of " + elements);
+        }
+    }
+
+    private static String element(final long index) {
+        return "{\"id\": " + index + ", \"name\": \"customer " + index + "\", \"amount\": " + (index * 1.25d)
+                + ", \"active\": " + (index % 2 == 0) + ", \"address\": {\"street\": \"" + index
+                + " main street\", \"city\": \"city " + (index % 100) + "\", \"location\": {\"lat\": "
+                + (index % 90) + ".5, \"lon\": " + (index % 180) + ".25}}, \"tags\": [\"t" + (index % 7) + "\", \"t"
+                + (index % 11) + "\"]}";
+    }
+
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder().parent(new CommandLineOptions(args))
+                .include(JsonRecordReaderBenchmark.class.getSimpleName()).addProfiler(GCProfiler.class).build()).run();
+    }
+}
@@ -130,6 +130,53 @@ class JsonToRecordTest {
         Assertions.assertEquals(Schema.Type.DOUBLE, aNumberEntryDouble.getType());
     }
 
+    @Test
+    void schemaCache() {
+        final Record first = toRecord.toRecord(getJsonObject("{\"id\": 1, \"name\": \"n1\", \"sub\": {\"x\": 1.5},"
+                + " \"tags\": [{\"a\": \"v\"}, {\"b\": true}]}"));
+        final Record second = toRecord.toRecord(getJsonObject("{\"id\": 2, \"name\": \"n2\", \"sub\": {\"x\": 2.5},"
+                + " \"tags\": [{\"a\": \"w\"}, {\"b\": false}, {\"b\": true}]}"));
+        Assertions.assertEquals(first.getSchema(), second.getSchema());
+        Assertions.assertSame(first.getSchema().getEntries().get(0), second.getSchema().getEntries().get(0));
+        Assertions.assertEquals(2L, second.getLong("id"));
+        Assertions.assertEquals("n2", second.getString("name"));
+        Assertions.assertEquals(2.5d, second.getRecord("sub").getDouble("x"));
+        Assertions.assertEquals(3, second.getArray(Record.class, "tags").size());
+        Assertions.assertEquals(2, findEntry(second.getSchema(), "tags").getElementSchema().getEntries().size());
+        Assertions.assertFalse(second.getArray(Record.class, "tags").iterator().next().getOptionalBoolean("b").isPresent());
+
+        // null field and other number type make another shape.
+        final Record third = toRecord.toRecord(getJsonObject("{\"id\": 3.5, \"name\": null, \"sub\": {\"x\": 1.5},"
+                + " \"tags\": [{\"a\": \"v\"}, {\"b\": true}]}"));
+        Assertions.assertNotEquals(first.getSchema(), third.getSchema());
+        Assertions.assertEquals(Schema.Type.DOUBLE, findEntry(third.getSchema(), "id").getType());
+        Assertions.assertNull(findEntry(third.getSchema(), "name"));
+
+        // 'tags' items are cached too.
+        Assertions.assertEquals(6L, toRecord.getSchemaCache().getHits());
+        Assertions.assertEquals(4L, toRecord.getSchemaCache().getMisses());
+        Assertions.assertEquals(0.6d, toRecord.getSchemaCache().getHitRatio(), 0.0001d);
+    }
+
+    @Test
+    void schemaCacheEviction() {
+        final JsonToRecord smallCache = new JsonToRecord(new RecordBuilderFactoryImpl("test"), false, 1);
+        final JsonObject first = getJsonObject("{\"f1\": \"v\"}");
+        final JsonObject second = getJsonObject("{\"f2\": \"v\"}");
+        smallCache.toRecord(first);
+        smallCache.toRecord(first);
+        smallCache.toRecord(second);
+        smallCache.toRecord(first);
+        Assertions.assertEquals(1L, smallCache.getSchemaCache().getHits());
+        Assertions.assertEquals(3L, smallCache.getSchemaCache().getMisses());
+
+        final JsonToRecord noCache = new JsonToRecord(new RecordBuilderFactoryImpl("test"), false, 0);
+        final Record record = noCache.toRecord(first);
+        Assertions.assertEquals("v", record.getString("f1"));
+        Assertions.assertNotSame(record.getSchema().getEntries().get(0), noCache.toRecord(first).getSchema().getEntries().get(0));
+        Assertions.assertEquals(0.0d, noCache.getSchemaCache().getHitRatio());
+    }
+
     private Entry findEntry(Schema schema, String entryName) {
         return schema.getEntries().stream().filter((Entry e) -> entryName.equals(e.getName())).findFirst().orElse(null);
     }
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.stream.output.json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.talend.components.common.stream.api.output.RecordWriter;
+import org.talend.components.common.stream.format.json.JsonLinesConfiguration;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
+import org.talend.sdk.component.runtime.record.RecordBuilderFactoryImpl;
+
+class JsonLinesWriterSupplierTest {
+
+    @Test
+    public void write() throws IOException {
+
+        final JsonLinesWriterSupplier supplier = new JsonLinesWriterSupplier();
+        final JsonLinesConfiguration configuration = new JsonLinesConfiguration();
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final RecordWriter writer = supplier.getWriter(() -> out, configuration);
+        writer.init(configuration);
+
+        RecordBuilderFactory factory = new RecordBuilderFactoryImpl("test");
+        writer.add(factory.newRecordBuilder().withString("hi", "v1").withInt("val", 1).build());
+        writer.add(factory.newRecordBuilder().withString("hi", "v2\nv3").withInt("val", 2).build());
+        writer.flush();
+
+        writer.end();
+
+        final String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        Assertions.assertEquals(2, lines.length);
+        final JsonObject first = Json.createReader(new StringReader(lines[0])).readObject();
+        Assertions.assertEquals("v1", first.getString("hi"));
+        Assertions.assertEquals(1, first.getInt("val"));
+        final JsonObject second = Json.createReader(new StringReader(lines[1])).readObject();
+        Assertions.assertEquals("v2\nv3", second.getString("hi"));
+        Assertions.assertEquals(2, second.getInt("val"));
+    }
+
+}
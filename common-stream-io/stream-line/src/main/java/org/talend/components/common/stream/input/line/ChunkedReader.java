@@ -0,0 +1,277 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.stream.input.line;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+import org.talend.components.common.stream.api.input.RangeSource;
+import org.talend.components.common.stream.format.ParallelRead;
+import org.talend.sdk.component.api.record.Record;
+
+/**
+ * Read a source by chunks aligned on record separator.
+ * First chunk is read as usual (headers, types inference), following ones are parsed in parallel with a fork of its
+ * translator, and their records are returned in source order; at most parallelism chunks are parsed ahead.
+ * 
+ * @param <T> : translator used to parse a chunk.
+ */
+public class ChunkedReader<T> implements AutoCloseable {
+
+    /** size of first window read to find a record separator */
+    private static final int WINDOW = 8 * 1024;
+
+    private final RangeSource source;
+
+    /** record separator bytes */
+    private final byte[] separator;
+
+    private final long chunkSize;
+
+    private final int parallelism;
+
+    /** parse records of a chunk without headers */
+    private final BiFunction<InputStream, T, Iterator<Record>> chunkParser;
+
+    private ForkJoinPool pool = null;
+
+    /** chunks being parsed, in source order */
+    private final Deque<Future<List<Record>>> chunks = new ArrayDeque<>();
+
+    /** index of next chunk to submit */
+    private long nextChunk = 1;
+
+    /** start of next chunk to submit: end of previous one, each boundary is searched once */
+    private long nextStart;
+
+    public ChunkedReader(RangeSource source, byte[] separator, ParallelRead config,
+            BiFunction<InputStream, T, Iterator<Record>> chunkParser) {
+        this.source = source;
+        this.separator = separator.clone();
+        this.chunkSize = config.getChunkBytes();
+        this.parallelism = config.getRealParallelism();
+        this.chunkParser = chunkParser;
+    }
+
+    /**
+     * Check if source is worth reading by chunks (several threads, more than one chunk) and if chunks can be found by
+     * searching record separator bytes: true for UTF-8 (no separator byte pattern inside a multi bytes character) and
+     * single byte charsets.
+     *
+     * @param charset : source charset.
+     * @param source : source.
+     * @param config : parallel configuration.
+     * @return true if source can be read by chunks.
+     */
+    public static boolean isChunkable(Charset charset, RangeSource source, ParallelRead config) {
+        return config != null && config.isActive() && config.getRealParallelism() > 1
+                && source.length() > config.getChunkBytes()
+                && (StandardCharsets.UTF_8.equals(charset) || charset.newEncoder().maxBytesPerChar() == 1f);
+    }
+
+    /**
+     * @return stream on first chunk.
+     */
+    public InputStream openFirstChunk() throws IOException {
+        this.nextStart = this.chunkStart(1L);
+        return this.source.open(0L, this.nextStart);
+    }
+
+    /**
+     * Records of all chunks.
+     *
+     * @param firstChunk : records of first chunk, read from openFirstChunk.
+     * @param chunkTranslator : give translator for a following chunk (fork of first chunk one), called once first record
+     *            is read.
+     * @return iterator on all records.
+     */
+    public Iterator<Record> read(Iterator<Record> firstChunk, Supplier<T> chunkTranslator) {
+        // first record fixes schema before translator is forked.
+        final Record firstRecord = firstChunk.hasNext() ? firstChunk.next() : null;
+        this.pool = new ForkJoinPool(this.parallelism);
+        for (int i = 0; i < this.parallelism; i++) {
+            this.submit(chunkTranslator);
+        }
+        return new ChunksIterator(firstRecord, firstChunk, chunkTranslator);
+    }
+
+    @Override
+    public void close() {
+        this.chunks.forEach((Future<List<Record>> chunk) -> chunk.cancel(true));
+        this.chunks.clear();
+        if (this.pool != null) {
+            this.pool.shutdownNow();
+            this.pool = null;
+        }
+    }
+
+    private void submit(Supplier<T> chunkTranslator) {
+        final long chunk = this.nextChunk;
+        final long start = this.nextStart;
+        if (start >= this.source.length()) {
+            return;
+        }
+        long end = start;
+        try {
+            // a record longer than a chunk spans following nominal chunks, they are merged.
+            while (end <= start) {
+                this.nextChunk++;
+                end = this.chunkStart(this.nextChunk);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Can't read chunk " + chunk, ex);
+        }
+        this.nextStart = end;
+        final long chunkEnd = end;
+        final T translator = chunkTranslator.get();
+        this.chunks.addLast(this.pool.submit(() -> this.parseChunk(chunk, start, chunkEnd, translator)));
+    }
+
+    private List<Record> parseChunk(long chunk, long start, long end, T translator) {
+        try {
+            final List<Record> records = new ArrayList<>();
+            try (InputStream in = this.source.open(start, end)) {
+                this.chunkParser.apply(in, translator).forEachRemaining(records::add);
+            }
+            return records;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Can't read chunk " + chunk, ex);
+        }
+    }
+
+    /**
+     * Start of a chunk: position following first record separator after chunk nominal start.
+     */
+    private long chunkStart(long chunk) throws IOException {
+        final long length = this.source.length();
+        final long nominalStart = chunk * this.chunkSize;
+        if (nominalStart >= length) {
+            return length;
+        }
+        long windowStart = nominalStart;
+        int windowSize = WINDOW;
+        while (windowStart < length) {
+            final long windowEnd = Math.min(length, windowStart + windowSize);
+            final byte[] window = this.readRange(windowStart, windowEnd);
+            final int index = this.indexOfSeparator(window);
+            if (index >= 0) {
+                return windowStart + index + this.separator.length;
+            }
+            // next window overlaps current one in case separator is cut.
+            windowStart = windowEnd == length ? length : windowEnd - this.separator.length + 1;
+            windowSize = windowSize * 2;
+        }
+        return length;
+    }
+
+    private byte[] readRange(long start, long end) throws IOException {
+        final byte[] bytes = new byte[(int) (end - start)];
+        try (InputStream in = this.source.open(start, end)) {
+            int offset = 0;
+            while (offset < bytes.length) {
+                final int read = in.read(bytes, offset, bytes.length - offset);
+                if (read < 0) {
+                    break;
+                }
+                offset += read;
+            }
+        }
+        return bytes;
+    }
+
+    private int indexOfSeparator(byte[] window) {
+        for (int i = 0; i <= window.length - this.separator.length; i++) {
+            int j = 0;
+            while (j < this.separator.length && window[i + j] == this.separator[j]) {
+                j++;
+            }
+            if (j == this.separator.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private class ChunksIterator implements Iterator<Record> {
+
+        private Record firstRecord;
+
+        private Iterator<Record> current;
+
+        private final Supplier<T> chunkTranslator;
+
+        ChunksIterator(Record firstRecord, Iterator<Record> firstChunk, Supplier<T> chunkTranslator) {
+            this.firstRecord = firstRecord;
+            this.current = firstChunk;
+            this.chunkTranslator = chunkTranslator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (this.firstRecord != null) {
+                return true;
+            }
+            while (!this.current.hasNext()) {
+                final Future<List<Record>> chunk = ChunkedReader.this.chunks.pollFirst();
+                if (chunk == null) {
+                    return false;
+                }
+                ChunkedReader.this.submit(this.chunkTranslator);
+                this.current = this.waitFor(chunk).iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public Record next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (this.firstRecord != null) {
+                final Record record = this.firstRecord;
+                this.firstRecord = null;
+                return record;
+            }
+            return this.current.next();
+        }
+
+        private List<Record> waitFor(Future<List<Record>> chunk) {
+            try {
+                return chunk.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while parsing chunk", ex);
+            } catch (ExecutionException ex) {
+                final Throwable cause = ex.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IllegalStateException("Can't parse chunk", cause);
+            }
+        }
+    }
+}
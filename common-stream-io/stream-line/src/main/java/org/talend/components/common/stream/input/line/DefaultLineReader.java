@@ -12,7 +12,12 @@
  */
 package org.talend.components.common.stream.input.line;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
 import java.util.Iterator;
 import java.util.Scanner;
 import java.util.regex.Pattern;
@@ -24,6 +29,9 @@ import org.talend.components.common.stream.input.line.schema.HeaderHandler;
  */
 public class DefaultLineReader implements LineReader {
 
+    /** literal line separator, null if given in reg exp form */
+    private final String separator;
+
     /** line separator in reg exp form */
     private final Pattern regExpSeparator;
 
@@ -33,14 +41,19 @@ public class DefaultLineReader implements LineReader {
     /** headers treatment. */
     private final HeaderHandler headers;
 
-    /** current scanner */
-    private Scanner scanner = null;
+    /** current lines, a scanner for reg exp separator */
+    private Closeable lines = null;
 
     public DefaultLineReader(String recordSeparator, String chartSetName, HeaderHandler headers) {
-        this(Pattern.compile(Pattern.quote(recordSeparator)), chartSetName, headers);
+        this(recordSeparator, null, chartSetName, headers);
     }
 
     public DefaultLineReader(Pattern regExpSeparator, String chartSetName, HeaderHandler headers) {
+        this(null, regExpSeparator, chartSetName, headers);
+    }
+
+    private DefaultLineReader(String separator, Pattern regExpSeparator, String chartSetName, HeaderHandler headers) {
+        this.separator = separator;
         this.regExpSeparator = regExpSeparator;
         this.chartSetName = chartSetName;
         this.headers = headers;
@@ -49,16 +62,30 @@ public class DefaultLineReader implements LineReader {
     @Override
     public Iterator<String> read(InputStream reader) {
         this.close();
-        this.scanner = new Scanner(reader, this.chartSetName).useDelimiter(this.regExpSeparator);
-        this.headers.treat(this.scanner);
-        return this.scanner;
+        final Iterator<String> iterator;
+        if (this.separator == null) {
+            final Scanner scanner = new Scanner(reader, this.chartSetName).useDelimiter(this.regExpSeparator);
+            this.lines = scanner;
+            iterator = scanner;
+        } else {
+            final LiteralLineIterator literalLines = new LiteralLineIterator(
+                    new InputStreamReader(reader, Charset.forName(this.chartSetName)), this.separator);
+            this.lines = literalLines;
+            iterator = literalLines;
+        }
+        this.headers.treat(iterator);
+        return iterator;
     }
 
     @Override
     public void close() {
-        if (this.scanner != null) {
-            this.scanner.close();
-            this.scanner = null;
+        if (this.lines != null) {
+            try {
+                this.lines.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Can't close lines", ex);
+            }
+            this.lines = null;
         }
     }
 }
@@ -12,10 +12,13 @@
  */
 package org.talend.components.common.stream.input.line;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
 import java.util.Iterator;
 
-import org.talend.components.common.collections.IteratorMap;
+import org.talend.components.common.stream.api.input.RangeSource;
 import org.talend.components.common.stream.api.input.RecordReader;
 import org.talend.components.common.stream.format.LineConfiguration;
 import org.talend.components.common.stream.input.line.schema.HeaderHandler;
@@ -33,15 +36,24 @@ public class DefaultRecordReader implements RecordReader {
     /** translate line to record */
     private final LineTranslator<Record> toRecord;
 
+    /** lines configuration, for parallel read (null if unknown) */
+    private LineConfiguration lineConfig = null;
+
+    /** current chunks reader */
+    private ChunkedReader<LineToRecord> chunkedReader = null;
+
     public static DefaultRecordReader of(RecordBuilderFactory factory, LineConfiguration lineConfig, LineSplitter splitter) {
 
         final LineToRecord toRecord = new LineToRecord(factory, splitter);
+        toRecord.withTypeInference(lineConfig.getTypeInference());
         final HeaderHandler headerHandler = new HeaderHandler(lineConfig.calcHeader(), toRecord::withHeaders);
 
         final LineReader lineReader = new DefaultLineReader(lineConfig.getLineSeparator(), lineConfig.getEncoding().getEncoding(),
                 headerHandler);
 
-        return new DefaultRecordReader(lineReader, toRecord);
+        final DefaultRecordReader recordReader = new DefaultRecordReader(lineReader, toRecord);
+        recordReader.lineConfig = lineConfig;
+        return recordReader;
     }
 
     public DefaultRecordReader(LineReader lineReader, LineTranslator<Record> toRecord) {
@@ -52,12 +64,45 @@ public class DefaultRecordReader implements RecordReader {
     @Override
     public Iterator<Record> read(InputStream reader) {
         final Iterator<String> lines = lineReader.read(reader);
-        return new IteratorMap<>(lines, this.toRecord::translate);
+        return this.toRecord.translateLines(lines);
+    }
+
+    @Override
+    public Iterator<Record> read(RangeSource source) {
+        if (this.lineConfig == null || !(this.toRecord instanceof LineToRecord)) {
+            return RecordReader.super.read(source);
+        }
+        final Charset charset = Charset.forName(this.lineConfig.getEncoding().getEncoding());
+        if (!ChunkedReader.isChunkable(charset, source, this.lineConfig.getParallelRead())) {
+            return RecordReader.super.read(source);
+        }
+        this.close();
+        this.chunkedReader = new ChunkedReader<>(source, this.lineConfig.getLineSeparator().getBytes(charset),
+                this.lineConfig.getParallelRead(), this::readChunk);
+        try {
+            final Iterator<Record> firstChunk = this.read(this.chunkedReader.openFirstChunk());
+            return this.chunkedReader.read(firstChunk, ((LineToRecord) this.toRecord)::fork);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Can't open source", ex);
+        }
     }
 
     @Override
     public void close() {
         this.lineReader.close();
+        if (this.chunkedReader != null) {
+            this.chunkedReader.close();
+            this.chunkedReader = null;
+        }
+    }
+
+    /**
+     * Read records of a chunk (no header).
+     */
+    private Iterator<Record> readChunk(InputStream chunk, LineToRecord chunkToRecord) {
+        final LineReader chunkReader = new DefaultLineReader(this.lineConfig.getLineSeparator(),
+                this.lineConfig.getEncoding().getEncoding(), new HeaderHandler(0, null));
+        return chunkToRecord.translateLines(chunkReader.read(chunk));
     }
 
 }
@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.stream.input.line;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Split a line by writing fields boundaries in a reusable array instead of creating intermediate values.
+ * Field i is line.substring(offsets[2 * i], offsets[2 * i + 1]).
+ */
+public interface LineOffsetSplitter extends LineSplitter {
+
+    /**
+     * write fields boundaries of a line.
+     *
+     * @param line : line of data.
+     * @param offsets : array receiving start and end of fields, fields that don't fit in it are not written.
+     * @return number of fields in line.
+     */
+    int split(String line, int[] offsets);
+
+    @Override
+    default Iterable<String> translate(String line) {
+        int[] offsets = new int[0];
+        final int size = this.split(line, offsets);
+        if (size > 0) {
+            offsets = new int[size * 2];
+            this.split(line, offsets);
+        }
+        final List<String> fields = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            fields.add(line.substring(offsets[2 * i], offsets[2 * i + 1]));
+        }
+        return fields;
+    }
+}
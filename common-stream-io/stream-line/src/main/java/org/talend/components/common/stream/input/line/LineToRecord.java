@@ -12,17 +12,29 @@
  */
 package org.talend.components.common.stream.input.line;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.function.Function;
 
+import org.talend.components.common.collections.IteratorMap;
+import org.talend.components.common.stream.format.TypeInference;
 import org.talend.components.common.stream.input.line.schema.SchemaBuilder;
+import org.talend.components.common.stream.input.line.schema.SchemaInference;
+import org.talend.components.common.stream.input.line.schema.ValueSetter;
 import org.talend.sdk.component.api.record.Record;
 import org.talend.sdk.component.api.record.Schema;
 import org.talend.sdk.component.api.record.Schema.Entry;
 import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
 
+import lombok.extern.slf4j.Slf4j;
+
 /**
  * Translate line from source to record.
  */
+@Slf4j
 public class LineToRecord implements LineTranslator<Record> {
 
     /** record factory */
@@ -33,38 +45,256 @@ public class LineToRecord implements LineTranslator<Record> {
 
     private final SchemaBuilder schemaBuilder = new SchemaBuilder();
 
+    /** record schema, known from headers or first line */
+    private Schema schema = null;
+
+    /** schema entries by field index */
+    private Entry[] entries = null;
+
+    /** fields boundaries of current line, for offset splitters */
+    private int[] offsets = new int[0];
+
+    /** types inference, null or inactive for string fields */
+    private TypeInference typeInference = null;
+
+    /** set values of typed fields, null for string fields */
+    private ValueSetter[] setters = null;
+
+    /** lines with more fields than the schema were already reported */
+    private boolean extraFieldsReported = false;
+
     public LineToRecord(RecordBuilderFactory recordBuilderFactory, LineSplitter splitter) {
         this.recordBuilderFactory = recordBuilderFactory;
         this.splitter = splitter;
     }
 
+    /**
+     * Translator sharing this schema and field types, for another part of the same source.
+     *
+     * @return new translator.
+     */
+    public LineToRecord fork() {
+        final LineToRecord forked = new LineToRecord(this.recordBuilderFactory, this.splitter);
+        forked.schema = this.schema;
+        forked.entries = this.entries;
+        forked.setters = this.setters;
+        return forked;
+    }
+
     /**
      * Build schema with header line.
      * 
      * @param headersLine header from header line.
      */
     public void withHeaders(String headersLine) {
-        final Iterable<String> headers = splitter.translate(headersLine);
-        this.schemaBuilder.get(this.recordBuilderFactory, headers, true);
+        this.withHeaders(splitter.translate(headersLine));
+    }
+
+    /**
+     * Build schema with header values.
+     *
+     * @param headers header values, already split.
+     */
+    public void withHeaders(Iterable<String> headers) {
+        this.initSchema(headers, true);
+    }
+
+    /**
+     * Infer fields types from first lines.
+     *
+     * @param typeInference inference configuration (may be null).
+     */
+    public void withTypeInference(TypeInference typeInference) {
+        this.typeInference = typeInference;
+    }
+
+    @Override
+    public Iterator<Record> translateLines(Iterator<String> lines) {
+        if (this.sampleSize() <= 0) {
+            return LineTranslator.super.translateLines(lines);
+        }
+        return new SampledIterator<>(lines, (String line) -> this.copy(this.splitter.translate(line)), this::translate);
+    }
+
+    /**
+     * Build records from field values, for readers that split the source themselves.
+     *
+     * @param values values of each record, lists may be reused by the iterator.
+     * @return iterator on records.
+     */
+    public Iterator<Record> buildRecords(Iterator<? extends Iterable<String>> values) {
+        if (this.sampleSize() <= 0) {
+            return new IteratorMap<>(values, this::build);
+        }
+        return new SampledIterator<>(values, this::copy, this::build);
     }
 
     @Override
     public Record translate(String line) {
+        if (this.splitter instanceof LineOffsetSplitter) {
+            return this.build(line, (LineOffsetSplitter) this.splitter);
+        }
         final Iterable<String> fields = splitter.translate(line);
         return this.build(fields);
     }
 
-    private Record build(Iterable<String> fields) {
-        final Schema schema = this.schemaBuilder.get(this.recordBuilderFactory, fields, false);
-        final Record.Builder recordBuilder = recordBuilderFactory.newRecordBuilder(schema);
+    /**
+     * Build record from field values, for readers that split the source themselves.
+     *
+     * @param fields values of the record fields.
+     * @return record.
+     */
+    public Record build(Iterable<String> fields) {
+        if (this.schema == null) {
+            this.initSchema(fields, false);
+        }
+        final Record.Builder recordBuilder = recordBuilderFactory.newRecordBuilder(this.schema);
 
-        final List<Entry> entries = schema.getEntries();
-        int indexEntry = 0;
-        for (String field : fields) {
-            recordBuilder.withString(entries.get(indexEntry), field);
-            indexEntry++;
+        if (fields instanceof List && fields instanceof RandomAccess) {
+            final List<String> values = (List<String>) fields;
+            final int size = Math.min(values.size(), this.entries.length);
+            for (int indexEntry = 0; indexEntry < size; indexEntry++) {
+                this.set(recordBuilder, indexEntry, values.get(indexEntry));
+            }
+            this.checkFieldCount(values.size());
+        } else {
+            int indexEntry = 0;
+            for (String field : fields) {
+                if (indexEntry < this.entries.length) {
+                    this.set(recordBuilder, indexEntry, field);
+                }
+                indexEntry++;
+            }
+            this.checkFieldCount(indexEntry);
+        }
+        return recordBuilder.build();
+    }
+
+    /**
+     * Build record from fields boundaries, only the values are created.
+     */
+    private Record build(String line, LineOffsetSplitter offsetSplitter) {
+        int size = offsetSplitter.split(line, this.offsets);
+        if (size * 2 > this.offsets.length) {
+            this.offsets = new int[size * 2];
+            size = offsetSplitter.split(line, this.offsets);
         }
+        if (this.schema == null) {
+            this.initSchema(offsetSplitter.translate(line), false);
+        }
+        final Record.Builder recordBuilder = recordBuilderFactory.newRecordBuilder(this.schema);
+        final int fieldCount = Math.min(size, this.entries.length);
+        for (int indexEntry = 0; indexEntry < fieldCount; indexEntry++) {
+            this.set(recordBuilder, indexEntry,
+                    line.substring(this.offsets[2 * indexEntry], this.offsets[2 * indexEntry + 1]));
+        }
+        this.checkFieldCount(size);
         return recordBuilder.build();
     }
 
+    private void initSchema(Iterable<String> fields, boolean header) {
+        this.schema = this.schemaBuilder.get(this.recordBuilderFactory, fields, header);
+        this.entries = this.schema.getEntries().toArray(new Entry[0]);
+    }
+
+    /**
+     * Missing fields are left empty, extra fields are ignored; reported once as it usually concerns many lines.
+     */
+    private void checkFieldCount(int fieldCount) {
+        if (fieldCount > this.entries.length && !this.extraFieldsReported) {
+            this.extraFieldsReported = true;
+            log.warn("Line with {} fields while schema has {}, extra fields are ignored (reported only once).", fieldCount,
+                    this.entries.length);
+        }
+    }
+
+    private void set(Record.Builder recordBuilder, int indexEntry, String value) {
+        if (this.setters == null) {
+            recordBuilder.withString(this.entries[indexEntry], value);
+        } else {
+            this.setters[indexEntry].set(recordBuilder, this.entries[indexEntry], value);
+        }
+    }
+
+    private int sampleSize() {
+        return this.typeInference == null ? 0 : this.typeInference.getSampleSize();
+    }
+
+    private List<String> copy(Iterable<String> values) {
+        final List<String> copy = new ArrayList<>();
+        values.forEach(copy::add);
+        return copy;
+    }
+
+    /**
+     * Type the schema with values of sampled lines.
+     */
+    private void inferTypes(List<List<String>> samples) {
+        if (this.schema == null) {
+            if (samples.isEmpty()) {
+                return;
+            }
+            this.initSchema(samples.get(0), false);
+        }
+        final SchemaInference inference = new SchemaInference(this.typeInference.getRealDatePatterns());
+        samples.forEach(inference::sample);
+        this.schema = inference.inferSchema(this.recordBuilderFactory, this.schema);
+        this.entries = this.schema.getEntries().toArray(new Entry[0]);
+        this.setters = inference.setters(this.entries.length);
+    }
+
+    /**
+     * Read ahead first elements to infer types before building first record.
+     * 
+     * @param <T> : source element type (line or values).
+     */
+    private class SampledIterator<T> implements Iterator<Record> {
+
+        private final Iterator<T> source;
+
+        /** detached values of a source element */
+        private final Function<T, List<String>> toValues;
+
+        private final Function<T, Record> toRecord;
+
+        /** values of sampled elements not yet returned, null until sampling is done */
+        private Iterator<List<String>> samples = null;
+
+        SampledIterator(Iterator<T> source, Function<T, List<String>> toValues, Function<T, Record> toRecord) {
+            this.source = source;
+            this.toValues = toValues;
+            this.toRecord = toRecord;
+        }
+
+        @Override
+        public boolean hasNext() {
+            this.sample();
+            return this.samples.hasNext() || this.source.hasNext();
+        }
+
+        @Override
+        public Record next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (this.samples.hasNext()) {
+                return LineToRecord.this.build(this.samples.next());
+            }
+            return this.toRecord.apply(this.source.next());
+        }
+
+        private void sample() {
+            if (this.samples != null) {
+                return;
+            }
+            final int size = LineToRecord.this.sampleSize();
+            final List<List<String>> values = new ArrayList<>(Math.min(size, 1024));
+            while (values.size() < size && this.source.hasNext()) {
+                values.add(this.toValues.apply(this.source.next()));
+            }
+            LineToRecord.this.inferTypes(values);
+            this.samples = values.iterator();
+        }
+    }
+
 }
@@ -12,6 +12,10 @@
  */
 package org.talend.components.common.stream.input.line;
 
+import java.util.Iterator;
+
+import org.talend.components.common.collections.IteratorMap;
+
 /**
  * convert a text line to object.
  * 
@@ -21,4 +25,14 @@ package org.talend.components.common.stream.input.line;
 public interface LineTranslator<T> {
 
     T translate(String line);
+
+    /**
+     * convert all lines.
+     *
+     * @param lines : text lines.
+     * @return iterator on converted objects.
+     */
+    default Iterator<T> translateLines(Iterator<String> lines) {
+        return new IteratorMap<>(lines, this::translate);
+    }
 }
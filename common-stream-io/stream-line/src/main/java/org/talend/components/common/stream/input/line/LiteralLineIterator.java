@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.stream.input.line;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterator on lines of a stream separated by a literal separator.
+ * Characters are read through a reusable buffer, so a line only creates its string (a scanner also copies each token
+ * through its own char buffers and matcher).
+ * Lines are the ones of a scanner using the separator as delimiter: a separator at the start of the stream is skipped
+ * and a separator at the end doesn't start an empty line.
+ */
+class LiteralLineIterator implements Iterator<String>, Closeable {
+
+    private static final int NONE = -1;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+
+    private final char[] separator;
+
+    private final char[] buffer = new char[BUFFER_SIZE];
+
+    private int position = 0;
+
+    private int limit = 0;
+
+    /** characters of the current line */
+    private final StringBuilder line = new StringBuilder();
+
+    /** next line, null if not read yet */
+    private String next = null;
+
+    /** no separator found yet */
+    private boolean first = true;
+
+    private boolean end = false;
+
+    LiteralLineIterator(Reader reader, String separator) {
+        this.reader = reader;
+        this.separator = separator.toCharArray();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (this.next == null && !this.end) {
+            this.next = this.readLine();
+        }
+        return this.next != null;
+    }
+
+    @Override
+    public String next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final String current = this.next;
+        this.next = null;
+        return current;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.reader.close();
+    }
+
+    private String readLine() {
+        this.line.setLength(0);
+        final char last = this.separator[this.separator.length - 1];
+        int c = this.read();
+        while (c != NONE) {
+            this.line.append((char) c);
+            if (c == last && this.endsWithSeparator()) {
+                this.line.setLength(this.line.length() - this.separator.length);
+                final boolean skip = this.first && this.line.length() == 0;
+                this.first = false;
+                if (!skip) {
+                    return this.line.toString();
+                }
+            }
+            c = this.read();
+        }
+        this.end = true;
+        return this.line.length() == 0 ? null : this.line.toString();
+    }
+
+    private boolean endsWithSeparator() {
+        final int start = this.line.length() - this.separator.length;
+        if (start < 0) {
+            return false;
+        }
+        for (int i = 0; i < this.separator.length; i++) {
+            if (this.line.charAt(start + i) != this.separator[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int read() {
+        if (this.position >= this.limit) {
+            try {
+                this.limit = this.reader.read(this.buffer, 0, this.buffer.length);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Can't read lines", ex);
+            }
+            this.position = 0;
+            if (this.limit <= 0) {
+                this.limit = 0;
+                return NONE;
+            }
+        }
+        return this.buffer[this.position++];
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.stream.input.line.schema;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Infer fields types from a sample of lines values.
+ * Types are tried from the narrowest (BOOLEAN, INT, LONG, DOUBLE, DATETIME) to STRING,
+ * empty values don't take part to inference and give null fields.
+ */
+@Slf4j
+public class SchemaInference {
+
+    /** integer without leading zero (so codes like "0042" stay strings) */
+    private static final Pattern INTEGER = Pattern.compile("[+-]?(0|[1-9][0-9]*)");
+
+    private static final Pattern DECIMAL = Pattern
+            .compile("[+-]?((0|[1-9][0-9]*)(\\.[0-9]*)?|\\.[0-9]+)([eE][+-]?[0-9]+)?");
+
+    /** date formats from patterns */
+    private final List<DateTimeFormatter> dateFormats;
+
+    /** guess for each field */
+    private FieldGuess[] guesses = new FieldGuess[0];
+
+    public SchemaInference(List<String> datePatterns) {
+        this.dateFormats = datePatterns.stream().map(SchemaInference::toFormatter).collect(Collectors.toList());
+    }
+
+    /**
+     * Take values of a line into account.
+     *
+     * @param values : line values.
+     */
+    public void sample(Iterable<String> values) {
+        int index = 0;
+        for (String value : values) {
+            if (index >= this.guesses.length) {
+                final FieldGuess[] newGuesses = new FieldGuess[index + 1];
+                System.arraycopy(this.guesses, 0, newGuesses, 0, this.guesses.length);
+                newGuesses[index] = new FieldGuess(this.dateFormats.size());
+                this.guesses = newGuesses;
+            }
+            this.guesses[index].sample(value);
+            index++;
+        }
+    }
+
+    /**
+     * Build typed schema from string schema (fields names).
+     *
+     * @param factory : record factory.
+     * @param stringSchema : schema with fields names.
+     * @return schema with inferred types.
+     */
+    public Schema inferSchema(RecordBuilderFactory factory, Schema stringSchema) {
+        final Schema.Builder builder = factory.newSchemaBuilder(Schema.Type.RECORD);
+        int index = 0;
+        for (Schema.Entry entry : stringSchema.getEntries()) {
+            final Schema.Type type = index < this.guesses.length ? this.guesses[index].getType() : Schema.Type.STRING;
+            builder.withEntry(factory.newEntryBuilder().withName(entry.getName()).withType(type).withNullable(true).build());
+            index++;
+        }
+        return builder.build();
+    }
+
+    /**
+     * Setters converting values for inferred types (to be called after inferSchema).
+     *
+     * @param fieldCount : number of fields.
+     * @return setter for each field.
+     */
+    public ValueSetter[] setters(int fieldCount) {
+        final ValueSetter[] setters = new ValueSetter[fieldCount];
+        for (int index = 0; index < fieldCount; index++) {
+            setters[index] = index < this.guesses.length ? this.toSetter(this.guesses[index]) : ValueSetter.STRING;
+        }
+        return setters;
+    }
+
+    private ValueSetter toSetter(FieldGuess guess) {
+        switch (guess.getType()) {
+        case BOOLEAN:
+            return typed(Schema.Type.BOOLEAN, SchemaInference::parseBoolean, Record.Builder::withBoolean);
+        case INT:
+            return typed(Schema.Type.INT, Integer::valueOf, Record.Builder::withInt);
+        case LONG:
+            return typed(Schema.Type.LONG, Long::valueOf, Record.Builder::withLong);
+        case DOUBLE:
+            return typed(Schema.Type.DOUBLE, Double::valueOf, Record.Builder::withDouble);
+        case DATETIME:
+            final DateTimeFormatter format = this.dateFormats.get(guess.getDateFormatIndex());
+            return typed(Schema.Type.DATETIME, (String value) -> ZonedDateTime.parse(value, format),
+                    Record.Builder::withDateTime);
+        default:
+            return ValueSetter.STRING;
+        }
+    }
+
+    /**
+     * A value that doesn't match the type inferred from the sample leaves the field empty (as an empty value), so that a
+     * source that can be read without inference is still read; it is reported once by field.
+     */
+    private static <T> ValueSetter typed(Schema.Type type, Function<String, T> parser, TypedSetter<T> setter) {
+        final AtomicBoolean reported = new AtomicBoolean(false);
+        return (Record.Builder builder, Schema.Entry entry, String value) -> {
+            if (value == null || value.isEmpty()) {
+                return;
+            }
+            final T typedValue;
+            try {
+                typedValue = parser.apply(value);
+            } catch (RuntimeException ex) {
+                if (reported.compareAndSet(false, true)) {
+                    log.warn("Value '{}' of field '{}' is not a {}, the field is left empty (reported only once by field). "
+                            + "Increase the number of lines sampled to infer types.", value, entry.getName(), type);
+                }
+                return;
+            }
+            setter.set(builder, entry, typedValue);
+        };
+    }
+
+    private static Boolean parseBoolean(String value) {
+        if ("true".equalsIgnoreCase(value)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equalsIgnoreCase(value)) {
+            return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException("not a boolean : " + value);
+    }
+
+    private static DateTimeFormatter toFormatter(String pattern) {
+        return new DateTimeFormatterBuilder().appendPattern(pattern) //
+                .parseDefaulting(ChronoField.HOUR_OF_DAY, 0) //
+                .parseDefaulting(ChronoField.MINUTE_OF_HOUR, 0) //
+                .parseDefaulting(ChronoField.SECOND_OF_MINUTE, 0) //
+                .toFormatter(Locale.ROOT) //
+                .withZone(ZoneOffset.UTC);
+    }
+
+    @FunctionalInterface
+    private interface TypedSetter<T> {
+
+        void set(Record.Builder builder, Schema.Entry entry, T value);
+    }
+
+    /**
+     * Types still possible for a field.
+     */
+    private class FieldGuess {
+
+        private boolean hasValue = false;
+
+        private boolean isBoolean = true;
+
+        private boolean isInt = true;
+
+        private boolean isLong = true;
+
+        private boolean isDouble = true;
+
+        /** date formats matching all values */
+        private final boolean[] dateFormatsMatch;
+
+        FieldGuess(int dateFormatCount) {
+            this.dateFormatsMatch = new boolean[dateFormatCount];
+            Arrays.fill(this.dateFormatsMatch, true);
+        }
+
+        void sample(String value) {
+            if (value == null || value.isEmpty()) {
+                return;
+            }
+            this.hasValue = true;
+            this.isBoolean = this.isBoolean && ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value));
+            if (this.isLong && INTEGER.matcher(value).matches()) {
+                try {
+                    final long number = Long.parseLong(value);
+                    this.isInt = this.isInt && number >= Integer.MIN_VALUE && number <= Integer.MAX_VALUE;
+                } catch (NumberFormatException ex) {
+                    this.isInt = false;
+                    this.isLong = false;
+                }
+            } else {
+                this.isInt = false;
+                this.isLong = false;
+            }
+            this.isDouble = this.isDouble && DECIMAL.matcher(value).matches();
+            for (int i = 0; i < this.dateFormatsMatch.length; i++) {
+                this.dateFormatsMatch[i] = this.dateFormatsMatch[i] && this.isDate(value, i);
+            }
+        }
+
+        private boolean isDate(String value, int formatIndex) {
+            try {
+                ZonedDateTime.parse(value, SchemaInference.this.dateFormats.get(formatIndex));
+                return true;
+            } catch (DateTimeParseException ex) {
+                return false;
+            }
+        }
+
+        int getDateFormatIndex() {
+            for (int i = 0; i < this.dateFormatsMatch.length; i++) {
+                if (this.dateFormatsMatch[i]) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        Schema.Type getType() {
+            if (!this.hasValue) {
+                return Schema.Type.STRING;
+            }
+            if (this.isBoolean) {
+                return Schema.Type.BOOLEAN;
+            }
+            if (this.isInt) {
+                return Schema.Type.INT;
+            }
+            if (this.isLong) {
+                return Schema.Type.LONG;
+            }
+            if (this.isDouble) {
+                return Schema.Type.DOUBLE;
+            }
+            if (this.getDateFormatIndex() >= 0) {
+                return Schema.Type.DATETIME;
+            }
+            return Schema.Type.STRING;
+        }
+    }
+}
@@ -14,12 +14,15 @@ package org.talend.components.common.stream.input.line;
 
 import java.io.ByteArrayInputStream;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -42,11 +45,34 @@ class DefaultLineReaderTest {
             Assertions.assertEquals(list.get(index), l);
             index++;
         }
+        Assertions.assertEquals(list.size(), index);
+    }
+
+    @Test
+    void readAcrossBuffers() {
+        final StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            content.append("line").append(i).append("\r\n");
+        }
+        DefaultLineReader reader = new DefaultLineReader("\r\n", "UTF-8", new HeaderHandler(0, null));
+
+        final Iterator<String> lines = reader.read(new ByteArrayInputStream(content.toString().getBytes(StandardCharsets.UTF_8)));
+        for (int i = 0; i < 5000; i++) {
+            Assertions.assertEquals("line" + i, lines.next());
+        }
+        Assertions.assertFalse(lines.hasNext());
+        reader.close();
     }
 
     static Stream<Arguments> lineProvider() {
         return Stream.of(Arguments.arguments("\n", "Hello\nWorld\nTDI", Arrays.asList("Hello", "World", "TDI")),
-                Arguments.arguments("\r\n", "Hello\r\nWorld\r\nTDI", Arrays.asList("Hello", "World", "TDI")));
+                Arguments.arguments("\r\n", "Hello\r\nWorld\r\nTDI", Arrays.asList("Hello", "World", "TDI")),
+                Arguments.arguments("\n", "Hello\n\nWorld\n", Arrays.asList("Hello", "", "World")),
+                // as with a scanner, a separator at the start is skipped
+                Arguments.arguments("\n", "\n\nHello", Arrays.asList("", "Hello")),
+                Arguments.arguments("\r\n", "Hello\r\r\nWorld\n", Arrays.asList("Hello\r", "World\n")),
+                Arguments.arguments("||", "Hello|||World||||TDI", Arrays.asList("Hello", "|World", "", "TDI")),
+                Arguments.arguments("\n", "", Collections.emptyList()));
     }
 
 }
\ No newline at end of file
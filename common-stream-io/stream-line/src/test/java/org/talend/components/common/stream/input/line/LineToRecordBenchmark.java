@@ -0,0 +1,252 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.stream.input.line;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.talend.components.common.stream.input.line.schema.HeaderHandler;
+import org.talend.components.common.stream.input.line.schema.SchemaBuilder;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+import org.talend.sdk.component.api.record.Schema.Entry;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
+import org.talend.sdk.component.runtime.record.RecordBuilderFactoryImpl;
+
+/**
+ * Compare the allocations per record of reading generated delimited (csv) and fixed-width lines, with the literal
+ * line iterator and the offset splitters, and with the scanner and the splitters returning values they replaced,
+ * copied in the benchmark.
+ * Run it with the main method, from the test classpath: it isn't run by the build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LineToRecordBenchmark {
+
+    private static final int LINES = 20_000;
+
+    private static final int FIELDS = 8;
+
+    private static final int FIELD_LENGTH = 8;
+
+    @Param({ "csv", "fixed" })
+    private String format;
+
+    private final RecordBuilderFactory factory = new RecordBuilderFactoryImpl("benchmark");
+
+    private byte[] content;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < LINES; i++) {
+            for (int field = 0; field < FIELDS; field++) {
+                final String value = Integer.toString(i * FIELDS + field, 36);
+                if ("csv".equals(format)) {
+                    builder.append(field > 0 ? ";" : "").append(value);
+                } else {
+                    builder.append(value);
+                    for (int pad = value.length(); pad < FIELD_LENGTH; pad++) {
+                        builder.append(' ');
+                    }
+                }
+            }
+            builder.append('\n');
+        }
+        content = builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void offsetSplitter(final Blackhole blackhole) {
+        final LineOffsetSplitter splitter = "csv".equals(format) ? new DelimitedSplitter() : new FixedSplitter();
+        final LineReader lineReader = new DefaultLineReader("\n", "UTF-8", new HeaderHandler(0, null));
+        try (DefaultRecordReader reader = new DefaultRecordReader(lineReader, new LineToRecord(factory, splitter))) {
+            consume(reader.read(new ByteArrayInputStream(content)), blackhole);
+        }
+    }
+
+    @Benchmark
+    public void scannerAndValuesSplitter(final Blackhole blackhole) {
+        final LineSplitter splitter = "csv".equals(format) ? new FormerDelimitedSplitter() : new FormerFixedSplitter();
+        final LineReader lineReader = new DefaultLineReader(Pattern.compile(Pattern.quote("\n")), "UTF-8",
+                new HeaderHandler(0, null));
+        try (DefaultRecordReader reader = new DefaultRecordReader(lineReader, new FormerLineToRecord(factory, splitter))) {
+            consume(reader.read(new ByteArrayInputStream(content)), blackhole);
+        }
+    }
+
+    private void consume(final Iterator<Record> records, final Blackhole blackhole) {
+        int count = 0;
+        while (records.hasNext()) {
+            blackhole.consume(records.next());
+            count++;
+        }
+        if (count != LINES) {
+            throw new IllegalStateException("Read " + count + " records instead of " + LINES);
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LineToRecordBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class).build()).run();
+    }
+
+    /**
+     * Fields separated by ';', without quotes.
+     */
+    private static class DelimitedSplitter implements LineOffsetSplitter {
+
+        @Override
+        public int split(final String line, final int[] offsets) {
+            int count = 0;
+            int start = 0;
+            while (start >= 0) {
+                final int end = line.indexOf(';', start);
+                if (2 * count + 1 < offsets.length) {
+                    offsets[2 * count] = start;
+                    offsets[2 * count + 1] = end < 0 ? line.length() : end;
+                }
+                count++;
+                start = end < 0 ? -1 : end + 1;
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Same splitting as the fixed line splitter of stream-fixed, on which this module doesn't depend.
+     */
+    private static class FixedSplitter implements LineOffsetSplitter {
+
+        @Override
+        public int split(final String line, final int[] offsets) {
+            final int size = Math.min(FIELDS, offsets.length / 2);
+            int lineCursor = 0;
+            for (int index = 0; index < size; index++) {
+                final int posEnd = Math.min(lineCursor + FIELD_LENGTH, line.length());
+                offsets[2 * index] = lineCursor;
+                offsets[2 * index + 1] = posEnd;
+                lineCursor = posEnd;
+            }
+            return FIELDS;
+        }
+    }
+
+    /**
+     * Former delimited splitting, a list of values by line.
+     */
+    private static class FormerDelimitedSplitter implements LineSplitter {
+
+        @Override
+        public Iterable<String> translate(final String line) {
+            final List<String> fields = new ArrayList<>();
+            int start = 0;
+            int end = line.indexOf(';');
+            while (end >= 0) {
+                fields.add(line.substring(start, end));
+                start = end + 1;
+                end = line.indexOf(';', start);
+            }
+            fields.add(line.substring(start));
+            return fields;
+        }
+    }
+
+    /**
+     * Former fixed line splitter, an iterator creating values by line.
+     */
+    private static class FormerFixedSplitter implements LineSplitter {
+
+        @Override
+        public Iterable<String> translate(final String line) {
+            return () -> new Iterator<String>() {
+
+                private int lineCursor = 0;
+
+                private int fieldIndex = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return fieldIndex < FIELDS;
+                }
+
+                @Override
+                public String next() {
+                    final int posEnd = lineCursor + FIELD_LENGTH;
+                    final String value = line.substring(lineCursor, posEnd);
+                    lineCursor = posEnd;
+                    fieldIndex++;
+                    return value;
+                }
+            };
+        }
+    }
+
+    /**
+     * Former line to record translation: schema list lookup for each field.
+     */
+    private static class FormerLineToRecord implements LineTranslator<Record> {
+
+        private final RecordBuilderFactory recordBuilderFactory;
+
+        private final LineSplitter splitter;
+
+        private final SchemaBuilder schemaBuilder = new SchemaBuilder();
+
+        FormerLineToRecord(final RecordBuilderFactory recordBuilderFactory, final LineSplitter splitter) {
+            this.recordBuilderFactory = recordBuilderFactory;
+            this.splitter = splitter;
+        }
+
+        @Override
+        public Record translate(final String line) {
+            final Iterable<String> fields = splitter.translate(line);
+            final Schema schema = this.schemaBuilder.get(this.recordBuilderFactory, fields, false);
+            final Record.Builder recordBuilder = recordBuilderFactory.newRecordBuilder(schema);
+
+            final List<Entry> entries = schema.getEntries();
+            int indexEntry = 0;
+            for (String field : fields) {
+                recordBuilder.withString(entries.get(indexEntry), field);
+                indexEntry++;
+            }
+            return recordBuilder.build();
+        }
+    }
+}
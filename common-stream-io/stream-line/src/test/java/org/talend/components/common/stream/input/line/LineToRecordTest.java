@@ -18,6 +18,7 @@ import java.util.List;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.talend.components.common.stream.format.TypeInference;
 import org.talend.sdk.component.api.record.Record;
 import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
 import org.talend.sdk.component.runtime.record.RecordBuilderFactoryImpl;
@@ -52,4 +53,43 @@ class LineToRecordTest {
         Assertions.assertEquals("Hello", record.getString("greetings"));
         Assertions.assertEquals("World", record.getString("who"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void translateWithExtraAndMissingFields() {
+        final LineSplitter splitter = (String line) -> Arrays.asList(line.split(";"));
+
+        LineToRecord toRecord = new LineToRecord(factory, splitter);
+        toRecord.withHeaders("greetings;who");
+
+        final Record extra = toRecord.translate("Hello;World;!");
+        Assertions.assertEquals(2, extra.getSchema().getEntries().size());
+        Assertions.assertEquals("Hello", extra.getString("greetings"));
+        Assertions.assertEquals("World", extra.getString("who"));
+
+        final Record missing = toRecord.translate("Hello");
+        Assertions.assertEquals("Hello", missing.getString("greetings"));
+        Assertions.assertNull(missing.getString("who"));
+    }
+
+    @Test
+    void valueNotMatchingSampledType() {
+        final LineSplitter splitter = (String line) -> Arrays.asList(line.split(";"));
+
+        LineToRecord toRecord = new LineToRecord(factory, splitter);
+        toRecord.withHeaders("id;name");
+        final TypeInference inference = new TypeInference();
+        inference.setActive(true);
+        inference.setSampleSize(2);
+        toRecord.withTypeInference(inference);
+
+        final List<Record> records = new ArrayList<>();
+        toRecord.translateLines(Arrays.asList("1;a", "2;b", "N/A;c", "4;d").iterator()).forEachRemaining(records::add);
+
+        Assertions.assertEquals(4, records.size());
+        Assertions.assertEquals(2, records.get(1).getInt("id"));
+        // value after the sample that is not an INT
+        Assertions.assertFalse(records.get(2).getOptionalInt("id").isPresent());
+        Assertions.assertEquals("c", records.get(2).getString("name"));
+        Assertions.assertEquals(4, records.get(3).getInt("id"));
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.stream.input.line.schema;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
+import org.talend.sdk.component.runtime.record.RecordBuilderFactoryImpl;
+
+class SchemaInferenceTest {
+
+    private final RecordBuilderFactory factory = new RecordBuilderFactoryImpl("test");
+
+    @Test
+    void inferSchema() {
+        final SchemaInference inference = new SchemaInference(Arrays.asList("yyyy-MM-dd HH:mm:ss", "dd/MM/yyyy"));
+        inference.sample(Arrays.asList("12", "3000000000", "1.5", "true", "01/02/2020", "0042", "x"));
+        inference.sample(Arrays.asList("-7", "12", "", "False", "28/02/2020", "12", "1"));
+
+        final Schema schema = inference.inferSchema(this.factory, new Headers().build(this.factory,
+                Arrays.asList("int", "long", "double", "bool", "date", "code", "text", "missing"), true));
+
+        final List<Schema.Entry> entries = schema.getEntries();
+        Assertions.assertEquals(Schema.Type.INT, entries.get(0).getType());
+        Assertions.assertEquals(Schema.Type.LONG, entries.get(1).getType());
+        Assertions.assertEquals(Schema.Type.DOUBLE, entries.get(2).getType());
+        Assertions.assertEquals(Schema.Type.BOOLEAN, entries.get(3).getType());
+        Assertions.assertEquals(Schema.Type.DATETIME, entries.get(4).getType());
+        Assertions.assertEquals(Schema.Type.STRING, entries.get(5).getType());
+        Assertions.assertEquals(Schema.Type.STRING, entries.get(6).getType());
+        Assertions.assertEquals(Schema.Type.STRING, entries.get(7).getType());
+
+        final ValueSetter[] setters = inference.setters(entries.size());
+        final Record.Builder builder = this.factory.newRecordBuilder(schema);
+        final String[] values = { "5", "3000000001", "", "TRUE", "03/04/2021", "0042", "t", "m" };
+        for (int i = 0; i < values.length; i++) {
+            setters[i].set(builder, entries.get(i), values[i]);
+        }
+        final Record record = builder.build();
+        Assertions.assertEquals(5, record.getInt("int"));
+        Assertions.assertEquals(3000000001L, record.getLong("long"));
+        Assertions.assertFalse(record.getOptionalDouble("double").isPresent());
+        Assertions.assertTrue(record.getBoolean("bool"));
+        Assertions.assertEquals(ZonedDateTime.of(2021, 4, 3, 0, 0, 0, 0, ZoneOffset.UTC).toInstant(),
+                record.getDateTime("date").toInstant());
+        Assertions.assertEquals("0042", record.getString("code"));
+        Assertions.assertEquals("m", record.getString("missing"));
+    }
+
+    @Test
+    void unexpectedValue() {
+        final SchemaInference inference = new SchemaInference(Arrays.asList());
+        inference.sample(Arrays.asList("12"));
+        final Schema schema = inference.inferSchema(this.factory,
+                new Headers().build(this.factory, Arrays.asList("int"), true));
+        final ValueSetter setter = inference.setters(1)[0];
+        final Record.Builder builder = this.factory.newRecordBuilder(schema);
+
+        setter.set(builder, schema.getEntries().get(0), "N/A");
+        Assertions.assertFalse(builder.build().getOptionalInt("int").isPresent());
+
+        // following values are still converted
+        final Record.Builder next = this.factory.newRecordBuilder(schema);
+        setter.set(next, schema.getEntries().get(0), "N/A");
+        setter.set(next, schema.getEntries().get(0), "7");
+        Assertions.assertEquals(7, next.build().getInt("int"));
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.stream.input.parquet;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.talend.components.common.stream.api.input.RangeSource;
+
+/**
+ * Range source on a local file.
+ */
+public class FileRangeSource implements RangeSource {
+
+    private final Path file;
+
+    private final long length;
+
+    public FileRangeSource(Path file) {
+        this.file = file;
+        this.length = file.toFile().length();
+    }
+
+    @Override
+    public long length() {
+        return this.length;
+    }
+
+    @Override
+    public InputStream open(long start, long end) throws IOException {
+        final FileChannel channel = FileChannel.open(this.file, StandardOpenOption.READ);
+        channel.position(start);
+        return new RangeStream(Channels.newInputStream(channel), end - start);
+    }
+
+    /**
+     * Stream limited to range bytes.
+     */
+    private static class RangeStream extends FilterInputStream {
+
+        private long remaining;
+
+        RangeStream(InputStream in, long size) {
+            super(in);
+            this.remaining = size;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (this.remaining <= 0) {
+                return -1;
+            }
+            final int value = super.read();
+            if (value >= 0) {
+                this.remaining--;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int len) throws IOException {
+            if (this.remaining <= 0) {
+                return -1;
+            }
+            final int count = super.read(bytes, offset, (int) Math.min(len, this.remaining));
+            if (count > 0) {
+                this.remaining -= count;
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(long count) throws IOException {
+            final long skipped = super.skip(Math.min(count, this.remaining));
+            this.remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), this.remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
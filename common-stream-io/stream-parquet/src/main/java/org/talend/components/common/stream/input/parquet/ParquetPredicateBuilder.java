@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.stream.input.parquet;
+
+import java.util.List;
+
+import org.apache.avro.Schema;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators;
+import org.apache.parquet.io.api.Binary;
+import org.talend.components.common.stream.AvroHelper;
+import org.talend.components.common.stream.format.parquet.ParquetFilter;
+
+/**
+ * Translate filters of configuration to parquet predicate;
+ * parquet reader uses it to skip row groups with statistics and dictionaries, then to filter records.
+ */
+public class ParquetPredicateBuilder {
+
+    private static final String ERROR_UNKNOWN_COLUMN = "Filter on unknown parquet column '%s'.";
+
+    private static final String ERROR_UNSUPPORTED_TYPE = "Can't filter parquet column '%s' of type %s.";
+
+    private static final String ERROR_UNSUPPORTED_OPERATOR = "Operator %s can't be used on boolean column '%s'.";
+
+    private static final String ERROR_NULL_VALUE = "Operator %s on parquet column '%s' needs a value.";
+
+    /**
+     * Build predicate of all filters.
+     * 
+     * @param fileSchema : avro schema of parquet file.
+     * @param filters : filters to apply.
+     * @return predicate of all filters (null if there is no filter).
+     */
+    public FilterPredicate build(Schema fileSchema, List<ParquetFilter> filters) {
+        FilterPredicate predicate = null;
+        for (ParquetFilter filter : filters) {
+            final FilterPredicate filterPredicate = this.build(fileSchema, filter);
+            predicate = predicate == null ? filterPredicate : FilterApi.and(predicate, filterPredicate);
+        }
+        return predicate;
+    }
+
+    private FilterPredicate build(Schema fileSchema, ParquetFilter filter) {
+        final String column = filter.getColumn();
+        final Schema.Field field = fileSchema.getField(column);
+        if (field == null) {
+            throw new IllegalArgumentException(String.format(ERROR_UNKNOWN_COLUMN, column));
+        }
+        final String value = filter.getValue();
+        final Schema.Type type = AvroHelper.getFieldType(field);
+        switch (type) {
+        case INT:
+            return compare(FilterApi.intColumn(column), value == null ? null : Integer.valueOf(value), filter);
+        case LONG:
+            return compare(FilterApi.longColumn(column), value == null ? null : Long.valueOf(value), filter);
+        case FLOAT:
+            return compare(FilterApi.floatColumn(column), value == null ? null : Float.valueOf(value), filter);
+        case DOUBLE:
+            return compare(FilterApi.doubleColumn(column), value == null ? null : Double.valueOf(value), filter);
+        case STRING:
+        case ENUM:
+            return compare(FilterApi.binaryColumn(column), value == null ? null : Binary.fromString(value), filter);
+        case BOOLEAN:
+            return this.equality(FilterApi.booleanColumn(column), value == null ? null : Boolean.valueOf(value), filter);
+        default:
+            throw new IllegalArgumentException(String.format(ERROR_UNSUPPORTED_TYPE, column, type.name()));
+        }
+    }
+
+    private static <T extends Comparable<T>, C extends Operators.Column<T> & Operators.SupportsLtGt> FilterPredicate compare(
+            C column, T value, ParquetFilter filter) {
+        if (value == null && filter.getOperator() != ParquetFilter.Operator.EQUALS
+                && filter.getOperator() != ParquetFilter.Operator.NOT_EQUALS) {
+            // only equality predicates accept null (is null / is not null).
+            throw new IllegalArgumentException(
+                    String.format(ERROR_NULL_VALUE, filter.getOperator().name(), filter.getColumn()));
+        }
+        switch (filter.getOperator()) {
+        case EQUALS:
+            return FilterApi.eq(column, value);
+        case NOT_EQUALS:
+            return FilterApi.notEq(column, value);
+        case LOWER:
+            return FilterApi.lt(column, value);
+        case LOWER_OR_EQUALS:
+            return FilterApi.ltEq(column, value);
+        case GREATER:
+            return FilterApi.gt(column, value);
+        case GREATER_OR_EQUALS:
+            return FilterApi.gtEq(column, value);
+        default:
+            throw new IllegalArgumentException("Unknown operator " + filter.getOperator());
+        }
+    }
+
+    private FilterPredicate equality(Operators.BooleanColumn column, Boolean value, ParquetFilter filter) {
+        switch (filter.getOperator()) {
+        case EQUALS:
+            return FilterApi.eq(column, value);
+        case NOT_EQUALS:
+            return FilterApi.notEq(column, value);
+        default:
+            throw new IllegalArgumentException(
+                    String.format(ERROR_UNSUPPORTED_OPERATOR, filter.getOperator().name(), filter.getColumn()));
+        }
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.stream.input.parquet;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.avro.AvroParquetReader;
+import org.apache.parquet.avro.AvroReadSupport;
+import org.apache.parquet.avro.AvroSchemaConverter;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.metadata.FileMetaData;
+import org.apache.parquet.io.InputFile;
+import org.talend.components.common.collections.IteratorMap;
+import org.talend.components.common.stream.api.input.RangeSource;
+import org.talend.components.common.stream.api.input.RecordReader;
+import org.talend.components.common.stream.format.parquet.ParquetConfiguration;
+import org.talend.components.common.stream.format.parquet.ParquetFilter;
+import org.talend.components.common.stream.input.avro.AvroToRecord;
+import org.talend.sdk.component.api.record.Record;
+
+/**
+ * Read parquet content, only projected columns are decoded and row groups are skipped
+ * when their statistics can't match filters.
+ */
+public class ParquetRecordReader implements RecordReader {
+
+    /** avro schema stored in parquet metadata by avro writers */
+    private static final String AVRO_SCHEMA_KEY = "parquet.avro.schema";
+
+    private final AvroToRecord convertor;
+
+    private final ParquetConfiguration configuration;
+
+    private final ParquetPredicateBuilder predicateBuilder = new ParquetPredicateBuilder();
+
+    private ParquetReader<GenericRecord> parquetReader = null;
+
+    /** local copy of streamed content */
+    private Path localFile = null;
+
+    public ParquetRecordReader(AvroToRecord convertor, ParquetConfiguration configuration) {
+        this.convertor = convertor;
+        this.configuration = configuration;
+    }
+
+    /**
+     * Parquet metadata is at the end of content, so stream is first copied to a local file;
+     * prefer {@link #read(RangeSource)} for sources that can be read by ranges.
+     */
+    @Override
+    public Iterator<Record> read(InputStream input) {
+        // a reader reads one content at a time, release previous one.
+        this.close();
+        try {
+            this.localFile = Files.createTempFile("talend-stream-", ".parquet");
+            Files.copy(input, this.localFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException exIO) {
+            throw new UncheckedIOException("Unable to copy parquet content : " + exIO.getMessage(), exIO);
+        }
+        return this.read(new FileRangeSource(this.localFile));
+    }
+
+    @Override
+    public Iterator<Record> read(RangeSource source) {
+        final InputFile inputFile = new RangeInputFile(source);
+        final Configuration conf = new Configuration();
+        Schema outputSchema = null;
+        try {
+            final List<String> columns = this.configuration.columnNames();
+            final List<ParquetFilter> filters = Optional.ofNullable(this.configuration.getFilters())
+                    .orElse(Collections.emptyList());
+            final AvroParquetReader.Builder<GenericRecord> builder = AvroParquetReader.<GenericRecord> builder(inputFile);
+            if (!columns.isEmpty() || !filters.isEmpty()) {
+                final Schema fileSchema = this.fileSchema(inputFile, conf);
+                if (!columns.isEmpty()) {
+                    final Schema projection = this.project(fileSchema, columns, filters);
+                    AvroReadSupport.setRequestedProjection(conf, projection);
+                    AvroReadSupport.setAvroReadSchema(conf, projection);
+                    if (projection.getFields().size() > columns.size()) {
+                        // columns only used by filters are not part of output records.
+                        outputSchema = this.project(fileSchema, columns, Collections.emptyList());
+                    }
+                }
+                final FilterPredicate predicate = this.predicateBuilder.build(fileSchema, filters);
+                if (predicate != null) {
+                    builder.withFilter(FilterCompat.get(predicate));
+                }
+            }
+            this.parquetReader = builder.withDataModel(GenericData.get()).withConf(conf).build();
+        } catch (IOException exIO) {
+            throw new UncheckedIOException("Unable to open parquet reader : " + exIO.getMessage(), exIO);
+        }
+        final Iterator<GenericRecord> records = new ParquetIterator(this.parquetReader);
+        if (outputSchema == null) {
+            return new IteratorMap<>(records, this.convertor::toRecord);
+        }
+        final Schema schema = outputSchema;
+        return new IteratorMap<>(records,
+                (GenericRecord record) -> this.convertor.toRecord(new ProjectedRecord(schema, record)));
+    }
+
+    /**
+     * Read avro schema of parquet file from its footer.
+     */
+    private Schema fileSchema(InputFile inputFile, Configuration conf) throws IOException {
+        try (ParquetFileReader fileReader = ParquetFileReader.open(inputFile)) {
+            final FileMetaData metaData = fileReader.getFooter().getFileMetaData();
+            final String avroSchema = metaData.getKeyValueMetaData().get(AVRO_SCHEMA_KEY);
+            if (avroSchema != null) {
+                return new Schema.Parser().parse(avroSchema);
+            }
+            return new AvroSchemaConverter(conf).convert(metaData.getSchema());
+        }
+    }
+
+    /**
+     * Avro schema with only selected columns, filtered columns are kept for record level filtering
+     * and removed from output records.
+     */
+    private Schema project(Schema fileSchema, List<String> columns, List<ParquetFilter> filters) {
+        final Set<String> names = new LinkedHashSet<>(columns);
+        filters.stream().map(ParquetFilter::getColumn).forEach(names::add);
+
+        final List<Schema.Field> fields = new ArrayList<>(names.size());
+        for (Schema.Field field : fileSchema.getFields()) {
+            if (names.contains(field.name())) {
+                // avro fields can't be shared by schemas.
+                fields.add(new Schema.Field(field.name(), field.schema(), field.doc(), field.defaultVal()));
+            }
+        }
+        if (fields.size() < names.size()) {
+            fields.stream().map(Schema.Field::name).forEach(names::remove);
+            throw new IllegalArgumentException("Unknown parquet columns " + names);
+        }
+        return Schema.createRecord(fileSchema.getName(), fileSchema.getDoc(), fileSchema.getNamespace(), false, fields);
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (this.parquetReader != null) {
+                this.parquetReader.close();
+            }
+            if (this.localFile != null) {
+                Files.deleteIfExists(this.localFile);
+            }
+        } catch (IOException exIO) {
+            throw new UncheckedIOException("Unable to close parquet reader : " + exIO.getMessage(), exIO);
+        } finally {
+            this.parquetReader = null;
+            this.localFile = null;
+        }
+    }
+
+    /**
+     * View of a read record limited to the fields of a sub schema.
+     */
+    private static class ProjectedRecord implements GenericRecord {
+
+        private final Schema schema;
+
+        private final GenericRecord record;
+
+        ProjectedRecord(Schema schema, GenericRecord record) {
+            this.schema = schema;
+            this.record = record;
+        }
+
+        @Override
+        public Schema getSchema() {
+            return this.schema;
+        }
+
+        @Override
+        public Object get(String key) {
+            return this.record.get(key);
+        }
+
+        @Override
+        public Object get(int i) {
+            return this.record.get(this.schema.getFields().get(i).name());
+        }
+
+        @Override
+        public void put(String key, Object v) {
+            this.record.put(key, v);
+        }
+
+        @Override
+        public void put(int i, Object v) {
+            this.record.put(this.schema.getFields().get(i).name(), v);
+        }
+    }
+
+    /**
+     * Iterator on records of parquet reader.
+     */
+    private static class ParquetIterator implements Iterator<GenericRecord> {
+
+        private final ParquetReader<GenericRecord> reader;
+
+        private GenericRecord next = null;
+
+        private boolean end = false;
+
+        ParquetIterator(ParquetReader<GenericRecord> reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (this.next == null && !this.end) {
+                try {
+                    this.next = this.reader.read();
+                } catch (IOException exIO) {
+                    throw new UncheckedIOException("Unable to read parquet record : " + exIO.getMessage(), exIO);
+                }
+                this.end = this.next == null;
+            }
+            return this.next != null;
+        }
+
+        @Override
+        public GenericRecord next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException("No more parquet record");
+            }
+            final GenericRecord current = this.next;
+            this.next = null;
+            return current;
+        }
+    }
+}
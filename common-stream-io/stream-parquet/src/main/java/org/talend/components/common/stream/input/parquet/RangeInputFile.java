@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.stream.input.parquet;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+import org.talend.components.common.stream.api.input.RangeSource;
+
+/**
+ * Parquet file over a range source, parquet reader only reads footer and column chunks of selected row groups,
+ * so source is opened at each position the reader jumps to instead of being read entirely.
+ */
+public class RangeInputFile implements InputFile {
+
+    /** forward jumps shorter than this skip bytes of current stream instead of opening a new one */
+    private static final long MAX_SKIP = 1024L * 1024L;
+
+    private final RangeSource source;
+
+    public RangeInputFile(RangeSource source) {
+        this.source = source;
+    }
+
+    @Override
+    public long getLength() {
+        return this.source.length();
+    }
+
+    @Override
+    public SeekableInputStream newStream() {
+        return new RangeInputStream(this.source);
+    }
+
+    private static class RangeInputStream extends SeekableInputStream {
+
+        private final RangeSource source;
+
+        private final long length;
+
+        /** current position */
+        private long pos = 0L;
+
+        /** stream opened at current position, null until a byte is read */
+        private InputStream current = null;
+
+        RangeInputStream(RangeSource source) {
+            this.source = source;
+            this.length = source.length();
+        }
+
+        @Override
+        public long getPos() {
+            return this.pos;
+        }
+
+        @Override
+        public void seek(long newPos) throws IOException {
+            if (newPos == this.pos) {
+                return;
+            }
+            if (this.current != null && newPos > this.pos && newPos - this.pos <= MAX_SKIP) {
+                this.skipFully(newPos - this.pos);
+            } else {
+                this.closeCurrent();
+            }
+            this.pos = newPos;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int value = this.stream().read();
+            if (value >= 0) {
+                this.pos++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int len) throws IOException {
+            final int count = this.stream().read(bytes, offset, len);
+            if (count > 0) {
+                this.pos += count;
+            }
+            return count;
+        }
+
+        @Override
+        public void readFully(byte[] bytes) throws IOException {
+            this.readFully(bytes, 0, bytes.length);
+        }
+
+        @Override
+        public void readFully(byte[] bytes, int start, int len) throws IOException {
+            int offset = start;
+            int remaining = len;
+            while (remaining > 0) {
+                final int count = this.read(bytes, offset, remaining);
+                if (count < 0) {
+                    throw new EOFException("Reached the end of parquet source with " + remaining + " bytes left to read");
+                }
+                offset += count;
+                remaining -= count;
+            }
+        }
+
+        @Override
+        public int read(ByteBuffer buffer) throws IOException {
+            final int count;
+            if (buffer.hasArray()) {
+                count = this.read(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                if (count > 0) {
+                    buffer.position(buffer.position() + count);
+                }
+            } else {
+                final byte[] bytes = new byte[Math.min(buffer.remaining(), 8192)];
+                count = this.read(bytes, 0, bytes.length);
+                if (count > 0) {
+                    buffer.put(bytes, 0, count);
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public void readFully(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                if (this.read(buffer) < 0) {
+                    throw new EOFException(
+                            "Reached the end of parquet source with " + buffer.remaining() + " bytes left to read");
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.closeCurrent();
+        }
+
+        private InputStream stream() throws IOException {
+            if (this.current == null) {
+                this.current = this.source.open(this.pos, this.length);
+            }
+            return this.current;
+        }
+
+        private void skipFully(long count) throws IOException {
+            long remaining = count;
+            while (remaining > 0) {
+                final long skipped = this.current.skip(remaining);
+                if (skipped <= 0) {
+                    // stream can't skip, reopen it at new position.
+                    this.closeCurrent();
+                    return;
+                }
+                remaining -= skipped;
+            }
+        }
+
+        private void closeCurrent() throws IOException {
+            if (this.current != null) {
+                try {
+                    this.current.close();
+                } finally {
+                    this.current = null;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.stream.output.parquet;
+
+import java.io.IOException;
+
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.avro.AvroParquetWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.talend.components.common.stream.api.output.RecordConverter;
+import org.talend.components.common.stream.api.output.RecordWriter;
+import org.talend.components.common.stream.api.output.TargetFinder;
+import org.talend.components.common.stream.format.parquet.ParquetConfiguration;
+import org.talend.sdk.component.api.record.Record;
+
+/**
+ * Write records to a parquet content, schema of file is the one of first record.
+ */
+public class ParquetRecordWriter implements RecordWriter {
+
+    /** convert talend record to Avro. */
+    private final RecordConverter<GenericRecord, org.apache.avro.Schema> converter;
+
+    /** output stream finder */
+    private final TargetFinder destination;
+
+    private final ParquetConfiguration configuration;
+
+    /** parquet writer, created with first record schema */
+    private ParquetWriter<GenericRecord> parquetWriter = null;
+
+    public ParquetRecordWriter(RecordConverter<GenericRecord, org.apache.avro.Schema> converter, TargetFinder destination,
+            ParquetConfiguration configuration) {
+        this.converter = converter;
+        this.destination = destination;
+        this.configuration = configuration;
+    }
+
+    @Override
+    public void add(Record record) throws IOException {
+        final GenericRecord avroRecord = this.converter.fromRecord(record);
+        if (this.parquetWriter == null) {
+            this.parquetWriter = AvroParquetWriter.<GenericRecord> builder(new StreamOutputFile(this.destination.find())) //
+                    .withSchema(avroRecord.getSchema()) //
+                    .withDataModel(GenericData.get()) //
+                    .withConf(new Configuration()) //
+                    .withCompressionCodec(this.codec()) //
+                    .withRowGroupSize(this.configuration.getRowGroupBytes()) //
+                    .build();
+        }
+        this.parquetWriter.write(avroRecord);
+    }
+
+    /**
+     * Records are buffered until a row group is complete, so nothing can be flushed before.
+     */
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.parquetWriter != null) {
+            try {
+                this.parquetWriter.close();
+            } finally {
+                this.parquetWriter = null;
+            }
+        }
+    }
+
+    private CompressionCodecName codec() {
+        switch (this.configuration.getCompression()) {
+        case UNCOMPRESSED:
+            return CompressionCodecName.UNCOMPRESSED;
+        case GZIP:
+            return CompressionCodecName.GZIP;
+        case SNAPPY:
+        default:
+            return CompressionCodecName.SNAPPY;
+        }
+    }
+}
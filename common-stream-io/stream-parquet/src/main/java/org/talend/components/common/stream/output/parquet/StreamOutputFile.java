@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.stream.output.parquet;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+
+/**
+ * Parquet file written sequentially to an output stream.
+ */
+public class StreamOutputFile implements OutputFile {
+
+    private final OutputStream output;
+
+    public StreamOutputFile(OutputStream output) {
+        this.output = output;
+    }
+
+    @Override
+    public PositionOutputStream create(long blockSizeHint) {
+        return new CountingOutputStream(this.output);
+    }
+
+    @Override
+    public PositionOutputStream createOrOverwrite(long blockSizeHint) {
+        return this.create(blockSizeHint);
+    }
+
+    @Override
+    public boolean supportsBlockSize() {
+        return false;
+    }
+
+    @Override
+    public long defaultBlockSize() {
+        return 0L;
+    }
+
+    private static class CountingOutputStream extends PositionOutputStream {
+
+        private final OutputStream output;
+
+        private long pos = 0L;
+
+        CountingOutputStream(OutputStream output) {
+            this.output = output;
+        }
+
+        @Override
+        public long getPos() {
+            return this.pos;
+        }
+
+        @Override
+        public void write(int value) throws IOException {
+            this.output.write(value);
+            this.pos++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int len) throws IOException {
+            this.output.write(bytes, offset, len);
+            this.pos += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            this.output.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.output.close();
+        }
+    }
+}
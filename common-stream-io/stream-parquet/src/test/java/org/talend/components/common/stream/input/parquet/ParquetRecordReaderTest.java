@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.stream.input.parquet;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.talend.components.common.stream.api.input.RangeSource;
+import org.talend.components.common.stream.api.input.RecordReader;
+import org.talend.components.common.stream.api.output.RecordWriter;
+import org.talend.components.common.stream.format.parquet.ParquetConfiguration;
+import org.talend.components.common.stream.format.parquet.ParquetFilter;
+import org.talend.components.common.stream.output.parquet.ParquetWriterSupplier;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
+import org.talend.sdk.component.runtime.record.RecordBuilderFactoryImpl;
+
+class ParquetRecordReaderTest {
+
+    private final RecordBuilderFactory factory = new RecordBuilderFactoryImpl("test");
+
+    private byte[] content;
+
+    @BeforeEach
+    void write() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final RecordWriter writer = new ParquetWriterSupplier().getWriter(() -> out, new ParquetConfiguration());
+        for (int i = 0; i < 10; i++) {
+            writer.add(this.factory.newRecordBuilder() //
+                    .withInt("id", i) //
+                    .withString("name", "name " + i) //
+                    .withDouble("price", i * 1.5) //
+                    .withBoolean("even", i % 2 == 0) //
+                    .build());
+        }
+        writer.end();
+        this.content = out.toByteArray();
+    }
+
+    @Test
+    void readStream() {
+        try (RecordReader reader = new ParquetReaderSupplier().getReader(this.factory, new ParquetConfiguration())) {
+            final Iterator<Record> records = reader.read(new ByteArrayInputStream(this.content));
+            for (int i = 0; i < 10; i++) {
+                Assertions.assertTrue(records.hasNext());
+                final Record record = records.next();
+                Assertions.assertEquals(i, record.getInt("id"));
+                Assertions.assertEquals("name " + i, record.getString("name"));
+                Assertions.assertEquals(i * 1.5, record.getDouble("price"));
+                Assertions.assertEquals(i % 2 == 0, record.getBoolean("even"));
+            }
+            Assertions.assertFalse(records.hasNext());
+        }
+    }
+
+    @Test
+    void readProjectionAndFilters() {
+        final ParquetConfiguration config = new ParquetConfiguration();
+        config.setColumns("id, name");
+        config.setFilters(Arrays.asList(new ParquetFilter("id", ParquetFilter.Operator.GREATER_OR_EQUALS, "4"),
+                new ParquetFilter("even", ParquetFilter.Operator.EQUALS, "true")));
+
+        try (RecordReader reader = new ParquetReaderSupplier().getReader(this.factory, config)) {
+            final Iterator<Record> records = reader.read(this.source());
+            for (int i = 4; i < 10; i += 2) {
+                Assertions.assertTrue(records.hasNext());
+                final Record record = records.next();
+                Assertions.assertEquals(i, record.getInt("id"));
+                Assertions.assertEquals("name " + i, record.getString("name"));
+                Assertions.assertEquals(2, record.getSchema().getEntries().size());
+            }
+            Assertions.assertFalse(records.hasNext());
+        }
+    }
+
+    @Test
+    void readStreamTwice() throws IOException {
+        final long tempFiles = this.countTempFiles();
+        try (RecordReader reader = new ParquetReaderSupplier().getReader(this.factory, new ParquetConfiguration())) {
+            for (int read = 0; read < 2; read++) {
+                final Iterator<Record> records = reader.read(new ByteArrayInputStream(this.content));
+                int count = 0;
+                while (records.hasNext()) {
+                    Assertions.assertEquals(count, records.next().getInt("id"));
+                    count++;
+                }
+                Assertions.assertEquals(10, count);
+                Assertions.assertEquals(tempFiles + 1, this.countTempFiles());
+            }
+        }
+        Assertions.assertEquals(tempFiles, this.countTempFiles());
+    }
+
+    @Test
+    void nullValueFilter() {
+        final ParquetConfiguration config = new ParquetConfiguration();
+        config.setFilters(Arrays.asList(new ParquetFilter("name", ParquetFilter.Operator.NOT_EQUALS, null)));
+        try (RecordReader reader = new ParquetReaderSupplier().getReader(this.factory, config)) {
+            final Iterator<Record> records = reader.read(this.source());
+            int count = 0;
+            while (records.hasNext()) {
+                records.next();
+                count++;
+            }
+            Assertions.assertEquals(10, count);
+        }
+
+        config.setFilters(Arrays.asList(new ParquetFilter("id", ParquetFilter.Operator.GREATER, null)));
+        try (RecordReader reader = new ParquetReaderSupplier().getReader(this.factory, config)) {
+            final IllegalArgumentException error = Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> reader.read(this.source()));
+            Assertions.assertEquals("Operator GREATER on parquet column 'id' needs a value.", error.getMessage());
+        }
+    }
+
+    @Test
+    void unknownColumn() {
+        final ParquetConfiguration config = new ParquetConfiguration();
+        config.setColumns("id,unknown");
+        try (RecordReader reader = new ParquetReaderSupplier().getReader(this.factory, config)) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> reader.read(this.source()));
+        }
+    }
+
+    private long countTempFiles() throws IOException {
+        try (Stream<Path> files = Files.list(Paths.get(System.getProperty("java.io.tmpdir")))) {
+            return files.map(Path::getFileName).map(Path::toString)
+                    .filter(name -> name.startsWith("talend-stream-") && name.endsWith(".parquet")).count();
+        }
+    }
+
+    private RangeSource source() {
+        return new RangeSource() {
+
+            @Override
+            public long length() {
+                return content.length;
+            }
+
+            @Override
+            public InputStream open(long start, long end) {
+                return new ByteArrayInputStream(content, (int) start, (int) (end - start));
+            }
+        };
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.stream.input.parquet;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.parquet.io.SeekableInputStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.talend.components.common.stream.api.input.RangeSource;
+
+class RangeInputFileTest {
+
+    @Test
+    void seekAndRead() throws IOException {
+        final byte[] content = new byte[3 * 1024 * 1024];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        final AtomicInteger opened = new AtomicInteger(0);
+        final RangeSource source = new RangeSource() {
+
+            @Override
+            public long length() {
+                return content.length;
+            }
+
+            @Override
+            public InputStream open(long start, long end) {
+                opened.incrementAndGet();
+                return new ByteArrayInputStream(content, (int) start, (int) (end - start));
+            }
+        };
+
+        final RangeInputFile inputFile = new RangeInputFile(source);
+        Assertions.assertEquals(content.length, inputFile.getLength());
+        try (SeekableInputStream input = inputFile.newStream()) {
+            // footer like read at the end
+            input.seek(content.length - 8);
+            final byte[] footer = new byte[8];
+            input.readFully(footer);
+            Assertions.assertEquals(content[content.length - 1], footer[7]);
+            Assertions.assertEquals(content.length, input.getPos());
+            Assertions.assertEquals(1, opened.get());
+
+            // backward seek opens a new stream
+            input.seek(10);
+            Assertions.assertEquals(content[10], (byte) input.read());
+            Assertions.assertEquals(2, opened.get());
+
+            // short forward seek skips bytes of current stream
+            input.seek(1000);
+            final ByteBuffer buffer = ByteBuffer.allocate(16);
+            input.readFully(buffer);
+            Assertions.assertEquals(content[1015], buffer.get(15));
+            Assertions.assertEquals(1016, input.getPos());
+            Assertions.assertEquals(2, opened.get());
+
+            // long forward seek opens a new stream
+            input.seek(2 * 1024 * 1024 + 7);
+            final ByteBuffer direct = ByteBuffer.allocateDirect(4);
+            input.readFully(direct);
+            Assertions.assertEquals(content[2 * 1024 * 1024 + 10], direct.get(3));
+            Assertions.assertEquals(3, opened.get());
+
+            input.seek(content.length - 2);
+            Assertions.assertThrows(EOFException.class, () -> input.readFully(new byte[4]));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.collections;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Cache keeping at most a given number of values, least recently used ones are evicted first.
+ * Lookups are counted to report how much the cache is used.
+ *
+ * @param <K> : key type.
+ * @param <V> : value type.
+ */
+public class BoundedCache<K, V> {
+
+    /** default max number of values, enough for the distinct schemas of usual data. */
+    public static final int DEFAULT_SIZE = 128;
+
+    /** max number of values, 0 if cache is disabled */
+    private final int maxSize;
+
+    private final Map<K, V> values;
+
+    private long hits;
+
+    private long misses;
+
+    public BoundedCache() {
+        this(DEFAULT_SIZE);
+    }
+
+    /**
+     * @param maxSize : max number of values kept, 0 to disable cache (nothing is kept).
+     */
+    public BoundedCache(final int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Cache size can't be negative : " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.values = new LinkedHashMap<K, V>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 6374920713295127684L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+                return this.size() > BoundedCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return false if values are never kept.
+     */
+    public boolean isEnabled() {
+        return this.maxSize > 0;
+    }
+
+    /**
+     * @param key : key of value.
+     * @return value of key, null if not in cache.
+     */
+    public V get(final K key) {
+        final V value = this.values.get(key);
+        if (value == null) {
+            this.misses++;
+        } else {
+            this.hits++;
+        }
+        return value;
+    }
+
+    /**
+     * Get value of key, computed and kept if not in cache.
+     *
+     * @param key : key of value.
+     * @param compute : function to compute missing value.
+     * @return value of key.
+     */
+    public V computeIfAbsent(final K key, final Function<K, V> compute) {
+        V value = this.get(key);
+        if (value == null) {
+            value = compute.apply(key);
+            this.put(key, value);
+        }
+        return value;
+    }
+
+    public void put(final K key, final V value) {
+        if (this.maxSize > 0) {
+            this.values.put(key, value);
+        }
+    }
+
+    public int size() {
+        return this.values.size();
+    }
+
+    /**
+     * @return number of lookups that found a value.
+     */
+    public long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * @return number of lookups that found no value.
+     */
+    public long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * @return part of lookups that found a value.
+     */
+    public double getHitRatio() {
+        final long total = this.hits + this.misses;
+        return total == 0 ? 0.0d : ((double) this.hits) / total;
+    }
+}
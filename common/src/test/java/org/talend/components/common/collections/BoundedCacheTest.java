@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.common.collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class BoundedCacheTest {
+
+    @Test
+    void leastRecentlyUsedEvicted() {
+        final BoundedCache<String, Integer> cache = new BoundedCache<>(2);
+        cache.put("one", 1);
+        cache.put("two", 2);
+        Assertions.assertEquals(1, cache.get("one"));
+        cache.put("three", 3);
+
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertNull(cache.get("two"));
+        Assertions.assertEquals(1, cache.get("one"));
+        Assertions.assertEquals(3, cache.get("three"));
+
+        Assertions.assertEquals(3L, cache.getHits());
+        Assertions.assertEquals(1L, cache.getMisses());
+        Assertions.assertEquals(0.75d, cache.getHitRatio(), 0.0001d);
+    }
+
+    @Test
+    void computeIfAbsent() {
+        final BoundedCache<String, Integer> cache = new BoundedCache<>();
+        Assertions.assertEquals(5, cache.computeIfAbsent("Hello", String::length));
+        Assertions.assertEquals(5, cache.computeIfAbsent("Hello", k -> -1));
+        Assertions.assertEquals(1L, cache.getHits());
+        Assertions.assertEquals(1L, cache.getMisses());
+    }
+
+    @Test
+    void disabled() {
+        final BoundedCache<String, Integer> cache = new BoundedCache<>(0);
+        Assertions.assertFalse(cache.isEnabled());
+        Assertions.assertEquals(5, cache.computeIfAbsent("Hello", String::length));
+        Assertions.assertEquals(-1, cache.computeIfAbsent("Hello", k -> -1));
+        Assertions.assertEquals(0, cache.size());
+        Assertions.assertEquals(0.0d, cache.getHitRatio());
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new BoundedCache<>(-1));
+    }
+}
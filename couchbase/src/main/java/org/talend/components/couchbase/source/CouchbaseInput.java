@@ -24,7 +24,6 @@ import com.couchbase.client.java.query.Select;
 import com.couchbase.client.java.query.Statement;
 import com.couchbase.client.java.query.consistency.ScanConsistency;
 import com.couchbase.client.java.query.dsl.Expression;
-import com.couchbase.client.java.query.dsl.path.AsPath;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -74,12 +73,36 @@ public class CouchbaseInput implements Serializable {
 
     public static final String META_ID_FIELD = "_meta_id_";
 
+    /** range of document ids read by this worker, null bounds when not split. */
+    private final String startId;
+
+    private final String endId;
+
+    private transient ScanConsistency consistency;
+
+    /** last read id, next page starts after it. */
+    private transient String lastId;
+
+    private transient int pageLimit;
+
+    private transient int pageRows;
+
+    /** number of documents still to read, -1 if no limit. */
+    private transient long remaining;
+
     public CouchbaseInput(@Option("configuration") final CouchbaseInputConfiguration configuration,
             final CouchbaseService service, final RecordBuilderFactory builderFactory, final I18nMessage i18n) {
+        this(configuration, service, builderFactory, i18n, null, null);
+    }
+
+    public CouchbaseInput(final CouchbaseInputConfiguration configuration, final CouchbaseService service,
+            final RecordBuilderFactory builderFactory, final I18nMessage i18n, final String startId, final String endId) {
         this.configuration = configuration;
         this.service = service;
         this.builderFactory = builderFactory;
         this.i18n = i18n;
+        this.startId = startId;
+        this.endId = endId;
     }
 
     @PostConstruct
@@ -89,19 +112,15 @@ public class CouchbaseInput implements Serializable {
         bucket.bucketManager().createN1qlPrimaryIndex(true, false);
 
         columnsSet = new HashSet<>();
+        consistency = ScanConsistency.valueOf(configuration.getScanConsistency().name());
 
         N1qlQuery n1qlQuery;
         switch (configuration.getSelectAction()) {
         case ALL:
-            Statement statement;
-            AsPath asPath = Select.select("meta().id as " + Expression.i(META_ID_FIELD), "*").from(Expression.i(bucket.name()));
-            if (!configuration.getLimit().isEmpty()) {
-                statement = asPath.limit(Integer.parseInt(configuration.getLimit().trim()));
-            } else {
-                statement = asPath;
-            }
-            n1qlQuery = N1qlQuery.simple(statement);
-            break;
+            // documents are read by pages of ids, not in one giant result
+            remaining = configuration.getLimit().isEmpty() ? -1 : Integer.parseInt(configuration.getLimit().trim());
+            index = nextPage();
+            return;
         case N1QL:
             /*
              * should contain "meta().id as `_meta_id_`" field for non-json (binary) documents
@@ -116,17 +135,49 @@ public class CouchbaseInput implements Serializable {
         default:
             throw new RuntimeException("Select action: '" + configuration.getSelectAction() + "' is unsupported");
         }
-        n1qlQuery.params().consistency(ScanConsistency.REQUEST_PLUS);
+        n1qlQuery.params().consistency(consistency);
         N1qlQueryResult n1qlQueryRows = bucket.query(n1qlQuery);
         checkErrors(n1qlQueryRows);
         index = n1qlQueryRows.rows();
     }
 
+    /**
+     * Query next page of documents after last read id (keyset pagination).
+     */
+    private Iterator<N1qlQueryRow> nextPage() {
+        int limit = remaining < 0 ? configuration.getPageSize() : (int) Math.min(configuration.getPageSize(), remaining);
+        N1qlQueryResult n1qlQueryRows = bucket
+                .query(KeysetQueries.page(bucket.name(), startId, endId, lastId, limit, consistency));
+        checkErrors(n1qlQueryRows);
+        pageLimit = limit;
+        pageRows = 0;
+        return n1qlQueryRows.rows();
+    }
+
+    private boolean hasNextRow() {
+        if (index.hasNext()) {
+            return true;
+        }
+        // a full page may be followed by other documents
+        if (configuration.getSelectAction() != SelectAction.ALL || pageRows < pageLimit || remaining == 0) {
+            return false;
+        }
+        index = nextPage();
+        return index.hasNext();
+    }
+
     @Producer
     public Record next() {
         // loop to find first document with appropriate type (for non-json documents)
-        while (index.hasNext()) {
+        while (hasNextRow()) {
             JsonObject jsonObject = index.next().value();
+            if (configuration.getSelectAction() == SelectAction.ALL) {
+                lastId = jsonObject.getString(META_ID_FIELD);
+                pageRows++;
+                if (remaining > 0) {
+                    remaining--;
+                }
+            }
 
             if (configuration.getDataSet().getDocumentType() == DocumentType.JSON) {
                 try {
@@ -16,6 +16,7 @@ import org.talend.components.couchbase.dataset.CouchbaseDataSet;
 import org.talend.sdk.component.api.component.Version;
 import org.talend.sdk.component.api.configuration.Option;
 import org.talend.sdk.component.api.configuration.condition.ActiveIf;
+import org.talend.sdk.component.api.configuration.constraint.Min;
 import org.talend.sdk.component.api.configuration.ui.DefaultValue;
 import org.talend.sdk.component.api.configuration.ui.layout.GridLayout;
 import org.talend.sdk.component.api.configuration.ui.layout.GridLayouts;
@@ -32,7 +33,7 @@ import lombok.Data;
         @GridLayout({ @GridLayout.Row({ "dataSet" }), @GridLayout.Row("selectAction"), @GridLayout.Row("documentId"),
                 @GridLayout.Row("query") }),
         @GridLayout(names = GridLayout.FormType.ADVANCED, value = { @GridLayout.Row({ "dataSet" }),
-                @GridLayout.Row({ "limit" }) }) })
+                @GridLayout.Row({ "limit" }), @GridLayout.Row({ "pageSize" }), @GridLayout.Row({ "scanConsistency" }) }) })
 
 @Documentation("Couchbase input Mapper Configuration")
 public class CouchbaseInputConfiguration implements Serializable {
@@ -63,6 +64,16 @@ public class CouchbaseInputConfiguration implements Serializable {
     @ActiveIf(target = "selectAction", value = "ALL")
     private String limit = "";
 
+    @Option
+    @Min(1)
+    @Documentation("Number of documents read by query, documents are read by pages ordered by id.")
+    @ActiveIf(target = "selectAction", value = "ALL")
+    private int pageSize = 1000;
+
+    @Option
+    @Documentation("Scan consistency of queries, REQUEST_PLUS waits for the index to contain all previous mutations.")
+    private ScanConsistencyType scanConsistency = ScanConsistencyType.NOT_BOUNDED;
+
     public CouchbaseDataSet getDataSet() {
         return dataSet;
     }
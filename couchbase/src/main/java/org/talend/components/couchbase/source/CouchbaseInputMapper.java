@@ -12,6 +12,14 @@
  */
 package org.talend.components.couchbase.source;
 
+import com.couchbase.client.java.Bucket;
+import com.couchbase.client.java.Cluster;
+import com.couchbase.client.java.document.json.JsonObject;
+import com.couchbase.client.java.query.N1qlQueryResult;
+import com.couchbase.client.java.query.consistency.ScanConsistency;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import org.talend.components.couchbase.service.CouchbaseService;
 import org.talend.components.couchbase.service.I18nMessage;
 
@@ -23,6 +31,8 @@ import org.talend.sdk.component.api.meta.Documentation;
 import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static java.util.Collections.singletonList;
@@ -33,6 +43,8 @@ import static java.util.Collections.singletonList;
 @Documentation("Couchbase input Mapper")
 public class CouchbaseInputMapper implements Serializable {
 
+    private static final transient Logger LOG = LoggerFactory.getLogger(CouchbaseInputMapper.class);
+
     private final CouchbaseInputConfiguration configuration;
 
     private final CouchbaseService service;
@@ -41,6 +53,11 @@ public class CouchbaseInputMapper implements Serializable {
 
     private final I18nMessage i18nMessage;
 
+    /** range of document ids [startId, endId[ read by the worker, null bounds when not split. */
+    private String startId;
+
+    private String endId;
+
     public CouchbaseInputMapper(@Option("configuration") final CouchbaseInputConfiguration configuration,
             final CouchbaseService service, final RecordBuilderFactory recordBuilderFactory, final I18nMessage i18nMessage) {
         this.configuration = configuration;
@@ -49,31 +66,122 @@ public class CouchbaseInputMapper implements Serializable {
         this.i18nMessage = i18nMessage;
     }
 
+    private CouchbaseInputMapper(final CouchbaseInputConfiguration configuration, final CouchbaseService service,
+            final RecordBuilderFactory recordBuilderFactory, final I18nMessage i18nMessage, final String startId,
+            final String endId) {
+        this(configuration, service, recordBuilderFactory, i18nMessage);
+        this.startId = startId;
+        this.endId = endId;
+    }
+
     @Assessor
     public long estimateSize() {
-        // this method should return the estimation of the dataset size
-        // it is recommended to return a byte value
-        // if you don't have the exact size you can use a rough estimation
-        return 1L;
+        if (!isSplittable()) {
+            return 1L;
+        }
+        Cluster cluster = service.openConnection(configuration.getDataSet().getDatastore());
+        Bucket bucket = service.openBucket(cluster, configuration.getDataSet().getBucket());
+        try {
+            JsonObject stats = bucket.bucketManager().info().raw().getObject("basicStats");
+            return stats == null || stats.getLong("dataUsed") == null ? 1L : Math.max(1L, stats.getLong("dataUsed"));
+        } catch (RuntimeException e) {
+            LOG.warn("Cannot get the size of bucket '{}': {}", bucket.name(), e.getMessage());
+            return 1L;
+        } finally {
+            service.closeBucket(bucket);
+            service.closeConnection(configuration.getDataSet().getDatastore());
+        }
     }
 
     @Split
     public List<CouchbaseInputMapper> split(@PartitionSize final long bundles) {
-        // overall idea here is to split the work related to configuration in bundles of size "bundles"
-        //
-        // for instance if your estimateSize() returned 1000 and you can run on 10 nodes
-        // then the environment can decide to run it concurrently (10 * 100).
-        // In this case bundles = 100 and we must try to return 10 CouchbaseInputMapper with 1/10 of the overall work each.
-        //
-        // default implementation returns this which means it doesn't support the work to be split
-        return singletonList(this);
+        if (!isSplittable() || bundles <= 0) {
+            return singletonList(this);
+        }
+        long splitCount = estimateSize() / bundles;
+        if (splitCount < 2) {
+            return singletonList(this);
+        }
+        List<String> boundaries = getBoundaries(splitCount);
+        if (boundaries.isEmpty()) {
+            return singletonList(this);
+        }
+        // ranges [null, b1[, [b1, b2[, ..., [bn, null[ cover all ids
+        List<CouchbaseInputMapper> mappers = new ArrayList<>(boundaries.size() + 1);
+        String start = null;
+        for (String boundary : boundaries) {
+            mappers.add(new CouchbaseInputMapper(configuration, service, recordBuilderFactory, i18nMessage, start, boundary));
+            start = boundary;
+        }
+        mappers.add(new CouchbaseInputMapper(configuration, service, recordBuilderFactory, i18nMessage, start, null));
+        return mappers;
+    }
+
+    /**
+     * Ids splitting the bucket in splitCount ranges with the same number of documents, read from the primary index.
+     * Each boundary is read from the previous one, so the index is scanned once.
+     */
+    private List<String> getBoundaries(final long splitCount) {
+        Cluster cluster = service.openConnection(configuration.getDataSet().getDatastore());
+        Bucket bucket = service.openBucket(cluster, configuration.getDataSet().getBucket());
+        try {
+            bucket.bucketManager().createN1qlPrimaryIndex(true, false);
+            ScanConsistency consistency = ScanConsistency.valueOf(configuration.getScanConsistency().name());
+            N1qlQueryResult countResult = bucket.query(KeysetQueries.count(bucket.name(), consistency));
+            if (!countResult.finalSuccess() || countResult.allRows().isEmpty()) {
+                return Collections.emptyList();
+            }
+            long count = countResult.allRows().get(0).value().getLong(KeysetQueries.COUNT_FIELD);
+            long parts = splitParts(splitCount, count);
+            List<String> boundaries = new ArrayList<>();
+            String boundary = null;
+            for (long range = 0; range < parts - 1; range++) {
+                // first boundary is after the documents of first range, the next ones are after the previous boundary
+                int offset = rangeSize(count, parts, range) - (boundary == null ? 0 : 1);
+                N1qlQueryResult result = bucket.query(KeysetQueries.idAfter(bucket.name(), boundary, offset, consistency));
+                if (!result.finalSuccess() || result.allRows().isEmpty()) {
+                    // documents removed since count, last range goes to the end
+                    break;
+                }
+                boundary = result.allRows().get(0).value().getString(KeysetQueries.BOUNDARY_FIELD);
+                boundaries.add(boundary);
+            }
+            return boundaries;
+        } catch (RuntimeException e) {
+            LOG.warn("Cannot split bucket '{}', it is read by a single worker: {}", bucket.name(), e.getMessage());
+            return Collections.emptyList();
+        } finally {
+            service.closeBucket(bucket);
+            service.closeConnection(configuration.getDataSet().getDatastore());
+        }
+    }
+
+    /**
+     * Number of ranges to read count documents in splitCount ranges, no more ranges than documents, and ranges small
+     * enough for their size to be a N1QL offset (an int).
+     */
+    static long splitParts(final long splitCount, final long count) {
+        return Math.max(Math.min(splitCount, count), (count - 1) / Integer.MAX_VALUE + 1);
+    }
+
+    /**
+     * Number of documents in range (from 0) when count documents are split in parts ranges, first ranges get one more
+     * document when count is not a multiple of parts.
+     */
+    static int rangeSize(final long count, final long parts, final long range) {
+        return Math.toIntExact(count / parts + (range < count % parts ? 1 : 0));
+    }
+
+    /**
+     * Only a whole bucket read without limit is split, limit and custom queries need a single worker.
+     */
+    private boolean isSplittable() {
+        return configuration.getSelectAction() == SelectAction.ALL
+                && (configuration.getLimit() == null || configuration.getLimit().trim().isEmpty());
     }
 
     @Emitter
     public CouchbaseInput createWorker() {
-        // here we create an actual worker,
-        // you are free to rework the configuration etc but our default generated implementation
-        // propagates the partition mapper entries.
-        return new CouchbaseInput(configuration, service, recordBuilderFactory, i18nMessage);
+        return new CouchbaseInput(configuration, service, recordBuilderFactory, i18nMessage, startId, endId);
     }
-}
\ No newline at end of file
+}
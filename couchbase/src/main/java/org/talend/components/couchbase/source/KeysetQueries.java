@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.couchbase.source;
+
+import com.couchbase.client.java.document.json.JsonObject;
+import com.couchbase.client.java.query.N1qlParams;
+import com.couchbase.client.java.query.N1qlQuery;
+import com.couchbase.client.java.query.Select;
+import com.couchbase.client.java.query.Statement;
+import com.couchbase.client.java.query.consistency.ScanConsistency;
+import com.couchbase.client.java.query.dsl.Expression;
+import com.couchbase.client.java.query.dsl.Sort;
+import com.couchbase.client.java.query.dsl.path.AsPath;
+
+import static com.couchbase.client.java.query.dsl.Expression.i;
+import static com.couchbase.client.java.query.dsl.Expression.x;
+
+/**
+ * N1QL queries to read a bucket by ranges of document ids, ordered by id so the primary index gives pages and split
+ * boundaries.
+ */
+final class KeysetQueries {
+
+    static final String ID = "meta().id";
+
+    static final String COUNT_FIELD = "count";
+
+    static final String BOUNDARY_FIELD = "boundary";
+
+    private KeysetQueries() {
+    }
+
+    /**
+     * Page of documents with id in [startId, endId[ and after afterId (last id of previous page).
+     *
+     * @param startId : first id (inclusive), null for no lower bound.
+     * @param endId : end id (exclusive), null for no upper bound.
+     * @param afterId : last id already read, null for first page.
+     */
+    static N1qlQuery page(final String bucket, final String startId, final String endId, final String afterId,
+            final int limit, final ScanConsistency consistency) {
+        final JsonObject parameters = JsonObject.create();
+        Expression condition = null;
+        if (afterId != null) {
+            condition = x(ID).gt(x("$afterId"));
+            parameters.put("afterId", afterId);
+        } else if (startId != null) {
+            condition = x(ID).gte(x("$startId"));
+            parameters.put("startId", startId);
+        }
+        if (endId != null) {
+            final Expression upper = x(ID).lt(x("$endId"));
+            condition = condition == null ? upper : condition.and(upper);
+            parameters.put("endId", endId);
+        }
+
+        final AsPath from = Select.select(ID + " as " + i(CouchbaseInput.META_ID_FIELD), "*").from(i(bucket));
+        final Statement statement = condition == null ? from.orderBy(Sort.asc(ID)).limit(limit)
+                : from.where(condition).orderBy(Sort.asc(ID)).limit(limit);
+        final N1qlParams params = N1qlParams.build().consistency(consistency);
+        return parameters.isEmpty() ? N1qlQuery.simple(statement, params)
+                : N1qlQuery.parameterized(statement, parameters, params);
+    }
+
+    static N1qlQuery count(final String bucket, final ScanConsistency consistency) {
+        return N1qlQuery.simple(Select.select("count(*) as " + i(COUNT_FIELD)).from(i(bucket)),
+                N1qlParams.build().consistency(consistency));
+    }
+
+    /**
+     * Id of the document offset positions after afterId in id order, so boundaries are read from the previous one
+     * and the index is scanned once for all of them.
+     *
+     * @param afterId : previous boundary, null to start from first id.
+     */
+    static N1qlQuery idAfter(final String bucket, final String afterId, final int offset,
+            final ScanConsistency consistency) {
+        final AsPath from = Select.select(ID + " as " + i(BOUNDARY_FIELD)).from(i(bucket));
+        final Statement statement = afterId == null ? from.orderBy(Sort.asc(ID)).limit(1).offset(offset)
+                : from.where(x(ID).gt(x("$afterId"))).orderBy(Sort.asc(ID)).limit(1).offset(offset);
+        final N1qlParams params = N1qlParams.build().consistency(consistency);
+        return afterId == null ? N1qlQuery.simple(statement, params)
+                : N1qlQuery.parameterized(statement, JsonObject.create().put("afterId", afterId), params);
+    }
+}
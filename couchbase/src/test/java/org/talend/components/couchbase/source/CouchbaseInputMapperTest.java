@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.couchbase.source;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("Testing of input mapper split ranges")
+class CouchbaseInputMapperTest {
+
+    @Test
+    @DisplayName("Ranges sizes add up to the document count")
+    void rangeSizeTest() {
+        long parts = CouchbaseInputMapper.splitParts(3, 10);
+        assertEquals(3, parts);
+        assertEquals(4, CouchbaseInputMapper.rangeSize(10, parts, 0));
+        assertEquals(3, CouchbaseInputMapper.rangeSize(10, parts, 1));
+        assertEquals(3, CouchbaseInputMapper.rangeSize(10, parts, 2));
+    }
+
+    @Test
+    @DisplayName("No more ranges than documents")
+    void smallBucketTest() {
+        assertEquals(2, CouchbaseInputMapper.splitParts(100, 2));
+        assertEquals(1, CouchbaseInputMapper.rangeSize(2, 2, 1));
+    }
+
+    @Test
+    @DisplayName("Large buckets are split in ranges whose size is an int offset")
+    void largeBucketTest() {
+        long count = 5_000_000_000L;
+        long parts = CouchbaseInputMapper.splitParts(2, count);
+        assertEquals(3, parts);
+        long total = 0;
+        for (long range = 0; range < parts; range++) {
+            total += CouchbaseInputMapper.rangeSize(count, parts, range);
+        }
+        assertEquals(count, total);
+        assertEquals(1_000, CouchbaseInputMapper.rangeSize(4_000_000_000_000L, 4_000_000_000L, 3_999_999_999L));
+    }
+}
@@ -28,19 +28,24 @@ import org.talend.components.couchbase.CouchbaseUtilTest;
 import org.talend.components.couchbase.TestData;
 import org.talend.components.couchbase.dataset.CouchbaseDataSet;
 import org.talend.components.couchbase.dataset.DocumentType;
+import org.talend.components.couchbase.service.CouchbaseService;
+import org.talend.components.couchbase.service.I18nMessage;
 import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.service.Service;
 import org.talend.sdk.component.junit5.WithComponents;
 import org.talend.sdk.component.runtime.manager.chain.Job;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.talend.sdk.component.junit.SimpleFactory.configurationByExample;
 
 @Slf4j
@@ -49,6 +54,12 @@ import static org.talend.sdk.component.junit.SimpleFactory.configurationByExampl
 @DisplayName("Testing of CouchbaseInput component")
 public class CouchbaseInputTest extends CouchbaseUtilTest {
 
+    @Service
+    private CouchbaseService couchbaseService;
+
+    @Service
+    private I18nMessage i18nMessage;
+
     private void executeJob(CouchbaseInputConfiguration configuration) {
         final String inputConfig = configurationByExample().forInstance(configuration).configured().toQueryString();
         Job.components().component("Couchbase_Input", "Couchbase://Input?" + inputConfig)
@@ -74,6 +85,66 @@ public class CouchbaseInputTest extends CouchbaseUtilTest {
         assertOneRecord("2", data.get(1));
     }
 
+    @Test
+    @DisplayName("Check input data read by pages")
+    void couchbaseInputPagesTest() {
+        log.info("Test start: couchbaseInputPagesTest");
+        String idPrefix = "couchbaseInputPagesTest";
+        insertTestDataToDB(idPrefix);
+        CouchbaseInputConfiguration configuration = getInputConfiguration();
+        configuration.setPageSize(1);
+        executeJob(configuration);
+
+        final List<Record> res = componentsHandler.getCollectedData(Record.class);
+
+        assertNotNull(res);
+        List<Record> data = res.stream().filter(record -> record.getString("_meta_id_").startsWith(idPrefix))
+                .sorted(Comparator.comparing(r -> r.getString("_meta_id_"))).collect(Collectors.toList());
+        assertEquals(2, data.size());
+
+        assertOneRecord("1", data.get(0));
+        assertOneRecord("2", data.get(1));
+    }
+
+    @Test
+    @DisplayName("Check split workers read each document once")
+    void couchbaseInputSplitTest() {
+        log.info("Test start: couchbaseInputSplitTest");
+        String idPrefix = "couchbaseInputSplitTest";
+        insertTestDataToDB(idPrefix);
+        CouchbaseInputConfiguration configuration = getInputConfiguration();
+        configuration.setPageSize(1);
+        CouchbaseInputMapper mapper = new CouchbaseInputMapper(configuration, couchbaseService, recordBuilderFactory,
+                i18nMessage);
+
+        List<String> all = readIds(mapper);
+        List<CouchbaseInputMapper> workers = mapper.split(Math.max(1, mapper.estimateSize() / all.size()));
+        List<String> split = new ArrayList<>();
+        for (CouchbaseInputMapper worker : workers) {
+            split.addAll(readIds(worker));
+        }
+
+        assertTrue(workers.size() > 1);
+        assertEquals(all.size(), new HashSet<>(split).size(), "a document is read by several workers");
+        assertEquals(all, split.stream().sorted().collect(Collectors.toList()));
+        assertEquals(2, split.stream().filter(id -> id.startsWith(idPrefix)).count());
+    }
+
+    private List<String> readIds(CouchbaseInputMapper mapper) {
+        CouchbaseInput input = mapper.createWorker();
+        input.init();
+        List<String> ids = new ArrayList<>();
+        try {
+            Record record;
+            while ((record = input.next()) != null) {
+                ids.add(record.getString("_meta_id_"));
+            }
+        } finally {
+            input.release();
+        }
+        return ids;
+    }
+
     private void insertTestDataToDB(String idPrefix) {
         Bucket bucket = couchbaseCluster.openBucket(BUCKET_NAME, BUCKET_PASSWORD);
 
@@ -263,6 +334,8 @@ public class CouchbaseInputTest extends CouchbaseUtilTest {
         couchbaseDataSet.setBucket(BUCKET_NAME);
 
         CouchbaseInputConfiguration configuration = new CouchbaseInputConfiguration();
+        // documents inserted by the test must be visible to the queries
+        configuration.setScanConsistency(ScanConsistencyType.REQUEST_PLUS);
         return configuration.setDataSet(couchbaseDataSet);
     }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.couchbase.source;
+
+import com.couchbase.client.java.query.N1qlQuery;
+import com.couchbase.client.java.query.ParameterizedN1qlQuery;
+import com.couchbase.client.java.query.consistency.ScanConsistency;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testing of keyset queries")
+class KeysetQueriesTest {
+
+    @Test
+    @DisplayName("First page of whole bucket has no condition")
+    void firstPageTest() {
+        N1qlQuery query = KeysetQueries.page("test", null, null, null, 100, ScanConsistency.NOT_BOUNDED);
+
+        assertFalse(query instanceof ParameterizedN1qlQuery);
+        assertEquals("SELECT meta().id as `_meta_id_`, * FROM `test` ORDER BY meta().id ASC LIMIT 100",
+                query.statement().toString());
+        assertEquals("not_bounded", query.n1ql().getString("scan_consistency"));
+    }
+
+    @Test
+    @DisplayName("Page of a range starts at start id")
+    void rangePageTest() {
+        N1qlQuery query = KeysetQueries.page("test", "a", "m", null, 10, ScanConsistency.REQUEST_PLUS);
+
+        assertTrue(query instanceof ParameterizedN1qlQuery);
+        assertEquals("SELECT meta().id as `_meta_id_`, * FROM `test` WHERE meta().id >= $startId AND meta().id < $endId "
+                + "ORDER BY meta().id ASC LIMIT 10", query.statement().toString());
+        assertEquals("a", query.n1ql().getString("$startId"));
+        assertEquals("m", query.n1ql().getString("$endId"));
+        assertEquals("request_plus", query.n1ql().getString("scan_consistency"));
+    }
+
+    @Test
+    @DisplayName("Next page starts after last read id")
+    void nextPageTest() {
+        N1qlQuery query = KeysetQueries.page("test", "a", "m", "c", 10, ScanConsistency.NOT_BOUNDED);
+
+        assertEquals("SELECT meta().id as `_meta_id_`, * FROM `test` WHERE meta().id > $afterId AND meta().id < $endId "
+                + "ORDER BY meta().id ASC LIMIT 10", query.statement().toString());
+        assertEquals("c", query.n1ql().getString("$afterId"));
+        assertFalse(query.n1ql().containsKey("$startId"));
+    }
+
+    @Test
+    @DisplayName("First boundary query reads one id at offset")
+    void firstBoundaryTest() {
+        N1qlQuery query = KeysetQueries.idAfter("test", null, 500, ScanConsistency.NOT_BOUNDED);
+
+        assertFalse(query instanceof ParameterizedN1qlQuery);
+        assertEquals("SELECT meta().id as `boundary` FROM `test` ORDER BY meta().id ASC LIMIT 1 OFFSET 500",
+                query.statement().toString());
+        assertEquals("SELECT count(*) as `count` FROM `test`",
+                KeysetQueries.count("test", ScanConsistency.NOT_BOUNDED).statement().toString());
+    }
+
+    @Test
+    @DisplayName("Next boundary query starts after previous boundary")
+    void nextBoundaryTest() {
+        N1qlQuery query = KeysetQueries.idAfter("test", "k", 499, ScanConsistency.REQUEST_PLUS);
+
+        assertTrue(query instanceof ParameterizedN1qlQuery);
+        assertEquals("SELECT meta().id as `boundary` FROM `test` WHERE meta().id > $afterId ORDER BY meta().id ASC "
+                + "LIMIT 1 OFFSET 499", query.statement().toString());
+        assertEquals("k", query.n1ql().getString("$afterId"));
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.google.storage.input;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+
+import org.talend.components.common.stream.api.input.RangeSource;
+
+import com.google.cloud.ReadChannel;
+import com.google.cloud.storage.Blob;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Blob read by ranges, for readers parsing chunks in parallel.
+ */
+@RequiredArgsConstructor
+public class BlobRangeSource implements RangeSource {
+
+    /** default chunk size of blob read channel */
+    private static final int CHANNEL_CHUNK_SIZE = 2 * 1024 * 1024;
+
+    private final Blob blob;
+
+    @Override
+    public long length() {
+        return this.blob.getSize();
+    }
+
+    @Override
+    public InputStream open(long start, long end) throws IOException {
+        final ReadChannel channel = this.blob.reader();
+        channel.seek(start);
+        // don't fetch much more than the range for small ones.
+        channel.setChunkSize((int) Math.min(end - start, CHANNEL_CHUNK_SIZE));
+        return new RangeInputStream(Channels.newInputStream(channel), end - start);
+    }
+
+    /**
+     * Stream stopping at end of range.
+     */
+    private static class RangeInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        RangeInputStream(InputStream in, long size) {
+            super(in);
+            this.remaining = size;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (this.remaining <= 0) {
+                return -1;
+            }
+            final int value = super.read();
+            if (value >= 0) {
+                this.remaining--;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (this.remaining <= 0) {
+                return -1;
+            }
+            final int read = super.read(b, off, (int) Math.min(len, this.remaining));
+            if (read > 0) {
+                this.remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            final long skipped = super.skip(Math.min(n, this.remaining));
+            this.remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), this.remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
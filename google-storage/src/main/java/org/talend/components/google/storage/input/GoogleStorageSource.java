@@ -108,7 +108,10 @@ public class GoogleStorageSource implements Serializable {
         // find source blob.
         final Blob blob = this.findBlob();
 
-        // reader & iterator.
+        // reader & iterator, by ranges when size is known (allows parallel read of large blobs).
+        if (blob.getSize() != null) {
+            return this.recordReader.read(new BlobRangeSource(blob));
+        }
         final InputStream in = Channels.newInputStream(blob.reader());
         return this.recordReader.read(in);
     }
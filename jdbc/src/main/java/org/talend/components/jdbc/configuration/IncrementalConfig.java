@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.configuration;
+
+import lombok.Data;
+import org.talend.sdk.component.api.configuration.Option;
+import org.talend.sdk.component.api.configuration.ui.layout.GridLayout;
+import org.talend.sdk.component.api.meta.Documentation;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@GridLayout({ @GridLayout.Row("watermarkColumn"), @GridLayout.Row("initialWatermark"), @GridLayout.Row("keys") })
+@Documentation("Incremental read configuration")
+public class IncrementalConfig implements Serializable {
+
+    @Option
+    @Documentation("A timestamp or monotonically increasing column used to only read the rows added since the last read.\n"
+            + "If empty, the whole input is read each time.")
+    private String watermarkColumn;
+
+    @Option
+    @Documentation("The watermark column value to start reading after.\n"
+            + "If empty, the first read starts from the beginning of the input.")
+    private String initialWatermark;
+
+    @Option
+    @Documentation("Columns identifying a row, to skip the rows sharing the last watermark value already read.\n"
+            + "If empty, the table primary key is used, or all the columns when there is none.")
+    private List<String> keys = new ArrayList<>();
+
+    public boolean isIncremental() {
+        return watermarkColumn != null && !watermarkColumn.trim().isEmpty();
+    }
+
+}
@@ -15,11 +15,14 @@ package org.talend.components.jdbc.configuration;
 import lombok.Data;
 import org.talend.components.jdbc.dataset.ChangeDataCaptureDataset;
 import org.talend.sdk.component.api.configuration.Option;
+import org.talend.sdk.component.api.configuration.constraint.Min;
 import org.talend.sdk.component.api.configuration.ui.layout.GridLayout;
 import org.talend.sdk.component.api.meta.Documentation;
 
 @Data
 @GridLayout({ @GridLayout.Row({ "dataSet" }), @GridLayout.Row("changeOffsetOnRead") })
+@GridLayout(names = GridLayout.FormType.ADVANCED, value = { @GridLayout.Row({ "dataSet" }), @GridLayout.Row("pollInterval"),
+        @GridLayout.Row("maxIdleInterval"), @GridLayout.Row("maxRowsPerCycle") })
 @Documentation("Stream table input configuration")
 public class InputCaptureDataChangeConfig implements InputConfig {
 
@@ -31,6 +34,23 @@ public class InputCaptureDataChangeConfig implements InputConfig {
     @Documentation("Change offset on read")
     private ChangeOffsetOnReadStrategy changeOffsetOnRead = ChangeOffsetOnReadStrategy.NO;
 
+    @Option
+    @Min(0)
+    @Documentation("The minimum time in milliseconds between two reads of the stream table.")
+    private long pollInterval = 2000;
+
+    @Option
+    @Min(0)
+    @Documentation("The maximum time in milliseconds between two reads of the stream table.\n"
+            + "The poll interval doubles after each empty read up to this value.")
+    private long maxIdleInterval = 60000;
+
+    @Option
+    @Min(0)
+    @Documentation("The maximum number of rows emitted before giving the hand back to the runtime.\n"
+            + "If the value specified is zero, all the rows of a read are emitted at once.")
+    private int maxRowsPerCycle = 0;
+
     public enum ChangeOffsetOnReadStrategy {
         YES,
         NO
@@ -19,4 +19,8 @@ import java.io.Serializable;
 public interface InputConfig extends Serializable {
 
     BaseDataSet getDataSet();
+
+    default IncrementalConfig getIncrementalConfig() {
+        return new IncrementalConfig();
+    }
 }
\ No newline at end of file
@@ -20,7 +20,8 @@ import org.talend.sdk.component.api.meta.Documentation;
 
 @Data
 @GridLayout(value = { @GridLayout.Row({ "dataSet" }) })
-@GridLayout(names = GridLayout.FormType.ADVANCED, value = { @GridLayout.Row({ "dataSet" }) })
+@GridLayout(names = GridLayout.FormType.ADVANCED, value = { @GridLayout.Row({ "dataSet" }),
+        @GridLayout.Row({ "partitionConfig" }), @GridLayout.Row({ "incrementalConfig" }) })
 @Documentation("Query input configuration")
 public class InputQueryConfig implements InputConfig {
 
@@ -28,4 +29,12 @@ public class InputQueryConfig implements InputConfig {
     @Documentation("SQL query dataset")
     private SqlQueryDataset dataSet;
 
+    @Option
+    @Documentation("parallel read configuration")
+    private PartitionConfig partitionConfig = new PartitionConfig();
+
+    @Option
+    @Documentation("incremental read configuration")
+    private IncrementalConfig incrementalConfig = new IncrementalConfig();
+
 }
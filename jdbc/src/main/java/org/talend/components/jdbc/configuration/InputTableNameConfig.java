@@ -20,7 +20,8 @@ import org.talend.sdk.component.api.meta.Documentation;
 
 @Data
 @GridLayout(value = { @GridLayout.Row({ "dataSet" }) })
-@GridLayout(names = GridLayout.FormType.ADVANCED, value = { @GridLayout.Row({ "dataSet" }) })
+@GridLayout(names = GridLayout.FormType.ADVANCED, value = { @GridLayout.Row({ "dataSet" }),
+        @GridLayout.Row({ "partitionConfig" }), @GridLayout.Row({ "incrementalConfig" }) })
 @Documentation("Table name input configuration")
 public class InputTableNameConfig implements InputConfig {
 
@@ -28,4 +29,12 @@ public class InputTableNameConfig implements InputConfig {
     @Documentation("table name dataset")
     private TableNameDataset dataSet;
 
+    @Option
+    @Documentation("parallel read configuration")
+    private PartitionConfig partitionConfig = new PartitionConfig();
+
+    @Option
+    @Documentation("incremental read configuration")
+    private IncrementalConfig incrementalConfig = new IncrementalConfig();
+
 }
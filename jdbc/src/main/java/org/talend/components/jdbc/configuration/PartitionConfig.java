@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.configuration;
+
+import lombok.Data;
+import org.talend.sdk.component.api.configuration.Option;
+import org.talend.sdk.component.api.configuration.constraint.Min;
+import org.talend.sdk.component.api.configuration.ui.layout.GridLayout;
+import org.talend.sdk.component.api.meta.Documentation;
+
+import java.io.Serializable;
+
+@Data
+@GridLayout({ @GridLayout.Row("splitColumn"), @GridLayout.Row("partitions") })
+@Documentation("Parallel read configuration")
+public class PartitionConfig implements Serializable {
+
+    @Option
+    @Documentation("A numeric or date column used to split the input into ranges read in parallel.\n"
+            + "If empty, the input is read by a single worker.")
+    private String splitColumn;
+
+    @Option
+    @Min(0)
+    @Documentation("The number of ranges to read in parallel.\n"
+            + "If the value specified is zero, it is computed from the estimated table size.")
+    private int partitions = 0;
+
+    public boolean isPartitioned() {
+        return splitColumn != null && !splitColumn.trim().isEmpty();
+    }
+
+}
@@ -24,4 +24,12 @@ public interface BaseDataSet extends Serializable {
 
     int getFetchSize();
 
+    /**
+     * @param filter a SQL condition on the dataset columns
+     * @return the dataset query restricted to the rows matching the filter
+     */
+    default String getQuery(final String filter) {
+        return "select * from (" + getQuery() + ") talend_subquery where " + filter;
+    }
+
 }
@@ -53,4 +53,9 @@ public class TableNameDataset implements BaseDataSet {
         // No need for the i18n service for this instance
         return "select * from " + get(connection, null).identifier(getTableName());
     }
+
+    @Override
+    public String getQuery(final String filter) {
+        return getQuery() + " where " + filter;
+    }
 }
@@ -14,7 +14,10 @@ package org.talend.components.jdbc.input;
 
 import lombok.extern.slf4j.Slf4j;
 import org.talend.components.jdbc.ErrorFactory;
+import org.talend.components.jdbc.configuration.IncrementalConfig;
 import org.talend.components.jdbc.configuration.InputConfig;
+import org.talend.components.jdbc.dataset.TableNameDataset;
+import org.talend.components.jdbc.output.platforms.PlatformFactory;
 import org.talend.components.jdbc.service.I18nMessage;
 import org.talend.components.jdbc.service.JdbcService;
 import org.talend.sdk.component.api.input.Producer;
@@ -25,32 +28,36 @@ import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import java.io.Serializable;
+import java.math.BigDecimal;
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.sql.Types;
-import java.util.Date;
-import java.util.stream.IntStream;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
-import static java.sql.ResultSetMetaData.columnNoNulls;
+import static java.util.Collections.emptyList;
+import static java.util.Locale.ROOT;
 import static org.talend.components.jdbc.ErrorFactory.toIllegalStateException;
-import static org.talend.sdk.component.api.record.Schema.Type.BOOLEAN;
-import static org.talend.sdk.component.api.record.Schema.Type.BYTES;
-import static org.talend.sdk.component.api.record.Schema.Type.DATETIME;
-import static org.talend.sdk.component.api.record.Schema.Type.DOUBLE;
-import static org.talend.sdk.component.api.record.Schema.Type.FLOAT;
-import static org.talend.sdk.component.api.record.Schema.Type.INT;
-import static org.talend.sdk.component.api.record.Schema.Type.LONG;
-import static org.talend.sdk.component.api.record.Schema.Type.RECORD;
-import static org.talend.sdk.component.api.record.Schema.Type.STRING;
 
 @Slf4j
 public abstract class AbstractInputEmitter implements Serializable {
 
+    /** Default limit of the rows sharing the watermark value tracked between reads. */
+    static final int MAX_WATERMARK_ROWS = 10_000;
+
     private final InputConfig inputConfig;
 
+    private final String partitionFilter;
+
     private RecordBuilderFactory recordBuilderFactory;
 
     private final JdbcService jdbcDriversService;
@@ -65,14 +72,40 @@ public abstract class AbstractInputEmitter implements Serializable {
 
     private JdbcService.JdbcDatasource dataSource;
 
-    private transient Schema schema;
+    private transient ResultSetReader reader;
+
+    private transient int watermarkIndex;
+
+    /** indexes of the columns identifying a row, empty if the whole row is used */
+    private transient int[] keyIndexes;
+
+    private Object watermark;
 
-    AbstractInputEmitter(final InputConfig inputConfig, final JdbcService jdbcDriversService,
+    /**
+     * Keys of the rows already emitted with the current watermark value: the next read restarts at this value (inclusive)
+     * so the rows sharing it and committed later are not lost, these ones are skipped. Only one key is kept for a unique
+     * watermark. Above {@link #maxWatermarkRows} keys, the next read starts after the value.
+     */
+    private final Set<Object> watermarkRows = new HashSet<>();
+
+    int maxWatermarkRows = MAX_WATERMARK_ROWS;
+
+    /** more rows than {@link #maxWatermarkRows} share the current watermark value */
+    private boolean watermarkRowsOverflow;
+
+    private boolean exhausted;
+
+    /**
+     * @param partitionFilter an optional SQL condition restricting the rows read by this emitter to its partition
+     */
+    AbstractInputEmitter(final InputConfig inputConfig, final String partitionFilter, final JdbcService jdbcDriversService,
             final RecordBuilderFactory recordBuilderFactory, final I18nMessage i18nMessage) {
         this.inputConfig = inputConfig;
+        this.partitionFilter = partitionFilter;
         this.recordBuilderFactory = recordBuilderFactory;
         this.jdbcDriversService = jdbcDriversService;
         this.i18n = i18nMessage;
+        this.watermark = parseWatermark(inputConfig.getIncrementalConfig().getInitialWatermark());
     }
 
     @PostConstruct
@@ -87,159 +120,241 @@ public abstract class AbstractInputEmitter implements Serializable {
         try {
             dataSource = jdbcDriversService.createDataSource(inputConfig.getDataSet().getConnection());
             connection = dataSource.getConnection();
-            statement = connection.createStatement();
-            statement.setFetchSize(inputConfig.getDataSet().getFetchSize());
-            resultSet = statement.executeQuery(inputConfig.getDataSet().getQuery());
+            executeQuery();
         } catch (final SQLException e) {
             throw toIllegalStateException(e);
         }
     }
 
-    @Producer
-    public Record next() {
-        try {
-            if (!resultSet.next()) {
-                return null;
+    /**
+     * Called by the polling extension before each poll: once the previous read is exhausted, the input is read again.
+     * In incremental mode only the rows after the last emitted watermark are read.
+     *
+     * @param configuration an optional watermark to resume from, the last emitted one is used if null
+     */
+    public void resume(final Object configuration) {
+        if (configuration != null) {
+            if (!configuration.equals(watermark)) {
+                // an explicit watermark is exclusive, the rows having it are not read
+                watermark = configuration;
+                watermarkRows.clear();
             }
-
-            final ResultSetMetaData metaData = resultSet.getMetaData();
-            if (schema == null) {
-                final Schema.Builder schemaBuilder = recordBuilderFactory.newSchemaBuilder(RECORD);
-                IntStream.rangeClosed(1, metaData.getColumnCount()).forEach(index -> addField(schemaBuilder, metaData, index));
-                schema = schemaBuilder.build();
-            }
-
-            final Record.Builder recordBuilder = recordBuilderFactory.newRecordBuilder(schema);
-            IntStream.rangeClosed(1, metaData.getColumnCount()).forEach(index -> addColumn(recordBuilder, metaData, index));
-            return recordBuilder.build();
+        } else if (!exhausted) {
+            return;
+        }
+        log.debug("Resume reading after watermark {}", watermark);
+        closeQuery();
+        try {
+            // ends the previous read transaction so the new rows are visible
+            connection.commit();
+            executeQuery();
         } catch (final SQLException e) {
             throw toIllegalStateException(e);
         }
     }
 
-    private void addField(final Schema.Builder builder, final ResultSetMetaData metaData, final int columnIndex) {
+    /**
+     * @return the watermark column value of the last emitted record, the initial watermark if none was emitted yet
+     */
+    public Object getWatermark() {
+        return watermark;
+    }
+
+    @Producer
+    public Record next() {
         try {
-            final String javaType = metaData.getColumnClassName(columnIndex);
-            final int sqlType = metaData.getColumnType(columnIndex);
-            final Schema.Entry.Builder entryBuilder = recordBuilderFactory.newEntryBuilder();
-            entryBuilder.withName(metaData.getColumnName(columnIndex))
-                    .withNullable(metaData.isNullable(columnIndex) != columnNoNulls);
-            switch (sqlType) {
-            case java.sql.Types.SMALLINT:
-            case java.sql.Types.TINYINT:
-            case java.sql.Types.INTEGER:
-                if (javaType.equals(Integer.class.getName()) || Short.class.getName().equals(javaType)) {
-                    builder.withEntry(entryBuilder.withType(INT).build());
-                } else {
-                    builder.withEntry(entryBuilder.withType(LONG).build());
+            while (resultSet.next()) {
+                if (reader == null) {
+                    reader = new ResultSetReader(recordBuilderFactory, resultSet.getMetaData());
+                    watermarkIndex = inputConfig.getIncrementalConfig().isIncremental()
+                            ? findWatermarkColumn(resultSet.getMetaData(), inputConfig.getIncrementalConfig().getWatermarkColumn())
+                            : 0;
+                    keyIndexes = watermarkIndex > 0 ? findKeyColumns(resultSet.getMetaData()) : new int[0];
+                }
+                final Record record = reader.read(resultSet);
+                if (watermarkIndex > 0) {
+                    // rows are ordered by the watermark column so the last one read is the highest
+                    final Object value = resultSet.getObject(watermarkIndex);
+                    if (value != null) {
+                        if (!value.equals(watermark)) {
+                            watermark = value;
+                            watermarkRows.clear();
+                            watermarkRowsOverflow = false;
+                        }
+                        final Object key = rowKey(record);
+                        if (watermarkRows.contains(key)) {
+                            // already emitted by the previous read
+                            continue;
+                        }
+                        if (watermarkRows.size() < maxWatermarkRows) {
+                            watermarkRows.add(key);
+                        } else if (!watermarkRowsOverflow) {
+                            watermarkRowsOverflow = true;
+                            log.warn(i18n.warnWatermarkRowsLimit(maxWatermarkRows, String.valueOf(watermark)));
+                        }
+                    }
                 }
-                break;
-            case java.sql.Types.FLOAT:
-            case java.sql.Types.REAL:
-                builder.withEntry(entryBuilder.withType(FLOAT).build());
-                break;
-            case java.sql.Types.DOUBLE:
-                builder.withEntry(entryBuilder.withType(DOUBLE).build());
-                break;
-            case java.sql.Types.BOOLEAN:
-                builder.withEntry(entryBuilder.withType(BOOLEAN).build());
-                break;
-            case java.sql.Types.TIME:
-            case java.sql.Types.DATE:
-            case java.sql.Types.TIMESTAMP:
-                builder.withEntry(entryBuilder.withType(DATETIME).build());
-                break;
-            case java.sql.Types.BINARY:
-            case java.sql.Types.VARBINARY:
-            case Types.LONGVARBINARY:
-                builder.withEntry(entryBuilder.withType(BYTES).build());
-                break;
-            case java.sql.Types.BIGINT:
-            case java.sql.Types.DECIMAL:
-            case java.sql.Types.NUMERIC:
-            case java.sql.Types.VARCHAR:
-            case java.sql.Types.LONGVARCHAR:
-            case java.sql.Types.CHAR:
-            default:
-                builder.withEntry(entryBuilder.withType(STRING).build());
-                break;
+                return record;
             }
+            exhausted = true;
+            return null;
         } catch (final SQLException e) {
             throw toIllegalStateException(e);
         }
     }
 
-    private void addColumn(final Record.Builder builder, final ResultSetMetaData metaData, final int columnIndex) {
-        try {
-            final int sqlType = metaData.getColumnType(columnIndex);
-            final Object value = resultSet.getObject(columnIndex);
-            final Schema.Entry.Builder entryBuilder = recordBuilderFactory.newEntryBuilder();
-            entryBuilder.withName(metaData.getColumnName(columnIndex))
-                    .withNullable(metaData.isNullable(columnIndex) != columnNoNulls);
-            switch (sqlType) {
-            case java.sql.Types.SMALLINT:
-            case java.sql.Types.TINYINT:
-            case java.sql.Types.INTEGER:
-                if (value != null) {
-                    if (value instanceof Integer) {
-                        builder.withInt(entryBuilder.withType(INT).build(), (Integer) value);
-                    } else if (value instanceof Short) {
-                        builder.withInt(entryBuilder.withType(INT).build(), ((Short) value).intValue());
-                    } else {
-                        builder.withLong(entryBuilder.withType(LONG).build(), Long.valueOf(value.toString()));
-                    }
-                }
-                break;
-            case java.sql.Types.FLOAT:
-            case java.sql.Types.REAL:
-                if (value != null) {
-                    builder.withFloat(entryBuilder.withType(FLOAT).build(), (Float) value);
-                }
-                break;
-            case java.sql.Types.DOUBLE:
-                if (value != null) {
-                    builder.withDouble(entryBuilder.withType(DOUBLE).build(), (Double) value);
+    private void executeQuery() throws SQLException {
+        exhausted = false;
+        final IncrementalConfig incrementalConfig = inputConfig.getIncrementalConfig();
+        if (!incrementalConfig.isIncremental()) {
+            statement = connection.createStatement();
+            statement.setFetchSize(inputConfig.getDataSet().getFetchSize());
+            resultSet = statement.executeQuery(partitionFilter == null ? inputConfig.getDataSet().getQuery()
+                    : inputConfig.getDataSet().getQuery(partitionFilter));
+            return;
+        }
+
+        if (watermarkRowsOverflow) {
+            // too many rows share the last watermark value to skip them, the read starts after it
+            watermarkRows.clear();
+            watermarkRowsOverflow = false;
+        }
+        // rows without watermark can't be tracked, they are skipped as they would be by the next reads
+        final String column = PlatformFactory.get(inputConfig.getDataSet().getConnection(), i18n)
+                .identifier(incrementalConfig.getWatermarkColumn());
+        final String filter = column + (watermark == null ? " is not null" : watermarkRows.isEmpty() ? " > ?" : " >= ?");
+        final PreparedStatement preparedStatement = connection.prepareStatement(inputConfig.getDataSet()
+                .getQuery(partitionFilter == null ? filter : partitionFilter + " and " + filter) + " order by " + column);
+        statement = preparedStatement;
+        preparedStatement.setFetchSize(inputConfig.getDataSet().getFetchSize());
+        if (watermark != null) {
+            preparedStatement.setObject(1, watermark);
+        }
+        resultSet = preparedStatement.executeQuery();
+    }
+
+    /**
+     * The watermark column is quoted with the platform identifier in the query, so it is matched exactly like the database
+     * does, the case insensitive lookup is only used for drivers changing the label case.
+     */
+    private int findWatermarkColumn(final ResultSetMetaData metaData, final String column) throws SQLException {
+        final int index = findColumn(metaData, column);
+        if (index == 0) {
+            throw new IllegalStateException(i18n.errorWatermarkColumnNotFound(column));
+        }
+        return index;
+    }
+
+    /**
+     * The rows are identified by the configured keys, else by the table primary key, else by all their values.
+     */
+    private int[] findKeyColumns(final ResultSetMetaData metaData) throws SQLException {
+        final List<String> configured = inputConfig.getIncrementalConfig().getKeys();
+        final List<String> keys = configured == null || configured.isEmpty() ? primaryKey() : configured;
+        final int[] indexes = new int[keys.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = findColumn(metaData, keys.get(i));
+            if (indexes[i] == 0) {
+                if (keys == configured) {
+                    throw new IllegalStateException(i18n.errorWatermarkKeyNotFound(keys.get(i)));
                 }
-                break;
-            case java.sql.Types.BOOLEAN:
-                if (value != null) {
-                    builder.withBoolean(entryBuilder.withType(BOOLEAN).build(), (Boolean) value);
+                log.debug("Primary key column {} isn't read, rows are identified by all their values", keys.get(i));
+                return new int[0];
+            }
+        }
+        return indexes;
+    }
+
+    private List<String> primaryKey() throws SQLException {
+        if (!TableNameDataset.class.isInstance(inputConfig.getDataSet())) {
+            return emptyList();
+        }
+        final String table = TableNameDataset.class.cast(inputConfig.getDataSet()).getTableName();
+        final DatabaseMetaData metaData = connection.getMetaData();
+        // unquoted table names are stored in the database case
+        final Set<String> names = new LinkedHashSet<>();
+        names.add(table);
+        names.add(table.toUpperCase(ROOT));
+        names.add(table.toLowerCase(ROOT));
+        for (final String name : names) {
+            final List<String> columns = new ArrayList<>();
+            try (final ResultSet primaryKey = metaData.getPrimaryKeys(connection.getCatalog(), JdbcService.getSchema(connection),
+                    name)) {
+                while (primaryKey.next()) {
+                    columns.add(primaryKey.getString("COLUMN_NAME"));
                 }
-                break;
-            case java.sql.Types.DATE:
-                builder.withDateTime(entryBuilder.withType(DATETIME).build(),
-                        value == null ? null : new Date(((java.sql.Date) value).getTime()));
-                break;
-            case java.sql.Types.TIME:
-                builder.withDateTime(entryBuilder.withType(DATETIME).build(),
-                        value == null ? null : new Date(((java.sql.Time) value).getTime()));
-                break;
-            case java.sql.Types.TIMESTAMP:
-                builder.withDateTime(entryBuilder.withType(DATETIME).build(),
-                        value == null ? null : new Date(((java.sql.Timestamp) value).getTime()));
-                break;
-            case java.sql.Types.BINARY:
-            case java.sql.Types.VARBINARY:
-            case Types.LONGVARBINARY:
-                builder.withBytes(entryBuilder.withType(BYTES).build(), value == null ? null : (byte[]) value);
-                break;
-            case java.sql.Types.BIGINT:
-            case java.sql.Types.DECIMAL:
-            case java.sql.Types.NUMERIC:
-            case java.sql.Types.VARCHAR:
-            case java.sql.Types.LONGVARCHAR:
-            case java.sql.Types.CHAR:
-            default:
-                builder.withString(entryBuilder.withType(STRING).build(), value == null ? null : String.valueOf(value));
-                break;
             }
-        } catch (final SQLException e) {
-            throw toIllegalStateException(e);
+            if (!columns.isEmpty()) {
+                return columns;
+            }
         }
+        return emptyList();
     }
 
-    @PreDestroy
-    public void release() {
+    /**
+     * @return 0 if the column isn't read.
+     */
+    private static int findColumn(final ResultSetMetaData metaData, final String column) throws SQLException {
+        for (int index = 1; index <= metaData.getColumnCount(); index++) {
+            if (column.equals(metaData.getColumnLabel(index))) {
+                return index;
+            }
+        }
+        for (int index = 1; index <= metaData.getColumnCount(); index++) {
+            if (column.equalsIgnoreCase(metaData.getColumnLabel(index))) {
+                return index;
+            }
+        }
+        return 0;
+    }
+
+    private Object rowKey(final Record record) throws SQLException {
+        if (keyIndexes.length == 1) {
+            return keyValue(resultSet.getObject(keyIndexes[0]));
+        }
+        final List<Object> values;
+        if (keyIndexes.length > 0) {
+            values = new ArrayList<>(keyIndexes.length);
+            for (final int index : keyIndexes) {
+                values.add(keyValue(resultSet.getObject(index)));
+            }
+        } else {
+            values = new ArrayList<>(record.getSchema().getEntries().size());
+            for (final Schema.Entry entry : record.getSchema().getEntries()) {
+                values.add(keyValue(record.get(Object.class, entry.getName())));
+            }
+        }
+        return values;
+    }
+
+    private static Object keyValue(final Object value) {
+        // arrays are compared by reference
+        return value instanceof byte[] ? Base64.getEncoder().encodeToString((byte[]) value) : value;
+    }
+
+    /**
+     * The initial watermark is configured as a string, convert it to the closest SQL type so the driver can compare it to
+     * numeric and timestamp columns.
+     */
+    private static Object parseWatermark(final String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        final String trimmed = value.trim();
+        if (trimmed.matches("[-+]?\\d{1,18}")) {
+            return Long.valueOf(trimmed);
+        }
+        if (trimmed.matches("[-+]?\\d*\\.?\\d+")) {
+            return new BigDecimal(trimmed);
+        }
+        try {
+            return Timestamp.valueOf(trimmed);
+        } catch (final IllegalArgumentException notATimestamp) {
+            return trimmed;
+        }
+    }
+
+    private void closeQuery() {
         if (resultSet != null) {
             try {
                 resultSet.close();
@@ -254,6 +369,11 @@ public abstract class AbstractInputEmitter implements Serializable {
                 log.warn(i18n.warnStatementCantBeClosed(), e);
             }
         }
+    }
+
+    @PreDestroy
+    public void release() {
+        closeQuery();
         if (connection != null) {
             try {
                 connection.commit();
@@ -18,28 +18,40 @@ import org.talend.components.jdbc.dataset.ChangeDataCaptureDataset;
 import org.talend.components.jdbc.service.I18nMessage;
 import org.talend.components.jdbc.service.JdbcService;
 import org.talend.sdk.component.api.configuration.Option;
-import org.talend.sdk.component.api.input.*;
+import org.talend.sdk.component.api.input.Producer;
 import org.talend.sdk.component.api.meta.Documentation;
 import org.talend.sdk.component.api.record.Record;
-import org.talend.sdk.component.api.record.Schema;
 import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import java.io.Serializable;
-import java.sql.*;
-import java.util.stream.IntStream;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 
-import static java.sql.ResultSetMetaData.columnNoNulls;
 import static org.talend.components.jdbc.ErrorFactory.toIllegalStateException;
-import static org.talend.sdk.component.api.record.Schema.Type.*;
-import static org.talend.sdk.component.api.record.Schema.Type.STRING;
 
+/**
+ * Reads the stream table by batches. Each batch is read in its own transaction and, when the offset has to be changed on
+ * read, the stream is consumed in that same transaction once all the rows of the batch are emitted, so a batch is either
+ * fully emitted and consumed or read again.
+ * When a read returns no rows, the time until the next read doubles up to the maximum idle poll interval, and is never
+ * less than {@link #MIN_IDLE_INTERVAL}.
+ * The read lag, i.e. the rows emitted but not consumed from the stream yet and the time since the last offset commit, is
+ * logged at most every {@link #LAG_LOG_INTERVAL}.
+ */
 @Slf4j
-
 @Documentation("JDBC input using stream table name")
 public class ChangeDataCaptureInputEmitter implements Serializable {
 
+    /** minimum time in milliseconds between two reads of an empty stream table, even with a zero poll interval */
+    static final long MIN_IDLE_INTERVAL = 100;
+
+    /** minimum time in milliseconds between two logs of the read lag */
+    static final long LAG_LOG_INTERVAL = 60_000;
+
     private final InputCaptureDataChangeConfig inputConfig;
 
     private RecordBuilderFactory recordBuilderFactory;
@@ -50,25 +62,35 @@ public class ChangeDataCaptureInputEmitter implements Serializable {
 
     protected Connection connection;
 
-    private static Statement statement;
+    private Statement statement;
 
-    private Statement statementUpdate;
+    private ResultSet resultSet;
 
-    private static ResultSet resultSet;
+    private JdbcService.JdbcDatasource dataSource;
 
-    private static int resultSetSize;
+    private ChangeDataCaptureDataset cdcDataset;
 
-    private static JdbcService.JdbcDatasource dataSource;
+    private transient ResultSetReader reader;
 
-    private ChangeDataCaptureDataset cdcDataset;
+    private boolean done;
+
+    private long pollInterval;
+
+    private long nextFetchTime;
 
-    private transient Schema schema;
+    private int cycleRows;
 
-    private static int nbRecords = 0;
+    /** rows emitted in the current batch, i.e. since the last offset commit */
+    private long uncommittedRows;
 
-    private static int nbIterations = 0;
+    private long emittedRows;
 
-    private static long lastFetchTime = 0;
+    /** time of the first read */
+    private long startTime;
+
+    private long lastCommitTime;
+
+    private long lastLagLogTime;
 
     ChangeDataCaptureInputEmitter(@Option("configuration") final InputCaptureDataChangeConfig config,
             final JdbcService jdbcDriversService, final RecordBuilderFactory recordBuilderFactory,
@@ -78,6 +100,7 @@ public class ChangeDataCaptureInputEmitter implements Serializable {
         this.jdbcDriversService = jdbcDriversService;
         this.i18n = i18nMessage;
         this.cdcDataset = ((ChangeDataCaptureDataset) config.getDataSet());
+        this.pollInterval = config.getPollInterval();
     }
 
     @PostConstruct
@@ -90,15 +113,18 @@ public class ChangeDataCaptureInputEmitter implements Serializable {
             throw new IllegalArgumentException(i18n.errorUnauthorizedQuery());
         }
 
-        String createStreamStatement = this.cdcDataset.createStreamTableIfNotExist();
-
         try {
             dataSource = jdbcDriversService.createDataSource(inputConfig.getDataSet().getConnection());
             connection = dataSource.getConnection();
-            // first statement to create stream table if needed
-            statementUpdate = connection.createStatement();
-            int result = statementUpdate.executeUpdate(createStreamStatement);
-            fetchData();
+            connection.setAutoCommit(false);
+            try (final Statement statementUpdate = connection.createStatement()) {
+                // create the stream table, and the counter table used to consume it, if needed
+                statementUpdate.executeUpdate(cdcDataset.createStreamTableIfNotExist());
+                if (isCommit()) {
+                    statementUpdate.executeUpdate(cdcDataset.createCounterTableIfNotExist());
+                }
+            }
+            connection.commit();
         } catch (final SQLException e) {
             throw toIllegalStateException(e);
         }
@@ -106,290 +132,154 @@ public class ChangeDataCaptureInputEmitter implements Serializable {
 
     @Producer
     public Record next() {
-        log.debug("Next is called; nbRecords: " + nbRecords + ",nbIterations: " + nbIterations);
-        boolean commit = (inputConfig.getChangeOffsetOnRead() == InputCaptureDataChangeConfig.ChangeOffsetOnReadStrategy.YES);
+        logLag(System.currentTimeMillis());
         try {
-            boolean resultSetIsNull = (resultSet == null);
-            boolean noNext = resultSetIsNull || (resultSetSize == 0) || (resultSet.getRow() == resultSetSize);
-
-            if (noNext && commit) {
-                if (resultSet != null)
-                    resultSet.close();
-                fetchData();
-                if (resultSetSize == 0) {
-                    return null;
-                }
+            if (resultSet == null && !fetchData()) {
+                return null;
             }
-
-            if (!resultSet.next())
-                if (!commit)
-                    return null;
-            final ResultSetMetaData metaData = resultSet.getMetaData();
-
-            if (schema == null) {
-                final Schema.Builder schemaBuilder = recordBuilderFactory.newSchemaBuilder(RECORD);
-                IntStream.rangeClosed(1, metaData.getColumnCount()).forEach(index -> addField(schemaBuilder, metaData, index));
-                schema = schemaBuilder.build();
+            if (inputConfig.getMaxRowsPerCycle() > 0 && cycleRows >= inputConfig.getMaxRowsPerCycle()) {
+                // give the hand back to the runtime, the batch continues on the next call
+                cycleRows = 0;
+                return null;
+            }
+            if (!resultSet.next()) {
+                endBatch();
+                return null;
             }
 
-            final Record.Builder recordBuilder = recordBuilderFactory.newRecordBuilder(schema);
-            IntStream.rangeClosed(1, metaData.getColumnCount()).forEach(index -> addColumn(recordBuilder, metaData, index));
-
-            if (nbRecords == resultSetSize)
-                log.info("Last record of series emitted: " + getRowAsString());
-
-            nbRecords++;
-            return recordBuilder.build();
+            if (reader == null) {
+                reader = new ResultSetReader(recordBuilderFactory, resultSet.getMetaData());
+            }
+            cycleRows++;
+            uncommittedRows++;
+            emittedRows++;
+            return reader.read(resultSet);
         } catch (final SQLException e) {
-            log.error("Exception found in next() ", e);
-            throw toIllegalStateException(e);
-        } catch (final Exception e) {
-            log.error("Exception found in next() ", e);
             throw toIllegalStateException(e);
         }
     }
 
-    private int getSize(ResultSet rs) {
-        int rowscount = 0;
-        try {
-            if (rs == null || rs.isClosed())
-                return 0;
-            while (rs.next()) {
-                log.debug("advance cursor");
-            }
-            rowscount = rs.getRow();
-        } catch (final SQLException e) {
-            log.error("Exception found in next() ", e);
-            return 0;
+    /**
+     * Log the read lag if it wasn't logged for {@link #LAG_LOG_INTERVAL}.
+     *
+     * @return true if the lag was logged
+     */
+    boolean logLag(final long time) {
+        if (startTime == 0) {
+            // first read
+            startTime = time;
+            lastLagLogTime = time;
         }
-        return rowscount;
+        if (time - lastLagLogTime < LAG_LOG_INTERVAL) {
+            return false;
+        }
+        lastLagLogTime = time;
+        log.info("Stream table read lag: {} rows emitted and not consumed yet, no offset commit for {} ms, {} rows emitted "
+                + "since the start", uncommittedRows, time - (lastCommitTime > 0 ? lastCommitTime : startTime), emittedRows);
+        return true;
     }
 
-    private void fetchData() {
-        ResultSet resultSetCopy;
-        boolean commit = (inputConfig.getChangeOffsetOnRead() == InputCaptureDataChangeConfig.ChangeOffsetOnReadStrategy.YES);
-        log.info("Fetch data attempt, commmit: " + commit);
-        nbIterations++;
-        try {
-            long time = System.currentTimeMillis();
-
-            if ((time - lastFetchTime < 2000) && (resultSetSize == 0))
-                return;
+    /**
+     * @return the number of rows emitted since the last stream offset commit, they are not consumed from the stream yet
+     */
+    long getUncommittedRows() {
+        return uncommittedRows;
+    }
 
-            resultSetSize = 0;
+    /**
+     * @return the time in milliseconds of the last stream offset commit, zero if there was none yet
+     */
+    long getLastCommitTime() {
+        return lastCommitTime;
+    }
 
-            log.info("------------Fetch data------------------");
-            log.info("Fetch data with query: " + inputConfig.getDataSet().getQuery());
+    /**
+     * @return the number of rows emitted since the start
+     */
+    long getEmittedRows() {
+        return emittedRows;
+    }
 
-            lastFetchTime = time;
-            connection.setAutoCommit(false);
-            // then read from stream table to compute size
-            statement = connection.createStatement();
-            statement.setFetchSize(inputConfig.getDataSet().getFetchSize());
-            resultSetCopy = statement.executeQuery(inputConfig.getDataSet().getQuery());
-            resultSetSize = getSize(resultSetCopy);
-            resultSetCopy.close();
-            // then read from stream table to compute size
-            statement = connection.createStatement();
-            statement.setFetchSize(inputConfig.getDataSet().getFetchSize());
-            resultSet = statement.executeQuery(inputConfig.getDataSet().getQuery());
-            connection.commit();
-            connection.setAutoCommit(true);
-
-            // move the offset
-            if (commit && (resultSetSize != 0)) {
-                log.info("Result set size: " + resultSetSize);
-                connection.setAutoCommit(false);
-                statementUpdate = connection.createStatement();
-                String createStreamCounterStatement = this.cdcDataset.createCounterTableIfNotExist();
-                statementUpdate = connection.createStatement();
-                int resultCreateCounter = statementUpdate.executeUpdate(createStreamCounterStatement);
-                log.debug("Update statement changed records: " + resultCreateCounter);
-                String consumeRecordsStreamStatement = this.cdcDataset.createStatementConsumeStreamTable();
-                statementUpdate = connection.createStatement();
-                int resultConsumeRecordsStream = statementUpdate.executeUpdate(consumeRecordsStreamStatement);
-                connection.commit();
-                connection.setAutoCommit(true);
-            } else {
-                log.debug("consumption=no");
-            }
+    /**
+     * @return the current time in milliseconds between two reads of the stream table
+     */
+    long getPollInterval() {
+        return pollInterval;
+    }
 
-        } catch (final SQLException e) {
-            log.error("Exception found in next() ", e);
-            throw toIllegalStateException(e);
-        } catch (final Exception e) {
-            log.error("Exception found in next() ", e);
-            throw toIllegalStateException(e);
-        }
+    private boolean isCommit() {
+        return inputConfig.getChangeOffsetOnRead() == InputCaptureDataChangeConfig.ChangeOffsetOnReadStrategy.YES;
     }
 
-    private String getRowAsString() throws Exception {
-        if (resultSet == null) {
-            return "Cannot print ResultSet is null";
+    /**
+     * @return true if a new batch is opened
+     */
+    private boolean fetchData() throws SQLException {
+        // without offset change the stream table is read once
+        final long time = System.currentTimeMillis();
+        if (done || time < nextFetchTime) {
+            return false;
         }
-        final ResultSetMetaData metaData = resultSet.getMetaData();
-        final int current = resultSet.getRow();
-        String res = "Row " + current + ": ";
-
-        for (int index = 1; index <= metaData.getColumnCount(); index++) {
-            final String columnName = metaData.getColumnName(index);
-            final Object value = resultSet.getObject(index);
-            res = res + columnName + ":" + value + ", ";
-        }
-        return res;
+        log.debug("Fetch data with query: {}", inputConfig.getDataSet().getQuery());
+        nextFetchTime = time + pollInterval;
+        cycleRows = 0;
+        statement = connection.createStatement();
+        statement.setFetchSize(inputConfig.getDataSet().getFetchSize());
+        resultSet = statement.executeQuery(inputConfig.getDataSet().getQuery());
+        return true;
     }
 
-    private void addField(final Schema.Builder builder, final ResultSetMetaData metaData, final int columnIndex) {
-        try {
-            final String javaType = metaData.getColumnClassName(columnIndex);
-            final int sqlType = metaData.getColumnType(columnIndex);
-            final Schema.Entry.Builder entryBuilder = recordBuilderFactory.newEntryBuilder();
-            entryBuilder.withName(metaData.getColumnName(columnIndex))
-                    .withNullable(metaData.isNullable(columnIndex) != columnNoNulls);
-            switch (sqlType) {
-            case java.sql.Types.SMALLINT:
-            case java.sql.Types.TINYINT:
-            case java.sql.Types.INTEGER:
-                if (javaType.equals(Integer.class.getName())) {
-                    builder.withEntry(entryBuilder.withType(INT).build());
-                } else {
-                    builder.withEntry(entryBuilder.withType(LONG).build());
-                }
-                break;
-            case java.sql.Types.FLOAT:
-            case java.sql.Types.REAL:
-                builder.withEntry(entryBuilder.withType(FLOAT).build());
-                break;
-            case java.sql.Types.DOUBLE:
-                builder.withEntry(entryBuilder.withType(DOUBLE).build());
-                break;
-            case java.sql.Types.BOOLEAN:
-                builder.withEntry(entryBuilder.withType(BOOLEAN).build());
-                break;
-            case java.sql.Types.TIME:
-            case java.sql.Types.DATE:
-            case java.sql.Types.TIMESTAMP:
-                builder.withEntry(entryBuilder.withType(DATETIME).build());
-                break;
-            case java.sql.Types.BINARY:
-            case java.sql.Types.VARBINARY:
-            case Types.LONGVARBINARY:
-                builder.withEntry(entryBuilder.withType(BYTES).build());
-                break;
-            case java.sql.Types.BIGINT:
-            case java.sql.Types.DECIMAL:
-            case java.sql.Types.NUMERIC:
-            case java.sql.Types.VARCHAR:
-            case java.sql.Types.LONGVARCHAR:
-            case java.sql.Types.CHAR:
-            default:
-                builder.withEntry(entryBuilder.withType(STRING).build());
-                break;
+    private void endBatch() throws SQLException {
+        closeBatch();
+        if (uncommittedRows > 0 && isCommit()) {
+            // move the offset, the stream is consumed up to the rows read in this transaction
+            try (final Statement statementUpdate = connection.createStatement()) {
+                statementUpdate.executeUpdate(cdcDataset.createStatementConsumeStreamTable());
             }
-        } catch (final SQLException e) {
-            throw toIllegalStateException(e);
         }
+        connection.commit();
+        if (uncommittedRows > 0) {
+            lastCommitTime = System.currentTimeMillis();
+            log.info("Stream table batch of {} rows read, {} rows emitted since the start", uncommittedRows, emittedRows);
+            pollInterval = inputConfig.getPollInterval();
+        } else {
+            final long minInterval = Math.max(inputConfig.getPollInterval(), MIN_IDLE_INTERVAL);
+            pollInterval = Math.max(Math.min(pollInterval * 2, inputConfig.getMaxIdleInterval()), minInterval);
+            log.debug("Empty stream table, next read in {} ms", pollInterval);
+        }
+        nextFetchTime = System.currentTimeMillis() + pollInterval;
+        uncommittedRows = 0;
+        done = !isCommit();
     }
 
-    private void addColumn(final Record.Builder builder, final ResultSetMetaData metaData, final int columnIndex) {
-        try {
-            final String javaType = metaData.getColumnClassName(columnIndex);
-            final int sqlType = metaData.getColumnType(columnIndex);
-            final Object value = resultSet.getObject(columnIndex);
-            final Schema.Entry.Builder entryBuilder = recordBuilderFactory.newEntryBuilder();
-            entryBuilder.withName(metaData.getColumnName(columnIndex))
-                    .withNullable(metaData.isNullable(columnIndex) != columnNoNulls);
-            switch (sqlType) {
-            case java.sql.Types.SMALLINT:
-            case java.sql.Types.TINYINT:
-            case java.sql.Types.INTEGER:
-                if (value != null) {
-                    if (javaType.equals(Integer.class.getName())) {
-                        builder.withInt(entryBuilder.withType(INT).build(), (Integer) value);
-                    } else {
-                        builder.withLong(entryBuilder.withType(LONG).build(), (Long) value);
-                    }
-                }
-                break;
-            case java.sql.Types.FLOAT:
-            case java.sql.Types.REAL:
-                if (value != null) {
-                    builder.withFloat(entryBuilder.withType(FLOAT).build(), (Float) value);
-                }
-                break;
-            case java.sql.Types.DOUBLE:
-                if (value != null) {
-                    builder.withDouble(entryBuilder.withType(DOUBLE).build(), (Double) value);
-                }
-                break;
-            case java.sql.Types.BOOLEAN:
-                if (value != null) {
-                    builder.withBoolean(entryBuilder.withType(BOOLEAN).build(), (Boolean) value);
-                }
-                break;
-            case java.sql.Types.DATE:
-                builder.withDateTime(entryBuilder.withType(DATETIME).build(),
-                        value == null ? null : new java.util.Date(((java.sql.Date) value).getTime()));
-                break;
-            case java.sql.Types.TIME:
-                builder.withDateTime(entryBuilder.withType(DATETIME).build(),
-                        value == null ? null : new java.util.Date(((java.sql.Time) value).getTime()));
-                break;
-            case java.sql.Types.TIMESTAMP:
-                builder.withDateTime(entryBuilder.withType(DATETIME).build(),
-                        value == null ? null : new java.util.Date(((java.sql.Timestamp) value).getTime()));
-                break;
-            case java.sql.Types.BINARY:
-            case java.sql.Types.VARBINARY:
-            case Types.LONGVARBINARY:
-                builder.withBytes(entryBuilder.withType(BYTES).build(), value == null ? null : (byte[]) value);
-                break;
-            case java.sql.Types.BIGINT:
-            case java.sql.Types.DECIMAL:
-            case java.sql.Types.NUMERIC:
-            case java.sql.Types.VARCHAR:
-            case java.sql.Types.LONGVARCHAR:
-            case java.sql.Types.CHAR:
-            default:
-                builder.withString(entryBuilder.withType(STRING).build(), value == null ? null : String.valueOf(value));
-                break;
+    private void closeBatch() {
+        if (resultSet != null) {
+            try {
+                resultSet.close();
+            } catch (SQLException e) {
+                log.warn(i18n.warnResultSetCantBeClosed(), e);
             }
-        } catch (final SQLException e) {
-            throw toIllegalStateException(e);
+            resultSet = null;
         }
-    }
-
-    @PreDestroy
-    public void release() {
-        /**
-         * Avoid closing resultSet - at least temporary - to be able to have more than 1 record
-         */
-        /*
-         * if (resultSet != null) {
-         * try {
-         * resultSet.close();
-         * } catch (SQLException e) {
-         * log.warn(i18n.warnResultSetCantBeClosed(), e);
-         * }
-         * }
-         */
         if (statement != null) {
             try {
                 statement.close();
             } catch (SQLException e) {
                 log.warn(i18n.warnStatementCantBeClosed(), e);
             }
+            statement = null;
         }
+    }
+
+    @PreDestroy
+    public void release() {
+        closeBatch();
         if (connection != null) {
             try {
-                connection.commit();
+                // a batch not fully emitted is not consumed and will be read again
+                connection.rollback();
             } catch (final SQLException e) {
                 log.error(i18n.errorSQL(e.getErrorCode(), e.getMessage()), e);
-                try {
-                    connection.rollback();
-                } catch (final SQLException rollbackError) {
-                    log.error(i18n.errorSQL(rollbackError.getErrorCode(), rollbackError.getMessage()), rollbackError);
-                }
             }
             try {
                 connection.close();
@@ -401,4 +291,4 @@ public class ChangeDataCaptureInputEmitter implements Serializable {
             dataSource.close();
         }
     }
-}
\ No newline at end of file
+}
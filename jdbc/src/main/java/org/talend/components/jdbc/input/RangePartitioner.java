@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.input;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.talend.components.jdbc.configuration.PartitionConfig;
+import org.talend.components.jdbc.dataset.BaseDataSet;
+import org.talend.components.jdbc.output.platforms.PlatformFactory;
+import org.talend.components.jdbc.service.I18nMessage;
+import org.talend.components.jdbc.service.JdbcService;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static java.util.Collections.emptyList;
+import static org.talend.components.jdbc.ErrorFactory.toIllegalStateException;
+
+/**
+ * Split an input query into bounded sub queries using the value range of a numeric or date column.
+ */
+@Slf4j
+@AllArgsConstructor
+class RangePartitioner implements Serializable {
+
+    private static final int MAX_PARTITIONS = 128;
+
+    private static final int MAX_COLUMN_SIZE = 256;
+
+    private final JdbcService jdbcService;
+
+    private final I18nMessage i18n;
+
+    /**
+     * @param dataSet the dataset to read
+     * @param tableName the table read by the dataset, can be null if the dataset is a query
+     * @return the estimated size in bytes of the table, or -1 if it can't be estimated from the database statistics
+     */
+    long estimateSize(final BaseDataSet dataSet, final String tableName) {
+        if (tableName == null || tableName.isEmpty()) {
+            return -1;
+        }
+        try (final JdbcService.JdbcDatasource dataSource = jdbcService.createDataSource(dataSet.getConnection());
+                final Connection connection = dataSource.getConnection()) {
+            final long rows = PlatformFactory.get(dataSet.getConnection(), i18n).estimateRowCount(connection, tableName);
+            return rows <= 0 ? rows : rows * estimateRowSize(connection, dataSet.getQuery());
+        } catch (final SQLException e) {
+            log.warn("can't estimate the size of table " + tableName, e);
+            return -1;
+        }
+    }
+
+    private long estimateRowSize(final Connection connection, final String query) throws SQLException {
+        try (final PreparedStatement statement = connection.prepareStatement(query)) {
+            final ResultSetMetaData metaData = statement.getMetaData();
+            if (metaData == null) {
+                return MAX_COLUMN_SIZE;
+            }
+            long size = 0;
+            for (int index = 1; index <= metaData.getColumnCount(); index++) {
+                final int displaySize = metaData.getColumnDisplaySize(index);
+                size += displaySize > 0 ? Math.min(displaySize, MAX_COLUMN_SIZE) : MAX_COLUMN_SIZE;
+            }
+            return Math.max(size, 1);
+        }
+    }
+
+    /**
+     * @param dataSet the dataset to read
+     * @param partitionConfig the split configuration
+     * @param estimatedSize the estimated size of the dataset in bytes, -1 if unknown
+     * @param bundleSize the desired size of each partition in bytes
+     * @return the SQL conditions selecting the rows of each partition, or an empty list if the input can't be split
+     */
+    List<String> split(final BaseDataSet dataSet, final PartitionConfig partitionConfig, final long estimatedSize,
+            final long bundleSize) {
+        final int partitions = partitionCount(partitionConfig, estimatedSize, bundleSize);
+        if (partitions <= 1) {
+            return emptyList();
+        }
+
+        final String column = PlatformFactory.get(dataSet.getConnection(), i18n).identifier(partitionConfig.getSplitColumn());
+        final String boundsQuery = "select min(" + column + "), max(" + column + ") from (" + dataSet.getQuery()
+                + ") talend_bounds";
+        try (final JdbcService.JdbcDatasource dataSource = jdbcService.createDataSource(dataSet.getConnection());
+                final Connection connection = dataSource.getConnection();
+                final Statement statement = connection.createStatement();
+                final ResultSet bounds = statement.executeQuery(boundsQuery)) {
+            if (!bounds.next() || bounds.getObject(1) == null) {
+                return emptyList();
+            }
+
+            final List<String> boundaries;
+            final ResultSetMetaData metaData = bounds.getMetaData();
+            switch (metaData.getColumnType(1)) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                boundaries = boundaries(bounds.getBigDecimal(1), bounds.getBigDecimal(2), partitions, true,
+                        BigDecimal::toPlainString);
+                break;
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+            case Types.FLOAT:
+            case Types.REAL:
+            case Types.DOUBLE:
+                // the scale reported for an aggregate isn't reliable across drivers (oracle NUMBER has none), so these
+                // types are always split as decimals, which stays correct for integral values
+                boundaries = boundaries(bounds.getBigDecimal(1), bounds.getBigDecimal(2), partitions, false,
+                        BigDecimal::toPlainString);
+                break;
+            case Types.DATE:
+                boundaries = boundaries(BigDecimal.valueOf(bounds.getTimestamp(1).getTime()),
+                        BigDecimal.valueOf(bounds.getTimestamp(2).getTime()), partitions, true,
+                        value -> "{d '" + new java.sql.Date(value.longValue()) + "'}");
+                break;
+            case Types.TIMESTAMP:
+                boundaries = boundaries(BigDecimal.valueOf(bounds.getTimestamp(1).getTime()),
+                        BigDecimal.valueOf(bounds.getTimestamp(2).getTime()), partitions, true,
+                        value -> "{ts '" + new Timestamp(value.longValue()) + "'}");
+                break;
+            default:
+                log.warn("Column " + partitionConfig.getSplitColumn() + " of type " + metaData.getColumnTypeName(1)
+                        + " can't be used to split the input. It will be read by a single worker.");
+                return emptyList();
+            }
+            return filters(column, boundaries);
+        } catch (final SQLException e) {
+            throw toIllegalStateException(e);
+        }
+    }
+
+    private int partitionCount(final PartitionConfig partitionConfig, final long estimatedSize, final long bundleSize) {
+        if (partitionConfig.getPartitions() > 0) {
+            return Math.min(partitionConfig.getPartitions(), MAX_PARTITIONS);
+        }
+        if (estimatedSize <= 0 || bundleSize <= 0) {
+            return 1;
+        }
+        return (int) Math.min(MAX_PARTITIONS, (estimatedSize + bundleSize - 1) / bundleSize);
+    }
+
+    /**
+     * @return the distinct SQL literals splitting ]min, max] in even ranges
+     */
+    static List<String> boundaries(final BigDecimal min, final BigDecimal max, final int partitions, final boolean integral,
+            final Function<BigDecimal, String> toLiteral) {
+        final List<String> boundaries = new ArrayList<>(partitions - 1);
+        final BigDecimal range = max.subtract(min);
+        BigDecimal previous = min;
+        for (int index = 1; index < partitions; index++) {
+            final BigDecimal offset = integral
+                    ? range.multiply(BigDecimal.valueOf(index)).divide(BigDecimal.valueOf(partitions), 0, RoundingMode.FLOOR)
+                    : range.multiply(BigDecimal.valueOf(index)).divide(BigDecimal.valueOf(partitions), MathContext.DECIMAL64);
+            final BigDecimal boundary = min.add(offset);
+            if (boundary.compareTo(previous) <= 0) {
+                continue;
+            }
+            final String literal = toLiteral.apply(boundary);
+            if (boundaries.isEmpty() || !boundaries.get(boundaries.size() - 1).equals(literal)) {
+                boundaries.add(literal);
+            }
+            previous = boundary;
+        }
+        return boundaries;
+    }
+
+    /**
+     * The first and last ranges are left open so that null values and rows out of the computed bounds are read too.
+     */
+    private List<String> filters(final String column, final List<String> boundaries) {
+        if (boundaries.isEmpty()) {
+            return emptyList();
+        }
+        final List<String> filters = new ArrayList<>(boundaries.size() + 1);
+        filters.add("(" + column + " < " + boundaries.get(0) + " or " + column + " is null)");
+        for (int index = 1; index < boundaries.size(); index++) {
+            filters.add("(" + column + " >= " + boundaries.get(index - 1) + " and " + column + " < " + boundaries.get(index) + ")");
+        }
+        filters.add("(" + column + " >= " + boundaries.get(boundaries.size() - 1) + ")");
+        return filters;
+    }
+}
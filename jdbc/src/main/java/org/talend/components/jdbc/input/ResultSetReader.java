@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.input;
+
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Date;
+
+import static java.sql.ResultSetMetaData.columnNoNulls;
+import static org.talend.sdk.component.api.record.Schema.Type.BOOLEAN;
+import static org.talend.sdk.component.api.record.Schema.Type.BYTES;
+import static org.talend.sdk.component.api.record.Schema.Type.DATETIME;
+import static org.talend.sdk.component.api.record.Schema.Type.DOUBLE;
+import static org.talend.sdk.component.api.record.Schema.Type.FLOAT;
+import static org.talend.sdk.component.api.record.Schema.Type.INT;
+import static org.talend.sdk.component.api.record.Schema.Type.LONG;
+import static org.talend.sdk.component.api.record.Schema.Type.RECORD;
+import static org.talend.sdk.component.api.record.Schema.Type.STRING;
+
+/**
+ * Converts the rows of a result set to records.
+ * The schema entries and a typed reader for each column are computed once from the result set metadata,
+ * so reading a row only calls the typed getters of the result set.
+ */
+class ResultSetReader {
+
+    private final RecordBuilderFactory recordBuilderFactory;
+
+    private final Schema schema;
+
+    private final ColumnReader[] readers;
+
+    ResultSetReader(final RecordBuilderFactory recordBuilderFactory, final ResultSetMetaData metaData) throws SQLException {
+        this.recordBuilderFactory = recordBuilderFactory;
+        final Schema.Builder schemaBuilder = recordBuilderFactory.newSchemaBuilder(RECORD);
+        readers = new ColumnReader[metaData.getColumnCount()];
+        for (int index = 1; index <= readers.length; index++) {
+            readers[index - 1] = newColumnReader(metaData, index);
+            schemaBuilder.withEntry(readers[index - 1].entry);
+        }
+        schema = schemaBuilder.build();
+    }
+
+    Schema getSchema() {
+        return schema;
+    }
+
+    /**
+     * @param resultSet a result set positioned on the row to read
+     * @return the record of the current row
+     */
+    Record read(final ResultSet resultSet) throws SQLException {
+        final Record.Builder builder = recordBuilderFactory.newRecordBuilder(schema);
+        for (final ColumnReader reader : readers) {
+            reader.read(resultSet, builder);
+        }
+        return builder.build();
+    }
+
+    private ColumnReader newColumnReader(final ResultSetMetaData metaData, final int columnIndex) throws SQLException {
+        final String javaType = metaData.getColumnClassName(columnIndex);
+        final Schema.Entry.Builder entryBuilder = recordBuilderFactory.newEntryBuilder()
+                .withName(metaData.getColumnName(columnIndex))
+                .withNullable(metaData.isNullable(columnIndex) != columnNoNulls);
+        switch (metaData.getColumnType(columnIndex)) {
+        case Types.SMALLINT:
+        case Types.TINYINT:
+        case Types.INTEGER:
+            if (Integer.class.getName().equals(javaType) || Short.class.getName().equals(javaType)) {
+                return new ColumnReader(entryBuilder.withType(INT).build(), columnIndex) {
+
+                    @Override
+                    void read(final ResultSet resultSet, final Record.Builder builder) throws SQLException {
+                        final int value = resultSet.getInt(index);
+                        if (!resultSet.wasNull()) {
+                            builder.withInt(entry, value);
+                        }
+                    }
+                };
+            }
+            return new ColumnReader(entryBuilder.withType(LONG).build(), columnIndex) {
+
+                @Override
+                void read(final ResultSet resultSet, final Record.Builder builder) throws SQLException {
+                    final long value = resultSet.getLong(index);
+                    if (!resultSet.wasNull()) {
+                        builder.withLong(entry, value);
+                    }
+                }
+            };
+        case Types.FLOAT:
+        case Types.REAL:
+            return new ColumnReader(entryBuilder.withType(FLOAT).build(), columnIndex) {
+
+                @Override
+                void read(final ResultSet resultSet, final Record.Builder builder) throws SQLException {
+                    final float value = resultSet.getFloat(index);
+                    if (!resultSet.wasNull()) {
+                        builder.withFloat(entry, value);
+                    }
+                }
+            };
+        case Types.DOUBLE:
+            return new ColumnReader(entryBuilder.withType(DOUBLE).build(), columnIndex) {
+
+                @Override
+                void read(final ResultSet resultSet, final Record.Builder builder) throws SQLException {
+                    final double value = resultSet.getDouble(index);
+                    if (!resultSet.wasNull()) {
+                        builder.withDouble(entry, value);
+                    }
+                }
+            };
+        case Types.BOOLEAN:
+            return new ColumnReader(entryBuilder.withType(BOOLEAN).build(), columnIndex) {
+
+                @Override
+                void read(final ResultSet resultSet, final Record.Builder builder) throws SQLException {
+                    final boolean value = resultSet.getBoolean(index);
+                    if (!resultSet.wasNull()) {
+                        builder.withBoolean(entry, value);
+                    }
+                }
+            };
+        case Types.DATE:
+            // the record builder stores a null date as the -1 timestamp, null dates are not set like null primitives
+            return new ColumnReader(entryBuilder.withType(DATETIME).build(), columnIndex) {
+
+                @Override
+                void read(final ResultSet resultSet, final Record.Builder builder) throws SQLException {
+                    final java.sql.Date value = resultSet.getDate(index);
+                    if (value != null) {
+                        builder.withDateTime(entry, new Date(value.getTime()));
+                    }
+                }
+            };
+        case Types.TIME:
+            return new ColumnReader(entryBuilder.withType(DATETIME).build(), columnIndex) {
+
+                @Override
+                void read(final ResultSet resultSet, final Record.Builder builder) throws SQLException {
+                    final java.sql.Time value = resultSet.getTime(index);
+                    if (value != null) {
+                        builder.withDateTime(entry, new Date(value.getTime()));
+                    }
+                }
+            };
+        case Types.TIMESTAMP:
+            return new ColumnReader(entryBuilder.withType(DATETIME).build(), columnIndex) {
+
+                @Override
+                void read(final ResultSet resultSet, final Record.Builder builder) throws SQLException {
+                    final java.sql.Timestamp value = resultSet.getTimestamp(index);
+                    if (value != null) {
+                        builder.withDateTime(entry, new Date(value.getTime()));
+                    }
+                }
+            };
+        case Types.BINARY:
+        case Types.VARBINARY:
+        case Types.LONGVARBINARY:
+            return new ColumnReader(entryBuilder.withType(BYTES).build(), columnIndex) {
+
+                @Override
+                void read(final ResultSet resultSet, final Record.Builder builder) throws SQLException {
+                    builder.withBytes(entry, resultSet.getBytes(index));
+                }
+            };
+        case Types.VARCHAR:
+        case Types.LONGVARCHAR:
+        case Types.CHAR:
+            return new ColumnReader(entryBuilder.withType(STRING).build(), columnIndex) {
+
+                @Override
+                void read(final ResultSet resultSet, final Record.Builder builder) throws SQLException {
+                    builder.withString(entry, resultSet.getString(index));
+                }
+            };
+        case Types.BIGINT:
+        case Types.DECIMAL:
+        case Types.NUMERIC:
+        default:
+            // keep the driver object representation, getString() formatting differs between drivers for numbers
+            return new ColumnReader(entryBuilder.withType(STRING).build(), columnIndex) {
+
+                @Override
+                void read(final ResultSet resultSet, final Record.Builder builder) throws SQLException {
+                    final Object value = resultSet.getObject(index);
+                    builder.withString(entry, value == null ? null : String.valueOf(value));
+                }
+            };
+        }
+    }
+
+    private abstract static class ColumnReader {
+
+        protected final Schema.Entry entry;
+
+        protected final int index;
+
+        private ColumnReader(final Schema.Entry entry, final int index) {
+            this.entry = entry;
+            this.index = index;
+        }
+
+        abstract void read(final ResultSet resultSet, final Record.Builder builder) throws SQLException;
+    }
+}
@@ -14,29 +14,23 @@ package org.talend.components.jdbc.input;
 
 import java.io.Serializable;
 
+import org.talend.components.extension.polling.api.Pollable;
 import org.talend.components.jdbc.configuration.InputTableNameConfig;
-import org.talend.components.jdbc.dataset.TableNameDataset;
 import org.talend.components.jdbc.service.I18nMessage;
 import org.talend.components.jdbc.service.JdbcService;
-import org.talend.sdk.component.api.component.Icon;
-import org.talend.sdk.component.api.component.Version;
-import org.talend.sdk.component.api.configuration.Option;
-import org.talend.sdk.component.api.input.Emitter;
 import org.talend.sdk.component.api.meta.Documentation;
 import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
 
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-@Version
-@Icon(value = Icon.IconType.DATASTORE)
-@Emitter(name = "TableNameInput")
+@Pollable(resumeMethod = "resume")
 @Documentation("JDBC input using table name")
 public class TableNameInputEmitter extends AbstractInputEmitter implements Serializable {
 
-    public TableNameInputEmitter(@Option("configuration") final InputTableNameConfig config, final JdbcService jdbcDriversService,
+    TableNameInputEmitter(final InputTableNameConfig config, final String partitionFilter, final JdbcService jdbcDriversService,
             final RecordBuilderFactory recordBuilderFactory, final I18nMessage i18nMessage) {
-        super(config, jdbcDriversService, recordBuilderFactory, i18nMessage);
+        super(config, partitionFilter, jdbcDriversService, recordBuilderFactory, i18nMessage);
     }
 
 }
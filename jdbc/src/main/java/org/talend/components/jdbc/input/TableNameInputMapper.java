@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.input;
+
+import org.talend.components.extension.polling.api.Pollable;
+import org.talend.components.jdbc.configuration.InputTableNameConfig;
+import org.talend.components.jdbc.service.I18nMessage;
+import org.talend.components.jdbc.service.JdbcService;
+import org.talend.sdk.component.api.component.Icon;
+import org.talend.sdk.component.api.component.Version;
+import org.talend.sdk.component.api.configuration.Option;
+import org.talend.sdk.component.api.input.Assessor;
+import org.talend.sdk.component.api.input.Emitter;
+import org.talend.sdk.component.api.input.PartitionMapper;
+import org.talend.sdk.component.api.input.PartitionSize;
+import org.talend.sdk.component.api.input.Split;
+import org.talend.sdk.component.api.meta.Documentation;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
+
+import java.io.Serializable;
+import java.util.List;
+
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+
+@Version
+@Icon(value = Icon.IconType.DATASTORE)
+@Documentation("JDBC input using table name")
+@PartitionMapper(name = "TableNameInput")
+@Pollable(resumeMethod = "resume")
+public class TableNameInputMapper implements Serializable {
+
+    private final InputTableNameConfig inputConfig;
+
+    private final RecordBuilderFactory recordBuilderFactory;
+
+    private final JdbcService jdbcDriversService;
+
+    private final I18nMessage i18n;
+
+    private final String partitionFilter;
+
+    private transient Long estimatedSize;
+
+    public TableNameInputMapper(@Option("configuration") final InputTableNameConfig config, final JdbcService jdbcDriversService,
+            final RecordBuilderFactory recordBuilderFactory, final I18nMessage i18nMessage) {
+        this(config, null, jdbcDriversService, recordBuilderFactory, i18nMessage);
+    }
+
+    private TableNameInputMapper(final InputTableNameConfig config, final String partitionFilter, final JdbcService jdbcDriversService,
+            final RecordBuilderFactory recordBuilderFactory, final I18nMessage i18nMessage) {
+        this.inputConfig = config;
+        this.partitionFilter = partitionFilter;
+        this.recordBuilderFactory = recordBuilderFactory;
+        this.jdbcDriversService = jdbcDriversService;
+        this.i18n = i18nMessage;
+    }
+
+    @Assessor
+    public long estimateSize() {
+        if (partitionFilter != null || !inputConfig.getPartitionConfig().isPartitioned()) {
+            return 1L;
+        }
+        if (estimatedSize == null) {
+            estimatedSize = new RangePartitioner(jdbcDriversService, i18n).estimateSize(inputConfig.getDataSet(),
+                    inputConfig.getDataSet().getTableName());
+        }
+        return Math.max(estimatedSize, 1L);
+    }
+
+    @Split
+    public List<TableNameInputMapper> split(@PartitionSize final long bundleSize) {
+        if (partitionFilter != null || !inputConfig.getPartitionConfig().isPartitioned()) {
+            return singletonList(this);
+        }
+        estimateSize();
+        final List<String> filters = new RangePartitioner(jdbcDriversService, i18n).split(inputConfig.getDataSet(),
+                inputConfig.getPartitionConfig(), estimatedSize, bundleSize);
+        if (filters.isEmpty()) {
+            return singletonList(this);
+        }
+        return filters.stream()
+                .map(filter -> new TableNameInputMapper(inputConfig, filter, jdbcDriversService, recordBuilderFactory, i18n))
+                .collect(toList());
+    }
+
+    @Emitter
+    public TableNameInputEmitter createWorker() {
+        return new TableNameInputEmitter(inputConfig, partitionFilter, jdbcDriversService, recordBuilderFactory, i18n);
+    }
+}
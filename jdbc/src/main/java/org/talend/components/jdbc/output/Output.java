@@ -24,6 +24,7 @@ import org.talend.sdk.component.api.processor.BeforeGroup;
 import org.talend.sdk.component.api.processor.ElementListener;
 import org.talend.sdk.component.api.processor.Input;
 import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -33,6 +34,10 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.talend.components.jdbc.ErrorFactory.toIllegalStateException;
 import static org.talend.components.jdbc.service.JdbcService.checkTableExistence;
@@ -49,6 +54,12 @@ public abstract class Output implements Serializable {
 
     private transient List<Record> records;
 
+    private transient long recordsSize;
+
+    private transient ExecutorService writer;
+
+    private transient Future<?> pendingWrite;
+
     private transient JdbcService.JdbcDatasource datasource;
 
     private Boolean tableExistsCheck;
@@ -70,6 +81,7 @@ public abstract class Output implements Serializable {
     @BeforeGroup
     public void beforeGroup() {
         this.records = new ArrayList<>();
+        this.recordsSize = 0;
     }
 
     @ElementListener
@@ -80,6 +92,13 @@ public abstract class Output implements Serializable {
             lazyInit();
         }
         records.add(record);
+        if (configuration.getFlushBytes() > 0) {
+            recordsSize += estimateSize(record);
+        }
+        if ((configuration.getFlushSize() > 0 && records.size() >= configuration.getFlushSize())
+                || (configuration.getFlushBytes() > 0 && recordsSize >= configuration.getFlushBytes())) {
+            flush();
+        }
     }
 
     private void lazyInit() throws SQLException {
@@ -96,29 +115,108 @@ public abstract class Output implements Serializable {
 
     @AfterGroup
     public void afterGroup() throws SQLException {
+        flush();
+        awaitPendingWrite();
+    }
+
+    /**
+     * Hands the received records to the writer. In background mode at most one chunk is written while the next one is
+     * received, so the memory used stays bounded by two chunks.
+     */
+    private void flush() throws SQLException {
+        if (records.isEmpty()) {
+            return;
+        }
+        final List<Record> chunk = records;
+        records = new ArrayList<>();
+        recordsSize = 0;
+
         if (!tableExistsCheck && !tableCreated && configuration.isCreateTableIfNotExists()) {
             try (final Connection connection = datasource.getConnection()) {
                 getPlatform().createTableIfNotExist(connection, configuration.getDataset().getTableName(),
                         configuration.getKeys(), configuration.getSortStrategy(), configuration.getSortKeys(),
                         configuration.getDistributionStrategy(), configuration.getDistributionKeys(),
-                        configuration.getVarcharLength(), records);
+                        configuration.getVarcharLength(), chunk);
                 tableCreated = true;
             }
         }
 
+        if (!configuration.isBackgroundWrite()) {
+            write(chunk);
+            return;
+        }
+        awaitPendingWrite();
+        if (writer == null) {
+            writer = Executors.newSingleThreadExecutor(r -> {
+                final Thread thread = new Thread(r, "jdbc-output-writer-" + configuration.getDataset().getTableName());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        pendingWrite = writer.submit(() -> write(chunk));
+    }
+
+    private void write(final List<Record> chunk) {
         // TODO : handle discarded records
         try {
-            final List<Reject> discards = getQueryManager().execute(records, datasource);
+            final List<Reject> discards = getQueryManager().execute(chunk, datasource);
             discards.stream().map(Object::toString).forEach(log::error);
         } catch (final SQLException | IOException e) {
-            records.stream().map(r -> new Reject(e.getMessage(), r)).map(Reject::toString).forEach(log::error);
+            chunk.stream().map(r -> new Reject(e.getMessage(), r)).map(Reject::toString).forEach(log::error);
             throw toIllegalStateException(e);
         }
     }
 
+    private void awaitPendingWrite() {
+        if (pendingWrite == null) {
+            return;
+        }
+        try {
+            pendingWrite.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw toIllegalStateException(e.getCause());
+        } finally {
+            pendingWrite = null;
+        }
+    }
+
+    /**
+     * A rough estimation of the memory used by a record, only the variable length values are measured.
+     */
+    private static long estimateSize(final Record record) {
+        long size = 0;
+        for (final Schema.Entry entry : record.getSchema().getEntries()) {
+            switch (entry.getType()) {
+            case STRING:
+                size += record.getOptionalString(entry.getName()).map(String::length).orElse(0) * 2L;
+                break;
+            case BYTES:
+                size += record.getOptionalBytes(entry.getName()).map(b -> b.length).orElse(0);
+                break;
+            default:
+                size += 8;
+            }
+        }
+        return size;
+    }
+
     @PreDestroy
     public void preDestroy() {
+        if (writer != null) {
+            writer.shutdownNow();
+        }
         if (datasource != null) {
+            try {
+                getQueryManager().close();
+            } catch (final SQLException e) {
+                log.warn("can't release the output connection properly", e);
+            }
             datasource.close();
         }
     }
@@ -47,6 +47,11 @@ public class MSSQLPlatform extends Platform {
         return "\"";
     }
 
+    @Override
+    protected String rowCountStatisticsQuery() {
+        return "select sum(row_count) from sys.dm_db_partition_stats where object_id = object_id(?) and index_id < 2";
+    }
+
     @Override
     protected String buildQuery(final Connection connection, final Table table) throws SQLException {
         // keep the string builder for readability
@@ -121,5 +126,35 @@ public class MSSQLPlatform extends Platform {
 
         // https://docs.microsoft.com/en-us/sql/connect/jdbc/setting-the-connection-properties?view=sql-server-2017
         dataSource.addDataSourceProperty("applicationName", APPLICATION);
+        dataSource.addDataSourceProperty("disableStatementPooling", "false");
+        dataSource.addDataSourceProperty("statementPoolingCacheSize", "50");
+    }
+
+    @Override
+    public boolean isUpsertSupported(final Connection connection, final String table, final List<String> keys) {
+        return true;
     }
+
+    @Override
+    public String upsertQuery(final String table, final List<String> columns, final List<String> keys,
+            final List<String> updatableColumns) {
+        final StringBuilder sql = new StringBuilder("MERGE INTO ").append(identifier(table));
+        sql.append(" AS target USING (VALUES ")
+                .append(columns.stream().map(c -> "?").collect(Collectors.joining(",", "(", ")")));
+        sql.append(") AS source ").append(columns.stream().map(this::identifier).collect(Collectors.joining(",", "(", ")")));
+        sql.append(" ON ").append(keys.stream().map(this::identifier).map(c -> "target." + c + " = source." + c)
+                .collect(Collectors.joining(" AND ", "(", ")")));
+        if (!updatableColumns.isEmpty()) {
+            sql.append(" WHEN MATCHED THEN UPDATE SET ").append(updatableColumns.stream().map(this::identifier)
+                    .map(c -> "target." + c + " = source." + c).collect(Collectors.joining(",")));
+        }
+        sql.append(" WHEN NOT MATCHED THEN INSERT ")
+                .append(columns.stream().map(this::identifier).collect(Collectors.joining(",", "(", ")")));
+        sql.append(" VALUES ").append(
+                columns.stream().map(this::identifier).map(c -> "source." + c).collect(Collectors.joining(",", "(", ")")));
+        // a merge statement has to be terminated by a semicolon
+        sql.append(";");
+        return sql.toString();
+    }
+
 }
@@ -46,10 +46,19 @@ public class MySQLPlatform extends Platform {
         return "`";
     }
 
+    @Override
+    protected String rowCountStatisticsQuery() {
+        return "select table_rows from information_schema.tables where table_schema = database() and table_name = ?";
+    }
+
     @Override
     public void addDataSourceProperties(HikariDataSource dataSource) {
         super.addDataSourceProperties(dataSource);
         dataSource.addDataSourceProperty("useCursorFetch", true);
+        // https://dev.mysql.com/doc/connector-j/8.0/en/connector-j-reference-configuration-properties.html
+        dataSource.addDataSourceProperty("cachePrepStmts", "true");
+        dataSource.addDataSourceProperty("prepStmtCacheSize", "250");
+        dataSource.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
     }
 
     @Override
@@ -117,4 +126,25 @@ public class MySQLPlatform extends Platform {
         }
     }
 
+    /**
+     * ON DUPLICATE KEY UPDATE needs a primary key or a unique index on the keys to detect the existing rows
+     */
+    @Override
+    public boolean isUpsertSupported(final Connection connection, final String table, final List<String> keys)
+            throws SQLException {
+        return hasUniqueKey(connection, table, keys);
+    }
+
+    @Override
+    public String upsertQuery(final String table, final List<String> columns, final List<String> keys,
+            final List<String> updatableColumns) {
+        final StringBuilder sql = new StringBuilder("INSERT INTO ").append(identifier(table));
+        sql.append(columns.stream().map(this::identifier).collect(Collectors.joining(",", "(", ")")));
+        sql.append(" VALUES").append(columns.stream().map(c -> "?").collect(Collectors.joining(",", "(", ")")));
+        // a no-op update of the keys when there is nothing else to update
+        sql.append(" ON DUPLICATE KEY UPDATE ").append((updatableColumns.isEmpty() ? keys : updatableColumns).stream()
+                .map(this::identifier).map(c -> c + " = VALUES(" + c + ")").collect(Collectors.joining(",")));
+        return sql.toString();
+    }
+
 }
@@ -15,6 +15,7 @@ package org.talend.components.jdbc.output.platforms;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
 import org.talend.components.jdbc.service.I18nMessage;
@@ -50,6 +51,25 @@ public class OraclePlatform extends Platform {
         return "\"";
     }
 
+    @Override
+    protected String rowCountStatisticsQuery() {
+        return "select num_rows from user_tables where table_name = ?";
+    }
+
+    /**
+     * Oracle stores unquoted identifiers in upper case, the name is looked up as is first as tables created by this
+     * component are quoted.
+     */
+    @Override
+    public long estimateRowCount(final Connection connection, final String table) throws SQLException {
+        if (table.length() > 1 && table.startsWith(delimiterToken()) && table.endsWith(delimiterToken())) {
+            return super.estimateRowCount(connection, table.substring(1, table.length() - 1));
+        }
+        final long rows = super.estimateRowCount(connection, table);
+        final String upperCased = table.toUpperCase(Locale.ROOT);
+        return rows >= 0 || upperCased.equals(table) ? rows : super.estimateRowCount(connection, upperCased);
+    }
+
     @Override
     protected String buildQuery(final Connection connection, final Table table) throws SQLException {
         // keep the string builder for readability
@@ -75,6 +95,7 @@ public class OraclePlatform extends Platform {
     public void addDataSourceProperties(final HikariDataSource dataSource) {
         super.addDataSourceProperties(dataSource);
         dataSource.addDataSourceProperty("oracle.jdbc.J2EE13Compliant", "TRUE");
+        dataSource.addDataSourceProperty("oracle.jdbc.implicitStatementCacheSize", "50");
     }
 
     @Override
@@ -116,4 +137,29 @@ public class OraclePlatform extends Platform {
         }
     }
 
+    @Override
+    public boolean isUpsertSupported(final Connection connection, final String table, final List<String> keys) {
+        return true;
+    }
+
+    @Override
+    public String upsertQuery(final String table, final List<String> columns, final List<String> keys,
+            final List<String> updatableColumns) {
+        final StringBuilder sql = new StringBuilder("MERGE INTO ").append(identifier(table));
+        sql.append(" target USING (SELECT ")
+                .append(columns.stream().map(this::identifier).map(c -> "? " + c).collect(Collectors.joining(",")));
+        sql.append(" FROM DUAL) source");
+        sql.append(" ON ").append(keys.stream().map(this::identifier).map(c -> "target." + c + " = source." + c)
+                .collect(Collectors.joining(" AND ", "(", ")")));
+        if (!updatableColumns.isEmpty()) {
+            sql.append(" WHEN MATCHED THEN UPDATE SET ").append(updatableColumns.stream().map(this::identifier)
+                    .map(c -> "target." + c + " = source." + c).collect(Collectors.joining(",")));
+        }
+        sql.append(" WHEN NOT MATCHED THEN INSERT ")
+                .append(columns.stream().map(this::identifier).collect(Collectors.joining(",", "(", ")")));
+        sql.append(" VALUES ").append(
+                columns.stream().map(this::identifier).map(c -> "source." + c).collect(Collectors.joining(",", "(", ")")));
+        return sql.toString();
+    }
+
 }
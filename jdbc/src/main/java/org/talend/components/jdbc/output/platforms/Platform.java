@@ -15,9 +15,16 @@ package org.talend.components.jdbc.output.platforms;
 import java.io.Serializable;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import org.talend.components.jdbc.configuration.DistributionStrategy;
@@ -33,7 +40,9 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import static java.util.stream.Collectors.joining;
+import static java.util.Locale.ROOT;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 import static org.talend.components.jdbc.ErrorFactory.toIllegalStateException;
 import static org.talend.sdk.component.api.record.Schema.Type.STRING;
 
@@ -132,6 +141,101 @@ public abstract class Platform implements Serializable {
                 .collect(toList())).build();
     }
 
+    /**
+     * @return a query returning the row count of the table given as unique parameter from the database statistics, or null
+     * if the platform doesn't expose one. In that case the standard jdbc index statistics are used.
+     */
+    protected String rowCountStatisticsQuery() {
+        return null;
+    }
+
+    /**
+     * Estimate the number of rows of a table without scanning it.
+     *
+     * @param connection the connection to use
+     * @param table the table name
+     * @return the estimated row count, or -1 if no statistics are available for this table
+     */
+    public long estimateRowCount(final Connection connection, final String table) throws SQLException {
+        final String statisticsQuery = rowCountStatisticsQuery();
+        if (statisticsQuery != null) {
+            try (final PreparedStatement statement = connection.prepareStatement(statisticsQuery)) {
+                statement.setString(1, table);
+                try (final ResultSet resultSet = statement.executeQuery()) {
+                    if (resultSet.next()) {
+                        final long rows = resultSet.getLong(1);
+                        return resultSet.wasNull() ? -1 : rows;
+                    }
+                    return -1;
+                }
+            }
+        }
+
+        try (final ResultSet indexInfo = connection.getMetaData().getIndexInfo(connection.getCatalog(),
+                JdbcService.getSchema(connection), table, false, true)) {
+            while (indexInfo.next()) {
+                if (indexInfo.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic) {
+                    return indexInfo.getLong("CARDINALITY");
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Build a single statement inserting a row, or updating it when a row with the same keys already exists.
+     * The statement has one parameter per column, in the columns order.
+     *
+     * @param table the table name
+     * @param columns all the columns of the row
+     * @param keys the columns identifying an existing row
+     * @param updatableColumns the columns to update when the row exists
+     * @return the upsert statement, or null if the platform has no native upsert
+     */
+    public String upsertQuery(final String table, final List<String> columns, final List<String> keys,
+            final List<String> updatableColumns) {
+        return null;
+    }
+
+    /**
+     * @return true if the {@link #upsertQuery(String, List, List, List)} statement can be used on this table with these keys
+     */
+    public boolean isUpsertSupported(final Connection connection, final String table, final List<String> keys)
+            throws SQLException {
+        return false;
+    }
+
+    /**
+     * @return true if the table has a primary key or a unique index made of exactly these keys
+     */
+    protected boolean hasUniqueKey(final Connection connection, final String table, final List<String> keys)
+            throws SQLException {
+        final Set<String> expected = keys.stream().map(key -> key.toLowerCase(ROOT)).collect(toSet());
+        final DatabaseMetaData metaData = connection.getMetaData();
+        final String catalog = connection.getCatalog();
+        final String schema = JdbcService.getSchema(connection);
+        final List<Set<String>> uniqueKeys = new ArrayList<>();
+        try (final ResultSet primaryKey = metaData.getPrimaryKeys(catalog, schema, table)) {
+            final List<String> columns = new ArrayList<>();
+            while (primaryKey.next()) {
+                columns.add(primaryKey.getString("COLUMN_NAME").toLowerCase(ROOT));
+            }
+            uniqueKeys.add(new HashSet<>(columns));
+        }
+        try (final ResultSet indexInfo = metaData.getIndexInfo(catalog, schema, table, true, true)) {
+            final Map<String, List<String>> indexes = new HashMap<>();
+            while (indexInfo.next()) {
+                final String column = indexInfo.getString("COLUMN_NAME");
+                if (column != null && indexInfo.getShort("TYPE") != DatabaseMetaData.tableIndexStatistic) {
+                    indexes.computeIfAbsent(indexInfo.getString("INDEX_NAME"), name -> new ArrayList<>())
+                            .add(column.toLowerCase(ROOT));
+                }
+            }
+            indexes.values().forEach(columns -> uniqueKeys.add(new HashSet<>(columns)));
+        }
+        return uniqueKeys.contains(expected);
+    }
+
     /**
      * Add platform related properties to jdbc connections
      * 
@@ -44,6 +44,11 @@ public class PostgreSQLPlatform extends Platform {
         return "\"";
     }
 
+    @Override
+    protected String rowCountStatisticsQuery() {
+        return "select reltuples from pg_class where relkind = 'r' and relname = ?";
+    }
+
     @Override
     protected String buildQuery(final Connection connection, final Table table) throws SQLException {
         // keep the string builder for readability
@@ -110,4 +115,30 @@ public class PostgreSQLPlatform extends Platform {
         }
     }
 
+    /**
+     * The conflict target needs a primary key or a unique index on the keys, see
+     * <a href="https://www.postgresql.org/docs/current/sql-insert.html#SQL-ON-CONFLICT">ON CONFLICT</a>
+     */
+    @Override
+    public boolean isUpsertSupported(final Connection connection, final String table, final List<String> keys)
+            throws SQLException {
+        return hasUniqueKey(connection, table, keys);
+    }
+
+    @Override
+    public String upsertQuery(final String table, final List<String> columns, final List<String> keys,
+            final List<String> updatableColumns) {
+        final StringBuilder sql = new StringBuilder("INSERT INTO ").append(identifier(table));
+        sql.append(columns.stream().map(this::identifier).collect(Collectors.joining(",", "(", ")")));
+        sql.append(" VALUES").append(columns.stream().map(c -> "?").collect(Collectors.joining(",", "(", ")")));
+        sql.append(" ON CONFLICT ").append(keys.stream().map(this::identifier).collect(Collectors.joining(",", "(", ")")));
+        if (updatableColumns.isEmpty()) {
+            sql.append(" DO NOTHING");
+        } else {
+            sql.append(" DO UPDATE SET ").append(updatableColumns.stream().map(this::identifier)
+                    .map(c -> c + " = EXCLUDED." + c).collect(Collectors.joining(",")));
+        }
+        return sql.toString();
+    }
+
 }
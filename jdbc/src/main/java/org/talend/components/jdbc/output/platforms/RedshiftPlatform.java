@@ -49,6 +49,11 @@ public class RedshiftPlatform extends Platform {
         return "\"";
     }
 
+    @Override
+    protected String rowCountStatisticsQuery() {
+        return "select tbl_rows from svv_table_info where \"table\" = ?";
+    }
+
     @Override
     protected String buildQuery(final Connection connection, final Table table) throws SQLException {
         // keep the string builder for readability
@@ -34,6 +34,14 @@ public class SQLDWHPlatform extends MSSQLPlatform {
         super(i18n);
     }
 
+    /**
+     * Azure SQL Data Warehouse doesn't accept the table value constructor used as merge source by SQL Server.
+     */
+    @Override
+    public boolean isUpsertSupported(final Connection connection, final String table, final List<String> keys) {
+        return false;
+    }
+
     @Override
     public void createTableIfNotExist(final Connection connection, final String name, final List<String> keys,
             final RedshiftSortStrategy sortStrategy, final List<String> sortKeys, final DistributionStrategy distributionStrategy,
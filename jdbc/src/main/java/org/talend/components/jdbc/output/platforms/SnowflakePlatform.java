@@ -47,6 +47,11 @@ public class SnowflakePlatform extends Platform {
         return "\"";
     }
 
+    @Override
+    protected String rowCountStatisticsQuery() {
+        return "select row_count from information_schema.tables where table_schema = current_schema() and table_name = ?";
+    }
+
     @Override
     protected String buildQuery(final Connection connection, final Table table) throws SQLException {
         // keep the string builder for readability
@@ -24,4 +24,11 @@ import java.util.List;
 public interface QueryManager extends Serializable {
 
     List<Reject> execute(List<Record> records, JdbcService.JdbcDatasource dataSource) throws SQLException, IOException;
+
+    /**
+     * Release the resources kept between two executions.
+     */
+    default void close() throws SQLException {
+        // nothing to release by default
+    }
 }
@@ -14,12 +14,15 @@ package org.talend.components.jdbc.output.statement;
 
 import lombok.Data;
 import org.talend.components.jdbc.configuration.OutputConfig;
+import org.talend.components.jdbc.datastore.JdbcConnection;
 import org.talend.components.jdbc.output.platforms.Platform;
 import org.talend.components.jdbc.output.statement.operations.Delete;
 import org.talend.components.jdbc.output.statement.operations.Insert;
 import org.talend.components.jdbc.output.statement.operations.QueryManagerImpl;
 import org.talend.components.jdbc.output.statement.operations.Update;
 import org.talend.components.jdbc.output.statement.operations.UpsertDefault;
+import org.talend.components.jdbc.output.statement.operations.bulk.MSSQLBulkLoad;
+import org.talend.components.jdbc.output.statement.operations.bulk.PostgreSQLBulkLoad;
 import org.talend.components.jdbc.output.statement.operations.snowflake.SnowflakeDelete;
 import org.talend.components.jdbc.output.statement.operations.snowflake.SnowflakeInsert;
 import org.talend.components.jdbc.output.statement.operations.snowflake.SnowflakeUpdate;
@@ -28,6 +31,10 @@ import org.talend.components.jdbc.service.I18nMessage;
 import org.talend.components.jdbc.service.SnowflakeCopyService;
 
 import static java.util.Locale.ROOT;
+import static java.util.Optional.ofNullable;
+import static org.talend.components.jdbc.output.platforms.MSSQLPlatform.MSSQL;
+import static org.talend.components.jdbc.output.platforms.PostgreSQLPlatform.POSTGRESQL;
+import static org.talend.components.jdbc.output.platforms.SQLDWHPlatform.SQLDWH;
 import static org.talend.components.jdbc.output.platforms.SnowflakePlatform.SNOWFLAKE;
 
 @Data
@@ -42,6 +49,7 @@ public final class QueryManagerFactory {
         switch (db) {
         case SNOWFLAKE:
             switch (configuration.getActionOnData()) {
+            case BULK_LOAD:
             case INSERT:
                 return new SnowflakeInsert(platform, configuration, i18n);
             case UPDATE:
@@ -55,6 +63,8 @@ public final class QueryManagerFactory {
             }
         default:
             switch (configuration.getActionOnData()) {
+            case BULK_LOAD:
+                return getBulkLoad(platform, i18n, configuration);
             case INSERT:
                 return new Insert(platform, configuration, i18n);
             case UPDATE:
@@ -69,4 +79,40 @@ public final class QueryManagerFactory {
         }
     }
 
+    /**
+     * @return true if the database of this connection has a native bulk load, other databases load with batched inserts
+     */
+    public static boolean isBulkLoadSupported(final JdbcConnection connection) {
+        switch (driver(connection)) {
+        case SNOWFLAKE:
+        case POSTGRESQL:
+        case MSSQL:
+        case SQLDWH:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    private static QueryManagerImpl getBulkLoad(final Platform platform, final I18nMessage i18n,
+            final OutputConfig configuration) {
+        switch (driver(configuration.getDataset().getConnection())) {
+        case POSTGRESQL:
+            return new PostgreSQLBulkLoad(platform, configuration, i18n);
+        case MSSQL:
+        case SQLDWH:
+            return new MSSQLBulkLoad(platform, configuration, i18n);
+        default:
+            return new Insert(platform, configuration, i18n);
+        }
+    }
+
+    /**
+     * the bulk load APIs depend on the driver, the handler one when the database is accessed through another driver
+     */
+    private static String driver(final JdbcConnection connection) {
+        return ofNullable(connection.getHandler()).filter(h -> !h.isEmpty()).orElseGet(connection::getDbType)
+                .toLowerCase(ROOT);
+    }
+
 }
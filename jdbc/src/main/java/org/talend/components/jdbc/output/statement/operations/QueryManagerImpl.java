@@ -12,7 +12,10 @@
  */
 package org.talend.components.jdbc.output.statement.operations;
 
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.talend.components.jdbc.configuration.OutputConfig;
 import org.talend.components.jdbc.output.Reject;
@@ -55,6 +58,26 @@ public abstract class QueryManagerImpl implements QueryManager {
 
     private Integer retryCount = 0;
 
+    /**
+     * The connection and the statement are kept between two executions, the statement is prepared again only when the
+     * query changes, i.e. when the schema of the records changes.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient Connection connection;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient PreparedStatement statement;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient Connection statementConnection;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient String statementQuery;
+
     abstract protected String buildQuery(List<Record> records);
 
     abstract protected Map<Integer, Schema.Entry> getQueryParams();
@@ -66,55 +89,131 @@ public abstract class QueryManagerImpl implements QueryManager {
         if (records.isEmpty()) {
             return emptyList();
         }
-        try (final Connection connection = dataSource.getConnection()) {
-            return processRecords(records, connection, buildQuery(records));
+        try {
+            return execute(records, connection(dataSource));
+        } catch (final SQLException e) {
+            // the connection may be broken, the next execution will get a new one
+            close();
+            throw e;
         }
     }
 
-    private List<Reject> processRecords(final List<Record> records, final Connection connection, final String query)
-            throws SQLException {
+    protected List<Reject> execute(final List<Record> records, final Connection connection) throws SQLException {
+        if (records.isEmpty()) {
+            return emptyList();
+        }
+        return processRecords(records, connection, prepareStatement(connection, buildQuery(records)));
+    }
+
+    /**
+     * @return the connection kept by this query manager, a new one is taken from the data source if there is none or if the
+     * kept one isn't valid anymore, e.g. closed by the server while the output was idle
+     */
+    protected Connection connection(final JdbcService.JdbcDatasource dataSource) throws SQLException {
+        if (connection != null && !isValid(connection)) {
+            log.debug("the output connection isn't valid anymore, a new one is borrowed from the pool");
+            try {
+                close();
+            } catch (final SQLException e) {
+                log.debug("can't release the invalid output connection", e);
+            }
+        }
+        if (connection == null) {
+            connection = dataSource.getConnection();
+        }
+        return connection;
+    }
+
+    private boolean isValid(final Connection connection) {
+        try {
+            return connection.isValid((int) configuration.getDataset().getConnection().getConnectionValidationTimeOut());
+        } catch (final SQLException e) {
+            return false;
+        }
+    }
+
+    private PreparedStatement prepareStatement(final Connection connection, final String query) throws SQLException {
+        if (statement != null && (statementConnection != connection || !query.equals(statementQuery))) {
+            closeStatement();
+        }
+        if (statement == null) {
+            statement = connection.prepareStatement(query);
+            statementConnection = connection;
+            statementQuery = query;
+        }
+        return statement;
+    }
+
+    private void closeStatement() throws SQLException {
+        if (statement != null) {
+            try {
+                statement.close();
+            } finally {
+                statement = null;
+                statementConnection = null;
+                statementQuery = null;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            closeStatement();
+        } finally {
+            if (connection != null) {
+                try {
+                    connection.close();
+                } finally {
+                    connection = null;
+                }
+            }
+        }
+    }
+
+    private List<Reject> processRecords(final List<Record> records, final Connection connection,
+            final PreparedStatement statement) throws SQLException {
         List<Reject> rejects;
         do {
             rejects = new ArrayList<>();
-            try (final PreparedStatement statement = connection.prepareStatement(query)) {
-                final Map<Integer, Integer> batchOrder = new HashMap<>();
-                int recordIndex = -1;
-                int batchNumber = -1;
-                for (final Record record : records) {
-                    recordIndex++;
-                    statement.clearParameters();
-                    if (!validateQueryParam(record)) {
-                        rejects.add(new Reject("missing required query param in this record", record));
-                        continue;
-                    }
-                    for (final Map.Entry<Integer, Schema.Entry> entry : getQueryParams().entrySet()) {
-                        RecordToSQLTypeConverter.valueOf(entry.getValue().getType().name()).setValue(statement, entry.getKey(),
-                                entry.getValue(), record);
-                    }
-                    statement.addBatch();
-                    batchNumber++;
-                    batchOrder.put(batchNumber, recordIndex);
+            statement.clearBatch();
+            final Map<Integer, Integer> batchOrder = new HashMap<>();
+            int recordIndex = -1;
+            int batchNumber = -1;
+            for (final Record record : records) {
+                recordIndex++;
+                statement.clearParameters();
+                if (!validateQueryParam(record)) {
+                    rejects.add(new Reject("missing required query param in this record", record));
+                    continue;
+                }
+                for (final Map.Entry<Integer, Schema.Entry> entry : getQueryParams().entrySet()) {
+                    RecordToSQLTypeConverter.valueOf(entry.getValue().getType().name()).setValue(statement, entry.getKey(),
+                            entry.getValue(), record);
                 }
+                statement.addBatch();
+                batchNumber++;
+                batchOrder.put(batchNumber, recordIndex);
+            }
 
-                try {
-                    statement.executeBatch();
-                    connection.commit();
+            try {
+                statement.executeBatch();
+                connection.commit();
+                break;
+            } catch (final SQLException e) {
+                if (!connection.getAutoCommit()) {
+                    connection.rollback();
+                }
+                if (!retry(e) || retryCount > maxRetry) {
+                    rejects.addAll(handleRejects(records, batchOrder, e));
                     break;
-                } catch (final SQLException e) {
-                    if (!connection.getAutoCommit()) {
-                        connection.rollback();
-                    }
-                    if (!retry(e) || retryCount > maxRetry) {
-                        rejects.addAll(handleRejects(records, batchOrder, e));
-                        break;
-                    }
-                    retryCount++;
-                    log.warn("Deadlock detected. retrying for the " + retryCount + " time", e);
-                    try {
-                        Thread.sleep((long) Math.exp(retryCount) * 2000);
-                    } catch (InterruptedException e1) {
-                        Thread.currentThread().interrupt();
-                    }
+                }
+                retryCount++;
+                log.warn("Deadlock detected. retrying for the " + retryCount + " time", e);
+                try {
+                    Thread.sleep((long) Math.exp(retryCount) * 2000);
+                } catch (InterruptedException e1) {
+                    Thread.currentThread().interrupt();
                 }
             }
         } while (true);
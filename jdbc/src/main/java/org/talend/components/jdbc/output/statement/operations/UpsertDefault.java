@@ -19,7 +19,6 @@ import org.talend.components.jdbc.output.Reject;
 import org.talend.components.jdbc.output.platforms.Platform;
 import org.talend.components.jdbc.output.statement.RecordToSQLTypeConverter;
 import org.talend.components.jdbc.service.I18nMessage;
-import org.talend.components.jdbc.service.JdbcService;
 import org.talend.sdk.component.api.record.Record;
 import org.talend.sdk.component.api.record.Schema;
 
@@ -29,6 +28,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import static java.util.Collections.emptyList;
 import static java.util.Optional.ofNullable;
@@ -38,10 +38,18 @@ import static java.util.stream.Collectors.*;
 @Getter
 public class UpsertDefault extends QueryManagerImpl {
 
+    private static final int LOOKUP_SIZE = 100;
+
     private final Insert insert;
 
     private final Update update;
 
+    private final NativeUpsert nativeUpsert;
+
+    private Boolean nativeUpsertSupported;
+
+    private String keysCondition;
+
     private final List<String> keys;
 
     private Map<Integer, Schema.Entry> queryParams;
@@ -54,6 +62,7 @@ public class UpsertDefault extends QueryManagerImpl {
         }
         insert = new Insert(platform, configuration, i18n);
         update = new Update(platform, configuration, i18n);
+        nativeUpsert = new NativeUpsert(platform, configuration, i18n);
     }
 
     @Override
@@ -63,13 +72,13 @@ public class UpsertDefault extends QueryManagerImpl {
         final List<Schema.Entry> entries = records.stream().flatMap(r -> r.getSchema().getEntries().stream()).distinct()
                 .collect(toList());
 
+        keysCondition = getConfiguration().getKeys().stream()
+                .peek(key -> queryParams.put(index.incrementAndGet(),
+                        entries.stream().filter(e -> e.getName().equals(key)).findFirst()
+                                .orElseThrow(() -> new IllegalStateException(getI18n().errorNoFieldForQueryParam(key)))))
+                .map(c -> getPlatform().identifier(c)).map(c -> c + " = ?").collect(joining(" AND "));
         return "SELECT COUNT(*) AS RECORD_EXIST FROM " + getPlatform().identifier(getConfiguration().getDataset().getTableName())
-                + " WHERE "
-                + getConfiguration().getKeys().stream()
-                        .peek(key -> queryParams.put(index.incrementAndGet(),
-                                entries.stream().filter(e -> e.getName().equals(key)).findFirst()
-                                        .orElseThrow(() -> new IllegalStateException(getI18n().errorNoFieldForQueryParam(key)))))
-                        .map(c -> getPlatform().identifier(c)).map(c -> c + " = ?").collect(joining(" AND "));
+                + " WHERE " + keysCondition;
     }
 
     @Override
@@ -86,51 +95,93 @@ public class UpsertDefault extends QueryManagerImpl {
     }
 
     @Override
-    public List<Reject> execute(final List<Record> records, final JdbcService.JdbcDatasource dataSource) throws SQLException {
+    protected List<Reject> execute(final List<Record> records, final Connection connection) throws SQLException {
         if (records.isEmpty()) {
             return emptyList();
         }
+        if (isNativeUpsertSupported(connection)) {
+            return nativeUpsert.execute(records, connection);
+        }
+
         final List<Record> needUpdate = new ArrayList<>();
         final List<Record> needInsert = new ArrayList<>();
-        final String query = buildQuery(records);
         final List<Reject> discards = new ArrayList<>();
-        try (final Connection connection = dataSource.getConnection()) {
-            try (final PreparedStatement statement = connection.prepareStatement(query)) {
-                for (final Record record : records) {
-                    statement.clearParameters();
-                    if (!validateQueryParam(record)) {
-                        discards.add(new Reject("missing required query param in this record", record));
-                        continue;
-                    }
-                    for (final Map.Entry<Integer, Schema.Entry> entry : getQueryParams().entrySet()) {
-                        RecordToSQLTypeConverter.valueOf(entry.getValue().getType().name()).setValue(statement, entry.getKey(),
-                                entry.getValue(), record);
-                    }
-                    try (final ResultSet result = statement.executeQuery()) {
-                        if (result.next() && result.getInt("RECORD_EXIST") > 0) {
-                            needUpdate.add(record);
-                        } else {
-                            needInsert.add(record);
-                        }
-                    }
+        buildQuery(records);
+        final List<Record> validRecords = new ArrayList<>(records.size());
+        for (final Record record : records) {
+            if (validateQueryParam(record)) {
+                validRecords.add(record);
+            } else {
+                discards.add(new Reject("missing required query param in this record", record));
+            }
+        }
+        try {
+            for (int from = 0; from < validRecords.size(); from += LOOKUP_SIZE) {
+                final List<Record> chunk = validRecords.subList(from, Math.min(from + LOOKUP_SIZE, validRecords.size()));
+                final Set<Integer> existing = findExistingRecords(connection, chunk);
+                for (int index = 0; index < chunk.size(); index++) {
+                    (existing.contains(index) ? needUpdate : needInsert).add(chunk.get(index));
                 }
-                connection.commit();
-            } catch (final SQLException e) {
-                connection.rollback();
-                throw e;
             }
+            connection.commit();
+        } catch (final SQLException e) {
+            connection.rollback();
+            throw e;
         }
 
-        // fixme handle the update and insert in // need a pool of 2 !
-        if (!needInsert.isEmpty()) {
-            insert.buildQuery(needInsert);
-            discards.addAll(insert.execute(needInsert, dataSource));
+        discards.addAll(insert.execute(needInsert, connection));
+        discards.addAll(update.execute(needUpdate, connection));
+        return discards;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            insert.close();
+            update.close();
+            nativeUpsert.close();
+        } finally {
+            super.close();
         }
-        if (!needUpdate.isEmpty()) {
-            update.buildQuery(needUpdate);
-            discards.addAll(update.execute(needUpdate, dataSource));
+    }
+
+    private boolean isNativeUpsertSupported(final Connection connection) throws SQLException {
+        if (nativeUpsertSupported == null) {
+            nativeUpsertSupported = getPlatform().isUpsertSupported(connection, getConfiguration().getDataset().getTableName(),
+                    keys);
+            log.debug("Native upsert " + (nativeUpsertSupported ? "enabled" : "disabled") + " for table "
+                    + getConfiguration().getDataset().getTableName());
         }
+        return nativeUpsertSupported;
+    }
 
-        return discards;
+    /**
+     * Look up the keys of several records in one statement, a union of one keys lookup per record.
+     * Each lookup returns the index of its record so the values are compared by the database as a single lookup would.
+     *
+     * @return the indexes of the records existing in the table
+     */
+    private Set<Integer> findExistingRecords(final Connection connection, final List<Record> records) throws SQLException {
+        final String table = getPlatform().identifier(getConfiguration().getDataset().getTableName());
+        final String query = IntStream.range(0, records.size())
+                .mapToObj(index -> "SELECT " + index + " AS RECORD_INDEX FROM " + table + " WHERE " + keysCondition)
+                .collect(joining(" UNION ALL "));
+        final Set<Integer> existing = new HashSet<>();
+        try (final PreparedStatement statement = connection.prepareStatement(query)) {
+            int offset = 0;
+            for (final Record record : records) {
+                for (final Map.Entry<Integer, Schema.Entry> entry : getQueryParams().entrySet()) {
+                    RecordToSQLTypeConverter.valueOf(entry.getValue().getType().name()).setValue(statement,
+                            offset + entry.getKey(), entry.getValue(), record);
+                }
+                offset += getQueryParams().size();
+            }
+            try (final ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    existing.add(result.getInt(1));
+                }
+            }
+        }
+        return existing;
     }
 }
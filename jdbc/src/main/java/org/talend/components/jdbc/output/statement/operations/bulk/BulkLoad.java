@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.statement.operations.bulk;
+
+import lombok.extern.slf4j.Slf4j;
+import org.talend.components.jdbc.configuration.OutputConfig;
+import org.talend.components.jdbc.output.Reject;
+import org.talend.components.jdbc.output.platforms.Platform;
+import org.talend.components.jdbc.output.statement.operations.Insert;
+import org.talend.components.jdbc.service.I18nMessage;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.emptyList;
+import static java.util.Comparator.comparing;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Base of the bulk loads using a driver specific API.
+ * The drivers are loaded in their own classloader, so their API is called by reflection on the driver connection.
+ * A bulk load is done in a single transaction: if it fails all the records are rejected with the database error.
+ */
+@Slf4j
+public abstract class BulkLoad extends Insert {
+
+    public BulkLoad(final Platform platform, final OutputConfig configuration, final I18nMessage i18n) {
+        super(platform, configuration, i18n);
+    }
+
+    /**
+     * @param connection the connection of the driver
+     * @param columns the entries to load, in the order of the insert query
+     * @param records the records to load
+     */
+    protected abstract void load(Connection connection, List<Schema.Entry> columns, List<Record> records)
+            throws SQLException;
+
+    @Override
+    protected List<Reject> execute(final List<Record> records, final Connection connection) throws SQLException {
+        if (records.isEmpty()) {
+            return emptyList();
+        }
+        buildQuery(records);
+        final List<Reject> rejects = new ArrayList<>();
+        final List<Record> validRecords = new ArrayList<>(records.size());
+        for (final Record record : records) {
+            if (validateQueryParam(record)) {
+                validRecords.add(record);
+            } else {
+                rejects.add(new Reject("missing required query param in this record", record));
+            }
+        }
+        if (validRecords.isEmpty()) {
+            return rejects;
+        }
+
+        final List<Schema.Entry> columns = getQueryParams().entrySet().stream().sorted(comparing(Map.Entry::getKey))
+                .map(Map.Entry::getValue).collect(toList());
+        try {
+            load(connection.unwrap(Connection.class), columns, validRecords);
+            connection.commit();
+        } catch (final SQLException e) {
+            log.error("Bulk load failed, all the records of this group are rejected", e);
+            connection.rollback();
+            validRecords.stream().map(r -> new Reject(e.getMessage(), e.getSQLState(), e.getErrorCode(), r))
+                    .forEach(rejects::add);
+        }
+        return rejects;
+    }
+
+    protected static Object invoke(final Method method, final Object target, final Object... args) throws SQLException {
+        try {
+            return method.invoke(target, args);
+        } catch (final InvocationTargetException e) {
+            if (e.getTargetException() instanceof SQLException) {
+                throw (SQLException) e.getTargetException();
+            }
+            throw new IllegalStateException(e.getTargetException());
+        } catch (final IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    protected static Class<?> driverClass(final Connection connection, final String name) {
+        try {
+            return connection.getClass().getClassLoader().loadClass(name);
+        } catch (final ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    protected static Method method(final Class<?> type, final String name, final Class<?>... parameterTypes) {
+        try {
+            return type.getMethod(name, parameterTypes);
+        } catch (final NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
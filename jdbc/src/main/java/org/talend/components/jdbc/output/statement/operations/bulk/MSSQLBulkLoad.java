@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.statement.operations.bulk;
+
+import lombok.RequiredArgsConstructor;
+import org.talend.components.jdbc.configuration.OutputConfig;
+import org.talend.components.jdbc.output.platforms.Platform;
+import org.talend.components.jdbc.service.I18nMessage;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Loads the records with the MSSQL <code>SQLServerBulkCopy</code>, the records are read by the driver through a
+ * <code>ISQLServerBulkRecord</code> while they are sent.
+ */
+public class MSSQLBulkLoad extends BulkLoad {
+
+    public MSSQLBulkLoad(final Platform platform, final OutputConfig configuration, final I18nMessage i18n) {
+        super(platform, configuration, i18n);
+    }
+
+    @Override
+    protected void load(final Connection connection, final List<Schema.Entry> columns, final List<Record> records)
+            throws SQLException {
+        final String table = getPlatform().identifier(getConfiguration().getDataset().getTableName());
+        final int[][] sizes = new int[columns.size()][];
+        // the driver checks the values against the precision and scale of the source columns, we use the ones of the table
+        try (final Statement statement = connection.createStatement();
+                final ResultSet result = statement.executeQuery("SELECT "
+                        + columns.stream().map(e -> getPlatform().identifier(e.getName())).collect(joining(","))
+                        + " FROM " + table + " WHERE 1 = 0")) {
+            final ResultSetMetaData metaData = result.getMetaData();
+            for (int i = 0; i < columns.size(); i++) {
+                sizes[i] = new int[] { metaData.getPrecision(i + 1), metaData.getScale(i + 1) };
+            }
+        }
+
+        final Class<?> bulkCopyType = driverClass(connection, "com.microsoft.sqlserver.jdbc.SQLServerBulkCopy");
+        final Class<?> bulkRecordApi = driverClass(connection, "com.microsoft.sqlserver.jdbc.ISQLServerBulkRecord");
+        final Object bulkCopy;
+        try {
+            bulkCopy = bulkCopyType.getConstructor(Connection.class).newInstance(connection);
+        } catch (final ReflectiveOperationException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new IllegalStateException(e);
+        }
+        try {
+            invoke(method(bulkCopyType, "setDestinationTableName", String.class), bulkCopy, table);
+            final Method addColumnMapping = method(bulkCopyType, "addColumnMapping", int.class, String.class);
+            for (int i = 0; i < columns.size(); i++) {
+                invoke(addColumnMapping, bulkCopy, i + 1, columns.get(i).getName());
+            }
+            final Object bulkRecord = Proxy.newProxyInstance(bulkRecordApi.getClassLoader(), new Class<?>[] { bulkRecordApi },
+                    new BulkRecord(columns, sizes, records.iterator()));
+            invoke(method(bulkCopyType, "writeToServer", bulkRecordApi), bulkCopy, bulkRecord);
+        } finally {
+            invoke(method(bulkCopyType, "close"), bulkCopy);
+        }
+    }
+
+    /**
+     * A <code>ISQLServerBulkRecord</code> reading the records, the metadata methods only needed by the file records of
+     * the driver are no-op.
+     */
+    @RequiredArgsConstructor
+    private static class BulkRecord implements InvocationHandler {
+
+        private final List<Schema.Entry> columns;
+
+        private final int[][] sizes;
+
+        private final Iterator<Record> records;
+
+        private Record current;
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) {
+            switch (method.getName()) {
+            case "getColumnOrdinals":
+                final Set<Integer> ordinals = new LinkedHashSet<>();
+                for (int i = 1; i <= columns.size(); i++) {
+                    ordinals.add(i);
+                }
+                return ordinals;
+            case "getColumnName":
+                return columns.get((Integer) args[0] - 1).getName();
+            case "getColumnType":
+                return toSQLType(columns.get((Integer) args[0] - 1));
+            case "getPrecision":
+                return sizes[(Integer) args[0] - 1][0];
+            case "getScale":
+                return sizes[(Integer) args[0] - 1][1];
+            case "isAutoIncrement":
+                return false;
+            case "next":
+                current = records.hasNext() ? records.next() : null;
+                return current != null;
+            case "getRowData":
+                return columns.stream().map(this::value).toArray();
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return "BulkRecord" + columns;
+            default:
+                return null;
+            }
+        }
+
+        private Object value(final Schema.Entry entry) {
+            switch (entry.getType()) {
+            case DATETIME:
+                return current.getOptionalDateTime(entry.getName()).map(d -> new Timestamp(d.toInstant().toEpochMilli()))
+                        .orElse(null);
+            case FLOAT:
+                return current.getOptionalFloat(entry.getName()).isPresent()
+                        ? (float) current.getOptionalFloat(entry.getName()).getAsDouble()
+                        : null;
+            case RECORD:
+                return current.getOptionalRecord(entry.getName()).map(Object::toString).orElse(null);
+            default:
+                return valueOf(current, entry).orElse(null);
+            }
+        }
+
+        private static int toSQLType(final Schema.Entry entry) {
+            switch (entry.getType()) {
+            case INT:
+                return Types.INTEGER;
+            case LONG:
+                return Types.BIGINT;
+            case FLOAT:
+                return Types.REAL;
+            case DOUBLE:
+                return Types.DOUBLE;
+            case BOOLEAN:
+                return Types.BIT;
+            case BYTES:
+                return Types.VARBINARY;
+            case DATETIME:
+                return Types.TIMESTAMP;
+            case STRING:
+            case RECORD:
+                return Types.NVARCHAR;
+            case ARRAY:
+            default:
+                throw new IllegalArgumentException(
+                        "Unsupported \"" + entry.getType().name() + "\" type for field: " + entry.getName());
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.statement.operations.bulk;
+
+import org.apache.commons.codec.binary.Hex;
+import org.talend.components.jdbc.configuration.OutputConfig;
+import org.talend.components.jdbc.output.platforms.Platform;
+import org.talend.components.jdbc.service.I18nMessage;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Loads the records with <code>COPY ... FROM STDIN</code> through the PostgreSQL <code>CopyManager</code>.
+ * The records are encoded in CSV and sent by blocks while they are encoded.
+ */
+public class PostgreSQLBulkLoad extends BulkLoad {
+
+    private static final int BLOCK_SIZE = 64 * 1024;
+
+    public PostgreSQLBulkLoad(final Platform platform, final OutputConfig configuration, final I18nMessage i18n) {
+        super(platform, configuration, i18n);
+    }
+
+    @Override
+    protected void load(final Connection connection, final List<Schema.Entry> columns, final List<Record> records)
+            throws SQLException {
+        final String query = "COPY " + getPlatform().identifier(getConfiguration().getDataset().getTableName())
+                + columns.stream().map(e -> getPlatform().identifier(e.getName())).collect(joining(",", "(", ")"))
+                + " FROM STDIN WITH (FORMAT csv)";
+        final Object copyManager = invoke(method(connection.getClass(), "getCopyAPI"), connection);
+        final Class<?> copyInApi = driverClass(connection, "org.postgresql.copy.CopyIn");
+        final Method writeToCopy = method(copyInApi, "writeToCopy", byte[].class, int.class, int.class);
+        final Object copyIn = invoke(method(copyManager.getClass(), "copyIn", String.class), copyManager, query);
+        try {
+            final ByteArrayOutputStream block = new ByteArrayOutputStream(BLOCK_SIZE + 1024);
+            for (final Record record : records) {
+                final byte[] line = toCsv(columns, record).getBytes(StandardCharsets.UTF_8);
+                block.write(line, 0, line.length);
+                if (block.size() >= BLOCK_SIZE) {
+                    invoke(writeToCopy, copyIn, block.toByteArray(), 0, block.size());
+                    block.reset();
+                }
+            }
+            if (block.size() > 0) {
+                invoke(writeToCopy, copyIn, block.toByteArray(), 0, block.size());
+            }
+            invoke(method(copyInApi, "endCopy"), copyIn);
+        } finally {
+            if ((Boolean) invoke(method(copyInApi, "isActive"), copyIn)) {
+                invoke(method(copyInApi, "cancelCopy"), copyIn);
+            }
+        }
+    }
+
+    /**
+     * In the CSV format of COPY an unquoted empty value is null, so the strings are always quoted.
+     */
+    private String toCsv(final List<Schema.Entry> columns, final Record record) {
+        final StringBuilder line = new StringBuilder();
+        for (final Schema.Entry entry : columns) {
+            if (line.length() > 0) {
+                line.append(',');
+            }
+            switch (entry.getType()) {
+            case STRING:
+                record.getOptionalString(entry.getName())
+                        .ifPresent(v -> line.append('"').append(v.replace("\"", "\"\"")).append('"'));
+                break;
+            case RECORD:
+                record.getOptionalRecord(entry.getName())
+                        .ifPresent(v -> line.append('"').append(v.toString().replace("\"", "\"\"")).append('"'));
+                break;
+            case BYTES:
+                record.getOptionalBytes(entry.getName()).ifPresent(v -> line.append("\\x").append(Hex.encodeHexString(v)));
+                break;
+            case DATETIME:
+                // same local timestamp as the one bound by the insert statement
+                record.getOptionalDateTime(entry.getName())
+                        .ifPresent(v -> line.append(new Timestamp(v.toInstant().toEpochMilli())));
+                break;
+            case FLOAT:
+                record.getOptionalFloat(entry.getName()).ifPresent(v -> line.append((float) v));
+                break;
+            case INT:
+            case LONG:
+            case DOUBLE:
+            case BOOLEAN:
+                valueOf(record, entry).ifPresent(line::append);
+                break;
+            case ARRAY:
+            default:
+                throw new IllegalArgumentException(
+                        "Unsupported \"" + entry.getType().name() + "\" type for field: " + entry.getName());
+            }
+        }
+        return line.append('\n').toString();
+    }
+}
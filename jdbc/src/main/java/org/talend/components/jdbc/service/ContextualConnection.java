@@ -0,0 +1,572 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.service;
+
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.NClob;
+import java.sql.PreparedStatement;
+import java.sql.SQLClientInfoException;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Struct;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+
+/**
+ * A {@link Connection} delegate running the driver calls with the driver classloader as context classloader.
+ * The statements it creates are wrapped the same way.
+ */
+final class ContextualConnection extends ContextualWrapper<Connection> implements Connection {
+
+    ContextualConnection(final Connection delegate, final ClassLoader classLoader) {
+        super(delegate, classLoader);
+    }
+
+    @Override
+    public Statement createStatement() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return new ContextualStatement<>(this, delegate.createStatement(), classLoader);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(final String sql) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return new ContextualPreparedStatement(this, delegate.prepareStatement(sql), classLoader);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public CallableStatement prepareCall(final String sql) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return wrap(classLoader, delegate.prepareCall(sql), CallableStatement.class);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public String nativeSQL(final String sql) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.nativeSQL(sql);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public void setAutoCommit(final boolean autoCommit) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            delegate.setAutoCommit(autoCommit);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public boolean getAutoCommit() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.getAutoCommit();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public void commit() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            delegate.commit();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public void rollback() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            delegate.rollback();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            delegate.close();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.isClosed();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public DatabaseMetaData getMetaData() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return wrap(classLoader, delegate.getMetaData(), DatabaseMetaData.class);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public void setReadOnly(final boolean readOnly) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            delegate.setReadOnly(readOnly);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public boolean isReadOnly() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.isReadOnly();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public void setCatalog(final String catalog) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            delegate.setCatalog(catalog);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public String getCatalog() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.getCatalog();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public void setTransactionIsolation(final int level) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            delegate.setTransactionIsolation(level);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public int getTransactionIsolation() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.getTransactionIsolation();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.getWarnings();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            delegate.clearWarnings();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public Statement createStatement(final int resultSetType, final int resultSetConcurrency) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return new ContextualStatement<>(this, delegate.createStatement(resultSetType, resultSetConcurrency), classLoader);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(final String sql, final int resultSetType, final int resultSetConcurrency)
+            throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return new ContextualPreparedStatement(this, delegate.prepareStatement(sql, resultSetType, resultSetConcurrency),
+                    classLoader);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public CallableStatement prepareCall(final String sql, final int resultSetType, final int resultSetConcurrency)
+            throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return wrap(classLoader, delegate.prepareCall(sql, resultSetType, resultSetConcurrency), CallableStatement.class);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public Map<String, Class<?>> getTypeMap() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.getTypeMap();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public void setTypeMap(final Map<String, Class<?>> map) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            delegate.setTypeMap(map);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public void setHoldability(final int holdability) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            delegate.setHoldability(holdability);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public int getHoldability() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.getHoldability();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public Savepoint setSavepoint() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.setSavepoint();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public Savepoint setSavepoint(final String name) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.setSavepoint(name);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public void rollback(final Savepoint savepoint) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            delegate.rollback(savepoint);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public void releaseSavepoint(final Savepoint savepoint) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            delegate.releaseSavepoint(savepoint);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public Statement createStatement(final int resultSetType, final int resultSetConcurrency, final int resultSetHoldability)
+            throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return new ContextualStatement<>(this,
+                    delegate.createStatement(resultSetType, resultSetConcurrency, resultSetHoldability), classLoader);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(final String sql, final int resultSetType, final int resultSetConcurrency,
+            final int resultSetHoldability) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return new ContextualPreparedStatement(this,
+                    delegate.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability), classLoader);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public CallableStatement prepareCall(final String sql, final int resultSetType, final int resultSetConcurrency,
+            final int resultSetHoldability) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return wrap(classLoader, delegate.prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability),
+                    CallableStatement.class);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(final String sql, final int autoGeneratedKeys) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return new ContextualPreparedStatement(this, delegate.prepareStatement(sql, autoGeneratedKeys), classLoader);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(final String sql, final int[] columnIndexes) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return new ContextualPreparedStatement(this, delegate.prepareStatement(sql, columnIndexes), classLoader);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(final String sql, final String[] columnNames) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return new ContextualPreparedStatement(this, delegate.prepareStatement(sql, columnNames), classLoader);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public Clob createClob() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.createClob();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public Blob createBlob() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.createBlob();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public NClob createNClob() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.createNClob();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public SQLXML createSQLXML() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.createSQLXML();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public boolean isValid(final int timeout) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.isValid(timeout);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public void setClientInfo(final String name, final String value) throws SQLClientInfoException {
+        final ClassLoader previous = enter();
+        try {
+            delegate.setClientInfo(name, value);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public void setClientInfo(final Properties properties) throws SQLClientInfoException {
+        final ClassLoader previous = enter();
+        try {
+            delegate.setClientInfo(properties);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public String getClientInfo(final String name) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.getClientInfo(name);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public Properties getClientInfo() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.getClientInfo();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public Array createArrayOf(final String typeName, final Object[] elements) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.createArrayOf(typeName, elements);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public Struct createStruct(final String typeName, final Object[] attributes) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.createStruct(typeName, attributes);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public void setSchema(final String schema) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            delegate.setSchema(schema);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public String getSchema() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.getSchema();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public void abort(final Executor executor) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            delegate.abort(executor);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public void setNetworkTimeout(final Executor executor, final int milliseconds) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            delegate.setNetworkTimeout(executor, milliseconds);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public int getNetworkTimeout() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.getNetworkTimeout();
+        } finally {
+            exit(previous);
+        }
+    }
+}
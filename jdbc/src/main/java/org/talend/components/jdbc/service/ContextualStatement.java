@@ -0,0 +1,452 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.service;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+
+/**
+ * A {@link Statement} delegate running the driver calls with the driver classloader as context classloader.
+ * The result sets it returns are wrapped the same way.
+ */
+class ContextualStatement<T extends Statement> extends ContextualWrapper<T> implements Statement {
+
+    private final ContextualConnection connection;
+
+    ContextualStatement(final ContextualConnection connection, final T delegate, final ClassLoader classLoader) {
+        super(delegate, classLoader);
+        this.connection = connection;
+    }
+
+    protected ResultSet wrap(final ResultSet resultSet) {
+        return resultSet == null ? null : new ContextualResultSet(this, resultSet, classLoader);
+    }
+
+    @Override
+    public ResultSet executeQuery(final String sql) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return wrap(delegate.executeQuery(sql));
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public int executeUpdate(final String sql) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.executeUpdate(sql);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            delegate.close();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public int getMaxFieldSize() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.getMaxFieldSize();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public void setMaxFieldSize(final int max) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            delegate.setMaxFieldSize(max);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public int getMaxRows() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.getMaxRows();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public void setMaxRows(final int max) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            delegate.setMaxRows(max);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public void setEscapeProcessing(final boolean enable) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            delegate.setEscapeProcessing(enable);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public int getQueryTimeout() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.getQueryTimeout();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public void setQueryTimeout(final int seconds) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            delegate.setQueryTimeout(seconds);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public void cancel() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            delegate.cancel();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.getWarnings();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            delegate.clearWarnings();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public void setCursorName(final String name) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            delegate.setCursorName(name);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public boolean execute(final String sql) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.execute(sql);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return wrap(delegate.getResultSet());
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public int getUpdateCount() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.getUpdateCount();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public boolean getMoreResults() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.getMoreResults();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public void setFetchDirection(final int direction) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            delegate.setFetchDirection(direction);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.getFetchDirection();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public void setFetchSize(final int rows) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            delegate.setFetchSize(rows);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.getFetchSize();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public int getResultSetConcurrency() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.getResultSetConcurrency();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public int getResultSetType() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.getResultSetType();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public void addBatch(final String sql) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            delegate.addBatch(sql);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            delegate.clearBatch();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.executeBatch();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection;
+    }
+
+    @Override
+    public boolean getMoreResults(final int current) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.getMoreResults(current);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public ResultSet getGeneratedKeys() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return wrap(delegate.getGeneratedKeys());
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public int executeUpdate(final String sql, final int autoGeneratedKeys) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.executeUpdate(sql, autoGeneratedKeys);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public int executeUpdate(final String sql, final int[] columnIndexes) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.executeUpdate(sql, columnIndexes);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public int executeUpdate(final String sql, final String[] columnNames) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.executeUpdate(sql, columnNames);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public boolean execute(final String sql, final int autoGeneratedKeys) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.execute(sql, autoGeneratedKeys);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public boolean execute(final String sql, final int[] columnIndexes) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.execute(sql, columnIndexes);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public boolean execute(final String sql, final String[] columnNames) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.execute(sql, columnNames);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public int getResultSetHoldability() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.getResultSetHoldability();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.isClosed();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public void setPoolable(final boolean poolable) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            delegate.setPoolable(poolable);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public boolean isPoolable() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.isPoolable();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public void closeOnCompletion() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            delegate.closeOnCompletion();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public boolean isCloseOnCompletion() throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.isCloseOnCompletion();
+        } finally {
+            exit(previous);
+        }
+    }
+}
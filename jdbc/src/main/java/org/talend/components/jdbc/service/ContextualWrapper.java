@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.service;
+
+import lombok.AllArgsConstructor;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.sql.Wrapper;
+
+/**
+ * Base of the JDBC delegates making the driver classloader the context classloader while the driver is called.
+ * The hot path interfaces (connection, statements and result sets) have hand-written delegates, the other ones, such as
+ * the database metadata, are still wrapped in a reflective proxy.
+ */
+abstract class ContextualWrapper<T extends Wrapper> implements Wrapper {
+
+    protected final T delegate;
+
+    protected final ClassLoader classLoader;
+
+    protected ContextualWrapper(final T delegate, final ClassLoader classLoader) {
+        this.delegate = delegate;
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * @return the context classloader to restore with {@link #exit(ClassLoader)}
+     */
+    protected ClassLoader enter() {
+        final Thread thread = Thread.currentThread();
+        final ClassLoader previous = thread.getContextClassLoader();
+        if (previous != classLoader) {
+            thread.setContextClassLoader(classLoader);
+        }
+        return previous;
+    }
+
+    protected void exit(final ClassLoader previous) {
+        if (previous != classLoader) {
+            Thread.currentThread().setContextClassLoader(previous);
+        }
+    }
+
+    @Override
+    public <U> U unwrap(final Class<U> iface) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.unwrap(iface);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    @Override
+    public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+        final ClassLoader previous = enter();
+        try {
+            return delegate.isWrapperFor(iface);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    static <A> A wrap(final ClassLoader classLoader, final Object delegate, final Class<A> api) {
+        if (delegate == null) {
+            return null;
+        }
+        return api.cast(Proxy.newProxyInstance(classLoader, new Class<?>[] { api },
+                new ContextualInvocationHandler(delegate, classLoader)));
+    }
+
+    @AllArgsConstructor
+    private static class ContextualInvocationHandler implements InvocationHandler {
+
+        private final Object delegate;
+
+        private final ClassLoader classLoader;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            final Thread thread = Thread.currentThread();
+            final ClassLoader prev = thread.getContextClassLoader();
+            thread.setContextClassLoader(classLoader);
+            try {
+                final Object invoked = method.invoke(delegate, args);
+                if (method.getReturnType().getName().startsWith("java.sql.") && method.getReturnType().isInterface()) {
+                    return wrap(classLoader, invoked, method.getReturnType());
+                }
+                return invoked;
+            } catch (final InvocationTargetException ite) {
+                throw ite.getTargetException();
+            } finally {
+                thread.setContextClassLoader(prev);
+            }
+        }
+    }
+}
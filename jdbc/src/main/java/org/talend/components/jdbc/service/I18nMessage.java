@@ -51,6 +51,8 @@ public interface I18nMessage {
 
     String warnReadOnlyOptimisationFailure();
 
+    String warnWatermarkRowsLimit(int limit, String watermark);
+
     String errorNoKeyForDeleteQuery();
 
     String errorNoKeyForUpdateQuery();
@@ -93,4 +95,8 @@ public interface I18nMessage {
     String errorVacantAccountKey();
 
     String errorNoRecordReceived();
+
+    String errorWatermarkColumnNotFound(String column);
+
+    String errorWatermarkKeyNotFound(String column);
 }
@@ -13,7 +13,6 @@
 package org.talend.components.jdbc.service;
 
 import com.zaxxer.hikari.HikariDataSource;
-import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.talend.components.jdbc.configuration.JdbcConfiguration;
 import org.talend.components.jdbc.datastore.JdbcConnection;
@@ -23,10 +22,6 @@ import org.talend.sdk.component.api.service.configuration.Configuration;
 import org.talend.sdk.component.api.service.configuration.LocalConfiguration;
 import org.talend.sdk.component.api.service.dependency.Resolver;
 
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
 import java.net.URL;
 import java.sql.Connection;
 import java.sql.ResultSet;
@@ -153,10 +148,6 @@ public class JdbcService {
                 dataSource.setValidationTimeout(connection.getConnectionValidationTimeOut() * 1000);
                 PlatformFactory.get(connection, i18nMessage).addDataSourceProperties(dataSource);
                 dataSource.addDataSourceProperty("rewriteBatchedStatements", String.valueOf(rewriteBatchedStatements));
-                // dataSource.addDataSourceProperty("cachePrepStmts", "true");
-                // dataSource.addDataSourceProperty("prepStmtCacheSize", "250");
-                // dataSource.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
-                // dataSource.addDataSourceProperty("useServerPrepStmts", "true");
 
                 // Security Issues with LOAD DATA LOCAL https://jira.talendforge.org/browse/TDI-42001
                 dataSource.addDataSourceProperty("allowLoadLocalInfile", "false"); // MySQL
@@ -174,7 +165,7 @@ public class JdbcService {
             final ClassLoader prev = thread.getContextClassLoader();
             try {
                 thread.setContextClassLoader(classLoaderDescriptor.asClassLoader());
-                return wrap(classLoaderDescriptor.asClassLoader(), dataSource.getConnection(), Connection.class);
+                return new ContextualConnection(dataSource.getConnection(), classLoaderDescriptor.asClassLoader());
             } finally {
                 thread.setContextClassLoader(prev);
             }
@@ -196,37 +187,6 @@ public class JdbcService {
                 }
             }
         }
-
-        private static <T> T wrap(final ClassLoader classLoader, final Object delegate, final Class<T> api) {
-            return api.cast(
-                    Proxy.newProxyInstance(classLoader, new Class<?>[] { api }, new ContextualDelegate(delegate, classLoader)));
-        }
-
-        @AllArgsConstructor
-        private static class ContextualDelegate implements InvocationHandler {
-
-            private final Object delegate;
-
-            private final ClassLoader classLoader;
-
-            @Override
-            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-                final Thread thread = Thread.currentThread();
-                final ClassLoader prev = thread.getContextClassLoader();
-                thread.setContextClassLoader(classLoader);
-                try {
-                    final Object invoked = method.invoke(delegate, args);
-                    if (method.getReturnType().getName().startsWith("java.sql.") && method.getReturnType().isInterface()) {
-                        return wrap(classLoader, invoked, method.getReturnType());
-                    }
-                    return invoked;
-                } catch (final InvocationTargetException ite) {
-                    throw ite.getTargetException();
-                } finally {
-                    thread.setContextClassLoader(prev);
-                }
-            }
-        }
     }
 
     public static String getSchema(Connection connection) throws SQLException {
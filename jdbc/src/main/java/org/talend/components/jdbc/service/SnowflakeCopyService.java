@@ -12,8 +12,9 @@
  */
 package org.talend.components.jdbc.service;
 
-import java.io.BufferedWriter;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serializable;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -26,17 +27,19 @@ import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Deque;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
-import java.util.Objects;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 import org.apache.commons.codec.binary.Hex;
 import org.talend.components.jdbc.output.Reject;
@@ -49,17 +52,42 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import static java.util.Collections.emptyList;
+
 @Slf4j
 public class SnowflakeCopyService implements Serializable {
 
-    private static final long maxChunk = 16 * 1024 * 1024; // 16MB
+    private static final long MAX_CHUNK = 16 * 1024 * 1024; // 16MB
+
+    /**
+     * Number of chunks uploaded at the same time, it is also the number of staged files loaded by each COPY
+     */
+    private static final int maxParallelPut = 4;
+
+    /**
+     * Seconds to wait for the uploads in progress when loading fails, before releasing their statements
+     */
+    private static final long UPLOAD_TERMINATION_TIMEOUT = 60;
 
     private static final String TIMESTAMP_FORMAT_PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSSXXX";
 
     private final List<Path> tmpFiles = new ArrayList<>();
 
+    private final long maxChunk;
+
     private Path tmpFolder;
 
+    public SnowflakeCopyService() {
+        this(MAX_CHUNK);
+    }
+
+    /**
+     * @param maxChunk uncompressed size of the chunks uploaded
+     */
+    SnowflakeCopyService(final long maxChunk) {
+        this.maxChunk = maxChunk;
+    }
+
     public List<Reject> putAndCopy(final Connection connection, final List<Record> records, final String fqStageName,
             final String fqTableName, final String fqTmpTableName) throws SQLException {
         try (final Statement statement = connection.createStatement()) {
@@ -68,14 +96,119 @@ public class SnowflakeCopyService implements Serializable {
         return putAndCopy(connection, records, fqStageName, fqTmpTableName);
     }
 
+    /**
+     * Records are written in gzip chunks while the previous chunks are uploaded by a bounded pool, the uploaded chunks
+     * are copied to the table by sets of {@link #maxParallelPut} files. At most {@link #maxParallelPut} chunks are
+     * uploaded while the next one is written, only these are kept on disk.
+     */
     public List<Reject> putAndCopy(final Connection connection, final List<Record> records, final String fqStageName,
             final String fqTableName) {
-        final List<RecordChunk> chunks = splitRecords(createWorkDir(), records);
+        final Path workDir = createWorkDir();
         final List<Reject> rejects = new ArrayList<>();
-        final List<RecordChunk> copy = chunks.stream().parallel().map(chunk -> doPUT(fqStageName, connection, chunk, rejects))
-                .filter(Objects::nonNull).collect(Collectors.toList());
-        rejects.addAll(toReject(chunks, doCopy(fqStageName, fqTableName, connection, copy)));
-        return rejects;
+        final Deque<RecordChunk> uploads = new ArrayDeque<>(maxParallelPut);
+        final List<RecordChunk> staged = new ArrayList<>();
+        final ExecutorService uploader = Executors.newFixedThreadPool(maxParallelPut, r -> {
+            final Thread thread = new Thread(r, "snowflake-put-" + fqTableName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        RecordChunk chunk = null;
+        try {
+            int part = 0;
+            for (int index = 0; index < records.size(); index++) {
+                if (chunk == null) {
+                    chunk = new RecordChunk(records, part++, index, workDir);
+                }
+                final Record record = records.get(index);
+                chunk.write(record.getSchema().getEntries().stream().map(entry -> format(record, entry))
+                        .collect(Collectors.joining(",")));
+                if (chunk.getSize() >= maxChunk) {
+                    awaitUploads(maxParallelPut - 1, uploads, staged, rejects, connection, fqStageName, fqTableName);
+                    upload(uploader, uploads, connection, fqStageName, chunk);
+                    chunk = null;
+                }
+            }
+            if (chunk != null) {
+                awaitUploads(maxParallelPut - 1, uploads, staged, rejects, connection, fqStageName, fqTableName);
+                upload(uploader, uploads, connection, fqStageName, chunk);
+                chunk = null;
+            }
+            awaitUploads(0, uploads, staged, rejects, connection, fqStageName, fqTableName);
+            if (!staged.isEmpty()) {
+                rejects.addAll(toReject(staged, doCopy(fqStageName, fqTableName, connection, staged)));
+            }
+            return rejects;
+        } finally {
+            if (chunk != null) {
+                chunk.close();
+            }
+            stopUploads(uploader, uploads);
+        }
+    }
+
+    /**
+     * Wait for the oldest uploads until at most max of them are in progress, copying the uploaded chunks by sets of
+     * {@link #maxParallelPut}
+     */
+    private void awaitUploads(final int max, final Deque<RecordChunk> uploads, final List<RecordChunk> staged,
+            final List<Reject> rejects, final Connection connection, final String fqStageName, final String fqTableName) {
+        while (uploads.size() > max) {
+            awaitUpload(uploads.poll(), staged, rejects);
+            if (staged.size() >= maxParallelPut) {
+                rejects.addAll(toReject(staged, doCopy(fqStageName, fqTableName, connection, staged)));
+                staged.clear();
+            }
+        }
+    }
+
+    /**
+     * On failure, the uploads in progress are cancelled and awaited, their statements are only closed once no upload
+     * uses them anymore
+     */
+    private void stopUploads(final ExecutorService uploader, final Deque<RecordChunk> uploads) {
+        uploader.shutdownNow();
+        uploads.forEach(RecordChunk::cancel);
+        try {
+            if (!uploader.awaitTermination(UPLOAD_TERMINATION_TIMEOUT, TimeUnit.SECONDS)) {
+                log.warn("Snowflake uploads still in progress after {}s", UPLOAD_TERMINATION_TIMEOUT);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        uploads.forEach(RecordChunk::release);
+    }
+
+    /**
+     * The statement is created on the caller thread, only its execution is done by the uploader
+     */
+    private void upload(final ExecutorService uploader, final Deque<RecordChunk> uploads, final Connection connection,
+            final String fqStageName, final RecordChunk chunk) {
+        chunk.close();
+        try {
+            chunk.statement = connection.createStatement();
+        } catch (final SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        chunk.upload = uploader.submit(() -> doPUT(fqStageName, chunk));
+        uploads.add(chunk);
+    }
+
+    private void awaitUpload(final RecordChunk chunk, final List<RecordChunk> staged, final List<Reject> rejects) {
+        try {
+            final List<Reject> putRejects = chunk.upload.get();
+            if (putRejects.isEmpty()) {
+                staged.add(chunk);
+            } else {
+                rejects.addAll(putRejects);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            chunk.release();
+        }
     }
 
     /**
@@ -109,22 +242,23 @@ public class SnowflakeCopyService implements Serializable {
                 .collect(Collectors.toList());
     }
 
-    private RecordChunk doPUT(final String fqStageName, final Connection connection, final RecordChunk chunk,
-            final List<Reject> rejects) {
-        try (final Statement statement = connection.createStatement()) {
-            try (final ResultSet result = statement
-                    .executeQuery("PUT '" + chunk.getChunk().toUri() + "' '@" + fqStageName + "/' AUTO_COMPRESS=TRUE")) {
-                result.next();
-                if (!"uploaded".equalsIgnoreCase(result.getString("status"))) {
-                    String error = result.getString("message");
-                    rejects.addAll(toReject(chunk, error, result.getString("status"), null));
-                    return null;
-                }
+    private List<Reject> doPUT(final String fqStageName, final RecordChunk chunk) {
+        try (final ResultSet result = chunk.statement.executeQuery("PUT '" + chunk.getChunk().toUri() + "' '@" + fqStageName
+                + "/' SOURCE_COMPRESSION=GZIP AUTO_COMPRESS=FALSE")) {
+            result.next();
+            if (!"uploaded".equalsIgnoreCase(result.getString("status"))) {
+                String error = result.getString("message");
+                return toReject(chunk, error, result.getString("status"), null);
             }
-            return chunk;
+            return emptyList();
         } catch (final SQLException e) {
-            rejects.addAll(toReject(chunk, e.getMessage(), e.getSQLState(), e.getErrorCode()));
-            return null;
+            return toReject(chunk, e.getMessage(), e.getSQLState(), e.getErrorCode());
+        } finally {
+            try {
+                Files.deleteIfExists(chunk.getChunk());
+            } catch (final IOException e) {
+                log.warn("Cannot clean tmp file '{}'", chunk.getChunk());
+            }
         }
     }
 
@@ -138,7 +272,7 @@ public class SnowflakeCopyService implements Serializable {
         try (final Statement statement = connection.createStatement()) {
             try (final ResultSet result = statement
                     .executeQuery("COPY INTO " + fqTableName + " from '@" + fqStageName + "'" + " FILES="
-                            + chunks.stream().map(chunk -> chunk.getChunk().getFileName()).map(name -> "'" + name + ".gz'")
+                            + chunks.stream().map(chunk -> chunk.getChunk().getFileName()).map(name -> "'" + name + "'")
                                     .collect(Collectors.joining(",", "(", ")"))
                             + " FILE_FORMAT=(TYPE=CSV field_delimiter=',' COMPRESSION=GZIP field_optionally_enclosed_by='\"')"
                             + " PURGE=TRUE ON_ERROR='CONTINUE'")) {
@@ -192,26 +326,6 @@ public class SnowflakeCopyService implements Serializable {
         private final int rowParsed;
     }
 
-    private List<RecordChunk> splitRecords(final Path directoryPath, final List<Record> records) {
-        final AtomicLong size = new AtomicLong(0);
-        final AtomicInteger count = new AtomicInteger(0);
-        final AtomicInteger recordCounter = new AtomicInteger(0);
-        final Map<Integer, RecordChunk> chunks = new HashMap<>();
-        records.stream().map(record -> record.getSchema().getEntries().stream().map(entry -> format(record, entry))
-                .collect(Collectors.joining(","))).forEach(line -> {
-                    if (size.addAndGet(line.getBytes(StandardCharsets.UTF_8).length) > maxChunk) {
-                        // this writer can be closed now. to early free of memory
-                        chunks.get(count.getAndIncrement()).close();
-                        size.set(line.getBytes(StandardCharsets.UTF_8).length);
-                    }
-                    final int recordNumber = recordCounter.getAndIncrement();
-                    chunks.computeIfAbsent(count.get(), key -> new RecordChunk(records, key, recordNumber, directoryPath))
-                            .writer(line);
-                });
-        chunks.get(count.get()).close(); // close the last writer
-        return new ArrayList<>(chunks.values());
-    }
-
     @Getter
     @RequiredArgsConstructor
     private class RecordChunk {
@@ -226,10 +340,16 @@ public class SnowflakeCopyService implements Serializable {
 
         private Path chunk;
 
-        private BufferedWriter writer;
+        private OutputStream writer;
 
         private int end;
 
+        private long size;
+
+        private Statement statement;
+
+        private Future<List<Reject>> upload;
+
         List<Record> getRecords() {
             if (records == null) {
                 return null;
@@ -237,22 +357,24 @@ public class SnowflakeCopyService implements Serializable {
             return records.subList(start, end);
         }
 
-        void writer(final String line) {
+        void write(final String line) {
             if (writer == null) {
                 end = start;
                 final String suffix = LocalDateTime.now(ZoneOffset.UTC).format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
                 try {
-                    chunk = Files.createTempFile(tmpDir, "part_" + part + "_", "_" + suffix + ".csv");
+                    chunk = Files.createTempFile(tmpDir, "part_" + part + "_", "_" + suffix + ".csv.gz");
                     log.debug("Temp file {} created", chunk);
                     tmpFiles.add(chunk);
-                    writer = Files.newBufferedWriter(chunk, StandardCharsets.UTF_8);
+                    writer = new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(chunk)));
                 } catch (IOException e) {
                     throw new IllegalStateException(e);
                 }
             }
             try {
-                writer.write(line);
-                writer.newLine();
+                final byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+                writer.write(bytes);
+                writer.write('\n');
+                size += bytes.length + 1;
                 end++;
             } catch (final IOException e) {
                 throw new IllegalStateException(e);
@@ -265,6 +387,36 @@ public class SnowflakeCopyService implements Serializable {
                     writer.close();
                 } catch (IOException e) {
                     throw new IllegalStateException(e);
+                } finally {
+                    writer = null;
+                }
+            }
+        }
+
+        /**
+         * Cancelling the PUT from the caller thread, a statement can be cancelled while it is executed
+         */
+        void cancel() {
+            if (statement != null) {
+                try {
+                    statement.cancel();
+                } catch (final SQLException e) {
+                    log.warn("Cannot cancel PUT statement of '{}'", chunk);
+                }
+            }
+        }
+
+        /**
+         * Closing the statement on the caller thread since a connection may not track its statements concurrently
+         */
+        void release() {
+            if (statement != null) {
+                try {
+                    statement.close();
+                } catch (final SQLException e) {
+                    log.warn("Cannot close PUT statement of '{}'", chunk);
+                } finally {
+                    statement = null;
                 }
             }
         }
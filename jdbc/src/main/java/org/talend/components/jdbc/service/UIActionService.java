@@ -18,6 +18,7 @@ import org.talend.components.jdbc.configuration.OutputConfig;
 import org.talend.components.jdbc.configuration.RedshiftSortStrategy;
 import org.talend.components.jdbc.dataset.TableNameDataset;
 import org.talend.components.jdbc.datastore.JdbcConnection;
+import org.talend.components.jdbc.output.statement.QueryManagerFactory;
 import org.talend.sdk.component.api.configuration.Option;
 import org.talend.sdk.component.api.service.Service;
 import org.talend.sdk.component.api.service.asyncvalidation.AsyncValidation;
@@ -96,9 +97,12 @@ public class UIActionService {
                     .map(e -> new SuggestionValues.Item(e.name(), e.label(i18n))).collect(toList()));
         }
 
-        return new SuggestionValues(true,
-                Stream.of(OutputConfig.ActionOnData.values()).filter(e -> !OutputConfig.ActionOnData.BULK_LOAD.equals(e))
-                        .map(e -> new SuggestionValues.Item(e.name(), e.label(i18n))).collect(toList()));
+        // the bulk load is only proposed when the database has a native one
+        final boolean bulkLoad = dataset.getConnection() != null && dataset.getConnection().getDbType() != null
+                && QueryManagerFactory.isBulkLoadSupported(dataset.getConnection());
+        return new SuggestionValues(true, Stream.of(OutputConfig.ActionOnData.values())
+                .filter(e -> bulkLoad || !OutputConfig.ActionOnData.BULK_LOAD.equals(e))
+                .map(e -> new SuggestionValues.Item(e.name(), e.label(i18n))).collect(toList()));
     }
 
     @Suggestions(ACTION_LIST_HANDLERS_DB)
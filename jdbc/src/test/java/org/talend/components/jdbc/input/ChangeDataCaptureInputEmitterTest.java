@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.input;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.talend.components.jdbc.configuration.InputCaptureDataChangeConfig;
+import org.talend.components.jdbc.configuration.InputCaptureDataChangeConfig.ChangeOffsetOnReadStrategy;
+import org.talend.components.jdbc.dataset.ChangeDataCaptureDataset;
+import org.talend.components.jdbc.datastore.JdbcConnection;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.runtime.record.RecordBuilderFactoryImpl;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The stream table is a plain derby table, consuming it only inserts its row count in the counter table, so the tests
+ * delete the consumed rows.
+ */
+class ChangeDataCaptureInputEmitterTest {
+
+    private String url;
+
+    private Connection connection;
+
+    private ChangeDataCaptureInputEmitter emitter;
+
+    @BeforeEach
+    void before() throws SQLException {
+        url = "jdbc:derby:memory:cdc" + UUID.randomUUID().toString().replace("-", "");
+        connection = DriverManager.getConnection(url + ";create=true");
+        try (final Statement statement = connection.createStatement()) {
+            statement.executeUpdate("create table CDC_STREAM(id int)");
+            statement.executeUpdate("create table CDC_STREAM_COUNTER(c int)");
+        }
+    }
+
+    @AfterEach
+    void after() throws SQLException {
+        if (emitter != null) {
+            emitter.release();
+        }
+        connection.close();
+    }
+
+    @Test
+    void consumeStreamAfterLastRowOfBatch() throws SQLException {
+        insert(1, 2, 3);
+        emitter = createEmitter(ChangeOffsetOnReadStrategy.YES, 0, 1000, 2);
+
+        assertNotNull(emitter.next());
+        assertNotNull(emitter.next());
+        // cycle limit, the batch continues on the next call
+        assertNull(emitter.next());
+        assertEquals(2, emitter.getUncommittedRows());
+        assertEquals(0, emitter.getLastCommitTime());
+        assertEquals(0, counters());
+
+        final Record last = emitter.next();
+        assertNotNull(last);
+        assertEquals(3, last.getInt("ID"));
+        assertNull(emitter.next());
+        assertEquals(0, emitter.getUncommittedRows());
+        assertEquals(3, emitter.getEmittedRows());
+        assertTrue(emitter.getLastCommitTime() > 0);
+        assertEquals(1, counters());
+        assertEquals(0, emitter.getPollInterval());
+    }
+
+    @Test
+    void releaseBeforeEndOfBatch() throws SQLException {
+        insert(1, 2, 3);
+        emitter = createEmitter(ChangeOffsetOnReadStrategy.YES, 0, 1000, 0);
+
+        assertNotNull(emitter.next());
+        emitter.release();
+        emitter = null;
+        // the batch is not consumed and will be read again
+        assertEquals(0, counters());
+    }
+
+    @Test
+    void readOnceWithoutOffsetChange() throws SQLException, InterruptedException {
+        insert(1, 2);
+        emitter = createEmitter(ChangeOffsetOnReadStrategy.NO, 0, 0, 0);
+
+        assertNotNull(emitter.next());
+        assertNotNull(emitter.next());
+        assertNull(emitter.next());
+        insert(3);
+        Thread.sleep(ChangeDataCaptureInputEmitter.MIN_IDLE_INTERVAL * 2);
+        assertNull(emitter.next());
+        assertEquals(2, emitter.getEmittedRows());
+        assertEquals(0, counters());
+    }
+
+    @Test
+    void backOffOnEmptyStream() throws SQLException, InterruptedException {
+        final long min = ChangeDataCaptureInputEmitter.MIN_IDLE_INTERVAL;
+        emitter = createEmitter(ChangeOffsetOnReadStrategy.YES, 0, min * 3, 0);
+
+        // a zero poll interval doesn't poll an empty stream table in a busy loop
+        assertNull(emitter.next());
+        assertEquals(min, emitter.getPollInterval());
+        insert(1);
+        assertNull(emitter.next());
+        assertEquals(0, emitter.getEmittedRows());
+
+        // the rows are read on the next poll, then the interval gets back to the poll interval
+        Thread.sleep(min + 20);
+        assertNotNull(emitter.next());
+        assertNull(emitter.next());
+        assertEquals(0, emitter.getPollInterval());
+        consume();
+
+        // each empty read doubles the interval up to the maximum idle interval
+        assertNull(emitter.next());
+        assertEquals(min, emitter.getPollInterval());
+        Thread.sleep(min + 20);
+        assertNull(emitter.next());
+        assertEquals(min * 2, emitter.getPollInterval());
+        Thread.sleep(min * 2 + 20);
+        assertNull(emitter.next());
+        assertEquals(min * 3, emitter.getPollInterval());
+        assertFalse(emitter.getLastCommitTime() == 0);
+    }
+
+    @Test
+    void logLagPeriodically() throws SQLException {
+        insert(1, 2, 3);
+        emitter = createEmitter(ChangeOffsetOnReadStrategy.YES, 0, 1000, 2);
+        final long start = System.currentTimeMillis();
+        assertFalse(emitter.logLag(start));
+
+        assertNotNull(emitter.next());
+        assertNotNull(emitter.next());
+        assertFalse(emitter.logLag(start + ChangeDataCaptureInputEmitter.LAG_LOG_INTERVAL - 1));
+        assertTrue(emitter.logLag(start + ChangeDataCaptureInputEmitter.LAG_LOG_INTERVAL));
+        assertFalse(emitter.logLag(start + ChangeDataCaptureInputEmitter.LAG_LOG_INTERVAL + 1));
+        assertTrue(emitter.logLag(start + ChangeDataCaptureInputEmitter.LAG_LOG_INTERVAL * 2));
+    }
+
+    private ChangeDataCaptureInputEmitter createEmitter(final ChangeOffsetOnReadStrategy strategy, final long pollInterval,
+            final long maxIdleInterval, final int maxRowsPerCycle) throws SQLException {
+        final JdbcConnection jdbcConnection = new JdbcConnection();
+        jdbcConnection.setDbType("Derby");
+        jdbcConnection.setJdbcUrl(url);
+        final ChangeDataCaptureDataset dataset = new ChangeDataCaptureDataset();
+        dataset.setConnection(jdbcConnection);
+        dataset.setTableName("CDC_TABLE");
+        dataset.setStreamTableName("CDC_STREAM");
+        final InputCaptureDataChangeConfig config = new InputCaptureDataChangeConfig();
+        config.setDataSet(dataset);
+        config.setChangeOffsetOnRead(strategy);
+        config.setPollInterval(pollInterval);
+        config.setMaxIdleInterval(maxIdleInterval);
+        config.setMaxRowsPerCycle(maxRowsPerCycle);
+
+        final ChangeDataCaptureInputEmitter emitter = new ChangeDataCaptureInputEmitter(config, null,
+                new RecordBuilderFactoryImpl("test"), null);
+        // init() creates snowflake streams, the emitter reads an already opened connection
+        emitter.connection = DriverManager.getConnection(url);
+        emitter.connection.setAutoCommit(false);
+        return emitter;
+    }
+
+    private void insert(final int... ids) throws SQLException {
+        try (final Statement statement = connection.createStatement()) {
+            for (final int id : ids) {
+                statement.executeUpdate("insert into CDC_STREAM(id) values (" + id + ")");
+            }
+        }
+    }
+
+    private void consume() throws SQLException {
+        try (final Statement statement = connection.createStatement()) {
+            statement.executeUpdate("delete from CDC_STREAM");
+        }
+    }
+
+    private int counters() throws SQLException {
+        try (final Statement statement = connection.createStatement();
+                final ResultSet resultSet = statement.executeQuery("select count(*) from CDC_STREAM_COUNTER")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+}
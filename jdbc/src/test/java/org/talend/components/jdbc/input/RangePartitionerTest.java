@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.input;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RangePartitionerTest {
+
+    @Test
+    void integralBoundaries() {
+        assertEquals(asList("25", "50", "75"),
+                RangePartitioner.boundaries(BigDecimal.ZERO, BigDecimal.valueOf(100), 4, true, BigDecimal::toPlainString));
+        assertEquals(asList("3", "6"),
+                RangePartitioner.boundaries(BigDecimal.ZERO, BigDecimal.TEN, 3, true, BigDecimal::toPlainString));
+        assertEquals(asList("-5", "0", "5"),
+                RangePartitioner.boundaries(BigDecimal.valueOf(-10), BigDecimal.TEN, 4, true, BigDecimal::toPlainString));
+    }
+
+    @Test
+    void narrowIntegralRangeDropsDuplicates() {
+        assertEquals(asList("1"),
+                RangePartitioner.boundaries(BigDecimal.ZERO, BigDecimal.valueOf(2), 8, true, BigDecimal::toPlainString));
+        assertEquals(emptyList(),
+                RangePartitioner.boundaries(BigDecimal.ONE, BigDecimal.ONE, 4, true, BigDecimal::toPlainString));
+    }
+
+    @Test
+    void decimalBoundaries() {
+        assertEquals(asList("0.25", "0.5", "0.75"),
+                RangePartitioner.boundaries(BigDecimal.ZERO, BigDecimal.ONE, 4, false, BigDecimal::toPlainString));
+        assertEquals(asList("0.5", "1", "1.5"), RangePartitioner.boundaries(BigDecimal.ZERO, BigDecimal.valueOf(2), 4, false,
+                value -> value.stripTrailingZeros().toPlainString()));
+    }
+
+    @Test
+    void dateBoundaries() {
+        final long min = Timestamp.valueOf("2020-01-01 00:00:00").getTime();
+        final long max = Timestamp.valueOf("2020-01-01 00:00:02").getTime();
+        assertEquals(asList("{ts '2020-01-01 00:00:01.0'}"), RangePartitioner.boundaries(BigDecimal.valueOf(min),
+                BigDecimal.valueOf(max), 2, true, value -> "{ts '" + new Timestamp(value.longValue()) + "'}"));
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.input;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
+import org.talend.sdk.component.runtime.record.RecordBuilderFactoryImpl;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static java.sql.ResultSetMetaData.columnNoNulls;
+import static org.talend.sdk.component.api.record.Schema.Type.BOOLEAN;
+import static org.talend.sdk.component.api.record.Schema.Type.BYTES;
+import static org.talend.sdk.component.api.record.Schema.Type.DATETIME;
+import static org.talend.sdk.component.api.record.Schema.Type.DOUBLE;
+import static org.talend.sdk.component.api.record.Schema.Type.FLOAT;
+import static org.talend.sdk.component.api.record.Schema.Type.INT;
+import static org.talend.sdk.component.api.record.Schema.Type.LONG;
+import static org.talend.sdk.component.api.record.Schema.Type.RECORD;
+import static org.talend.sdk.component.api.record.Schema.Type.STRING;
+
+/**
+ * Compare the reading of an embedded derby table through the {@link ResultSetReader} plan with the former reading, which
+ * looked up the metadata and rebuilt the schema entry of each column for each row.
+ * Run it with the main method, from the test classpath: it isn't run by the build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResultSetReaderBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    private final RecordBuilderFactory factory = new RecordBuilderFactoryImpl("benchmark");
+
+    private Connection connection;
+
+    private String url;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        url = "jdbc:derby:memory:benchmark" + UUID.randomUUID().toString().replace("-", "");
+        connection = DriverManager.getConnection(url + ";create=true");
+        try (final Statement statement = connection.createStatement()) {
+            statement.executeUpdate("create table EVENTS(ID int not null, CODE bigint, NAME varchar(32), AMOUNT double, "
+                    + "PRICE decimal(10, 2), ACTIVE boolean, CREATED timestamp)");
+        }
+        connection.setAutoCommit(false);
+        try (final PreparedStatement insert = connection.prepareStatement("insert into EVENTS values (?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < ROWS; i++) {
+                insert.setInt(1, i);
+                insert.setLong(2, i * 1000L);
+                insert.setString(3, "name " + i);
+                insert.setDouble(4, i / 3d);
+                insert.setBigDecimal(5, BigDecimal.valueOf(i, 2));
+                insert.setBoolean(6, i % 2 == 0);
+                insert.setTimestamp(7, new Timestamp(1_600_000_000_000L + i));
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        try {
+            DriverManager.getConnection(url + ";drop=true");
+        } catch (final SQLException e) {
+            // derby reports the drop of a database by an exception
+        }
+    }
+
+    @Benchmark
+    public void readerPlan(final Blackhole blackhole) throws SQLException {
+        try (final Statement statement = connection.createStatement();
+                final ResultSet resultSet = statement.executeQuery("select * from EVENTS")) {
+            ResultSetReader reader = null;
+            while (resultSet.next()) {
+                if (reader == null) {
+                    reader = new ResultSetReader(factory, resultSet.getMetaData());
+                }
+                blackhole.consume(reader.read(resultSet));
+            }
+        }
+    }
+
+    @Benchmark
+    public void perRowMetaData(final Blackhole blackhole) throws SQLException {
+        try (final Statement statement = connection.createStatement();
+                final ResultSet resultSet = statement.executeQuery("select * from EVENTS")) {
+            final PerRowMetaDataReader reader = new PerRowMetaDataReader(factory);
+            while (resultSet.next()) {
+                blackhole.consume(reader.read(resultSet));
+            }
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ResultSetReaderBenchmark.class.getSimpleName()).addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    /**
+     * The reading of the input emitter before the reader plan: the metadata is read and the entry of each column rebuilt
+     * for each row, the values are read with getObject.
+     */
+    private static class PerRowMetaDataReader {
+
+        private final RecordBuilderFactory factory;
+
+        private Schema schema;
+
+        PerRowMetaDataReader(final RecordBuilderFactory factory) {
+            this.factory = factory;
+        }
+
+        Record read(final ResultSet resultSet) throws SQLException {
+            final ResultSetMetaData metaData = resultSet.getMetaData();
+            if (schema == null) {
+                final Schema.Builder schemaBuilder = factory.newSchemaBuilder(RECORD);
+                for (int index = 1; index <= metaData.getColumnCount(); index++) {
+                    schemaBuilder.withEntry(entry(metaData, index).withType(type(metaData, index)).build());
+                }
+                schema = schemaBuilder.build();
+            }
+            final Record.Builder builder = factory.newRecordBuilder(schema);
+            for (int index = 1; index <= metaData.getColumnCount(); index++) {
+                addColumn(builder, resultSet, metaData, index);
+            }
+            return builder.build();
+        }
+
+        private Schema.Entry.Builder entry(final ResultSetMetaData metaData, final int index) throws SQLException {
+            return factory.newEntryBuilder().withName(metaData.getColumnName(index))
+                    .withNullable(metaData.isNullable(index) != columnNoNulls);
+        }
+
+        private Schema.Type type(final ResultSetMetaData metaData, final int index) throws SQLException {
+            switch (metaData.getColumnType(index)) {
+            case Types.SMALLINT:
+            case Types.TINYINT:
+            case Types.INTEGER:
+                final String javaType = metaData.getColumnClassName(index);
+                return Integer.class.getName().equals(javaType) || Short.class.getName().equals(javaType) ? INT : LONG;
+            case Types.FLOAT:
+            case Types.REAL:
+                return FLOAT;
+            case Types.DOUBLE:
+                return DOUBLE;
+            case Types.BOOLEAN:
+                return BOOLEAN;
+            case Types.TIME:
+            case Types.DATE:
+            case Types.TIMESTAMP:
+                return DATETIME;
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+                return BYTES;
+            default:
+                return STRING;
+            }
+        }
+
+        private void addColumn(final Record.Builder builder, final ResultSet resultSet, final ResultSetMetaData metaData,
+                final int index) throws SQLException {
+            final Object value = resultSet.getObject(index);
+            final Schema.Entry.Builder entryBuilder = entry(metaData, index);
+            switch (metaData.getColumnType(index)) {
+            case Types.SMALLINT:
+            case Types.TINYINT:
+            case Types.INTEGER:
+                if (value instanceof Integer) {
+                    builder.withInt(entryBuilder.withType(INT).build(), (Integer) value);
+                } else if (value instanceof Short) {
+                    builder.withInt(entryBuilder.withType(INT).build(), ((Short) value).intValue());
+                } else if (value != null) {
+                    builder.withLong(entryBuilder.withType(LONG).build(), Long.valueOf(value.toString()));
+                }
+                break;
+            case Types.FLOAT:
+            case Types.REAL:
+                if (value != null) {
+                    builder.withFloat(entryBuilder.withType(FLOAT).build(), (Float) value);
+                }
+                break;
+            case Types.DOUBLE:
+                if (value != null) {
+                    builder.withDouble(entryBuilder.withType(DOUBLE).build(), (Double) value);
+                }
+                break;
+            case Types.BOOLEAN:
+                if (value != null) {
+                    builder.withBoolean(entryBuilder.withType(BOOLEAN).build(), (Boolean) value);
+                }
+                break;
+            case Types.DATE:
+            case Types.TIME:
+            case Types.TIMESTAMP:
+                builder.withDateTime(entryBuilder.withType(DATETIME).build(),
+                        value == null ? null : new Date(((Date) value).getTime()));
+                break;
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+                builder.withBytes(entryBuilder.withType(BYTES).build(), (byte[]) value);
+                break;
+            default:
+                builder.withString(entryBuilder.withType(STRING).build(), value == null ? null : String.valueOf(value));
+                break;
+            }
+        }
+    }
+}
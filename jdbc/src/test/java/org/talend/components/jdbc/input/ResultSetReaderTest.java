@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.input;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+import org.talend.sdk.component.runtime.record.RecordBuilderFactoryImpl;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static java.util.stream.Collectors.toMap;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResultSetReaderTest {
+
+    private Connection connection;
+
+    @BeforeEach
+    void before() throws SQLException {
+        connection = DriverManager.getConnection(
+                "jdbc:derby:memory:reader" + UUID.randomUUID().toString().replace("-", "") + ";create=true");
+        try (final Statement statement = connection.createStatement()) {
+            statement.executeUpdate("create table TYPES(C_SMALLINT smallint, C_INT int not null, C_BIGINT bigint, C_REAL real, "
+                    + "C_DOUBLE double, C_BOOLEAN boolean, C_DATE date, C_TIME time, C_TIMESTAMP timestamp, "
+                    + "C_BINARY varchar(4) for bit data, C_VARCHAR varchar(10), C_CHAR char(3), C_DECIMAL decimal(10, 2))");
+            statement.executeUpdate("insert into TYPES values (1, 2, 3, 4.5, 6.25, true, '2020-01-02', '10:11:12', "
+                    + "'2020-01-02 10:11:12.5', X'0102', 'text', 'abc', 12.34)");
+            statement.executeUpdate("insert into TYPES(C_INT) values (0)");
+        }
+    }
+
+    @AfterEach
+    void after() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void schema() throws SQLException {
+        try (final Statement statement = connection.createStatement();
+                final ResultSet resultSet = statement.executeQuery("select * from TYPES")) {
+            final Schema schema = new ResultSetReader(new RecordBuilderFactoryImpl("test"), resultSet.getMetaData()).getSchema();
+
+            final Map<String, Schema.Type> types = schema.getEntries().stream()
+                    .collect(toMap(Schema.Entry::getName, Schema.Entry::getType, (a, b) -> a, LinkedHashMap::new));
+            final Map<String, Schema.Type> expected = new LinkedHashMap<>();
+            expected.put("C_SMALLINT", Schema.Type.INT);
+            expected.put("C_INT", Schema.Type.INT);
+            expected.put("C_BIGINT", Schema.Type.STRING);
+            expected.put("C_REAL", Schema.Type.FLOAT);
+            expected.put("C_DOUBLE", Schema.Type.DOUBLE);
+            expected.put("C_BOOLEAN", Schema.Type.BOOLEAN);
+            expected.put("C_DATE", Schema.Type.DATETIME);
+            expected.put("C_TIME", Schema.Type.DATETIME);
+            expected.put("C_TIMESTAMP", Schema.Type.DATETIME);
+            expected.put("C_BINARY", Schema.Type.BYTES);
+            expected.put("C_VARCHAR", Schema.Type.STRING);
+            expected.put("C_CHAR", Schema.Type.STRING);
+            expected.put("C_DECIMAL", Schema.Type.STRING);
+            assertEquals(expected, types);
+            assertFalse(schema.getEntries().get(1).isNullable());
+            assertTrue(schema.getEntries().get(0).isNullable());
+        }
+    }
+
+    @Test
+    void values() throws SQLException {
+        try (final Statement statement = connection.createStatement();
+                final ResultSet resultSet = statement.executeQuery("select * from TYPES where C_SMALLINT is not null")) {
+            final ResultSetReader reader = new ResultSetReader(new RecordBuilderFactoryImpl("test"), resultSet.getMetaData());
+            assertTrue(resultSet.next());
+            final Record record = reader.read(resultSet);
+
+            assertEquals(1, record.getInt("C_SMALLINT"));
+            assertEquals(2, record.getInt("C_INT"));
+            assertEquals("3", record.getString("C_BIGINT"));
+            assertEquals(4.5f, record.getFloat("C_REAL"));
+            assertEquals(6.25, record.getDouble("C_DOUBLE"));
+            assertTrue(record.getBoolean("C_BOOLEAN"));
+            assertEquals(java.sql.Date.valueOf("2020-01-02").getTime(), record.getDateTime("C_DATE").toInstant().toEpochMilli());
+            assertEquals(java.sql.Time.valueOf("10:11:12").getTime(), record.getDateTime("C_TIME").toInstant().toEpochMilli());
+            assertEquals(Timestamp.valueOf("2020-01-02 10:11:12.5").getTime(),
+                    record.getDateTime("C_TIMESTAMP").toInstant().toEpochMilli());
+            assertArrayEquals(new byte[] { 1, 2 }, record.getBytes("C_BINARY"));
+            assertEquals("text", record.getString("C_VARCHAR"));
+            assertEquals("abc", record.getString("C_CHAR"));
+            assertEquals("12.34", record.getString("C_DECIMAL"));
+        }
+    }
+
+    @Test
+    void nulls() throws SQLException {
+        try (final Statement statement = connection.createStatement();
+                final ResultSet resultSet = statement.executeQuery("select * from TYPES where C_SMALLINT is null")) {
+            final ResultSetReader reader = new ResultSetReader(new RecordBuilderFactoryImpl("test"), resultSet.getMetaData());
+            assertTrue(resultSet.next());
+            final Record record = reader.read(resultSet);
+
+            // null values are not set, primitives are not read as 0 or false and dates as the -1 timestamp
+            assertEquals(0, record.getInt("C_INT"));
+            for (final Schema.Entry entry : record.getSchema().getEntries()) {
+                if (!"C_INT".equals(entry.getName())) {
+                    assertNull(record.get(Object.class, entry.getName()), entry.getName());
+                }
+            }
+            assertFalse(record.getOptionalInt("C_SMALLINT").isPresent());
+            assertFalse(record.getOptionalBoolean("C_BOOLEAN").isPresent());
+            assertFalse(record.getOptionalDouble("C_DOUBLE").isPresent());
+            assertFalse(record.getOptionalDateTime("C_TIMESTAMP").isPresent());
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.input;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.talend.components.jdbc.configuration.InputTableNameConfig;
+import org.talend.components.jdbc.dataset.TableNameDataset;
+import org.talend.components.jdbc.datastore.JdbcConnection;
+import org.talend.components.jdbc.service.I18nMessage;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.runtime.record.RecordBuilderFactoryImpl;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TableNameInputEmitterTest {
+
+    // messages are their key
+    private static final I18nMessage I18N = I18nMessage.class.cast(Proxy.newProxyInstance(
+            I18nMessage.class.getClassLoader(), new Class<?>[] { I18nMessage.class }, (proxy, method, args) -> method.getName()));
+
+    private String url;
+
+    private Connection connection;
+
+    private TableNameInputEmitter emitter;
+
+    @BeforeEach
+    void before() throws SQLException {
+        url = "jdbc:derby:memory:incremental" + UUID.randomUUID().toString().replace("-", "");
+        connection = DriverManager.getConnection(url + ";create=true");
+        try (final Statement statement = connection.createStatement()) {
+            statement.executeUpdate("create table EVENTS(ID int, NAME varchar(10))");
+        }
+    }
+
+    @AfterEach
+    void after() throws SQLException {
+        if (emitter != null) {
+            emitter.release();
+        }
+        connection.close();
+    }
+
+    @Test
+    void rowsSharingLastWatermarkAreReadOnce() throws SQLException {
+        insert("1, 'a'", "2, 'b'", "2, 'c'");
+        emitter = createEmitter("ID");
+
+        emitter.resume(0L);
+        assertEquals(asList("a", "b", "c"), readNames());
+        assertEquals(2, emitter.getWatermark());
+
+        // rows committed after the read with the last watermark value are not lost
+        insert("2, 'd'", "3, 'e'");
+        emitter.resume(null);
+        assertEquals(asList("d", "e"), readNames());
+        assertEquals(3, emitter.getWatermark());
+
+        emitter.resume(null);
+        assertEquals(asList(), readNames());
+    }
+
+    @Test
+    void explicitWatermarkIsExclusive() throws SQLException {
+        insert("1, 'a'", "2, 'b'", "2, 'c'", "3, 'd'");
+        emitter = createEmitter("ID");
+
+        emitter.resume(2);
+        assertEquals(asList("d"), readNames());
+    }
+
+    @Test
+    void watermarkColumnIsMatchedAsQuoted() throws SQLException {
+        try (final Statement statement = connection.createStatement()) {
+            statement.executeUpdate("create table LABELS(NAME varchar(10), \"name\" int)");
+            statement.executeUpdate("insert into LABELS values ('a', 1), ('b', 2)");
+        }
+        emitter = createEmitter("LABELS", "name");
+
+        emitter.resume(0);
+        assertEquals(asList("a", "b"), readNames());
+        assertEquals(2, emitter.getWatermark());
+    }
+
+    @Test
+    void rowsSharingLastWatermarkAreKeyedOnPrimaryKey() throws SQLException {
+        try (final Statement statement = connection.createStatement()) {
+            statement.executeUpdate("create table KEYED(ID int primary key, TS int, NAME varchar(10))");
+            statement.executeUpdate("insert into KEYED values (1, 1, 'a'), (2, 1, 'b')");
+        }
+        emitter = createEmitter("KEYED", "TS");
+
+        emitter.resume(0);
+        assertEquals(asList("a", "b"), readNames());
+
+        // the same row, identified by its key, isn't read again with the same watermark
+        try (final Statement statement = connection.createStatement()) {
+            statement.executeUpdate("update KEYED set NAME = 'B' where ID = 2");
+            statement.executeUpdate("insert into KEYED values (3, 1, 'c')");
+        }
+        emitter.resume(null);
+        assertEquals(asList("c"), readNames());
+    }
+
+    @Test
+    void rowsSharingLastWatermarkAreKeyedOnConfiguredKeys() throws SQLException {
+        insert("1, 'a'", "1, 'b'");
+        emitter = createEmitter("EVENTS", "ID", "NAME");
+
+        emitter.resume(0);
+        assertEquals(asList("a", "b"), readNames());
+
+        insert("1, 'b'", "1, 'c'");
+        emitter.resume(null);
+        assertEquals(asList("c"), readNames());
+    }
+
+    @Test
+    void unknownKeyColumnFails() throws SQLException {
+        insert("1, 'a'");
+        emitter = createEmitter("EVENTS", "ID", "MISSING");
+
+        emitter.resume(0);
+        assertThrows(IllegalStateException.class, emitter::next);
+    }
+
+    @Test
+    void rowsSharingLastWatermarkAboveLimitAreReadAfterIt() throws SQLException {
+        insert("1, 'a'", "1, 'b'", "1, 'c'");
+        emitter = createEmitter("ID");
+        emitter.maxWatermarkRows = 2;
+
+        emitter.resume(0);
+        assertEquals(asList("a", "b", "c"), readNames());
+
+        // too many rows to track them: the next read is exclusive, rows committed later with the last value are lost
+        insert("1, 'd'", "2, 'e'");
+        emitter.resume(null);
+        assertEquals(asList("e"), readNames());
+    }
+
+    private TableNameInputEmitter createEmitter(final String watermarkColumn) throws SQLException {
+        return createEmitter("EVENTS", watermarkColumn);
+    }
+
+    private TableNameInputEmitter createEmitter(final String table, final String watermarkColumn, final String... keys)
+            throws SQLException {
+        final JdbcConnection jdbcConnection = new JdbcConnection();
+        jdbcConnection.setDbType("Derby");
+        jdbcConnection.setJdbcUrl(url);
+        final TableNameDataset dataset = new TableNameDataset();
+        dataset.setConnection(jdbcConnection);
+        dataset.setTableName(table);
+        final InputTableNameConfig config = new InputTableNameConfig();
+        config.setDataSet(dataset);
+        config.getIncrementalConfig().setWatermarkColumn(watermarkColumn);
+        config.getIncrementalConfig().setKeys(asList(keys));
+
+        final TableNameInputEmitter emitter = new TableNameInputEmitter(config, null, null, new RecordBuilderFactoryImpl("test"),
+                I18N);
+        // init() creates a data source from the driver service, the emitter reads an already opened connection
+        emitter.connection = DriverManager.getConnection(url);
+        emitter.connection.setAutoCommit(false);
+        return emitter;
+    }
+
+    private List<String> readNames() {
+        final List<String> names = new ArrayList<>();
+        Record record;
+        while ((record = emitter.next()) != null) {
+            names.add(record.getString("NAME"));
+        }
+        // the order of rows sharing a watermark is not defined
+        Collections.sort(names);
+        return names;
+    }
+
+    private void insert(final String... rows) throws SQLException {
+        try (final Statement statement = connection.createStatement()) {
+            for (final String row : rows) {
+                statement.executeUpdate("insert into EVENTS(ID, NAME) values (" + row + ")");
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.platforms;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlatformUpsertTest {
+
+    private static final List<String> COLUMNS = asList("id", "name", "age");
+
+    private static final List<String> KEYS = singletonList("id");
+
+    private static final List<String> UPDATABLE = asList("name", "age");
+
+    @Test
+    void mysql() {
+        assertEquals("INSERT INTO `users`(`id`,`name`,`age`) VALUES(?,?,?)"
+                + " ON DUPLICATE KEY UPDATE `name` = VALUES(`name`),`age` = VALUES(`age`)",
+                new MySQLPlatform(null).upsertQuery("users", COLUMNS, KEYS, UPDATABLE));
+        // no-op update of the keys
+        assertEquals("INSERT INTO `users`(`id`) VALUES(?) ON DUPLICATE KEY UPDATE `id` = VALUES(`id`)",
+                new MySQLPlatform(null).upsertQuery("users", KEYS, KEYS, emptyList()));
+    }
+
+    @Test
+    void mariadb() {
+        assertEquals("INSERT INTO `users`(`id`,`name`,`age`) VALUES(?,?,?)"
+                + " ON DUPLICATE KEY UPDATE `name` = VALUES(`name`),`age` = VALUES(`age`)",
+                new MariaDbPlatform(null).upsertQuery("users", COLUMNS, KEYS, UPDATABLE));
+    }
+
+    @Test
+    void postgresql() {
+        assertEquals("INSERT INTO \"users\"(\"id\",\"name\",\"age\") VALUES(?,?,?)"
+                + " ON CONFLICT (\"id\") DO UPDATE SET \"name\" = EXCLUDED.\"name\",\"age\" = EXCLUDED.\"age\"",
+                new PostgreSQLPlatform(null).upsertQuery("users", COLUMNS, KEYS, UPDATABLE));
+        assertEquals("INSERT INTO \"users\"(\"id\") VALUES(?) ON CONFLICT (\"id\") DO NOTHING",
+                new PostgreSQLPlatform(null).upsertQuery("users", KEYS, KEYS, emptyList()));
+    }
+
+    @Test
+    void mssql() {
+        final String sql = new MSSQLPlatform(null).upsertQuery("users", COLUMNS, asList("id", "name"), singletonList("age"));
+        assertEquals("MERGE INTO \"users\" AS target USING (VALUES (?,?,?)) AS source (\"id\",\"name\",\"age\")"
+                + " ON (target.\"id\" = source.\"id\" AND target.\"name\" = source.\"name\")"
+                + " WHEN MATCHED THEN UPDATE SET target.\"age\" = source.\"age\""
+                + " WHEN NOT MATCHED THEN INSERT (\"id\",\"name\",\"age\") VALUES (source.\"id\",source.\"name\",source.\"age\");",
+                sql);
+        assertEquals("MERGE INTO \"users\" AS target USING (VALUES (?)) AS source (\"id\") ON (target.\"id\" = source.\"id\")"
+                + " WHEN NOT MATCHED THEN INSERT (\"id\") VALUES (source.\"id\");",
+                new MSSQLPlatform(null).upsertQuery("users", KEYS, KEYS, emptyList()));
+    }
+
+    @Test
+    void oracle() {
+        assertEquals("MERGE INTO \"users\" target USING (SELECT ? \"id\",? \"name\",? \"age\" FROM DUAL) source"
+                + " ON (target.\"id\" = source.\"id\")"
+                + " WHEN MATCHED THEN UPDATE SET target.\"name\" = source.\"name\",target.\"age\" = source.\"age\""
+                + " WHEN NOT MATCHED THEN INSERT (\"id\",\"name\",\"age\") VALUES (source.\"id\",source.\"name\",source.\"age\")",
+                new OraclePlatform(null).upsertQuery("users", COLUMNS, KEYS, UPDATABLE));
+    }
+
+    @Test
+    void noNativeUpsert() throws SQLException {
+        assertNull(new DerbyPlatform(null).upsertQuery("users", COLUMNS, KEYS, UPDATABLE));
+        assertFalse(new SQLDWHPlatform(null).isUpsertSupported(null, "users", KEYS));
+        assertTrue(new MSSQLPlatform(null).isUpsertSupported(null, "users", KEYS));
+    }
+
+    @Test
+    void uniqueKey() throws SQLException {
+        try (final Connection connection = DriverManager
+                .getConnection("jdbc:derby:memory:upsert" + UUID.randomUUID().toString().replace("-", "") + ";create=true");
+                final Statement statement = connection.createStatement()) {
+            statement.executeUpdate("create table USERS(ID int primary key, NAME varchar(10) not null, AGE int not null)");
+            statement.executeUpdate("create unique index USERS_NAME_AGE on USERS(NAME, AGE)");
+            final Platform platform = new DerbyPlatform(null);
+            assertTrue(platform.hasUniqueKey(connection, "USERS", singletonList("id")));
+            assertTrue(platform.hasUniqueKey(connection, "USERS", asList("age", "name")));
+            assertFalse(platform.hasUniqueKey(connection, "USERS", singletonList("name")));
+            assertFalse(platform.hasUniqueKey(connection, "USERS", asList("id", "name")));
+        }
+    }
+}
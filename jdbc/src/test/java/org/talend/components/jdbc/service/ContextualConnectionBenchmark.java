@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare the per row cost of iterating a result set of an embedded derby table directly, through the
+ * {@link ContextualConnection} delegates, and through the reflective proxy they replaced, copied in the benchmark.
+ * Run it with the main method, from the test classpath: it isn't run by the build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContextualConnectionBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    private final ClassLoader driverClassLoader = new URLClassLoader(new URL[0],
+            ContextualConnectionBenchmark.class.getClassLoader());
+
+    private String url;
+
+    private Connection direct;
+
+    private Connection delegates;
+
+    private Connection reflectiveProxy;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        url = "jdbc:derby:memory:benchmark" + UUID.randomUUID().toString().replace("-", "");
+        direct = DriverManager.getConnection(url + ";create=true");
+        try (final Statement statement = direct.createStatement()) {
+            statement.executeUpdate("create table EVENTS(ID int, NAME varchar(32), AMOUNT double, CREATED timestamp)");
+        }
+        direct.setAutoCommit(false);
+        try (final PreparedStatement insert = direct.prepareStatement("insert into EVENTS values (?, ?, ?, ?)")) {
+            for (int i = 0; i < ROWS; i++) {
+                insert.setInt(1, i);
+                insert.setString(2, "name " + i);
+                insert.setDouble(3, i / 3d);
+                insert.setTimestamp(4, new Timestamp(1_600_000_000_000L + i));
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        direct.commit();
+        delegates = new ContextualConnection(DriverManager.getConnection(url), driverClassLoader);
+        reflectiveProxy = ReflectiveDelegate.wrap(driverClassLoader, DriverManager.getConnection(url), Connection.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        reflectiveProxy.close();
+        delegates.close();
+        direct.close();
+        try {
+            DriverManager.getConnection(url + ";drop=true");
+        } catch (final SQLException e) {
+            // derby reports the drop of a database by an exception
+        }
+    }
+
+    @Benchmark
+    public void direct(final Blackhole blackhole) throws SQLException {
+        read(direct, blackhole);
+    }
+
+    @Benchmark
+    public void delegates(final Blackhole blackhole) throws SQLException {
+        read(delegates, blackhole);
+    }
+
+    @Benchmark
+    public void reflectiveProxy(final Blackhole blackhole) throws SQLException {
+        read(reflectiveProxy, blackhole);
+    }
+
+    private static void read(final Connection connection, final Blackhole blackhole) throws SQLException {
+        try (final Statement statement = connection.createStatement();
+                final ResultSet resultSet = statement.executeQuery("select ID, NAME, AMOUNT, CREATED from EVENTS")) {
+            while (resultSet.next()) {
+                blackhole.consume(resultSet.getInt(1));
+                blackhole.consume(resultSet.wasNull());
+                blackhole.consume(resultSet.getString(2));
+                blackhole.consume(resultSet.getDouble(3));
+                blackhole.consume(resultSet.wasNull());
+                blackhole.consume(resultSet.getTimestamp(4));
+            }
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ContextualConnectionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class).build()).run();
+    }
+
+    /**
+     * The proxy formerly returned by the data source: each call switches the context classloader, is invoked by
+     * reflection, and each returned java.sql interface is wrapped in a new proxy.
+     */
+    private static class ReflectiveDelegate implements InvocationHandler {
+
+        private final Object delegate;
+
+        private final ClassLoader classLoader;
+
+        private ReflectiveDelegate(final Object delegate, final ClassLoader classLoader) {
+            this.delegate = delegate;
+            this.classLoader = classLoader;
+        }
+
+        static <T> T wrap(final ClassLoader classLoader, final Object delegate, final Class<T> api) {
+            return api.cast(
+                    Proxy.newProxyInstance(classLoader, new Class<?>[] { api }, new ReflectiveDelegate(delegate, classLoader)));
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            final Thread thread = Thread.currentThread();
+            final ClassLoader prev = thread.getContextClassLoader();
+            thread.setContextClassLoader(classLoader);
+            try {
+                final Object invoked = method.invoke(delegate, args);
+                if (method.getReturnType().getName().startsWith("java.sql.") && method.getReturnType().isInterface()) {
+                    return wrap(classLoader, invoked, method.getReturnType());
+                }
+                return invoked;
+            } catch (final InvocationTargetException ite) {
+                throw ite.getTargetException();
+            } finally {
+                thread.setContextClassLoader(prev);
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The driver is faked by proxies recording each call with the context classloader it ran with: "driver" when it is the
+ * driver classloader, "caller" otherwise.
+ */
+class ContextualWrapperTest {
+
+    private final ClassLoader driverLoader = new URLClassLoader(new URL[0], ContextualWrapperTest.class.getClassLoader());
+
+    private final List<String> calls = new ArrayList<>();
+
+    private final Connection driverConnection = driver(Connection.class);
+
+    private ClassLoader callerLoader;
+
+    private Connection connection;
+
+    @BeforeEach
+    void before() {
+        callerLoader = Thread.currentThread().getContextClassLoader();
+        connection = new ContextualConnection(driverConnection, driverLoader);
+    }
+
+    @AfterEach
+    void after() {
+        // the caller classloader is always restored
+        assertSame(callerLoader, Thread.currentThread().getContextClassLoader());
+    }
+
+    @Test
+    void statementAndResultSet() throws SQLException {
+        final Statement statement = connection.createStatement();
+        assertSame(connection, statement.getConnection());
+        final ResultSet resultSet = statement.executeQuery("select");
+        assertSame(statement, resultSet.getStatement());
+        assertTrue(resultSet.next());
+        assertEquals("value", resultSet.getString(1));
+        resultSet.close();
+        statement.close();
+        connection.close();
+
+        // values are read without switching the classloader
+        assertEquals(asList("Connection.createStatement@driver", "Statement.executeQuery@driver", "ResultSet.next@driver",
+                "ResultSet.getString@caller", "ResultSet.close@driver", "Statement.close@driver",
+                "Connection.close@driver"), calls);
+    }
+
+    @Test
+    void preparedStatement() throws SQLException {
+        final PreparedStatement statement = connection.prepareStatement("insert");
+        statement.setInt(1, 1);
+        statement.addBatch();
+        statement.executeBatch();
+        statement.close();
+
+        // parameters are bound and batched for each record without switching the classloader
+        assertEquals(asList("Connection.prepareStatement@driver", "PreparedStatement.setInt@caller",
+                "PreparedStatement.addBatch@caller", "PreparedStatement.executeBatch@driver", "PreparedStatement.close@driver"),
+                calls);
+    }
+
+    @Test
+    void unwrap() throws SQLException {
+        assertTrue(connection.isWrapperFor(Connection.class));
+        assertFalse(connection.isWrapperFor(Statement.class));
+        assertSame(driverConnection, connection.unwrap(Connection.class));
+        final Statement statement = connection.createStatement();
+        assertTrue(statement.unwrap(Statement.class) instanceof Proxy);
+
+        assertEquals(asList("Connection.isWrapperFor@driver", "Connection.isWrapperFor@driver", "Connection.unwrap@driver",
+                "Connection.createStatement@driver", "Statement.unwrap@driver"), calls);
+    }
+
+    @Test
+    void metaDataProxy() throws SQLException {
+        final DatabaseMetaData metaData = connection.getMetaData();
+        assertTrue(Proxy.isProxyClass(metaData.getClass()));
+        final ResultSet tables = metaData.getTables(null, null, "%", null);
+        // java.sql results of the proxy are wrapped too
+        assertTrue(Proxy.isProxyClass(tables.getClass()));
+        assertTrue(tables.next());
+        tables.close();
+
+        assertEquals(asList("Connection.getMetaData@driver", "DatabaseMetaData.getTables@driver", "ResultSet.next@driver",
+                "ResultSet.close@driver"), calls);
+    }
+
+    @Test
+    void errors() throws SQLException {
+        final Statement statement = connection.createStatement();
+        assertEquals("failed", assertThrows(SQLException.class, () -> statement.execute("fail")).getMessage());
+        final DatabaseMetaData metaData = connection.getMetaData();
+        // the proxy throws the driver exception, not a reflection one
+        assertEquals("failed", assertThrows(SQLException.class, () -> metaData.getSchemas(null, "fail")).getMessage());
+
+        assertEquals(asList("Connection.createStatement@driver", "Statement.execute@driver", "Connection.getMetaData@driver",
+                "DatabaseMetaData.getSchemas@driver"), calls);
+    }
+
+    private <T> T driver(final Class<T> type) {
+        return type.cast(Proxy.newProxyInstance(driverLoader, new Class<?>[] { type }, (proxy, method, args) -> {
+            calls.add(type.getSimpleName() + "." + method.getName() + "@"
+                    + (Thread.currentThread().getContextClassLoader() == driverLoader ? "driver" : "caller"));
+            if (args != null && asList(args).contains("fail")) {
+                throw new SQLException("failed");
+            }
+            switch (method.getName()) {
+            case "unwrap":
+                return proxy;
+            case "isWrapperFor":
+                return ((Class<?>) args[0]).isInstance(proxy);
+            case "createStatement":
+            case "prepareStatement":
+            case "executeQuery":
+            case "getMetaData":
+            case "getTables":
+                return driver(method.getReturnType());
+            case "next":
+                return true;
+            case "getString":
+                return "value";
+            case "executeBatch":
+                return new int[] { 1 };
+            default:
+                return method.getReturnType() == boolean.class ? Boolean.FALSE
+                        : method.getReturnType() == int.class ? Integer.valueOf(0) : null;
+            }
+        }));
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.talend.components.jdbc.output.Reject;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.runtime.record.RecordBuilderFactoryImpl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Snowflake is faked by a connection whose PUT statements check the uploaded chunk and take some time, and whose COPY
+ * statements only count the copied files.
+ */
+class SnowflakeCopyServiceTest {
+
+    private final SnowflakeCopyService service = new SnowflakeCopyService(1000);
+
+    private final FakeSnowflake snowflake = new FakeSnowflake();
+
+    @AfterEach
+    void after() {
+        service.cleanTmpFiles();
+    }
+
+    @Test
+    void putAndCopyByChunks() {
+        final List<Record> records = createData(2000);
+        final List<Reject> rejects = service.putAndCopy(snowflake.connection(), records, "stage", "table");
+
+        assertTrue(rejects.isEmpty());
+        assertEquals(records.size(), snowflake.uploadedLines.get());
+        assertTrue(snowflake.puts.get() > 20);
+        assertEquals(snowflake.puts.get(), snowflake.copiedFiles.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(snowflake.copiedFiles.stream().allMatch(files -> files <= 4));
+        // uploads in progress, and files on disk : these ones and the chunk being written
+        assertTrue(snowflake.maxUploads.get() <= 4);
+        assertTrue(snowflake.maxFiles.get() <= 5);
+        assertFalse(snowflake.closedWhileUploading.get());
+    }
+
+    @Test
+    void failedCopyStopsUploads() {
+        snowflake.failCopy = true;
+        snowflake.uploadMillis = 50;
+
+        assertThrows(IllegalStateException.class,
+                () -> service.putAndCopy(snowflake.connection(), createData(2000), "stage", "table"));
+        // uploads in progress were cancelled and awaited before their statements were closed
+        assertEquals(0, snowflake.uploads.get());
+        assertFalse(snowflake.closedWhileUploading.get());
+        assertTrue(snowflake.cancelled.get() > 0);
+    }
+
+    private List<Record> createData(final int count) {
+        final RecordBuilderFactoryImpl factory = new RecordBuilderFactoryImpl("test");
+        final List<Record> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            records.add(factory.newRecordBuilder().withInt("id", i).withString("name", "name " + i).build());
+        }
+        return records;
+    }
+
+    private static class FakeSnowflake {
+
+        private final AtomicInteger puts = new AtomicInteger();
+
+        private final AtomicInteger uploads = new AtomicInteger();
+
+        private final AtomicInteger maxUploads = new AtomicInteger();
+
+        private final AtomicInteger maxFiles = new AtomicInteger();
+
+        private final AtomicInteger uploadedLines = new AtomicInteger();
+
+        private final AtomicInteger cancelled = new AtomicInteger();
+
+        private final AtomicBoolean closedWhileUploading = new AtomicBoolean();
+
+        private final List<Integer> copiedFiles = Collections.synchronizedList(new ArrayList<>());
+
+        private volatile boolean failCopy;
+
+        private volatile long uploadMillis = 5;
+
+        Connection connection() {
+            return proxy(Connection.class, (proxy, method, args) -> {
+                if ("createStatement".equals(method.getName())) {
+                    return new FakeStatement().statement();
+                }
+                return defaultValue(method);
+            });
+        }
+
+        private class FakeStatement {
+
+            private volatile boolean uploading;
+
+            private volatile boolean cancel;
+
+            Statement statement() {
+                return proxy(Statement.class, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "executeQuery":
+                        return executeQuery((String) args[0]);
+                    case "cancel":
+                        cancel = true;
+                        cancelled.incrementAndGet();
+                        return null;
+                    case "close":
+                        if (uploading) {
+                            closedWhileUploading.set(true);
+                        }
+                        return null;
+                    default:
+                        return defaultValue(method);
+                    }
+                });
+            }
+
+            private ResultSet executeQuery(final String sql) throws SQLException, IOException {
+                if (sql.startsWith("COPY")) {
+                    if (failCopy) {
+                        throw new SQLException("Copy failed");
+                    }
+                    final String files = sql.substring(sql.indexOf("FILES=(") + 7, sql.indexOf(')'));
+                    copiedFiles.add(files.split(",").length);
+                    return resultSet(Collections.emptyList());
+                }
+                uploading = true;
+                maxUploads.accumulateAndGet(uploads.incrementAndGet(), Math::max);
+                try {
+                    puts.incrementAndGet();
+                    final Path chunk = Paths.get(URI.create(sql.substring(sql.indexOf('\'') + 1, sql.indexOf("' '"))));
+                    try (Stream<Path> files = Files.list(chunk.getParent())) {
+                        maxFiles.accumulateAndGet((int) files.count(), Math::max);
+                    }
+                    try (BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(new GZIPInputStream(Files.newInputStream(chunk)), StandardCharsets.UTF_8))) {
+                        uploadedLines.addAndGet((int) reader.lines().count());
+                    }
+                    final long end = System.currentTimeMillis() + uploadMillis;
+                    while (!cancel && System.currentTimeMillis() < end) {
+                        try {
+                            Thread.sleep(1);
+                        } catch (InterruptedException e) {
+                            // drivers only stop on cancel
+                        }
+                    }
+                    if (cancel) {
+                        throw new SQLException("PUT cancelled");
+                    }
+                    return resultSet(Collections.singletonList("uploaded"));
+                } finally {
+                    uploads.decrementAndGet();
+                    uploading = false;
+                }
+            }
+        }
+
+        /**
+         * @param statuses status column of result rows
+         */
+        private ResultSet resultSet(final List<String> statuses) {
+            final AtomicInteger row = new AtomicInteger(-1);
+            return proxy(ResultSet.class, (proxy, method, args) -> {
+                switch (method.getName()) {
+                case "next":
+                    return row.incrementAndGet() < statuses.size();
+                case "getString":
+                    return statuses.get(row.get());
+                default:
+                    return defaultValue(method);
+                }
+            });
+        }
+
+        private static <T> T proxy(final Class<T> type, final InvocationHandler handler) {
+            return type.cast(Proxy.newProxyInstance(SnowflakeCopyServiceTest.class.getClassLoader(), new Class<?>[] { type },
+                    handler));
+        }
+
+        private static Object defaultValue(final Method method) {
+            final Class<?> type = method.getReturnType();
+            if (type == boolean.class) {
+                return false;
+            }
+            if (type == int.class) {
+                return 0;
+            }
+            return null;
+        }
+    }
+}
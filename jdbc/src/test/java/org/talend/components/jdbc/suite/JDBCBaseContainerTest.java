@@ -51,6 +51,7 @@ import org.talend.components.jdbc.containers.JdbcTestContainer;
 import org.talend.components.jdbc.dataset.SqlQueryDataset;
 import org.talend.components.jdbc.dataset.TableNameDataset;
 import org.talend.components.jdbc.datastore.JdbcConnection;
+import org.talend.components.jdbc.input.TableNameInputMapper;
 import org.talend.components.jdbc.output.platforms.Platform;
 import org.talend.components.jdbc.output.platforms.PlatformFactory;
 import org.talend.components.jdbc.service.JdbcService;
@@ -60,6 +61,7 @@ import org.talend.sdk.component.api.service.completion.SuggestionValues;
 import org.talend.sdk.component.api.service.healthcheck.HealthCheckStatus;
 import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
 import org.talend.sdk.component.junit5.WithComponents;
+import org.talend.sdk.component.runtime.input.Mapper;
 import org.talend.sdk.component.runtime.manager.chain.Job;
 import org.testcontainers.shaded.org.apache.commons.lang.RandomStringUtils;
 
@@ -431,6 +433,43 @@ public abstract class JDBCBaseContainerTest {
 
         }
 
+        @Test
+        @DisplayName("TableName - partitioned read on a split column")
+        void partitionedTableName(final TestInfo testInfo) {
+            final int rowCount = 50;
+            final String testTableName = getTestTableName(testInfo);
+            insertRows(testTableName, rowCount, false, null);
+            final InputTableNameConfig config = new InputTableNameConfig();
+            config.setDataSet(newTableNameDataset(testTableName));
+            config.getPartitionConfig().setSplitColumn("id");
+            config.getPartitionConfig().setPartitions(4);
+            final Mapper mapper = getComponentsHandler().createMapper(TableNameInputMapper.class, config);
+            final List<Record> collectedData = getComponentsHandler().collect(Record.class, mapper, rowCount * 2, 4)
+                    .collect(toList());
+            assertEquals(rowCount, collectedData.size());
+        }
+
+        @Test
+        @DisplayName("TableName - incremental read after a watermark")
+        void incrementalTableName(final TestInfo testInfo) {
+            final int rowCount = 50;
+            final String testTableName = getTestTableName(testInfo);
+            insertRows(testTableName, rowCount, false, null);
+            final InputTableNameConfig config = new InputTableNameConfig();
+            config.setDataSet(newTableNameDataset(testTableName));
+            config.getIncrementalConfig().setWatermarkColumn("id");
+            config.getIncrementalConfig().setInitialWatermark("20");
+            final String configURI = configurationByExample().forInstance(config).configured().toQueryString();
+            Job.components().component("jdbcInput", "Jdbc://TableNameInput?" + configURI)
+                    .component("collector", "test://collector").connections().from("jdbcInput").to("collector").build().run();
+
+            final List<Record> collectedData = getComponentsHandler().getCollectedData(Record.class);
+            final String id = collectedData.get(0).getSchema().getEntries().stream().map(Schema.Entry::getName)
+                    .filter("id"::equalsIgnoreCase).findFirst().orElse("id");
+            assertEquals(IntStream.rangeClosed(21, rowCount).boxed().collect(toList()),
+                    collectedData.stream().map(r -> ((Number) r.get(Object.class, id)).intValue()).collect(toList()));
+        }
+
         @Test
         @DisplayName("TableName - invalid table name")
         void invalidTableName() {
@@ -504,6 +543,46 @@ public abstract class JDBCBaseContainerTest {
             Assert.assertEquals(rowCount, countAll(testTableName));
         }
 
+        @Test
+        @DisplayName("Insert - flushed in background chunks")
+        void insertWithBackgroundFlush(final TestInfo testInfo) {
+            final OutputConfig configuration = new OutputConfig();
+            final String testTableName = getTestTableName(testInfo);
+            configuration.setDataset(newTableNameDataset(testTableName));
+            configuration.setActionOnData(OutputConfig.ActionOnData.INSERT.name());
+            configuration.setCreateTableIfNotExists(true);
+            configuration.setKeys(asList("id"));
+            configuration.setFlushSize(7);
+            configuration.setBackgroundWrite(true);
+            final String config = configurationByExample().forInstance(configuration).configured().toQueryString();
+            final int rowCount = 50;
+            Job.components()
+                    .component("rowGenerator",
+                            "jdbcTest://RowGenerator?" + rowGeneratorConfig(rowCount, false, null, withBoolean, withBytes))
+                    .component("jdbcOutput", "Jdbc://Output?" + config).connections().from("rowGenerator").to("jdbcOutput")
+                    .build().run();
+            Assert.assertEquals(rowCount, countAll(testTableName));
+        }
+
+        @Test
+        @DisplayName("Bulk load - valid use case")
+        void bulkLoad(final TestInfo testInfo) {
+            final OutputConfig configuration = new OutputConfig();
+            final String testTableName = getTestTableName(testInfo);
+            configuration.setDataset(newTableNameDataset(testTableName));
+            configuration.setActionOnData(OutputConfig.ActionOnData.BULK_LOAD.name());
+            configuration.setCreateTableIfNotExists(true);
+            configuration.setKeys(asList("id"));
+            final String config = configurationByExample().forInstance(configuration).configured().toQueryString();
+            final int rowCount = 50;
+            Job.components()
+                    .component("rowGenerator",
+                            "jdbcTest://RowGenerator?" + rowGeneratorConfig(rowCount, true, null, withBoolean, withBytes))
+                    .component("jdbcOutput", "Jdbc://Output?" + config).connections().from("rowGenerator").to("jdbcOutput")
+                    .build().run();
+            Assert.assertEquals(rowCount, countAll(testTableName));
+        }
+
         @Test
         @DisplayName("Create table - combined primary keys")
         void createTableWithCombinedPrimaryKeys(final TestInfo testInfo) {
@@ -17,7 +17,6 @@ import org.junit.Rule;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.talend.components.jdbc.service.SnowflakeCopyService;
-import org.talend.sdk.component.api.record.Record;
 import org.talend.sdk.component.api.service.Service;
 import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
 import org.talend.sdk.component.junit.ServiceInjectionRule;
@@ -30,8 +29,6 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.List;
 
 @Environment(DirectRunnerEnvironment.class)
 public class SnowflakeCopyTest {
@@ -73,37 +70,4 @@ public class SnowflakeCopyTest {
         Assertions.assertTrue(tableName.length() < 256);
     }
 
-    @org.junit.Test
-    public void testSplitRecords() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
-        SnowflakeCopyService snowflakeCopyService = new SnowflakeCopyService();
-        try {
-            Method createWorkDir = SnowflakeCopyService.class.getDeclaredMethod("createWorkDir");
-            createWorkDir.setAccessible(true);
-            Path path = (Path) createWorkDir.invoke(snowflakeCopyService);
-            Method splitRecords = SnowflakeCopyService.class.getDeclaredMethod("splitRecords", Path.class, List.class);
-            splitRecords.setAccessible(true);
-            List chunks = (List) splitRecords.invoke(snowflakeCopyService, path, createData(300000));
-            Assertions.assertEquals(2, chunks.size());
-        } finally {
-            snowflakeCopyService.cleanTmpFiles();
-        }
-    }
-
-    List<Record> createData(int i) {
-        List<Record> records = new ArrayList<Record>(i);
-        for (; i > 0; i--) {
-            Record record = recordBuilderFactory.newRecordBuilder() //
-                    .withInt("id", i) //
-                    .withString("firstname", "firstfirst") //
-                    .withString("lastname", "lastlast") //
-                    .withString("address", "addressaddr") //
-                    .withString("enrolled", "Datedsldsk") //
-                    .withString("zip", "89100") //
-                    .withString("state", "YO") //
-                    .build();
-            records.add(record);
-        }
-        return records;
-    }
-
 }
@@ -12,11 +12,14 @@
  */
 package org.talend.components.mongodb.service;
 
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.bson.Document;
 import org.bson.types.Code;
 import org.bson.types.Decimal128;
 import org.bson.types.ObjectId;
+import org.talend.components.common.collections.BoundedCache;
+import org.talend.components.common.collections.IteratorMap;
 import org.talend.sdk.component.api.record.Record;
 import org.talend.sdk.component.api.record.Schema;
 import org.talend.sdk.component.api.record.Schema.Entry;
@@ -25,8 +28,11 @@ import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
 
 /**
@@ -44,8 +50,27 @@ public class DocumentToRecord {
     /** record facotry */
     private final RecordBuilderFactory recordBuilderFactory;
 
+    /** schemas by document shape (see {@link #fingerprint(Document, StringBuilder)}). */
+    @Getter
+    private final BoundedCache<String, Schema> schemaCache;
+
+    /** schema inferred from sampled documents (see {@link #sample(List)}), null when not sampled. */
+    private Schema sampledSchema = null;
+
+    /** shape of each field of sampled documents, by field name. */
+    private Map<String, String> sampledShapes = null;
+
     public DocumentToRecord(RecordBuilderFactory recordBuilderFactory) {
+        this(recordBuilderFactory, BoundedCache.DEFAULT_SIZE);
+    }
+
+    /**
+     * @param cacheSize : max number of document shapes whose schema is kept (least recently used are evicted), 0 to
+     * infer schema of each document.
+     */
+    public DocumentToRecord(RecordBuilderFactory recordBuilderFactory, int cacheSize) {
         this.recordBuilderFactory = recordBuilderFactory;
+        this.schemaCache = new BoundedCache<>(cacheSize);
     }
 
     /**
@@ -71,11 +96,213 @@ public class DocumentToRecord {
             return null;
         }
 
-        final Schema schema = inferSchema(document);
-        return convertDocumentToRecord(schema, document);
+        if (this.sampledSchema != null && this.fitsSample(document)) {
+            return this.convertSampledDocument(document);
+        }
+        return convertDocumentToRecord(this.findSchema(document), document);
+    }
+
+    /**
+     * Convert documents to records, with the schema inferred from the first ones.
+     *
+     * @param documents : documents data.
+     * @param sampleSize : number of first documents sampled (see {@link #sample(List)}), 0 to get the schema of each
+     * document shape.
+     * @return records iterator.
+     */
+    public Iterator<Record> toRecords(final Iterator<Document> documents, final int sampleSize) {
+        if (sampleSize <= 0) {
+            return new IteratorMap<>(documents, this::toRecord);
+        }
+        return new SampledIterator(documents, sampleSize);
+    }
+
+    /**
+     * Infer a schema shared by documents from the fields of sampled ones : fields are merged by first appearance,
+     * with the first non null value, and are all nullable.
+     * Documents whose fields are all in the sample with the same value shape (or null) then get this schema,
+     * missing fields being null; other documents still get the schema of their own shape.
+     *
+     * @param documents : sampled documents.
+     */
+    public void sample(final List<Document> documents) {
+        final Map<String, Object> fields = new LinkedHashMap<>();
+        for (Document document : documents) {
+            document.forEach((String name, Object value) -> {
+                if (fields.get(name) == null) {
+                    fields.put(name, value);
+                }
+            });
+        }
+        if (fields.isEmpty()) {
+            return;
+        }
+        final Schema.Builder builder = recordBuilderFactory.newSchemaBuilder(Type.RECORD);
+        final Map<String, String> shapes = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            final Entry entry = createEntry(field.getKey(), field.getValue());
+            builder.withEntry(recordBuilderFactory.newEntryBuilder().withName(entry.getName())
+                    .withComment(entry.getComment()).withType(entry.getType()).withElementSchema(entry.getElementSchema())
+                    .withNullable(true).build());
+            final StringBuilder shape = new StringBuilder();
+            this.fingerprint(field.getValue(), shape);
+            shapes.put(field.getKey(), shape.toString());
+        }
+        this.sampledSchema = builder.build();
+        this.sampledShapes = shapes;
     }
 
-    private Schema inferSchema(final List array, DatatypeHolder data_type_holder) {
+    /**
+     * @return true if document fields are all sampled, with the same value shape or null.
+     */
+    private boolean fitsSample(final Document document) {
+        final StringBuilder shape = new StringBuilder();
+        for (Map.Entry<String, Object> field : document.entrySet()) {
+            final String sampledShape = this.sampledShapes.get(field.getKey());
+            if (sampledShape == null) {
+                return false;
+            }
+            if (!isNull(field.getValue())) {
+                shape.setLength(0);
+                this.fingerprint(field.getValue(), shape);
+                if (!sampledShape.contentEquals(shape)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private Record convertSampledDocument(final Document document) {
+        // bound to sampled schema, missing and null fields are left null.
+        final Record.Builder builder = recordBuilderFactory.newRecordBuilder(this.sampledSchema);
+        for (Entry entry : this.sampledSchema.getEntries()) {
+            if (!isNull(document.get(getElementName(entry)))) {
+                this.integrateEntryToRecord(entry, builder, document);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Schema of document, only inferred when no document with same shape was seen.
+     */
+    private Schema findSchema(final Document document) {
+        if (!this.schemaCache.isEnabled()) {
+            return inferSchema(document);
+        }
+        final StringBuilder shape = new StringBuilder();
+        this.fingerprint(document, shape);
+        return this.schemaCache.computeIfAbsent(shape.toString(), (String key) -> inferSchema(document));
+    }
+
+    /**
+     * Compute document shape : field names with the value types schema inference depends on
+     * (first item of arrays, merged documents for arrays of documents).
+     * Documents with same shape have same schema.
+     */
+    private void fingerprint(final Document document, final StringBuilder shape) {
+        shape.append('{');
+        for (Map.Entry<String, Object> field : document.entrySet()) {
+            final String name = field.getKey();
+            shape.append(name.length()).append(':').append(name);
+            this.fingerprint(field.getValue(), shape);
+        }
+        shape.append('}');
+    }
+
+    private void fingerprint(final Object value, final StringBuilder shape) {
+        if (isNull(value)) {
+            shape.append('N');
+        } else if (isArray(value)) {
+            final List<?> array = (List<?>) value;
+            shape.append('[');
+            if (!array.isEmpty()) {
+                final Object first = array.get(0);
+                if (isDocument(first) && array.size() > 1) {
+                    this.fingerprintItems(array, shape);
+                } else {
+                    this.fingerprint(first, shape);
+                }
+            }
+            shape.append(']');
+        } else if (isDocument(value)) {
+            this.fingerprint((Document) value, shape);
+        } else {
+            shape.append(this.typeCode(value));
+        }
+    }
+
+    /**
+     * Shape of array of documents, same as the shape of {@link #mergeAll(List)} result.
+     * When all documents have same field names in same order (usual case), merged document has the fields
+     * of the last document; otherwise, fields are ordered by first appearance with value of last document having it.
+     */
+    private void fingerprintItems(final List<?> array, final StringBuilder shape) {
+        Document last = null;
+        boolean sameFields = true;
+        for (Object item : array) {
+            if (isDocument(item)) {
+                final Document document = (Document) item;
+                sameFields = sameFields && (last == null || sameFieldNames(last, document));
+                last = document;
+            }
+        }
+        if (sameFields) {
+            this.fingerprint(last, shape);
+            return;
+        }
+        final Map<String, Object> fields = new LinkedHashMap<>();
+        array.stream().filter(this::isDocument).forEach((Object doc) -> fields.putAll((Document) doc));
+        shape.append('{');
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            final String name = field.getKey();
+            shape.append(name.length()).append(':').append(name);
+            this.fingerprint(field.getValue(), shape);
+        }
+        shape.append('}');
+    }
+
+    private boolean sameFieldNames(final Document first, final Document second) {
+        if (first.size() != second.size()) {
+            return false;
+        }
+        final Iterator<String> secondNames = second.keySet().iterator();
+        for (String name : first.keySet()) {
+            if (!name.equals(secondNames.next())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return code of value type, same code for values with same translated type and data type.
+     */
+    private char typeCode(final Object value) {
+        if (value instanceof Integer || value instanceof Short) {
+            return 'I';
+        } else if (value instanceof Long) {
+            return 'L';
+        } else if (value instanceof Double) {
+            return 'D';
+        } else if (value instanceof Float) {
+            return 'F';
+        } else if (value instanceof Boolean) {
+            return 'B';
+        } else if (value instanceof Date) {
+            return 'T';
+        } else if (value instanceof ObjectId) {
+            return 'O';
+        } else if (value instanceof Code) {
+            return 'C';
+        } else if (value instanceof Decimal128) {
+            return 'M';
+        }
+        return 'S';
+    }
+
+    private Schema inferSchema(final List<?> array, DatatypeHolder data_type_holder) {
         Schema.Builder builder = recordBuilderFactory.newSchemaBuilder(Type.ARRAY);
         final Schema subSchema;
 
@@ -97,7 +324,7 @@ public class DocumentToRecord {
             final Document document = mergeAll(array);
             subSchema = inferSchema(document);
         } else if (isArray(value)) {
-            subSchema = inferSchema((List) value, data_type_holder);
+            subSchema = inferSchema((List<?>) value, data_type_holder);
         } else {
             final Type type = translateType(value, data_type_holder);
             subSchema = recordBuilderFactory.newSchemaBuilder(type).build();
@@ -123,11 +350,11 @@ public class DocumentToRecord {
      * allow array of differents document.
      * [ { "f1": "v1"}, {"f1":"v11", "f2": "V2"} ]
      */
-    private Document mergeAll(List array) {
+    private Document mergeAll(List<?> array) {
         final Document document = new Document();
 
         array.stream().filter((Object v) -> v instanceof Document).forEach(doc -> {
-            document.putAll((Map<String, Object>) doc);
+            document.putAll((Document) doc);
         });
 
         return document;
@@ -186,7 +413,8 @@ public class DocumentToRecord {
     }
 
     private Record convertDocumentToRecord(Schema schema, Document document) {
-        final Record.Builder builder = recordBuilderFactory.newRecordBuilder(schema);
+        // all entries are added in schema order, so record schema equals the given one.
+        final Record.Builder builder = recordBuilderFactory.newRecordBuilder();
         schema.getEntries().stream().forEach((Entry entry) -> this.integrateEntryToRecord(entry, builder, document));
         return builder.build();
     }
@@ -210,18 +438,19 @@ public class DocumentToRecord {
     }
 
     private void integrateEntryToRecord(Entry entry, Record.Builder builder, Document document) {
-        if (!document.containsKey(getElementName(entry))) {
+        final String name = getElementName(entry);
+        if (!document.containsKey(name)) {
             return;
         }
         switch (entry.getType()) {
         case RECORD: {
-            final Document subDocument = document.get(getElementName(entry), Document.class);
+            final Document subDocument = document.get(name, Document.class);
             final Record record = convertDocumentToRecord(entry.getElementSchema(), subDocument);
             builder.withRecord(entry, record);
             break;
         }
         case ARRAY:
-            final List<?> objects = convertArray(entry.getElementSchema(), (List) document.get(getElementName(entry)));
+            final List<?> objects = convertArray(entry.getElementSchema(), (List) document.get(name));
             if (objects != null) {
                 builder.withArray(entry, objects);
             }
@@ -229,7 +458,7 @@ public class DocumentToRecord {
         case STRING: {
             // TODO check if is right here as this is also do process for null as all null value is mapped to String type, as
             // value may be null here
-            Object value = document.get(getElementName(entry));
+            Object value = document.get(name);
             if (isNull(value)) {
                 builder.withString(entry, (String) value);
             } else if (value instanceof ObjectId) {
@@ -243,39 +472,39 @@ public class DocumentToRecord {
             break;
         }
         case INT: {
-            Integer value = document.getInteger(getElementName(entry));
+            Integer value = document.getInteger(name);
             builder.withInt(entry, value);
             break;
         }
         case LONG: {
-            Long value = document.getLong(getElementName(entry));
+            Long value = document.getLong(name);
             builder.withLong(entry, value);
             break;
         }
         case FLOAT: {
             // Mongo DB document don't have float type, so all double type, TODO check
-            Double value = document.getDouble(getElementName(entry));
+            Double value = document.getDouble(name);
             builder.withDouble(entry, value);
             break;
         }
         case DOUBLE: {
-            Double value = document.getDouble(getElementName(entry));
+            Double value = document.getDouble(name);
             builder.withDouble(entry, value);
             break;
         }
         case BOOLEAN: {
-            Boolean value = document.getBoolean(getElementName(entry));
+            Boolean value = document.getBoolean(name);
             builder.withBoolean(entry, value);
             break;
         }
         case BYTES: {
-            String value = document.getString(getElementName(entry));
+            String value = document.getString(name);
             // TODO use default encoding? not UTF8
             builder.withBytes(entry, value.getBytes());
             break;
         }
         case DATETIME: {
-            Date value = document.getDate(getElementName(entry));
+            Date value = document.getDate(name);
             builder.withDateTime(entry, value);
             break;
         }
@@ -403,6 +632,50 @@ public class DocumentToRecord {
         }
     }
 
+    /**
+     * Read ahead first documents to sample schema before building first record.
+     */
+    private class SampledIterator implements Iterator<Record> {
+
+        private final Iterator<Document> documents;
+
+        private final int sampleSize;
+
+        /** sampled documents not yet returned, null until sampling is done */
+        private Iterator<Document> samples = null;
+
+        SampledIterator(final Iterator<Document> documents, final int sampleSize) {
+            this.documents = documents;
+            this.sampleSize = sampleSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            this.sample();
+            return this.samples.hasNext() || this.documents.hasNext();
+        }
+
+        @Override
+        public Record next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return toRecord(this.samples.hasNext() ? this.samples.next() : this.documents.next());
+        }
+
+        private void sample() {
+            if (this.samples != null) {
+                return;
+            }
+            final List<Document> sampled = new ArrayList<>(Math.min(this.sampleSize, 1024));
+            while (sampled.size() < this.sampleSize && this.documents.hasNext()) {
+                sampled.add(this.documents.next());
+            }
+            DocumentToRecord.this.sample(sampled);
+            this.samples = sampled.iterator();
+        }
+    }
+
     enum DataType {
 
         // special for MongoDB
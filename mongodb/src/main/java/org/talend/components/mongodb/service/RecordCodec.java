@@ -0,0 +1,690 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.mongodb.service;
+
+import org.bson.BsonBinarySubType;
+import org.bson.BsonReader;
+import org.bson.BsonReaderMark;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.Document;
+import org.bson.codecs.BsonTypeClassMap;
+import org.bson.codecs.BsonTypeCodecMap;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.types.Code;
+import org.talend.components.common.collections.BoundedCache;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+import org.talend.sdk.component.api.record.Schema.Entry;
+import org.talend.sdk.component.api.record.Schema.Type;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Decode mongodb bson documents directly to records, without intermediate {@link Document}.
+ * Schema of a document is inferred by {@link DocumentToRecord} the first time its shape (field names and value types)
+ * is seen, documents with a known shape are then read straight from bson into record builder.
+ * Records are the same as the ones produced by {@link DocumentToRecord#toRecord(Document)}.
+ * Documents are expected to have the shape of the previous one : they are read in one pass, checking their shape
+ * while reading; only when it differs is the shape computed in a first pass to find the plan.
+ */
+public class RecordCodec implements Codec<Record> {
+
+    /** marks entries with no value in document (null is a valid value for string entries). */
+    private static final Object ABSENT = new Object();
+
+    /** document read with the plan of the previous one has another shape. */
+    private static final ShapeMismatch SHAPE_MISMATCH = new ShapeMismatch();
+
+    private final RecordBuilderFactory recordBuilderFactory;
+
+    /** infer schema for documents with a new shape. */
+    private final DocumentToRecord documentToRecord;
+
+    private final RecordToDocument recordToDocument = new RecordToDocument();
+
+    /** decode documents with a new shape. */
+    private final DocumentCodec documentCodec;
+
+    /** decode values with no record counterpart (binary, regex, timestamp ...) as {@link DocumentCodec} does. */
+    private final BsonTypeCodecMap codecs;
+
+    private final CodecRegistry registry;
+
+    /** decoding plans by document shape. */
+    private final BoundedCache<String, Plan> planCache;
+
+    /** shape of current document, reused between documents. */
+    private final StringBuilder shape = new StringBuilder(256);
+
+    /** plan of last decoded document. */
+    private Plan lastPlan;
+
+    /** shape expected while reading document (null when not checked) and position of next expected char in it. */
+    private String expected;
+
+    private int position;
+
+    public RecordCodec(final RecordBuilderFactory recordBuilderFactory, final CodecRegistry registry) {
+        this(recordBuilderFactory, registry, BoundedCache.DEFAULT_SIZE);
+    }
+
+    /**
+     * @param cacheSize : max number of document shapes whose schema is kept (least recently used are evicted).
+     */
+    public RecordCodec(final RecordBuilderFactory recordBuilderFactory, final CodecRegistry registry, final int cacheSize) {
+        this.recordBuilderFactory = recordBuilderFactory;
+        this.documentToRecord = new DocumentToRecord(recordBuilderFactory, 0);
+        this.registry = registry;
+        this.documentCodec = new DocumentCodec(registry);
+        this.codecs = new BsonTypeCodecMap(new BsonTypeClassMap(), registry);
+        this.planCache = new BoundedCache<>(Math.max(cacheSize, 1));
+    }
+
+    /**
+     * @return cache of decoding plans, a hit for each document whose shape was known.
+     */
+    public BoundedCache<String, ?> getPlanCache() {
+        return this.planCache;
+    }
+
+    @Override
+    public Record decode(final BsonReader reader, final DecoderContext decoderContext) {
+        final BsonReaderMark mark = reader.getMark();
+        if (this.lastPlan != null) {
+            // consecutive documents mostly have same shape, checked while reading.
+            final Record record = this.readExpected(reader, this.lastPlan, decoderContext);
+            if (record != null) {
+                this.planCache.get(this.lastPlan.key); // keeps plan as most recently used
+                return record;
+            }
+            mark.reset();
+        }
+
+        final StringBuilder shape = this.shape;
+        shape.setLength(0);
+        this.fingerprintDocument(reader, shape);
+        mark.reset();
+        final String key = shape.toString();
+        this.lastPlan = this.planCache.get(key);
+        if (this.lastPlan != null) {
+            return this.readRecord(reader, this.lastPlan, decoderContext);
+        }
+        final Document document = this.documentCodec.decode(reader, decoderContext);
+        final Record record = this.documentToRecord.toRecord(document);
+        this.lastPlan = new Plan(key, record.getSchema());
+        this.planCache.put(key, this.lastPlan);
+        return record;
+    }
+
+    @Override
+    public void encode(final BsonWriter writer, final Record value, final EncoderContext encoderContext) {
+        this.documentCodec.encode(writer, this.recordToDocument.fromRecord(value), encoderContext);
+    }
+
+    @Override
+    public Class<Record> getEncoderClass() {
+        return Record.class;
+    }
+
+    /**
+     * Compute document shape, same shapes lead to same inferred schema
+     * (only first item of arrays is used, merged documents for arrays of documents).
+     */
+    private void fingerprintDocument(final BsonReader reader, final StringBuilder shape) {
+        reader.readStartDocument();
+        shape.append('{');
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            final String name = reader.readName();
+            shape.append(name.length()).append(':').append(name);
+            this.fingerprintValue(reader, shape);
+        }
+        reader.readEndDocument();
+        shape.append('}');
+    }
+
+    private void fingerprintValue(final BsonReader reader, final StringBuilder shape) {
+        final BsonType type = reader.getCurrentBsonType();
+        if (type == BsonType.DOCUMENT) {
+            this.fingerprintDocument(reader, shape);
+        } else if (type == BsonType.ARRAY) {
+            this.fingerprintArray(reader, shape);
+        } else {
+            shape.append(this.typeCode(type));
+            reader.skipValue();
+        }
+    }
+
+    private void fingerprintArray(final BsonReader reader, final StringBuilder shape) {
+        reader.readStartArray();
+        shape.append('[');
+        final BsonType first = reader.readBsonType();
+        if (first == BsonType.DOCUMENT) {
+            final BsonReaderMark mark = reader.getMark();
+            if (!this.fingerprintSameDocuments(reader, shape)) {
+                mark.reset();
+                this.fingerprintMergedDocuments(reader, shape);
+            }
+        } else if (first != BsonType.END_OF_DOCUMENT) {
+            this.fingerprintValue(reader, shape);
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                reader.skipValue();
+            }
+        }
+        reader.readEndArray();
+        shape.append(']');
+    }
+
+    /**
+     * Usual case of array whose documents have all same shape, the one of merged document.
+     *
+     * @return false if documents differ (shape is then unchanged).
+     */
+    private boolean fingerprintSameDocuments(final BsonReader reader, final StringBuilder shape) {
+        final int start = shape.length();
+        this.fingerprintDocument(reader, shape);
+        final int end = shape.length();
+        boolean same = true;
+        while (same && reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            same = reader.getCurrentBsonType() == BsonType.DOCUMENT;
+            if (same) {
+                this.fingerprintDocument(reader, shape);
+                same = this.sameRegion(shape, start, end);
+                shape.setLength(end);
+            }
+        }
+        if (!same) {
+            shape.setLength(start);
+        }
+        return same;
+    }
+
+    /**
+     * @return true if shape ends with a copy of region [start, end[ right after it.
+     */
+    private boolean sameRegion(final StringBuilder shape, final int start, final int end) {
+        final int length = end - start;
+        if (shape.length() - end != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (shape.charAt(start + i) != shape.charAt(end + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void fingerprintMergedDocuments(final BsonReader reader, final StringBuilder shape) {
+        // fields of all documents as merged by DocumentToRecord : first position, last value wins.
+        final Map<String, String> merged = new LinkedHashMap<>();
+        BsonType type = reader.getCurrentBsonType();
+        while (type != BsonType.END_OF_DOCUMENT) {
+            if (type == BsonType.DOCUMENT) {
+                reader.readStartDocument();
+                while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                    final String name = reader.readName();
+                    final StringBuilder field = new StringBuilder();
+                    this.fingerprintValue(reader, field);
+                    merged.put(name, field.toString());
+                }
+                reader.readEndDocument();
+            } else {
+                reader.skipValue();
+            }
+            type = reader.readBsonType();
+        }
+        shape.append('{');
+        merged.forEach((String name, String field) -> shape.append(name.length()).append(':').append(name).append(field));
+        shape.append('}');
+    }
+
+    /**
+     * @return code of bson type, same code for types with same translated type and data type in
+     * {@link DocumentToRecord}.
+     */
+    private char typeCode(final BsonType type) {
+        switch (type) {
+        case NULL:
+            return 'N';
+        case INT32:
+            return 'I';
+        case INT64:
+            return 'L';
+        case DOUBLE:
+            return 'D';
+        case BOOLEAN:
+            return 'B';
+        case DATE_TIME:
+            return 'T';
+        case OBJECT_ID:
+            return 'O';
+        case JAVASCRIPT:
+        case JAVASCRIPT_WITH_SCOPE:
+            return 'C';
+        case DECIMAL128:
+            return 'M';
+        default:
+            return 'S';
+        }
+    }
+
+    /**
+     * Read document expected to have the shape of plan.
+     *
+     * @return record, null if document has another shape (reader is then at an unknown position).
+     */
+    private Record readExpected(final BsonReader reader, final Plan plan, final DecoderContext decoderContext) {
+        this.expected = plan.key;
+        this.position = 0;
+        try {
+            final Record record = this.readRecord(reader, plan, decoderContext);
+            return this.position == plan.key.length() ? record : null;
+        } catch (ShapeMismatch e) {
+            return null;
+        } finally {
+            this.expected = null;
+        }
+    }
+
+    /**
+     * Check that next char of document shape is the expected one, when shape is checked.
+     */
+    private void expect(final char c) {
+        if (this.expected != null) {
+            if (this.position >= this.expected.length() || this.expected.charAt(this.position) != c) {
+                throw SHAPE_MISMATCH;
+            }
+            this.position++;
+        }
+    }
+
+    private void expectName(final String name) {
+        if (this.expected != null) {
+            this.expectNumber(name.length());
+            this.expect(':');
+            for (int i = 0; i < name.length(); i++) {
+                this.expect(name.charAt(i));
+            }
+        }
+    }
+
+    private void expectNumber(final int value) {
+        if (value >= 10) {
+            this.expectNumber(value / 10);
+        }
+        this.expect((char) ('0' + value % 10));
+    }
+
+    /**
+     * Check that value is shaped as schema type expects, when shape is checked.
+     */
+    private void expectValue(final BsonType type, final Type schemaType) {
+        if (this.expected == null) {
+            return;
+        }
+        if (type == BsonType.DOCUMENT || type == BsonType.ARRAY) {
+            // their shape is checked while reading them.
+            if ((type == BsonType.DOCUMENT) != (schemaType == Type.RECORD)
+                    || (type == BsonType.ARRAY) != (schemaType == Type.ARRAY)) {
+                throw SHAPE_MISMATCH;
+            }
+        } else {
+            this.expect(this.typeCode(type));
+        }
+    }
+
+    private Record readRecord(final BsonReader reader, final Plan plan, final DecoderContext decoderContext) {
+        if (this.expected != null) {
+            return this.readInOrder(reader, plan, decoderContext);
+        }
+        final Object[] values = new Object[plan.entries.length];
+        Arrays.fill(values, ABSENT);
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            final Integer index = plan.indexes.get(reader.readName());
+            if (index == null) {
+                reader.skipValue();
+            } else {
+                values[index] = this.readValue(reader, plan.entries[index], plan.children[index], decoderContext);
+            }
+        }
+        reader.readEndDocument();
+
+        // appended in schema order, as DocumentToRecord does.
+        final Record.Builder builder = recordBuilderFactory.newRecordBuilder();
+        for (int i = 0; i < values.length; i++) {
+            final Object value = values[i];
+            if (value != ABSENT) {
+                this.append(builder, plan.entries[i], value);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Read document whose shape is checked : its fields are the plan entries, in same order,
+     * so values are appended to record as they are read.
+     */
+    private Record readInOrder(final BsonReader reader, final Plan plan, final DecoderContext decoderContext) {
+        final Record.Builder builder = recordBuilderFactory.newRecordBuilder();
+        reader.readStartDocument();
+        this.expect('{');
+        int index = 0;
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            this.expectName(reader.readName());
+            if (index >= plan.entries.length) {
+                throw SHAPE_MISMATCH;
+            }
+            this.readValue(reader, builder, plan.entries[index], plan.children[index], decoderContext);
+            index++;
+        }
+        reader.readEndDocument();
+        this.expect('}');
+        return builder.build();
+    }
+
+    private void readValue(final BsonReader reader, final Record.Builder builder, final Entry entry, final Plan child,
+            final DecoderContext decoderContext) {
+        this.expectValue(reader.getCurrentBsonType(), entry.getType());
+        switch (entry.getType()) {
+        case RECORD:
+            builder.withRecord(entry, this.readRecord(reader, child, decoderContext));
+            break;
+        case ARRAY:
+            builder.withArray(entry,
+                    this.readArray(reader, entry.getElementSchema().getElementSchema(), child, decoderContext));
+            break;
+        case INT:
+            builder.withInt(entry, reader.readInt32());
+            break;
+        case LONG:
+            builder.withLong(entry, reader.readInt64());
+            break;
+        case DOUBLE:
+        case FLOAT:
+            builder.withDouble(entry, reader.readDouble());
+            break;
+        case BOOLEAN:
+            builder.withBoolean(entry, reader.readBoolean());
+            break;
+        case DATETIME:
+            builder.withTimestamp(entry, reader.readDateTime());
+            break;
+        case STRING:
+            builder.withString(entry, this.readString(reader, decoderContext));
+            break;
+        default:
+            builder.withString(entry, (String) this.readOther(reader, decoderContext));
+        }
+    }
+
+    private Object readValue(final BsonReader reader, final Entry entry, final Plan child,
+            final DecoderContext decoderContext) {
+        final BsonType type = reader.getCurrentBsonType();
+        if (entry.getType() == Type.STRING) {
+            return this.readString(reader, decoderContext);
+        }
+        if (type == BsonType.NULL) {
+            // only for documents of arrays whose merged field has an other type.
+            reader.readNull();
+            return ABSENT;
+        }
+        switch (entry.getType()) {
+        case RECORD:
+            return this.readRecord(reader, child, decoderContext);
+        case ARRAY:
+            return this.readArray(reader, entry.getElementSchema().getElementSchema(), child, decoderContext);
+        case INT:
+            return reader.readInt32();
+        case LONG:
+            return reader.readInt64();
+        case DOUBLE:
+        case FLOAT:
+            return reader.readDouble();
+        case BOOLEAN:
+            return reader.readBoolean();
+        case DATETIME:
+            return new Date(reader.readDateTime());
+        default:
+            return this.readOther(reader, decoderContext);
+        }
+    }
+
+    private void append(final Record.Builder builder, final Entry entry, final Object value) {
+        switch (entry.getType()) {
+        case RECORD:
+            builder.withRecord(entry, (Record) value);
+            break;
+        case ARRAY:
+            builder.withArray(entry, (List<?>) value);
+            break;
+        case INT:
+            builder.withInt(entry, (Integer) value);
+            break;
+        case LONG:
+            builder.withLong(entry, (Long) value);
+            break;
+        case DOUBLE:
+        case FLOAT:
+            builder.withDouble(entry, (Double) value);
+            break;
+        case BOOLEAN:
+            builder.withBoolean(entry, (Boolean) value);
+            break;
+        case DATETIME:
+            builder.withDateTime(entry, (Date) value);
+            break;
+        default:
+            builder.withString(entry, (String) value);
+        }
+    }
+
+    /**
+     * When shape is checked, array shape is the one of its first item; for arrays of documents,
+     * all of them must have the shape of the first one (merged documents are not checked while reading).
+     *
+     * @param itemSchema : schema of array items.
+     * @param plan : plan of innermost record items, if any.
+     */
+    private List<Object> readArray(final BsonReader reader, final Schema itemSchema, final Plan plan,
+            final DecoderContext decoderContext) {
+        final List<Object> result = new ArrayList<>();
+        final String expected = this.expected;
+        reader.readStartArray();
+        this.expect('[');
+        final int start = this.position;
+        int end = start;
+        boolean first = true;
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            final BsonType type = reader.getCurrentBsonType();
+            if (!first && this.expected != null) {
+                if (type != BsonType.DOCUMENT) {
+                    throw SHAPE_MISMATCH;
+                }
+                this.position = start;
+            }
+            this.expectValue(type, itemSchema.getType());
+            result.add(this.readArrayItem(reader, itemSchema, plan, decoderContext));
+            if (first) {
+                end = this.position;
+                if (type != BsonType.DOCUMENT) {
+                    // other items are not in shape
+                    this.expected = null;
+                }
+                first = false;
+            } else if (this.expected != null && this.position != end) {
+                throw SHAPE_MISMATCH;
+            }
+        }
+        this.expected = expected;
+        this.position = end;
+        reader.readEndArray();
+        this.expect(']');
+        return result;
+    }
+
+    private Object readArrayItem(final BsonReader reader, final Schema itemSchema, final Plan plan,
+            final DecoderContext decoderContext) {
+        switch (itemSchema.getType()) {
+        case RECORD:
+            return this.readRecord(reader, plan, decoderContext);
+        case ARRAY:
+            return this.readArray(reader, itemSchema.getElementSchema(), plan, decoderContext);
+        case STRING:
+            return this.readString(reader, decoderContext);
+        default:
+            // items are kept as decoded by DocumentCodec
+            return this.readItem(reader, decoderContext);
+        }
+    }
+
+    private Object readItem(final BsonReader reader, final DecoderContext decoderContext) {
+        switch (reader.getCurrentBsonType()) {
+        case INT32:
+            return reader.readInt32();
+        case INT64:
+            return reader.readInt64();
+        case DOUBLE:
+            return reader.readDouble();
+        case BOOLEAN:
+            return reader.readBoolean();
+        case DATE_TIME:
+            return new Date(reader.readDateTime());
+        case NULL:
+            reader.readNull();
+            return null;
+        default:
+            return this.readOther(reader, decoderContext);
+        }
+    }
+
+    private String readString(final BsonReader reader, final DecoderContext decoderContext) {
+        switch (reader.getCurrentBsonType()) {
+        case STRING:
+            return reader.readString();
+        case NULL:
+            reader.readNull();
+            return null;
+        case OBJECT_ID:
+            return reader.readObjectId().toString();
+        case JAVASCRIPT:
+            return reader.readJavaScript();
+        default:
+            final Object value = this.readOther(reader, decoderContext);
+            if (value instanceof Code) {
+                return ((Code) value).getCode();
+            }
+            return String.valueOf(value);
+        }
+    }
+
+    /**
+     * Decode value as {@link DocumentCodec} does.
+     */
+    private Object readOther(final BsonReader reader, final DecoderContext decoderContext) {
+        final BsonType type = reader.getCurrentBsonType();
+        if (type == BsonType.DOCUMENT) {
+            return this.documentCodec.decode(reader, decoderContext);
+        }
+        if (type == BsonType.ARRAY) {
+            final List<Object> list = new ArrayList<>();
+            reader.readStartArray();
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                list.add(this.readOther(reader, decoderContext));
+            }
+            reader.readEndArray();
+            return list;
+        }
+        if (type == BsonType.NULL) {
+            reader.readNull();
+            return null;
+        }
+        if (type == BsonType.BINARY && BsonBinarySubType.isUuid(reader.peekBinarySubType())
+                && reader.peekBinarySize() == 16) {
+            return this.registry.get(UUID.class).decode(reader, decoderContext);
+        }
+        return this.codecs.get(type).decode(reader, decoderContext);
+    }
+
+    /**
+     * Entries of a record schema indexed by bson field name, with plans of their nested records.
+     */
+    private static class Plan {
+
+        /** shape of documents read with this plan, null for nested records. */
+        final String key;
+
+        final Entry[] entries;
+
+        final Map<String, Integer> indexes = new HashMap<>();
+
+        /** plan of record entries, or of innermost records of array entries. */
+        final Plan[] children;
+
+        Plan(final String key, final Schema schema) {
+            this.key = key;
+            final List<Entry> schemaEntries = schema.getEntries();
+            this.entries = schemaEntries.toArray(new Entry[0]);
+            this.children = new Plan[this.entries.length];
+            for (int i = 0; i < this.entries.length; i++) {
+                final Entry entry = this.entries[i];
+                this.indexes.put(originName(entry), i);
+                Schema nested = entry.getType() == Type.RECORD ? entry.getElementSchema() : null;
+                if (entry.getType() == Type.ARRAY) {
+                    nested = entry.getElementSchema().getElementSchema();
+                    while (nested.getType() == Type.ARRAY) {
+                        nested = nested.getElementSchema();
+                    }
+                }
+                if (nested != null && nested.getType() == Type.RECORD) {
+                    this.children[i] = new Plan(null, nested);
+                }
+            }
+        }
+
+        /**
+         * bson field name, kept in comment by {@link DocumentToRecord} (entry name may be sanitized).
+         */
+        private static String originName(final Entry entry) {
+            final String comment = entry.getComment();
+            final int index = comment == null ? -1 : comment.lastIndexOf(DocumentToRecord.TYPE_SPLIT_CHARS);
+            return index >= 0 ? comment.substring(0, index) : comment;
+        }
+    }
+
+    /**
+     * Thrown when document read has not the expected shape, without stack trace as it is only used to stop reading.
+     */
+    private static class ShapeMismatch extends RuntimeException {
+
+        private static final long serialVersionUID = -1783025648371916430L;
+
+        ShapeMismatch() {
+            super("Document shape differs from the expected one", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.mongodb.sink;
+
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Send write models by sub-batches bounded by number of documents and bson size, while records arrive.
+ * With more than one thread (only for unordered bulk write), sub-batches are sent concurrently,
+ * at most one by thread is in progress.
+ */
+class BulkWriter implements AutoCloseable {
+
+    /** max bson size of a sub-batch, driver would anyway split bigger ones in several messages. */
+    static final long MAX_BATCH_BYTES = 16 * 1024 * 1024;
+
+    private final Consumer<List<WriteModel<Document>>> writer;
+
+    private final int maxCount;
+
+    private final long maxBytes;
+
+    private final ExecutorService executor;
+
+    private final int threads;
+
+    private final Deque<Future<?>> inProgress = new ArrayDeque<>();
+
+    private List<WriteModel<Document>> batch = new ArrayList<>();
+
+    private long batchBytes;
+
+    /**
+     * @param writer : sends a sub-batch (bulk write on collection).
+     * @param maxCount : max number of write models by sub-batch.
+     * @param maxBytes : max estimated bson size of a sub-batch.
+     * @param threads : number of sub-batches sent concurrently, 1 to send them in order.
+     */
+    BulkWriter(final Consumer<List<WriteModel<Document>>> writer, final int maxCount, final long maxBytes, final int threads) {
+        this.writer = writer;
+        this.maxCount = Math.max(1, maxCount);
+        this.maxBytes = maxBytes;
+        this.threads = Math.max(1, threads);
+        this.executor = this.threads > 1 ? Executors.newFixedThreadPool(this.threads) : null;
+    }
+
+    /**
+     * @param size : estimated bson size of model documents.
+     */
+    void add(final WriteModel<Document> model, final long size) {
+        if (!batch.isEmpty() && batchBytes + size > maxBytes) {
+            this.flush();
+        }
+        batch.add(model);
+        batchBytes += size;
+        if (batch.size() >= maxCount) {
+            this.flush();
+        }
+    }
+
+    /**
+     * Send current sub-batch (asynchronously with several threads).
+     */
+    void flush() {
+        if (batch.isEmpty()) {
+            return;
+        }
+        final List<WriteModel<Document>> models = batch;
+        batch = new ArrayList<>();
+        batchBytes = 0;
+        if (executor == null) {
+            writer.accept(models);
+            return;
+        }
+        while (inProgress.size() >= threads) {
+            this.waitFor(inProgress.poll());
+        }
+        inProgress.add(executor.submit(() -> writer.accept(models)));
+    }
+
+    /**
+     * Send current sub-batch and wait all sub-batches are written.
+     */
+    void await() {
+        this.flush();
+        while (!inProgress.isEmpty()) {
+            this.waitFor(inProgress.poll());
+        }
+    }
+
+    /**
+     * Forget models not sent yet.
+     */
+    void clear() {
+        batch.clear();
+        batchBytes = 0;
+    }
+
+    private void waitFor(final Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e.getMessage(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Estimate bson size of a value, without encoding it.
+     * http://bsonspec.org/spec.html
+     */
+    static long estimateSize(final Object value) {
+        if (value == null) {
+            return 0;
+        } else if (value instanceof Boolean) {
+            return 1;
+        } else if (value instanceof Integer) {
+            return 4;
+        } else if (value instanceof Number || value instanceof Date) {
+            return value instanceof Decimal128 ? 16 : 8;
+        } else if (value instanceof ObjectId) {
+            return 12;
+        } else if (value instanceof String) {
+            // length, utf-8 bytes (mostly ascii) and terminal zero
+            return 5 + ((String) value).length();
+        } else if (value instanceof byte[]) {
+            return 5 + ((byte[]) value).length;
+        } else if (value instanceof Binary) {
+            return 5 + ((Binary) value).length();
+        } else if (value instanceof Map) {
+            long size = 5;
+            for (Map.Entry<?, ?> field : ((Map<?, ?>) value).entrySet()) {
+                // type, name and terminal zero, value
+                size += 2 + String.valueOf(field.getKey()).length() + estimateSize(field.getValue());
+            }
+            return size;
+        } else if (value instanceof Collection) {
+            long size = 5;
+            int index = 0;
+            for (Object item : (Collection<?>) value) {
+                size += 2 + String.valueOf(index++).length() + estimateSize(item);
+            }
+            return size;
+        }
+        return 5 + String.valueOf(value).length();
+    }
+}
@@ -23,7 +23,6 @@ import org.talend.components.common.stream.output.json.RecordToJson;
 import org.talend.components.mongodb.BulkWriteType;
 import org.talend.components.mongodb.KeyMapping;
 import org.talend.components.mongodb.Mode;
-import org.talend.components.mongodb.PathMapping;
 import org.talend.components.mongodb.dataset.MongoDBReadAndWriteDataSet;
 import org.talend.components.mongodb.datastore.MongoDBDataStore;
 import org.talend.components.mongodb.service.I18nMessage;
@@ -41,10 +40,7 @@ import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.json.JsonObject;
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 
 @Version(1)
 @Slf4j
@@ -121,17 +117,25 @@ public class MongoDBProcessor implements Serializable {
             }
         }
 
-        writeModels = new ArrayList<>();
+        if (configuration.isBulkWrite()) {
+            boolean ordered = configuration.getBulkWriteType() == BulkWriteType.ORDERED;
+            BulkWriteOptions options = new BulkWriteOptions().ordered(ordered);
+            // mongo client and collection are thread safe, unordered sub-batches can be sent concurrently
+            final MongoCollection<Document> target = collection;
+            bulkWriter = new BulkWriter(models -> target.bulkWrite(models, options), configuration.getBulkWriteSize(),
+                    BulkWriter.MAX_BATCH_BYTES, ordered ? 1 : configuration.getBulkWriteThreads());
+        }
     }
 
-    private transient List<WriteModel<Document>> writeModels;
+    // write models are sent by bounded sub-batches while records arrive
+    private transient BulkWriter bulkWriter;
 
     @BeforeGroup
     public void beforeGroup() {
         if (!configuration.isBulkWrite()) {
             return;
         }
-        writeModels.clear();
+        bulkWriter.clear();
     }
 
     @AfterGroup
@@ -139,68 +143,7 @@ public class MongoDBProcessor implements Serializable {
         if (!configuration.isBulkWrite()) {
             return;
         }
-        if (writeModels != null && !writeModels.isEmpty()) {
-            boolean ordered = configuration.getBulkWriteType() == BulkWriteType.ORDERED;
-            collection.bulkWrite(writeModels, new BulkWriteOptions().ordered(ordered));
-        }
-    }
-
-    private class DocumentGenerator {
-
-        private Document document;
-
-        private DocumentGenerator() {
-            document = new Document();
-        }
-
-        void put(String parentNodePath, String curentName, Object value) {
-            if (parentNodePath == null || "".equals(parentNodePath)) {
-                document.put(curentName, value);
-            } else {
-                String objNames[] = parentNodePath.split("\\.");
-                Document lastNode = getParentNode(parentNodePath, objNames.length - 1);
-                lastNode.put(curentName, value);
-                Document parentNode = null;
-                for (int i = objNames.length - 1; i >= 0; i--) {
-                    parentNode = getParentNode(parentNodePath, i - 1);
-                    parentNode.put(objNames[i], lastNode);
-                    lastNode = clone(parentNode);
-                }
-                document = lastNode;
-            }
-        }
-
-        private Document clone(Document source) {
-            Document to = new Document();
-            for (java.util.Map.Entry<String, Object> cur : source.entrySet()) {
-                to.append(cur.getKey(), cur.getValue());
-            }
-            return to;
-        }
-
-        public Document getParentNode(String parentNodePath, int index) {
-            Document parentNode = document;
-            if (parentNodePath == null || "".equals(parentNodePath)) {
-                return document;
-            } else {
-                String objNames[] = parentNodePath.split("\\.");
-                for (int i = 0; i <= index; i++) {
-                    parentNode = (Document) parentNode.get(objNames[i]);
-                    if (parentNode == null) {
-                        parentNode = new Document();
-                        return parentNode;
-                    }
-                    if (i == index) {
-                        break;
-                    }
-                }
-                return parentNode;
-            }
-        }
-
-        Document getDocument() {
-            return this.document;
-        }
+        bulkWriter.await();
     }
 
     private Document getKeysQueryDocumentAndRemoveKeysFromSourceDocument(List<KeyMapping> keyMappings, Record record,
@@ -319,26 +262,7 @@ public class MongoDBProcessor implements Serializable {
 
             doDataAction(record, document);
         } else {
-            /*
-             * DocumentGenerator dg = new DocumentGenerator();
-             * List<PathMapping> mappings = configuration.getDataset().getPathMappings();
-             * Map<String, PathMapping> inputFieldName2PathMapping = new LinkedHashMap<>();
-             * 
-             * // TODO now only use name mapping, improve it with index mapping
-             * for (PathMapping mapping : mappings) {
-             * String column = mapping.getColumn();
-             * inputFieldName2PathMapping.put(column, mapping);
-             * }
-             * 
-             * for (Schema.Entry entry : record.getSchema().getEntries()) {// schema from input
-             * PathMapping mapping = inputFieldName2PathMapping.get(entry.getName());
-             * String originElement = mapping.getOriginElement();
-             * dg.put(mapping.getParentNodePath(), originElement != null ? originElement : entry.getName(),
-             * record.get(Object.class, entry.getName()));
-             * }
-             * 
-             * doDataAction(record, dg.getDocument());
-             */
+            // TODO mapping mode: build the document from the path mappings
         }
     }
 
@@ -352,11 +276,16 @@ public class MongoDBProcessor implements Serializable {
         return recordToDocument.fromRecord(record);
     }
 
+    private void addWriteModel(WriteModel<Document> model, Document document) {
+        // keys are already removed from document by the model creation
+        bulkWriter.add(model, BulkWriter.estimateSize(document));
+    }
+
     private void doDataAction(@Input Record record, Document document) {
         switch (configuration.getDataAction()) {
         case INSERT:
             if (configuration.isBulkWrite()) {
-                writeModels.add(new InsertOneModel(document));
+                addWriteModel(new InsertOneModel<Document>(document), document);
             } else {
                 collection.insertOne(document);
             }
@@ -364,13 +293,13 @@ public class MongoDBProcessor implements Serializable {
         case SET:
             if (configuration.isBulkWrite()) {
                 if (configuration.isUpdateAllDocuments()) {
-                    writeModels.add(new UpdateManyModel<Document>(
+                    addWriteModel(new UpdateManyModel<Document>(
                             getKeysQueryDocumentAndRemoveKeysFromSourceDocument(configuration.getKeyMappings(), record, document),
-                            new Document("$set", document)));
+                            new Document("$set", document)), document);
                 } else {
-                    writeModels.add(new UpdateOneModel<Document>(
+                    addWriteModel(new UpdateOneModel<Document>(
                             getKeysQueryDocumentAndRemoveKeysFromSourceDocument(configuration.getKeyMappings(), record, document),
-                            new Document("$set", document)));
+                            new Document("$set", document)), document);
                 }
             } else {
                 if (configuration.isUpdateAllDocuments()) {
@@ -394,13 +323,13 @@ public class MongoDBProcessor implements Serializable {
             // TODO show a more clear exception here
             if (configuration.isBulkWrite()) {
                 if (configuration.isUpdateAllDocuments()) {
-                    writeModels.add(new UpdateManyModel<Document>(
+                    addWriteModel(new UpdateManyModel<Document>(
                             getKeysQueryDocumentAndRemoveKeysFromSourceDocument(configuration.getKeyMappings(), record, document),
-                            new Document("$set", document), new UpdateOptions().upsert(true)));
+                            new Document("$set", document), new UpdateOptions().upsert(true)), document);
                 } else {
-                    writeModels.add(new UpdateOneModel<Document>(
+                    addWriteModel(new UpdateOneModel<Document>(
                             getKeysQueryDocumentAndRemoveKeysFromSourceDocument(configuration.getKeyMappings(), record, document),
-                            new Document("$set", document), new UpdateOptions().upsert(true)));
+                            new Document("$set", document), new UpdateOptions().upsert(true)), document);
                 }
             } else {
                 if (configuration.isUpdateAllDocuments()) {
@@ -419,6 +348,9 @@ public class MongoDBProcessor implements Serializable {
 
     @PreDestroy
     public void release() {
+        if (bulkWriter != null) {
+            bulkWriter.close();
+        }
         service.closeClient(client);
     }
 
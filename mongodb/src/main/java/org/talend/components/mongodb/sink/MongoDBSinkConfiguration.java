@@ -25,6 +25,7 @@ import org.talend.components.mongodb.dataset.MongoDBReadDataSet;
 import org.talend.sdk.component.api.component.Version;
 import org.talend.sdk.component.api.configuration.Option;
 import org.talend.sdk.component.api.configuration.condition.ActiveIf;
+import org.talend.sdk.component.api.configuration.constraint.Min;
 import org.talend.sdk.component.api.configuration.ui.layout.GridLayout;
 import org.talend.sdk.component.api.configuration.ui.layout.GridLayouts;
 import org.talend.sdk.component.api.meta.Documentation;
@@ -38,7 +39,8 @@ import lombok.Data;
         @GridLayout.Row({ "writeConcern" }), //
         @GridLayout.Row({ "bulkWrite" }), @GridLayout.Row({ "bulkWriteType" }), @GridLayout.Row({ "dataAction" }),
         @GridLayout.Row({ "keyMappings" }), @GridLayout.Row({ "updateAllDocuments" }) }),
-        @GridLayout(names = GridLayout.FormType.ADVANCED, value = { @GridLayout.Row({ "dataset" }) }) })
+        @GridLayout(names = GridLayout.FormType.ADVANCED, value = { @GridLayout.Row({ "dataset" }),
+                @GridLayout.Row({ "bulkWriteSize" }), @GridLayout.Row({ "bulkWriteThreads" }) }) })
 @Documentation("MongoDB sink configuration")
 public class MongoDBSinkConfiguration implements Serializable {
 
@@ -64,6 +66,19 @@ public class MongoDBSinkConfiguration implements Serializable {
     @Documentation("Bulk load type")
     private BulkWriteType bulkWriteType = BulkWriteType.UNORDERED;
 
+    @Option
+    @Min(1)
+    @ActiveIf(target = "bulkWrite", value = "true")
+    @Documentation("Max number of documents sent by one bulk write, documents are sent while records arrive")
+    private int bulkWriteSize = 1000;
+
+    @Option
+    @Min(1)
+    @ActiveIf(target = "bulkWrite", value = "true")
+    @ActiveIf(target = "bulkWriteType", value = "UNORDERED")
+    @Documentation("Number of unordered bulk writes sent concurrently")
+    private int bulkWriteThreads = 1;
+
     @Option
     @Documentation("Data action")
     private DataAction dataAction = DataAction.INSERT;
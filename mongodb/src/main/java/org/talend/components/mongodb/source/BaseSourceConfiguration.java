@@ -23,4 +23,6 @@ public interface BaseSourceConfiguration extends Serializable {
 
     Long getSampleLimit();
 
+    int getSchemaSampleSize();
+
 }
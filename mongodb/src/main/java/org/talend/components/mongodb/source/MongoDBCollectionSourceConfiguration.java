@@ -24,7 +24,8 @@ import org.talend.sdk.component.api.meta.Documentation;
 @Version(1)
 @Data
 @GridLayouts({ @GridLayout({ @GridLayout.Row({ "dataset" }) }),
-        @GridLayout(names = GridLayout.FormType.ADVANCED, value = { @GridLayout.Row({ "dataset" }) }) })
+        @GridLayout(names = GridLayout.FormType.ADVANCED, value = { @GridLayout.Row({ "dataset" }),
+                @GridLayout.Row({ "schemaSampleSize" }) }) })
 @Documentation("Simple MongoDB Source Configuration which not support query")
 public class MongoDBCollectionSourceConfiguration implements BaseSourceConfiguration {
 
@@ -32,6 +33,10 @@ public class MongoDBCollectionSourceConfiguration implements BaseSourceConfigura
     @Documentation("dataset")
     private MongoDBReadAndWriteDataSet dataset;
 
+    @Option
+    @Documentation("First documents merged to infer the schema of records (JSON mode), 0 for a schema by document shape.")
+    private int schemaSampleSize = 0;
+
     private Long sampleLimit = -1L;
 
 }
\ No newline at end of file
@@ -31,7 +31,8 @@ import lombok.Data;
 @Version(1)
 @Data
 @GridLayouts({ @GridLayout({ @GridLayout.Row({ "dataset" }) }),
-        @GridLayout(names = GridLayout.FormType.ADVANCED, value = { @GridLayout.Row({ "dataset" }) }) })
+        @GridLayout(names = GridLayout.FormType.ADVANCED, value = { @GridLayout.Row({ "dataset" }),
+                @GridLayout.Row({ "schemaSampleSize" }) }) })
 @Documentation("MongoDB Source Configuration with full query support")
 public class MongoDBQuerySourceConfiguration implements BaseSourceConfiguration {
 
@@ -39,6 +40,10 @@ public class MongoDBQuerySourceConfiguration implements BaseSourceConfiguration
     @Documentation("dataset")
     private MongoDBReadDataSet dataset;
 
+    @Option
+    @Documentation("First documents merged to infer the schema of records (JSON mode), 0 for a schema by document shape.")
+    private int schemaSampleSize = 0;
+
     private Long sampleLimit = -1L;
 
 }
\ No newline at end of file
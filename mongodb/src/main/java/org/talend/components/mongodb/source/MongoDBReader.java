@@ -17,15 +17,19 @@ import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonArray;
 import org.bson.BsonDocument;
 import org.bson.Document;
+import org.bson.RawBsonDocument;
 import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.configuration.CodecRegistries;
 import org.bson.json.JsonMode;
 import org.bson.json.JsonWriterSettings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.talend.components.common.stream.input.json.JsonToRecord;
 import org.talend.components.mongodb.AggregationStage;
+import org.talend.components.mongodb.Mode;
 import org.talend.components.mongodb.PathMapping;
 import org.talend.components.mongodb.dataset.BaseDataSet;
 import org.talend.components.mongodb.dataset.MongoDBReadDataSet;
@@ -33,6 +37,7 @@ import org.talend.components.mongodb.datastore.MongoDBDataStore;
 import org.talend.components.mongodb.service.DocumentToRecord;
 import org.talend.components.mongodb.service.I18nMessage;
 import org.talend.components.mongodb.service.MongoDBService;
+import org.talend.components.mongodb.service.RecordCodec;
 import org.talend.sdk.component.api.configuration.Option;
 import org.talend.sdk.component.api.input.Producer;
 import org.talend.sdk.component.api.meta.Documentation;
@@ -49,6 +54,7 @@ import javax.json.JsonReader;
 import java.io.Serializable;
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
@@ -71,8 +77,6 @@ public class MongoDBReader implements Serializable {
 
     private transient JsonToRecord jsonToRecord;
 
-    private transient DocumentToRecord documentToRecord;
-
     private transient String query4Split;
 
     public MongoDBReader(@Option("configuration") final BaseSourceConfiguration configuration, final MongoDBService service,
@@ -85,12 +89,12 @@ public class MongoDBReader implements Serializable {
         this.query4Split = query4Split;
     }
 
-    Iterator<Document> iterator = null;
+    // records for JSON mode, raw documents for TEXT mode
+    Iterator<?> iterator = null;
 
     @PostConstruct
     public void init() {
         jsonToRecord = new JsonToRecord(this.builderFactory);
-        documentToRecord = new DocumentToRecord(this.builderFactory);
 
         BaseDataSet dataset = configuration.getDataset();
         MongoDBDataStore datastore = dataset.getDatastore();
@@ -98,27 +102,43 @@ public class MongoDBReader implements Serializable {
         MongoDatabase database = client.getDatabase(datastore.getDatabase());
         MongoCollection<Document> collection = database.getCollection(dataset.getCollection());
 
-        iterator = fetchData(dataset, collection);
+        // the driver decodes documents straight to the wanted form, without intermediate Document
+        if (dataset.getMode() == Mode.TEXT) {
+            iterator = fetchData(dataset, collection.withDocumentClass(RawBsonDocument.class));
+        } else if (configuration.getSchemaSampleSize() > 0) {
+            // schema inferred from the first documents, shared by the following ones
+            DocumentToRecord documentToRecord = new DocumentToRecord(this.builderFactory);
+            iterator = documentToRecord.toRecords(fetchData(dataset, collection), configuration.getSchemaSampleSize());
+        } else {
+            RecordCodec recordCodec = new RecordCodec(this.builderFactory, collection.getCodecRegistry());
+            iterator = fetchData(dataset, collection.withDocumentClass(Record.class).withCodecRegistry(
+                    CodecRegistries.fromRegistries(CodecRegistries.fromCodecs(recordCodec), collection.getCodecRegistry())));
+        }
     }
 
-    // TODO make it generic
-    private Iterator<Document> fetchData(BaseDataSet dataset, MongoCollection<Document> collection) {
+    private <T> Iterator<T> fetchData(BaseDataSet dataset, MongoCollection<T> collection) {
         if (query4Split != null) {
             log.info("query for mongodb split : " + query4Split);
-            return collection.find(service.getBsonDocument(query4Split)).iterator();
+            BsonDocument query = service.getBsonDocument(query4Split);
+            if (dataset instanceof MongoDBReadDataSet && SplitUtil.hasFilter(((MongoDBReadDataSet) dataset).getQuery())) {
+                // split is a range of documents, the user filter still applies in it
+                BsonDocument filter = service.getBsonDocument(((MongoDBReadDataSet) dataset).getQuery());
+                query = new BsonDocument("$and", new BsonArray(Arrays.asList(filter, query)));
+            }
+            return collection.find(query).iterator();
         }
 
         Long sampleLimit = configuration.getSampleLimit();
         if (dataset instanceof MongoDBReadDataSet) {
             // return fetchData((MongoDBReadDataSet) dataset, collection);
             BsonDocument query = service.getBsonDocument(((MongoDBReadDataSet) dataset).getQuery());
-            FindIterable<Document> fi = collection.find(query);
+            FindIterable<T> fi = collection.find(query);
             if (sampleLimit != null && sampleLimit > 0) {
                 fi = fi.limit(sampleLimit.intValue());
             }
             return fi.iterator();
         } else {
-            FindIterable<Document> fi = collection.find();
+            FindIterable<T> fi = collection.find();
             if (sampleLimit != null && sampleLimit > 0) {
                 fi = fi.limit(sampleLimit.intValue());
             }
@@ -161,21 +181,21 @@ public class MongoDBReader implements Serializable {
     @Producer
     public Record next() {
         if (iterator.hasNext()) {
-            Document document = iterator.next();
-            return doConvert(document);
+            return doConvert(iterator.next());
         }
         return null;
     }
 
-    private Record doConvert(Document document) {
+    private Record doConvert(Object document) {
         switch (configuration.getDataset().getMode()) {
         case TEXT:
-            return toRecordWithWSingleDocumentContentColumn(document);
+            return toRecordWithWSingleDocumentContentColumn((RawBsonDocument) document);
         // case MAPPING:
         // return toFlatRecordWithMapping(document);
         case JSON:
         default:
-            return convertDocument2RecordDirectly(document);
+            // already decoded by RecordCodec or DocumentToRecord
+            return (Record) document;
         }
     }
 
@@ -189,10 +209,6 @@ public class MongoDBReader implements Serializable {
         return result;
     }
 
-    private Record convertDocument2RecordDirectly(Document document) {
-        return documentToRecord.toRecord(document);
-    }
-
     // TODO check it
     private JsonObject getJsonObject(String jsonContent) {
         try (JsonReader reader = Json.createReader(new StringReader(jsonContent))) {
@@ -243,7 +259,7 @@ public class MongoDBReader implements Serializable {
         return document.toJson(JsonWriterSettings.builder().outputMode(JsonMode.RELAXED).build(), new DocumentCodec());
     }
 
-    private Record toRecordWithWSingleDocumentContentColumn(Document document) {
+    private Record toRecordWithWSingleDocumentContentColumn(RawBsonDocument document) {
         Schema.Builder schemaBuilder = builderFactory.newSchemaBuilder(Schema.Type.RECORD);
 
         String singleColumnName = configuration.getDataset().getCollection();
@@ -255,7 +271,9 @@ public class MongoDBReader implements Serializable {
         Schema schemaWithSingleColumn = schemaBuilder.build();
 
         final Record.Builder recordBuilder = builderFactory.newRecordBuilder(schemaWithSingleColumn);
-        addColumn(recordBuilder, singleEntry, document);
+        // raw document is written to json as is, same output as the decoded document
+        recordBuilder.withString(singleEntry,
+                document.toJson(JsonWriterSettings.builder().outputMode(JsonMode.RELAXED).build()));
         return recordBuilder.build();
     }
 
@@ -14,43 +14,89 @@ package org.talend.components.mongodb.source;
 
 import com.mongodb.BasicDBObject;
 import com.mongodb.MongoClient;
-import com.mongodb.client.AggregateIterable;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Aggregates;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonBoolean;
 import org.bson.BsonDocument;
 import org.bson.BsonInt32;
+import org.bson.BsonInt64;
 import org.bson.BsonString;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 import org.bson.json.JsonMode;
 import org.bson.json.JsonWriterSettings;
 import org.talend.components.mongodb.dataset.BaseDataSet;
+import org.talend.components.mongodb.dataset.MongoDBReadDataSet;
 import org.talend.components.mongodb.datastore.MongoDBDataStore;
 import org.talend.components.mongodb.service.MongoDBService;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+/**
+ * Split a read in ranges of documents, each split query is combined with the user query by the reader.
+ * Boundaries come, in this order, from chunks of sharded collection (one shard by split),
+ * from splitVector command on _id index, then from a sample of the queried documents.
+ */
 @Slf4j
 public class SplitUtil {
 
+    /** number of sampled documents by split when boundaries come from a sample. */
+    static final int SAMPLES_PER_SPLIT = 20;
+
+    /** how long computed split queries are reused for same collection, query and split count. */
+    static final long CACHE_TTL = TimeUnit.MINUTES.toMillis(10);
+
+    private static final int CACHE_SIZE = 64;
+
+    private static final String ID = "_id";
+
+    private static final Map<String, CachedQueries> QUERIES_CACHE = Collections.synchronizedMap(new QueriesCache());
+
     public static List<String> getQueries4Split(final BaseSourceConfiguration configuration, final MongoDBService service,
             final int splitCount) {
         List<String> result = new ArrayList<>();
 
         BaseDataSet dataset = configuration.getDataset();
         MongoDBDataStore datastore = dataset.getDatastore();
+        String query = dataset instanceof MongoDBReadDataSet ? ((MongoDBReadDataSet) dataset).getQuery() : null;
+
+        String cacheKey = cacheKey(datastore, dataset.getCollection(), query, splitCount);
+        CachedQueries cached = QUERIES_CACHE.get(cacheKey);
+        if (cached != null && System.currentTimeMillis() - cached.time < CACHE_TTL) {
+            return cached.queries;
+        }
 
         MongoClient client = null;
         try {
             client = service.createClient(datastore);
             MongoDatabase database = client.getDatabase(datastore.getDatabase());
-            MongoCollection<Document> collection = database.getCollection(dataset.getCollection());
 
-            result = getQueries4Split(collection, splitCount);
+            List<Bson> ranges = getShardRanges(client, database.getName() + "." + dataset.getCollection(), splitCount);
+            if (ranges.size() < 2) {
+                ranges = getIndexRanges(database, dataset.getCollection(), splitCount);
+            }
+            if (ranges.size() < 2) {
+                BsonDocument filter = hasFilter(query) ? service.getBsonDocument(query) : null;
+                ranges = getSampleRanges(database.getCollection(dataset.getCollection()), filter, splitCount);
+            }
+            result = ranges.stream().map(SplitUtil::filtersToJson).collect(Collectors.toList());
+            if (result.size() > 1) {
+                CachedQueries queries = new CachedQueries(result, System.currentTimeMillis());
+                QUERIES_CACHE.put(cacheKey, queries);
+                return queries.queries;
+            }
         } catch (Exception e) {
             // ignore any exception for split, for example: main node can't reason mongodb
             log.info(e.getMessage(), e);
@@ -84,52 +130,157 @@ public class SplitUtil {
         return 1l;
     }
 
-    // https://docs.mongodb.com/manual/reference/operator/aggregation/bucketAuto/
-    private static List<String> getQueries4Split(final MongoCollection mongoCollection, final int splitCount) {
-        List<String> result = new ArrayList<>();
+    /**
+     * Ranges of chunks of a sharded collection, consecutive chunks of same shard are grouped so each split reads from
+     * a single shard.
+     * https://docs.mongodb.com/manual/reference/config-database/
+     *
+     * @return no range if collection is not sharded or shard key has no plain range (hashed or compound key).
+     */
+    private static List<Bson> getShardRanges(final MongoClient client, final String namespace, final int splitCount) {
+        MongoDatabase config = client.getDatabase("config");
+        BsonDocument collection = config.getCollection("collections", BsonDocument.class).find(Filters.eq(ID, namespace))
+                .first();
+        if (collection == null || collection.getBoolean("dropped", BsonBoolean.FALSE).getValue()) {
+            return Collections.emptyList();
+        }
+        BsonDocument key = collection.getDocument("key");
+        if (key.size() != 1 || !key.values().iterator().next().isNumber()) {
+            return Collections.emptyList();
+        }
+        String field = key.getFirstKey();
 
-        BsonDocument bucketAutoConfig = new BsonDocument();
-        bucketAutoConfig.put("groupBy", new BsonString("$_id"));
-        bucketAutoConfig.put("buckets", new BsonInt32(splitCount));
-        BsonDocument bucketAuto = new BsonDocument("$bucketAuto", bucketAutoConfig);
-        List<BsonDocument> aggregates = new ArrayList<>();
-        aggregates.add(bucketAuto);
-        AggregateIterable<Document> buckets = mongoCollection.aggregate(aggregates).allowDiskUse(true);
+        MongoCollection<BsonDocument> chunks = config.getCollection("chunks", BsonDocument.class);
+        List<BsonDocument> chunkList = chunks.find(Filters.eq("ns", namespace)).sort(Sorts.ascending("min"))
+                .into(new ArrayList<>());
+        if (chunkList.isEmpty() && collection.containsKey("uuid")) {
+            // since mongodb 5.0, chunks refer to collection uuid
+            chunkList = chunks.find(Filters.eq("uuid", collection.get("uuid"))).sort(Sorts.ascending("min"))
+                    .into(new ArrayList<>());
+        }
 
-        // [1,3) [3,5) and so on
-        Iterator<Document> iterator = buckets.iterator();
-        while (iterator.hasNext()) {
-            Document bucket = iterator.next();
-            Document id_document = (Document) bucket.get("_id");
-            Object min = id_document.get("min");
-            Object max = id_document.get("max");
+        List<String> shards = chunkList.stream().map(chunk -> chunk.getString("shard").getValue()).collect(Collectors.toList());
+        List<Object> boundaries = new ArrayList<>();
+        for (int start : groupChunks(shards, splitCount)) {
+            if (start > 0) {
+                boundaries.add(chunkList.get(start).getDocument("min").get(field));
+            }
+        }
+        log.info("split on " + chunkList.size() + " chunks of sharded collection " + namespace);
+        return getRanges(field, boundaries);
+    }
 
-            Bson filters = Filters.and(Filters.gte("_id", min),
-                    iterator.hasNext() ? Filters.lt("_id", max) : Filters.lte("_id", max));
-            String filtersShellJson = filtersToJson(filters);
-            result.add(filtersShellJson);
+    /**
+     * @return index of first chunk of each group of at most ceil(chunks / splitCount) consecutive chunks on same shard.
+     */
+    static List<Integer> groupChunks(final List<String> shards, final int splitCount) {
+        List<Integer> starts = new ArrayList<>();
+        int chunksBySplit = Math.max(1, (shards.size() + splitCount - 1) / splitCount);
+        int start = 0;
+        for (int i = 0; i < shards.size(); i++) {
+            if (i == 0 || i - start == chunksBySplit || !shards.get(i).equals(shards.get(start))) {
+                start = i;
+                starts.add(i);
+            }
         }
+        return starts;
+    }
 
-        return result;
+    /**
+     * Boundaries from _id index, not available through mongos or without splitVector privilege.
+     * https://docs.mongodb.com/manual/reference/command/splitVector/
+     */
+    private static List<Bson> getIndexRanges(final MongoDatabase database, final String collection, final int splitCount) {
+        try {
+            Document stats = database.runCommand(new BsonDocument("collStats", new BsonString(collection)));
+            long size = stats.get("size", Number.class).longValue();
+
+            BsonDocument splitVector = new BsonDocument("splitVector", new BsonString(database.getName() + "." + collection));
+            splitVector.put("keyPattern", new BsonDocument(ID, new BsonInt32(1)));
+            // splitVector cuts chunks at half of max size
+            splitVector.put("maxChunkSizeBytes", new BsonInt64(Math.max(1l, 2 * size / splitCount)));
+            BsonDocument result = database.runCommand(splitVector, BsonDocument.class);
+
+            List<Object> boundaries = result.getArray("splitKeys").stream().map(splitKey -> splitKey.asDocument().get(ID))
+                    .collect(Collectors.toList());
+            return getRanges(ID, boundaries);
+        } catch (Exception e) {
+            log.info("can't split on _id index : " + e.getMessage());
+            return Collections.emptyList();
+        }
     }
 
-    private static String filtersToJson(Bson filters) {
-        BsonDocument document = filters.toBsonDocument(BsonDocument.class, MongoClient.getDefaultCodecRegistry());
-        return document.toJson(JsonWriterSettings.builder().outputMode(JsonMode.SHELL).build());
+    /**
+     * Boundaries from sorted _id of a sample of queried documents.
+     * https://docs.mongodb.com/manual/reference/operator/aggregation/sample/
+     */
+    private static List<Bson> getSampleRanges(final MongoCollection<Document> collection, final BsonDocument filter,
+            final int splitCount) {
+        List<Bson> pipeline = new ArrayList<>();
+        if (filter != null) {
+            pipeline.add(Aggregates.match(filter));
+        }
+        pipeline.add(Aggregates.sample(splitCount * SAMPLES_PER_SPLIT));
+        pipeline.add(Aggregates.project(Projections.include(ID)));
+        pipeline.add(Aggregates.sort(Sorts.ascending(ID)));
+        List<Object> ids = new ArrayList<>();
+        for (Document document : collection.aggregate(pipeline).allowDiskUse(true)) {
+            ids.add(document.get(ID));
+        }
+        return getRanges(ID, getSampleBoundaries(ids, splitCount));
     }
 
-    public static boolean isSplit(String query, Long limit) {
-        // limit is passed by platform, so mean getSample here, so no split as we will set limit for query
-        if (limit != null && limit > 0) {
-            return false;
+    /**
+     * @param ids : sorted sample of _id values.
+     * @return distinct quantiles of sample that cut it in splitCount parts.
+     */
+    static List<Object> getSampleBoundaries(final List<Object> ids, final int splitCount) {
+        List<Object> boundaries = new ArrayList<>();
+        for (int i = 1; i < splitCount; i++) {
+            int index = (int) ((long) i * ids.size() / splitCount);
+            Object id = ids.get(index);
+            if (index > 0 && (boundaries.isEmpty() || !Objects.equals(boundaries.get(boundaries.size() - 1), id))) {
+                boundaries.add(id);
+            }
         }
+        return boundaries;
+    }
 
-        // have set filter, then not split now, maybe should too?
-        if (query == null || query.trim().isEmpty() || "{}".equals(query)) {
-            return true;
+    /**
+     * [ , b1) [b1, b2) ... [bn, ]
+     * first range also keeps documents without field, as the first chunk of a sharded collection does.
+     */
+    static List<Bson> getRanges(final String field, final List<Object> boundaries) {
+        List<Bson> result = new ArrayList<>();
+        if (boundaries.isEmpty()) {
+            return result;
+        }
+        Bson first = Filters.lt(field, boundaries.get(0));
+        result.add(ID.equals(field) ? first : Filters.or(first, Filters.eq(field, null)));
+        for (int i = 1; i < boundaries.size(); i++) {
+            result.add(Filters.and(Filters.gte(field, boundaries.get(i - 1)), Filters.lt(field, boundaries.get(i))));
         }
+        result.add(Filters.gte(field, boundaries.get(boundaries.size() - 1)));
+        return result;
+    }
+
+    static String filtersToJson(Bson filters) {
+        BsonDocument document = filters.toBsonDocument(BsonDocument.class, MongoClient.getDefaultCodecRegistry());
+        return document.toJson(JsonWriterSettings.builder().outputMode(JsonMode.SHELL).build());
+    }
+
+    private static String cacheKey(final MongoDBDataStore datastore, final String collection, final String query,
+            final int splitCount) {
+        return datastore.getAddressType() + "|" + datastore.getAddress() + "|" + datastore.getReplicaSetAddress() + "|"
+                + datastore.getDatabase() + "." + collection + "|" + (hasFilter(query) ? query.trim() : "") + "|"
+                + splitCount;
+    }
 
-        return false;
+    /**
+     * @return true if query filters documents.
+     */
+    public static boolean hasFilter(String query) {
+        return !(query == null || query.trim().isEmpty() || "{}".equals(query.replaceAll("\\s", "")));
     }
 
     public static boolean isSplit(Long limit) {
@@ -141,4 +292,33 @@ public class SplitUtil {
         return true;
     }
 
+    /**
+     * Queries shared by the mappers of several runs, so never modifiable.
+     */
+    static class CachedQueries {
+
+        final List<String> queries;
+
+        private final long time;
+
+        CachedQueries(final List<String> queries, final long time) {
+            this.queries = Collections.unmodifiableList(new ArrayList<>(queries));
+            this.time = time;
+        }
+    }
+
+    private static class QueriesCache extends LinkedHashMap<String, CachedQueries> {
+
+        private static final long serialVersionUID = 6390271840163429876L;
+
+        QueriesCache() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, CachedQueries> eldest) {
+            return this.size() > CACHE_SIZE;
+        }
+    }
+
 }
@@ -46,6 +46,7 @@ import org.talend.components.mongodb.sink.MongoDBSinkConfiguration;
 import org.talend.components.mongodb.source.BaseSourceConfiguration;
 import org.talend.components.mongodb.source.MongoDBCollectionSourceConfiguration;
 import org.talend.components.mongodb.source.MongoDBQuerySourceConfiguration;
+import org.talend.components.mongodb.source.MongoDBReader;
 import org.talend.components.mongodb.source.SplitUtil;
 import org.talend.sdk.component.api.record.Record;
 import org.talend.sdk.component.api.record.Schema;
@@ -838,15 +839,41 @@ public class MongoDBTest {
         MongoDBQuerySourceConfiguration source_config = new MongoDBQuerySourceConfiguration();
         source_config.setDataset(source_dataset);
 
-        Assertions.assertFalse(SplitUtil.isSplit("{ }", null));
-        Assertions.assertFalse(SplitUtil.isSplit(null, 8l));
-        Assertions.assertTrue(SplitUtil.isSplit(null, null));
-        Assertions.assertTrue(SplitUtil.isSplit(null, -1l));
         Assertions.assertFalse(SplitUtil.isSplit(8l));
         Assertions.assertTrue(SplitUtil.isSplit(null));
         Assertions.assertTrue(SplitUtil.isSplit(-1l));
         List<String> result = SplitUtil.getQueries4Split(source_config, new MongoDBService(), 5);
-        Assertions.assertEquals(5, result.size());
+        Assertions.assertTrue(result.size() > 1);
+        Assertions.assertSame(result, SplitUtil.getQueries4Split(source_config, new MongoDBService(), 5));
+
+        // splits cover all documents once
+        MongoCollection<Document> collection = client.getDatabase(DATABASE).getCollection("basic");
+        Assertions.assertEquals(10, result.stream()
+                .mapToLong(query -> collection.countDocuments(mongoDBService.getBsonDocument(query))).sum());
+    }
+
+    @Test
+    void testSplitWithQuery() {
+        MongoDBReadDataSet source_dataset = getMongoDBDataSet("basic");
+        source_dataset.setMode(Mode.JSON);
+        source_dataset.setQuery("{name : \"Wang Wei\"}");
+        MongoDBQuerySourceConfiguration source_config = new MongoDBQuerySourceConfiguration();
+        source_config.setDataset(source_dataset);
+
+        List<String> result = SplitUtil.getQueries4Split(source_config, new MongoDBService(), 2);
+        Assertions.assertTrue(result.size() > 1);
+
+        // user query is applied in each split
+        long count = 0;
+        for (String query : result) {
+            MongoDBReader reader = new MongoDBReader(source_config, mongoDBService, recordBuilderFactory, null, query);
+            reader.init();
+            while (reader.next() != null) {
+                count++;
+            }
+            reader.release();
+        }
+        Assertions.assertEquals(1, count);
     }
 
     @Disabled
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.mongodb.service;
+
+import com.mongodb.MongoClient;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
+import org.talend.sdk.component.runtime.record.RecordBuilderFactoryImpl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare the conversion of synthetic nested documents (sub-documents on 2 levels, arrays of values and of documents,
+ * an optional field) to records : schema inferred for each document as before the shape cache, schema cached by
+ * document shape, schema sampled from the first documents, and bson decoded by {@link RecordCodec} as the reader does.
+ * Run it with the main method, from the test classpath: it isn't run by the build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DocumentToRecordBenchmark {
+
+    private static final int DOCUMENTS = 10_000;
+
+    private final RecordBuilderFactory factory = new RecordBuilderFactoryImpl("benchmark");
+
+    private List<Document> documents;
+
+    private List<RawBsonDocument> bsonDocuments;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        documents = new ArrayList<>(DOCUMENTS);
+        bsonDocuments = new ArrayList<>(DOCUMENTS);
+        final DocumentCodec codec = new DocumentCodec();
+        for (int i = 0; i < DOCUMENTS; i++) {
+            final Document document = document(i);
+            documents.add(document);
+            bsonDocuments.add(new RawBsonDocument(document, codec));
+        }
+    }
+
+    @Benchmark
+    public void inferEachDocument(final Blackhole blackhole) {
+        final DocumentToRecord toRecord = new DocumentToRecord(factory, 0);
+        for (Document document : documents) {
+            blackhole.consume(toRecord.toRecord(document));
+        }
+    }
+
+    @Benchmark
+    public void shapeCache(final Blackhole blackhole) {
+        final DocumentToRecord toRecord = new DocumentToRecord(factory);
+        for (Document document : documents) {
+            blackhole.consume(toRecord.toRecord(document));
+        }
+    }
+
+    @Benchmark
+    public void sampledSchema(final Blackhole blackhole) {
+        final Iterator<Record> records = new DocumentToRecord(factory).toRecords(documents.iterator(), 100);
+        while (records.hasNext()) {
+            blackhole.consume(records.next());
+        }
+    }
+
+    @Benchmark
+    public void bsonCodec(final Blackhole blackhole) {
+        final RecordCodec codec = new RecordCodec(factory, MongoClient.getDefaultCodecRegistry());
+        for (RawBsonDocument document : bsonDocuments) {
+            blackhole.consume(document.decode(codec));
+        }
+    }
+
+    private static Document document(final int index) {
+        final List<Document> items = new ArrayList<>(3);
+        for (int i = 0; i < 3; i++) {
+            items.add(new Document("sku", "sku" + (index + i) % 500).append("quantity", i + 1).append("price",
+                    9.99d * (i + 1)));
+        }
+        final Document document = new Document("_id", new ObjectId()) //
+                .append("id", index) //
+                .append("name", "customer " + index) //
+                .append("created", new Date(1_500_000_000_000L + index * 1000L)) //
+                .append("amount", index * 1.5d) //
+                .append("address", new Document("street", index + " main street") //
+                        .append("zip", 10_000 + index % 90_000) //
+                        .append("geo", new Document("lat", 48.5d + index % 10).append("lon", 2.25d + index % 20))) //
+                .append("tags", Arrays.asList("t" + index % 7, "t" + index % 11)) //
+                .append("items", items);
+        if (index % 10 == 0) {
+            document.append("note", "note " + index);
+        }
+        return document;
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DocumentToRecordBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class).build()).run();
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.mongodb.service;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+import org.talend.sdk.component.runtime.record.RecordBuilderFactoryImpl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+class DocumentToRecordTest {
+
+    private final RecordBuilderFactoryImpl factory = new RecordBuilderFactoryImpl("test");
+
+    @Test
+    void schemaCache() {
+        final List<Document> documents = Arrays.asList(person(1, "Peter"), person(2, "Steve"), person(3, null),
+                person(4, "Grigori").append("extra", 1L), person(5, "Alan"),
+                // array of documents with other merged fields
+                person(6, "Ada").append("items",
+                        Arrays.asList(new Document("sku", "x"), new Document("sku", "y").append("qty", 2))),
+                person(7, "Linus"));
+
+        final DocumentToRecord cached = new DocumentToRecord(factory);
+        final DocumentToRecord uncached = new DocumentToRecord(factory, 0);
+        for (Document document : documents) {
+            final Record record = cached.toRecord(document);
+            final Record expected = uncached.toRecord(document);
+            Assertions.assertEquals(cached.inferSchema(document), record.getSchema());
+            Assertions.assertEquals(expected.getSchema(), record.getSchema());
+            Assertions.assertEquals(expected.getString("_id"), record.getString("_id"));
+            Assertions.assertEquals(expected.getOptionalString("name"), record.getOptionalString("name"));
+            Assertions.assertEquals(expected.getRecord("address").getInt("zip"), record.getRecord("address").getInt("zip"));
+            Assertions.assertEquals(expected.getArray(Record.class, "items").size(),
+                    record.getArray(Record.class, "items").size());
+        }
+        Assertions.assertEquals(3L, cached.getSchemaCache().getHits());
+        Assertions.assertEquals(4L, cached.getSchemaCache().getMisses());
+        Assertions.assertEquals(3.0 / 7.0, cached.getSchemaCache().getHitRatio(), 0.001);
+        Assertions.assertEquals(0L, uncached.getSchemaCache().getHits());
+
+        final Schema itemSchema = cached.toRecord(documents.get(5)).getSchema().getEntries().stream()
+                .filter((Schema.Entry e) -> "items".equals(e.getName())).findFirst().get().getElementSchema()
+                .getElementSchema();
+        Assertions.assertEquals(2, itemSchema.getEntries().size());
+    }
+
+    @Test
+    void arrayOfDocumentsShape() {
+        final List<Document> documents = Arrays.asList(
+                // same fields, merged document has values of last one.
+                new Document("items", Arrays.asList(new Document("a", 1).append("b", "x"), new Document("a", 2).append("b", "y"))),
+                new Document("items", Arrays.asList(new Document("a", 1).append("b", new Document("c", 1)),
+                        new Document("a", 2).append("b", new Document("c", 2).append("d", "x")))),
+                new Document("items", Arrays.asList(new Document("a", 1).append("b", "x"), new Document("a", 2).append("b", "y"),
+                        new Document("a", 3).append("b", "z"))),
+                // other fields or other order, merged by first appearance.
+                new Document("items", Arrays.asList(new Document("a", 1), new Document("b", "x").append("a", 2))),
+                new Document("items", Arrays.asList(new Document("b", "x"), new Document("a", 1).append("b", "y"))),
+                new Document("items", Arrays.asList(new Document("a", 1), new Document("b", "x"), new Document("a", 2))));
+
+        final DocumentToRecord cached = new DocumentToRecord(factory);
+        final DocumentToRecord uncached = new DocumentToRecord(factory, 0);
+        for (Document document : documents) {
+            Assertions.assertEquals(uncached.toRecord(document).getSchema(), cached.toRecord(document).getSchema());
+        }
+        Assertions.assertEquals(3L, cached.getSchemaCache().getHits());
+        Assertions.assertEquals(3L, cached.getSchemaCache().getMisses());
+    }
+
+    @Test
+    void sampledSchema() {
+        final List<Document> documents = Arrays.asList(new Document("id", 1).append("name", "Peter"),
+                new Document("id", 2).append("name", null).append("address", new Document("zip", 1000)),
+                new Document("id", 3).append("name", "Steve"), // fields of the sample
+                new Document("id", 4).append("address", null), // null value
+                new Document("id", 5).append("vip", true), // field not in sample
+                new Document("id", "6")); // other type
+
+        final DocumentToRecord toRecord = new DocumentToRecord(factory);
+        final List<Record> records = new ArrayList<>();
+        toRecord.toRecords(documents.iterator(), 2).forEachRemaining(records::add);
+
+        Assertions.assertEquals(6, records.size());
+        final Schema sampled = records.get(0).getSchema();
+        Assertions.assertEquals(3, sampled.getEntries().size());
+        Assertions.assertTrue(sampled.getEntries().stream().allMatch(Schema.Entry::isNullable));
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertEquals(sampled, records.get(i).getSchema());
+            Assertions.assertEquals(i + 1, records.get(i).getInt("id"));
+        }
+        Assertions.assertNull(records.get(0).getRecord("address"));
+        Assertions.assertEquals(1000, records.get(1).getRecord("address").getInt("zip"));
+        Assertions.assertNull(records.get(1).getString("name"));
+        Assertions.assertEquals("Steve", records.get(2).getString("name"));
+        Assertions.assertNull(records.get(3).getRecord("address"));
+
+        Assertions.assertEquals(toRecord.inferSchema(documents.get(4)), records.get(4).getSchema());
+        Assertions.assertTrue(records.get(4).getBoolean("vip"));
+        Assertions.assertEquals("6", records.get(5).getString("id"));
+    }
+
+    private Document person(int id, String name) {
+        return new Document("_id", new ObjectId()) //
+                .append("id", id) //
+                .append("name", name) //
+                .append("created", new Date()) //
+                .append("address", new Document("street", "street " + id).append("zip", 1000 + id)) //
+                .append("tags", Collections.singletonList("tag")) //
+                .append("items", Collections.singletonList(new Document("sku", "s" + id)));
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.mongodb.service;
+
+import com.mongodb.MongoClient;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentWriter;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.Code;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.runtime.record.RecordBuilderFactoryImpl;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+class RecordCodecTest {
+
+    private final RecordBuilderFactoryImpl factory = new RecordBuilderFactoryImpl("test");
+
+    @Test
+    void decode() {
+        final List<Document> documents = Arrays.asList(document(1, "Peter"), document(2, null), document(3, "Steve"),
+                document(4, "Ada").append("extra", new Code("function() {}")),
+                // documents of array in other order, with other merged fields
+                document(5, "Alan").append("items",
+                        Arrays.asList(new Document("qty", 3).append("sku", "x"), new Document("sku", "y").append("qty", 2))),
+                document(6, "Linus"));
+
+        final RecordCodec codec = new RecordCodec(factory, MongoClient.getDefaultCodecRegistry());
+        final DocumentToRecord documentToRecord = new DocumentToRecord(factory, 0);
+        for (Document document : documents) {
+            final Record expected = documentToRecord.toRecord(document);
+            final Record record = this.decode(codec, document);
+            Assertions.assertEquals(expected.getSchema(), record.getSchema());
+            Assertions.assertEquals(expected.toString(), record.toString());
+        }
+        Assertions.assertEquals(2L, codec.getPlanCache().getHits());
+        Assertions.assertEquals(4L, codec.getPlanCache().getMisses());
+    }
+
+    @Test
+    void decodeOtherShapes() {
+        final Document twoItems = document(1, "Peter").append("items",
+                Arrays.asList(new Document("sku", "x").append("qty", 1), new Document("sku", "y").append("qty", 2)));
+        final Document mergedItems = document(2, "Steve").append("items",
+                Arrays.asList(new Document("sku", "x"), new Document("sku", "y").append("qty", 2)));
+        final List<Document> documents = Arrays.asList(document(1, "Peter"), twoItems, twoItems, mergedItems, mergedItems,
+                document(3, "Ada").append("tags", Collections.emptyList()), document(4, "Ada").append("tags", Arrays.asList("a")),
+                document(5, "Ada").append("tags", Arrays.asList(null, "b")), document(6, "Alan").append("id", 6L),
+                document(7, "Alan").append("aLongFieldName", 7), document(8, "Alan").append("aLongFieldName", 8),
+                new Document("name", "Linus").append("id", 9), new Document("id", 9).append("name", "Linus"),
+                new Document("id", 9), document(10, "Grace"));
+
+        final RecordCodec codec = new RecordCodec(factory, MongoClient.getDefaultCodecRegistry());
+        final DocumentToRecord documentToRecord = new DocumentToRecord(factory, 0);
+        for (Document document : documents) {
+            final Record expected = documentToRecord.toRecord(document);
+            final Record record = this.decode(codec, document);
+            Assertions.assertEquals(expected.getSchema(), record.getSchema());
+            Assertions.assertEquals(expected.toString(), record.toString());
+        }
+        // merged items have shape of twoItems ones, tags ["a"] and last document have shape of first one.
+        Assertions.assertEquals(6L, codec.getPlanCache().getHits());
+        Assertions.assertEquals(9L, codec.getPlanCache().getMisses());
+    }
+
+    @Test
+    void encode() {
+        final RecordCodec codec = new RecordCodec(factory, MongoClient.getDefaultCodecRegistry());
+        final Record record = factory.newRecordBuilder().withString("name", "Peter").withInt("id", 1)
+                .withRecord("address", factory.newRecordBuilder().withInt("zip", 1001).build()).build();
+
+        final BsonDocument bson = new BsonDocument();
+        try (BsonDocumentWriter writer = new BsonDocumentWriter(bson)) {
+            codec.encode(writer, record, EncoderContext.builder().build());
+        }
+        Assertions.assertEquals("Peter", bson.getString("name").getValue());
+        Assertions.assertEquals(1, bson.getInt32("id").getValue());
+        Assertions.assertEquals(1001, bson.getDocument("address").getInt32("zip").getValue());
+    }
+
+    private Record decode(final RecordCodec codec, final Document document) {
+        final RawBsonDocument raw = new RawBsonDocument(document, new DocumentCodec());
+        try (BsonBinaryReader reader = new BsonBinaryReader(raw.getByteBuffer().asNIO())) {
+            return codec.decode(reader, DecoderContext.builder().build());
+        }
+    }
+
+    private Document document(int id, String name) {
+        return new Document("_id", new ObjectId()) //
+                .append("id", id) //
+                .append("name", name) //
+                .append("amount", new Decimal128(new BigDecimal("12.50"))) //
+                .append("count", 10L * id) //
+                .append("ratio", 0.5d * id) //
+                .append("active", id % 2 == 0) //
+                .append("created", new Date(1_000_000L * id)) //
+                .append("address", new Document("street", "street " + id).append("zip", 1000 + id)) //
+                .append("tags", Arrays.asList("a", "b")) //
+                .append("matrix", Arrays.asList(Arrays.asList(1, 2), Collections.singletonList(3))) //
+                .append("items", Collections.singletonList(new Document("sku", "s" + id)));
+    }
+}
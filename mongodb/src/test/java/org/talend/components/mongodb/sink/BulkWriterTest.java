@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.mongodb.sink;
+
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class BulkWriterTest {
+
+    @Test
+    void boundedByCount() {
+        final List<Integer> batches = new ArrayList<>();
+        try (BulkWriter writer = new BulkWriter(models -> batches.add(models.size()), 3, Long.MAX_VALUE, 1)) {
+            for (int i = 0; i < 7; i++) {
+                writer.add(model(i), 10);
+            }
+            // sent while documents arrive
+            Assertions.assertEquals(Arrays.asList(3, 3), batches);
+            writer.await();
+        }
+        Assertions.assertEquals(Arrays.asList(3, 3, 1), batches);
+    }
+
+    @Test
+    void boundedBySize() {
+        final List<Integer> batches = new ArrayList<>();
+        try (BulkWriter writer = new BulkWriter(models -> batches.add(models.size()), 100, 25, 1)) {
+            for (int i = 0; i < 5; i++) {
+                writer.add(model(i), 10);
+            }
+            // a document bigger than the limit is sent alone
+            writer.add(model(5), 100);
+            writer.await();
+        }
+        Assertions.assertEquals(Arrays.asList(2, 2, 1, 1), batches);
+    }
+
+    @Test
+    void concurrent() {
+        final List<WriteModel<Document>> written = new CopyOnWriteArrayList<>();
+        final Set<String> threads = ConcurrentHashMap.newKeySet();
+        try (BulkWriter writer = new BulkWriter(models -> {
+            threads.add(Thread.currentThread().getName());
+            written.addAll(models);
+        }, 10, Long.MAX_VALUE, 4)) {
+            for (int i = 0; i < 1000; i++) {
+                writer.add(model(i), 10);
+            }
+            writer.await();
+        }
+        Assertions.assertEquals(1000, written.size());
+        Assertions.assertFalse(threads.contains(Thread.currentThread().getName()));
+    }
+
+    @Test
+    void failure() {
+        final AtomicInteger calls = new AtomicInteger();
+        try (BulkWriter writer = new BulkWriter(models -> {
+            if (calls.incrementAndGet() == 2) {
+                throw new IllegalArgumentException("duplicate key");
+            }
+        }, 1, Long.MAX_VALUE, 2)) {
+            writer.add(model(1), 10);
+            writer.add(model(2), 10);
+            Assertions.assertThrows(IllegalArgumentException.class, writer::await);
+        }
+    }
+
+    @Test
+    void estimateSize() {
+        final Document document = new Document("_id", new ObjectId()).append("name", "Peter").append("age", 42)
+                .append("created", new Date()).append("address", new Document("city", "Paris").append("zip", 75000L))
+                .append("tags", Arrays.asList("a", "b")).append("empty", Collections.emptyList()).append("none", null);
+        final long expected = new RawBsonDocument(document, new DocumentCodec()).getByteBuffer().remaining();
+        Assertions.assertEquals(expected, BulkWriter.estimateSize(document));
+    }
+
+    private WriteModel<Document> model(final int id) {
+        return new InsertOneModel<>(new Document("id", id));
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.mongodb.source;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+class SplitUtilTest {
+
+    @Test
+    void groupChunks() {
+        // never more than 2 chunks by split, never 2 shards in one split
+        Assertions.assertEquals(Arrays.asList(0, 2, 3, 4, 6),
+                SplitUtil.groupChunks(Arrays.asList("s1", "s1", "s1", "s2", "s1", "s1", "s1"), 4));
+        Assertions.assertEquals(Arrays.asList(0, 1, 2), SplitUtil.groupChunks(Arrays.asList("s1", "s2", "s1"), 10));
+        Assertions.assertEquals(Collections.emptyList(), SplitUtil.groupChunks(Collections.emptyList(), 3));
+    }
+
+    @Test
+    void sampleBoundaries() {
+        final List<Object> ids = Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+        Assertions.assertEquals(Arrays.asList(4, 7), SplitUtil.getSampleBoundaries(ids, 3));
+        // duplicated quantiles are merged
+        Assertions.assertEquals(Arrays.asList(2), SplitUtil.getSampleBoundaries(Arrays.asList(1, 2, 2, 2), 4));
+        Assertions.assertEquals(Collections.emptyList(), SplitUtil.getSampleBoundaries(Arrays.asList(1), 2));
+    }
+
+    @Test
+    void ranges() {
+        final List<String> ranges = SplitUtil.getRanges("_id", Arrays.asList(4, 7)).stream().map(SplitUtil::filtersToJson)
+                .collect(Collectors.toList());
+        Assertions.assertEquals(Arrays.asList("{\"_id\": {\"$lt\": 4}}", "{\"_id\": {\"$gte\": 4, \"$lt\": 7}}",
+                "{\"_id\": {\"$gte\": 7}}"), ranges);
+
+        // first range of other shard key keeps documents without it
+        Assertions.assertEquals("{\"$or\": [{\"key\": {\"$lt\": 4}}, {\"key\": null}]}",
+                SplitUtil.filtersToJson(SplitUtil.getRanges("key", Arrays.asList(4)).get(0)));
+        Assertions.assertTrue(SplitUtil.getRanges("_id", Collections.emptyList()).isEmpty());
+    }
+
+    @Test
+    void hasFilter() {
+        Assertions.assertFalse(SplitUtil.hasFilter(null));
+        Assertions.assertFalse(SplitUtil.hasFilter(" "));
+        Assertions.assertFalse(SplitUtil.hasFilter("{ }"));
+        Assertions.assertTrue(SplitUtil.hasFilter("{name : \"Wang Wei\"}"));
+    }
+
+    @Test
+    void cachedQueriesAreUnmodifiable() {
+        final List<String> queries = new ArrayList<>(Arrays.asList("{\"_id\": {\"$lt\": 4}}", "{\"_id\": {\"$gte\": 4}}"));
+        final List<String> cached = new SplitUtil.CachedQueries(queries, 0).queries;
+        queries.clear();
+        Assertions.assertEquals(2, cached.size());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> cached.add("{}"));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> cached.set(0, "{}"));
+    }
+}